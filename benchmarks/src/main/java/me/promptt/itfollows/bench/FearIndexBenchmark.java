@@ -0,0 +1,82 @@
+package me.promptt.itfollows.bench;
+
+import me.promptt.itfollows.ai.FearIndex;
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The fear source index over the same synthetic volumes as {@link FearScanBenchmark}.
+ *
+ * Densities stop at 0.01: every source is listed in each column of its disk, so a volume where
+ * a tenth of all blocks are torches of radius 32 would need more memory than the plugin allows a
+ * world's index (it falls back to the block scan there).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FearIndexBenchmark {
+
+    /** Default perimeter buffer from config.yml. */
+    private static final double PERIMETER_BUFFER = 0.75;
+
+    @Param({"8", "16", "32"})
+    public int radius;
+
+    @Param({"0", "0.0005", "0.01"})
+    public double density;
+
+    private FearIndex index;
+    private FearType original;
+    private final FearHit hit = new FearHit();
+
+    @Setup
+    public void setup() {
+        int half = radius + 2;
+        SyntheticFearVolume volume = new SyntheticFearVolume(half, density, 0x5EEDL);
+        FearScanner scanner = new FearScanner();
+        for (FearType type : FearType.values()) {
+            scanner.setRadius(type, radius);
+        }
+        index = new FearIndex(scanner, PERIMETER_BUFFER);
+        for (int x = -half; x <= half; x++) {
+            for (int y = -half; y <= half; y++) {
+                for (int z = -half; z <= half; z++) {
+                    FearType type = volume.fearAt(x, y, z);
+                    if (type != null) index.setSource(x, y, z, type);
+                }
+            }
+        }
+        original = volume.fearAt(0, 0, 0);
+    }
+
+    /** Stalker-side lookup (same answer as {@link FearScanBenchmark#fearScan}). */
+    @Benchmark
+    public FearHit fearIndexLookup() {
+        return index.nearest(0, 0, 0, PERIMETER_BUFFER, hit);
+    }
+
+    /** Placing and removing a soul torch at the center, with the index updates both trigger. */
+    @Benchmark
+    public long fearIndexToggle() {
+        index.setSource(0, 0, 0, original == FearType.SOUL_TORCH ? null : FearType.SOUL_TORCH);
+        index.setSource(0, 0, 0, original);
+        return index.entriesUpdated();
+    }
+}
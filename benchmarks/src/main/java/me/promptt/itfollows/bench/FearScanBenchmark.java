@@ -0,0 +1,67 @@
+package me.promptt.itfollows.bench;
+
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fear scanners over synthetic block volumes.
+ *
+ * {@code radius} is the fear radius applied to every fear type (the scan cube grows with it),
+ * {@code density} is the fraction of blocks in the volume that are feared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FearScanBenchmark {
+
+    /** Default perimeter buffer from config.yml. */
+    private static final double PERIMETER_BUFFER = 0.75;
+
+    @Param({"8", "16", "32"})
+    public int radius;
+
+    @Param({"0", "0.0005", "0.01", "0.1"})
+    public double density;
+
+    private SyntheticFearVolume volume;
+    private FearScanner scanner;
+    private final FearHit hit = new FearHit();
+
+    @Setup
+    public void setup() {
+        volume = new SyntheticFearVolume(radius + 2, density, 0x5EEDL);
+        scanner = new FearScanner();
+        for (FearType type : FearType.values()) {
+            scanner.setRadius(type, radius);
+        }
+    }
+
+    /** Stalker-side scan (base radius + perimeter buffer). */
+    @Benchmark
+    public FearHit fearScan() {
+        return scanner.scanNearest(volume, 0, 0, 0, PERIMETER_BUFFER, hit);
+    }
+
+    /** Victim-protection scan (base radius only). */
+    @Benchmark
+    public FearHit victimProtectionScan() {
+        return scanner.scanNearest(volume, 0, 0, 0, 0.0, hit);
+    }
+}
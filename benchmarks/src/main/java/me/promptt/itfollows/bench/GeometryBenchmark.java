@@ -0,0 +1,89 @@
+package me.promptt.itfollows.bench;
+
+import me.promptt.itfollows.ai.FearGeometry;
+import me.promptt.itfollows.ai.Vec3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fear-navigation geometry routines over a fixed set of random cases
+ * (stalker, victim and fear center within a 64-block box, radius 4..32).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+
+    /** Number of pre-generated cases (power of two so the cursor can wrap with a mask). */
+    private static final int CASES = 1024;
+
+    /** Per case: mob xyz, victim xyz, center xyz, radius. */
+    private static final int STRIDE = 10;
+
+    private final double[] cases = new double[CASES * STRIDE];
+    private int cursor;
+    private final Vec3 out = new Vec3();
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < CASES; i++) {
+            int o = i * STRIDE;
+            for (int k = 0; k < 9; k++) {
+                cases[o + k] = random.nextDouble(-32.0, 32.0);
+            }
+            cases[o + 9] = random.nextDouble(4.0, 32.0);
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (CASES - 1);
+        return cursor * STRIDE;
+    }
+
+    @Benchmark
+    public boolean segmentIntersectsSphere() {
+        int o = next();
+        double[] c = cases;
+        return FearGeometry.segmentIntersectsSphere(c[o], c[o + 1], c[o + 2], c[o + 3], c[o + 4], c[o + 5],
+                c[o + 6], c[o + 7], c[o + 8], c[o + 9]);
+    }
+
+    @Benchmark
+    public boolean segmentIntersectsCircleXZ() {
+        int o = next();
+        double[] c = cases;
+        return FearGeometry.segmentIntersectsCircleXZ(c[o], c[o + 2], c[o + 3], c[o + 5],
+                c[o + 6], c[o + 8], c[o + 9]);
+    }
+
+    @Benchmark
+    public Vec3 perimeterPoint() {
+        int o = next();
+        double[] c = cases;
+        return FearGeometry.perimeterPoint(c[o + 6], c[o + 7], c[o + 8], c[o], c[o + 2], c[o + 9], c[o + 1], out);
+    }
+
+    @Benchmark
+    public Vec3 stepAlongPerimeterTowardsVictim() {
+        int o = next();
+        double[] c = cases;
+        return FearGeometry.stepAlongPerimeterTowardsVictim(c[o + 6], c[o + 7], c[o + 8],
+                c[o], c[o + 1], c[o + 2], c[o + 3], c[o + 5],
+                c[o + 9], 0, 6.0, 0.75, out);
+    }
+}
@@ -0,0 +1,49 @@
+package me.promptt.itfollows.bench;
+
+import me.promptt.itfollows.ai.FearLookup;
+import me.promptt.itfollows.ai.FearType;
+
+import java.util.SplittableRandom;
+
+/**
+ * A cube of voxels centered on the origin with a given fraction of feared blocks.
+ * Everything outside the cube reads as air.
+ */
+final class SyntheticFearVolume implements FearLookup {
+
+    private static final FearType[] TYPES = FearType.values();
+
+    private final int halfSize;
+    private final int size;
+    private final byte[] cells;
+
+    /**
+     * @param halfSize half the cube edge length (blocks)
+     * @param density  fraction of voxels (0..1) holding a feared block
+     * @param seed     fixed seed so runs are comparable
+     */
+    SyntheticFearVolume(int halfSize, double density, long seed) {
+        this.halfSize = halfSize;
+        this.size = halfSize * 2 + 1;
+        this.cells = new byte[size * size * size];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextDouble() < density) {
+                // 0 = air, 1..n = FearType ordinal + 1
+                cells[i] = (byte) (1 + random.nextInt(TYPES.length));
+            }
+        }
+    }
+
+    @Override
+    public FearType fearAt(int x, int y, int z) {
+        int ix = x + halfSize;
+        int iy = y + halfSize;
+        int iz = z + halfSize;
+        if (ix < 0 || iy < 0 || iz < 0 || ix >= size || iy >= size || iz >= size) return null;
+
+        byte cell = cells[(ix * size + iy) * size + iz];
+        return (cell == 0) ? null : TYPES[cell - 1];
+    }
+}
@@ -0,0 +1,62 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.api.event.CurseTransferEvent;
+import me.promptt.itfollows.api.event.FearHoldStartEvent;
+import me.promptt.itfollows.api.event.FearHoldStopEvent;
+import me.promptt.itfollows.api.event.StalkerMorphEvent;
+import me.promptt.itfollows.api.event.StalkerSpawnEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * ApiEvents
+ *
+ * Fires the public API events. Each method first checks the event's {@link HandlerList} and
+ * returns before allocating anything when no plugin listens, so a server without integrations
+ * pays one array length check per call site.
+ */
+final class ApiEvents {
+
+    private ApiEvents() {
+    }
+
+    private static boolean listened(HandlerList handlers) {
+        return handlers.getRegisteredListeners().length != 0;
+    }
+
+    /** @return false if a listener cancelled the transfer */
+    static boolean curseTransfer(UUID previousHolder, Player newHolder, CurseTransferEvent.Cause cause) {
+        if (!listened(CurseTransferEvent.getHandlerList())) return true;
+        CurseTransferEvent event = new CurseTransferEvent(previousHolder, newHolder, cause);
+        Bukkit.getPluginManager().callEvent(event);
+        return !event.isCancelled();
+    }
+
+    static void stalkerSpawn(Entity stalker, Player target) {
+        if (!listened(StalkerSpawnEvent.getHandlerList())) return;
+        Bukkit.getPluginManager().callEvent(new StalkerSpawnEvent(stalker, target));
+    }
+
+    static void stalkerMorph(EntityType fromType, Entity stalker, Player target) {
+        if (!listened(StalkerMorphEvent.getHandlerList())) return;
+        Bukkit.getPluginManager().callEvent(new StalkerMorphEvent(fromType, stalker, target));
+    }
+
+    static void fearHoldStart(Player victim, Entity stalker, World world, FearHit source) {
+        if (!listened(FearHoldStartEvent.getHandlerList())) return;
+        Bukkit.getPluginManager().callEvent(new FearHoldStartEvent(victim, stalker,
+                world.getBlockAt(source.blockX(), source.blockY(), source.blockZ()), source.type()));
+    }
+
+    static void fearHoldStop(UUID victim) {
+        if (!listened(FearHoldStopEvent.getHandlerList())) return;
+        Bukkit.getPluginManager().callEvent(new FearHoldStopEvent(victim));
+    }
+}
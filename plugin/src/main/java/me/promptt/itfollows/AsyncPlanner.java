@@ -0,0 +1,205 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.PlannedBody;
+import me.promptt.itfollows.ai.PursuitBrain;
+import me.promptt.itfollows.ai.VictimSnapshot;
+import me.promptt.itfollows.trace.TrajectoryFrame;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AsyncPlanner
+ *
+ * Runs {@link PursuitBrain#update} on a worker thread. The main thread captures a snapshot of
+ * the stalker, the victim and the (already scanned) fear sources into one of two {@link Plan}
+ * slots and submits it; on the next AI update it applies the finished plan's recorded commands
+ * to the live stalker and submits the other slot. Decisions therefore lag one update behind, in
+ * exchange for keeping the navigation math off the server thread.
+ *
+ * While this planner is running the worker owns the brain and its fear radii; the main thread
+ * must go through {@link #discard}, {@link #setRadii} and {@link #setAvoidance} instead of
+ * touching their state.
+ */
+final class AsyncPlanner {
+
+    /** One buffered decision: inputs captured on the main thread, outputs filled by the worker. */
+    static final class Plan {
+        final PlannedBody body = new PlannedBody();
+        final VictimSnapshot victim = new VictimSnapshot();
+        /** Where the chase heads (the victim itself unless interception is on). */
+        final VictimSnapshot aim = new VictimSnapshot();
+        private final FearHit protection = new FearHit();
+        private final FearHit fear = new FearHit();
+        private boolean hasProtection;
+        private boolean hasFear;
+        long nowMs;
+        /** Entity the snapshot was taken from; the plan is dropped if the stalker changed since. */
+        int entityId;
+        private boolean resetOrbit;
+        /** Fear radii and avoidance tuning the brain runs this plan with. */
+        private final FearScanner radii = new FearScanner();
+        private double perimeterBuffer;
+        private double stepDistance;
+
+        /** Inputs to record alongside the decision, or null when not recording. */
+        TrajectoryFrame frame;
+        private final TrajectoryFrame frameSlot = new TrajectoryFrame();
+
+        PursuitBrain.Outcome outcome;
+
+        void setProtection(FearHit hit) {
+            hasProtection = hit != null;
+            if (hit != null) protection.set(hit.type(), hit.blockX(), hit.blockY(), hit.blockZ());
+        }
+
+        void setFear(FearHit hit) {
+            hasFear = hit != null;
+            if (hit != null) fear.set(hit.type(), hit.blockX(), hit.blockY(), hit.blockZ());
+        }
+
+        /** @return this plan's reusable frame, to be filled by the caller when recording */
+        TrajectoryFrame frameSlot() {
+            return frameSlot;
+        }
+    }
+
+    private final PursuitBrain brain;
+    /** The radii the brain reads; written by the worker only. */
+    private final FearScanner brainRadii;
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    private final Plan[] plans = {new Plan(), new Plan()};
+    private int nextSlot;
+
+    private Future<?> inFlight;
+    private Plan inFlightPlan;
+    private boolean resetOrbit;
+    private final FearScanner radii = new FearScanner();
+    private double perimeterBuffer = 0.75;
+    private double stepDistance = 6.0;
+
+    /** @param brainRadii the radii {@code brain} was created with */
+    AsyncPlanner(PursuitBrain brain, FearScanner brainRadii, Logger logger) {
+        this.brain = brain;
+        this.brainRadii = brainRadii;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ItStalks-Planner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the submitted plan once the worker finished it (at most once per plan), or null if
+     *         none is pending or it is still running
+     */
+    Plan poll() {
+        if (inFlight == null || !inFlight.isDone()) return null;
+        Future<?> done = inFlight;
+        Plan plan = inFlightPlan;
+        inFlight = null;
+        inFlightPlan = null;
+        try {
+            done.get();
+            return plan;
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Stalker planning failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /** @return true while a plan is still being computed (a new one cannot be submitted yet) */
+    boolean isBusy() {
+        return inFlight != null;
+    }
+
+    /** @return the free slot to capture the next snapshot into */
+    Plan nextPlan() {
+        Plan plan = plans[nextSlot];
+        plan.frame = null;
+        plan.outcome = null;
+        return plan;
+    }
+
+    void submit(Plan plan) {
+        if (inFlight != null) throw new IllegalStateException("A plan is already in flight");
+        plan.resetOrbit = resetOrbit;
+        resetOrbit = false;
+        plan.radii.copyRadii(radii);
+        plan.perimeterBuffer = perimeterBuffer;
+        plan.stepDistance = stepDistance;
+        nextSlot ^= 1;
+        inFlightPlan = plan;
+        inFlight = executor.submit(() -> compute(plan));
+    }
+
+    /**
+     * Fear radii for the following plans, copied from {@code source}. Every plan carries its own
+     * copy and the worker applies it first, so a plan dropped by {@link #discard} loses nothing.
+     */
+    void setRadii(FearScanner source) {
+        radii.copyRadii(source);
+    }
+
+    /** Avoidance tuning ({@link PursuitBrain#setAvoidance}) for the following plans, carried like the radii. */
+    void setAvoidance(double perimeterBuffer, double stepDistance) {
+        this.perimeterBuffer = perimeterBuffer;
+        this.stepDistance = stepDistance;
+    }
+
+    /**
+     * Drops any pending result; the next plan starts from fresh orbit state. Called when the plan
+     * went stale: the stalker despawned, respawned or morphed, or the curse changed hands.
+     */
+    void discard() {
+        if (inFlight != null) inFlight.cancel(false);
+        inFlight = null;
+        inFlightPlan = null;
+        resetOrbit = true;
+    }
+
+    /** Stops the worker, waiting briefly for a running plan so the brain is free again afterwards. */
+    void shutdown() {
+        discard();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Worker ---
+
+    private void compute(Plan plan) {
+        if (plan.resetOrbit) brain.clearOrbitState();
+        brainRadii.copyRadii(plan.radii);
+        brain.setAvoidance(plan.perimeterBuffer, plan.stepDistance);
+        plan.outcome = brain.update(plan.body, plan.victim, plan.aim,
+                plan.hasProtection ? plan.protection : null,
+                plan.hasFear ? plan.fear : null,
+                plan.nowMs);
+
+        TrajectoryFrame frame = plan.frame;
+        if (frame != null) {
+            frame.setDecision(plan.outcome, brain);
+            frame.moved = plan.body.moved();
+            frame.moveX = plan.body.moveX();
+            frame.moveY = plan.body.moveY();
+            frame.moveZ = plan.body.moveZ();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package me.promptt.itfollows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BehaviorTree
+ *
+ * A sequence of behavior nodes with dirty-flag re-evaluation. Each node declares the inputs it
+ * depends on (bits such as {@link #VICTIM_MOVED} or {@link #FORM_CHANGED}); the tick loop reports
+ * which inputs changed, and a node only runs when one of its inputs changed since it last ran.
+ * A skipped node keeps the result of its last run, so a node that stopped the sequence (e.g. the
+ * stalker holding at a fear perimeter) keeps stopping it until its inputs change.
+ *
+ * Changes are accumulated per node, so a node that was not reached during an update (because an
+ * earlier node stopped the sequence) still sees them the next time it is reached.
+ *
+ * Each node keeps its own run/skip counters and, while timing is on, a duration histogram.
+ *
+ * @param <C> per-update context handed to the node actions
+ */
+final class BehaviorTree<C> {
+
+    // --- Inputs ---
+
+    /** The victim entered another block. */
+    static final int VICTIM_MOVED = 1;
+    /** The stalker entered another block. */
+    static final int STALKER_MOVED = 1 << 1;
+    /** The nearest fear source around the stalker or the victim's protection source changed. */
+    static final int FEAR_CHANGED = 1 << 2;
+    /** The stalker entity was replaced (spawn, morph, respawn). */
+    static final int FORM_CHANGED = 1 << 3;
+    /** The curse moved to another player. */
+    static final int VICTIM_CHANGED = 1 << 4;
+    /** Players joined, left or changed worlds. */
+    static final int PLAYERS_CHANGED = 1 << 5;
+    /** Set once per second (every fourth AI update). */
+    static final int SECOND_ELAPSED = 1 << 6;
+    /** An off-thread plan is waiting to be applied or submitted. */
+    static final int PLAN_PENDING = 1 << 7;
+    /** Dirty on every update. */
+    static final int ALWAYS = 1 << 30;
+
+    /** What a node tells the sequence. */
+    enum Status {
+        /** Go on with the next node. */
+        CONTINUE,
+        /** Stop the sequence for this update. */
+        HALT
+    }
+
+    @FunctionalInterface
+    interface Action<C> {
+        Status run(C context);
+    }
+
+    static final class Node<C> {
+        final String name;
+        final int inputs;
+        private final Action<C> action;
+
+        private int pending;
+        private Status last = Status.CONTINUE;
+
+        final LongAdder runs = new LongAdder();
+        final LongAdder skips = new LongAdder();
+        final LogHistogram nanos = new LogHistogram();
+
+        Node(String name, int inputs, Action<C> action) {
+            this.name = name;
+            this.inputs = inputs;
+            this.action = action;
+            this.pending = inputs; // run on first reach
+        }
+    }
+
+    private final List<Node<C>> nodes = new ArrayList<>();
+
+    /** Appends a node to the sequence. */
+    BehaviorTree<C> node(String name, int inputs, Action<C> action) {
+        nodes.add(new Node<>(name, inputs, action));
+        return this;
+    }
+
+    List<Node<C>> nodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /** Marks every node dirty (e.g. after a config reload), so all of them run on the next update. */
+    void invalidate() {
+        for (Node<C> node : nodes) node.pending = node.inputs;
+    }
+
+    /**
+     * Runs the sequence once.
+     *
+     * @param changed input bits that changed since the previous update ({@link #ALWAYS} is added)
+     * @param timed   record per-node durations
+     * @return {@link Status#HALT} if a node stopped the sequence
+     */
+    Status tick(C context, int changed, boolean timed) {
+        changed |= ALWAYS;
+        int count = nodes.size();
+        for (int i = 0; i < count; i++) {
+            nodes.get(i).pending |= changed;
+        }
+
+        for (int i = 0; i < count; i++) {
+            Node<C> node = nodes.get(i);
+            if ((node.pending & node.inputs) != 0) {
+                node.pending = 0;
+                long start = timed ? System.nanoTime() : 0L;
+                node.last = node.action.run(context);
+                if (timed) node.nanos.record(System.nanoTime() - start);
+                node.runs.increment();
+            } else {
+                node.skips.increment();
+            }
+            if (node.last == Status.HALT) return Status.HALT;
+        }
+        return Status.CONTINUE;
+    }
+
+    // --- Reporting ---
+
+    /** Human-readable per-node lines for the stats command (times in microseconds). */
+    List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Node<C> node : nodes) {
+            long runs = node.runs.sum();
+            long skips = node.skips.sum();
+            double ratio = (runs + skips == 0) ? 0.0 : 100.0 * skips / (runs + skips);
+            LogHistogram h = node.nanos;
+            if (h.count() == 0) {
+                lines.add(String.format(Locale.US, "%-18s runs=%d skipped=%.0f%%", node.name, runs, ratio));
+            } else {
+                lines.add(String.format(Locale.US, "%-18s runs=%d skipped=%.0f%% p50=%.1fus p99=%.1fus",
+                        node.name, runs, ratio, h.percentile(0.50) / 1000.0, h.percentile(0.99) / 1000.0));
+            }
+        }
+        return lines;
+    }
+
+    void resetStats() {
+        for (Node<C> node : nodes) {
+            node.runs.reset();
+            node.skips.reset();
+            node.nanos.reset();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package me.promptt.itfollows;
+
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.Openable;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.Arrays;
+
+/**
+ * BlockInteractions
+ *
+ * Dispatches the stalker's block interactions (doors, gates, trapdoors, ladders, scaffolding)
+ * to handlers registered per {@link MaterialTraits} mask. Each AI update probes three blocks
+ * (in front at feet and head height, and the block the stalker stands in); materials are read
+ * with {@link World#getType(int, int, int)} and a {@link Block} is only created when a handler
+ * matches.
+ */
+final class BlockInteractions {
+
+    /** Which block relative to the stalker a handler is looking at. */
+    enum Probe {
+        FRONT_FEET,
+        FRONT_HEAD,
+        INSIDE
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void interact(Mob mob, Player victim, Block block, Probe probe);
+    }
+
+    private int[] masks = new int[0];
+    private Handler[] handlers = new Handler[0];
+
+    /** Scratch position, refreshed per probe pass. */
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    /** Registers a handler for every block whose traits intersect {@code traitMask}. */
+    void register(int traitMask, Handler handler) {
+        masks = Arrays.copyOf(masks, masks.length + 1);
+        handlers = Arrays.copyOf(handlers, handlers.length + 1);
+        masks[masks.length - 1] = traitMask;
+        handlers[handlers.length - 1] = handler;
+    }
+
+    /** The stock behaviors: open doors/gates, open overhead trapdoors, descend climbables. */
+    static BlockInteractions withDefaults() {
+        BlockInteractions interactions = new BlockInteractions();
+        interactions.register(MaterialTraits.DOOR | MaterialTraits.GATE, BlockInteractions::forceOpen);
+        interactions.register(MaterialTraits.TRAPDOOR, BlockInteractions::openOverheadTrapdoor);
+        interactions.register(MaterialTraits.LADDER, BlockInteractions::descendTowardsVictim);
+        interactions.register(MaterialTraits.SCAFFOLDING, BlockInteractions::descendTowardsVictim);
+        return interactions;
+    }
+
+    // --- Dispatch ---
+
+    void tick(Mob mob, Player victim) {
+        if (handlers.length == 0) return;
+
+        mob.getLocation(scratch);
+        World world = scratch.getWorld();
+        if (world == null) return;
+
+        double yaw = Math.toRadians(scratch.getYaw());
+        int frontX = Location.locToBlock(scratch.getX() - Math.sin(yaw));
+        int frontZ = Location.locToBlock(scratch.getZ() + Math.cos(yaw));
+        int feetY = Location.locToBlock(scratch.getY());
+        int headY = Location.locToBlock(scratch.getY() + mob.getEyeHeight());
+
+        probe(world, mob, victim, frontX, feetY, frontZ, Probe.FRONT_FEET);
+        probe(world, mob, victim, frontX, headY, frontZ, Probe.FRONT_HEAD);
+        probe(world, mob, victim, scratch.getBlockX(), feetY, scratch.getBlockZ(), Probe.INSIDE);
+    }
+
+    /** True if both the feet and head blocks in front of the stalker are plain obstacles (a wall it cannot step up). */
+    boolean isWalledAhead(Mob mob) {
+        mob.getLocation(scratch);
+        World world = scratch.getWorld();
+        if (world == null) return false;
+
+        double yaw = Math.toRadians(scratch.getYaw());
+        int frontX = Location.locToBlock(scratch.getX() - Math.sin(yaw));
+        int frontZ = Location.locToBlock(scratch.getZ() + Math.cos(yaw));
+        int feetY = Location.locToBlock(scratch.getY());
+
+        return MaterialTraits.has(world.getType(frontX, feetY, frontZ), MaterialTraits.OBSTACLE)
+                && MaterialTraits.has(world.getType(frontX, feetY + 1, frontZ), MaterialTraits.OBSTACLE);
+    }
+
+    private void probe(World world, Mob mob, Player victim, int x, int y, int z, Probe probe) {
+        int traits = MaterialTraits.of(world.getType(x, y, z));
+        if (traits == 0) return;
+
+        Block block = null;
+        for (int i = 0; i < handlers.length; i++) {
+            if ((traits & masks[i]) == 0) continue;
+            if (block == null) block = world.getBlockAt(x, y, z);
+            handlers[i].interact(mob, victim, block, probe);
+        }
+    }
+
+    // --- Stock Handlers ---
+
+    private static void forceOpen(Mob mob, Player victim, Block block, Probe probe) {
+        if (probe == Probe.INSIDE) return;
+        if (open(block)) {
+            block.getWorld().playSound(block.getLocation(), Sound.BLOCK_IRON_DOOR_OPEN, 1f, 0.5f);
+        }
+    }
+
+    /**
+     * A closed trapdoor at head height is a ceiling the stalker cannot pass under; one at feet
+     * height is just a slab it can walk over, so it is left alone.
+     */
+    private static void openOverheadTrapdoor(Mob mob, Player victim, Block block, Probe probe) {
+        if (probe != Probe.FRONT_HEAD) return;
+        if (open(block)) {
+            block.getWorld().playSound(block.getLocation(), Sound.BLOCK_IRON_TRAPDOOR_OPEN, 1f, 0.5f);
+        }
+    }
+
+    private static void descendTowardsVictim(Mob mob, Player victim, Block block, Probe probe) {
+        if (probe != Probe.INSIDE || victim == null) return;
+        if (victim.getLocation().getY() < mob.getLocation().getY()) {
+            Vector vel = mob.getVelocity();
+            vel.setY(-0.15);
+            mob.setVelocity(vel);
+            mob.setFallDistance(0);
+        }
+    }
+
+    private static boolean open(Block block) {
+        if (block.getBlockData() instanceof Openable openable && !openable.isOpen()) {
+            openable.setOpen(true);
+            block.setBlockData(openable);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.BlockView;
+import me.promptt.itfollows.ai.FearType;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/** {@link BlockView} over a Bukkit {@link World}; reads materials without creating Block objects. */
+final class BukkitBlockView implements BlockView {
+
+    private World world;
+
+    BukkitBlockView bind(World world) {
+        this.world = world;
+        return this;
+    }
+
+    @Override
+    public FearType fearAt(int x, int y, int z) {
+        return fearTypeOf(world.getType(x, y, z));
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        return world.getType(x, y, z).isSolid();
+    }
+
+    /** Maps a block material to the fear type it triggers (null if the material is not feared). */
+    static FearType fearTypeOf(Material type) {
+        return switch (type) {
+            case FIRE, SOUL_FIRE -> FearType.FIRE;
+            case SOUL_TORCH, SOUL_WALL_TORCH -> FearType.SOUL_TORCH;
+            case SOUL_LANTERN -> FearType.SOUL_LANTERN;
+            case SOUL_CAMPFIRE -> FearType.SOUL_CAMPFIRE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,319 @@
+package me.promptt.itfollows;
+
+import com.destroystokyo.paper.entity.Pathfinder;
+import me.promptt.itfollows.ai.StalkerBody;
+import org.bukkit.Location;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+/**
+ * {@link StalkerBody} over a live Bukkit {@link Mob}.
+ *
+ * Reused across ticks: {@link #bind} copies the mob's position into a scratch {@link Location}
+ * once, so the decision core reads a consistent state for the whole update.
+ *
+ * Commands are buffered as intents rather than applied immediately. Within one update the fear,
+ * hold and pursuit logic may clear the target, re-path, stop, disable and re-enable the AI; only
+ * the net result is written to the mob by {@link #flush}, and writes that would not change the
+ * mob's current state are skipped. Bukkit objects are only created there.
+ */
+final class BukkitStalkerBody implements StalkerBody {
+
+    private final StalkerMetrics metrics;
+
+    private static final double SAME_DESTINATION_SQ = 0.01;
+    private static final double SAME_VELOCITY = 1.0E-4;
+
+    private Mob mob;
+    private Player victim;
+    private boolean canFly;
+    private double pathfinderSpeed;
+
+    /** Position snapshot, copied into this scratch instance on every bind. */
+    private final Location location = new Location(null, 0, 0, 0);
+
+    /** Velocity is only read by the hold logic and the recorder, so it is fetched on first use. */
+    private boolean velocityRead;
+    private double velocityX, velocityY, velocityZ;
+
+    // Last path request issued since bind (read by the trajectory recorder)
+    private boolean moved;
+    private double moveX, moveY, moveZ;
+
+    // --- Pending Intents (net result of this update) ---
+
+    private boolean ai;
+    private boolean aiChanged;
+
+    private static final int TARGET_KEEP = 0, TARGET_VICTIM = 1, TARGET_NONE = 2;
+    private int target;
+
+    private static final int PATH_KEEP = 0, PATH_MOVE = 1, PATH_STOP = 2;
+    private int path;
+
+    private boolean velocityChanged;
+    private boolean resetFall;
+
+    // --- Last Applied Path (a repeated request for the same point is skipped while it is followed) ---
+
+    private Mob pathMob;
+    private double pathX, pathY, pathZ, pathSpeed;
+    /** End of the path the pathfinder produced for it, to notice the mob's own goals replacing it. */
+    private int pathEndX, pathEndY, pathEndZ;
+
+    BukkitStalkerBody(StalkerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param victim          combat target used by {@link #targetVictim()}
+     * @param canFly          true while the stalker is in a flying (Vex) form
+     * @param pathfinderSpeed pathfinder speed for the current form
+     */
+    BukkitStalkerBody bind(Mob mob, Player victim, boolean canFly, double pathfinderSpeed) {
+        this.mob = mob;
+        this.victim = victim;
+        this.canFly = canFly;
+        this.pathfinderSpeed = pathfinderSpeed;
+        mob.getLocation(location);
+        this.velocityRead = false;
+        this.moved = false;
+        this.ai = mob.hasAI();
+        this.aiChanged = false;
+        this.target = TARGET_KEEP;
+        this.path = PATH_KEEP;
+        this.velocityChanged = false;
+        this.resetFall = false;
+        return this;
+    }
+
+    /**
+     * Applies the net intents of this update to the mob. Safe to call more than once; later
+     * calls only write what changed since the previous one.
+     */
+    void flush() {
+        if (mob == null) return;
+        if (!mob.isValid()) {
+            aiChanged = velocityChanged = resetFall = false;
+            target = TARGET_KEEP;
+            path = PATH_KEEP;
+            return;
+        }
+
+        if (aiChanged) {
+            if (mob.hasAI() != ai) mob.setAI(ai);
+            else metrics.entityWritesSkipped.increment();
+            aiChanged = false;
+        }
+
+        if (target != TARGET_KEEP) {
+            Player wanted = (target == TARGET_VICTIM) ? victim : null;
+            if (mob.getTarget() != wanted) mob.setTarget(wanted);
+            else metrics.entityWritesSkipped.increment();
+            target = TARGET_KEEP;
+        }
+
+        if (path == PATH_MOVE) {
+            applyMove();
+        } else if (path == PATH_STOP) {
+            if (mob.getPathfinder().hasPath()) mob.getPathfinder().stopPathfinding();
+            else metrics.entityWritesSkipped.increment();
+            pathMob = null;
+        }
+        path = PATH_KEEP;
+
+        if (velocityChanged) {
+            Vector current = mob.getVelocity();
+            if (Math.abs(current.getX() - velocityX) > SAME_VELOCITY
+                    || Math.abs(current.getY() - velocityY) > SAME_VELOCITY
+                    || Math.abs(current.getZ() - velocityZ) > SAME_VELOCITY) {
+                mob.setVelocity(current.setX(velocityX).setY(velocityY).setZ(velocityZ));
+            } else {
+                metrics.entityWritesSkipped.increment();
+            }
+            velocityChanged = false;
+        }
+
+        if (resetFall) {
+            if (mob.getFallDistance() != 0) mob.setFallDistance(0);
+            resetFall = false;
+        }
+    }
+
+    private void applyMove() {
+        double dx = moveX - pathX, dy = moveY - pathY, dz = moveZ - pathZ;
+        Pathfinder pathfinder = mob.getPathfinder();
+        if (pathMob == mob && pathSpeed == pathfinderSpeed
+                && dx * dx + dy * dy + dz * dz <= SAME_DESTINATION_SQ
+                && isFollowingOwnPath(pathfinder)) {
+            metrics.entityWritesSkipped.increment();
+            return;
+        }
+
+        metrics.pathRequests.increment();
+        JfrEvents.PathRequest jfr = new JfrEvents.PathRequest();
+        jfr.begin();
+        boolean found = pathfinder.moveTo(new Location(mob.getWorld(), moveX, moveY, moveZ), pathfinderSpeed);
+        if (jfr.shouldCommit()) {
+            jfr.entityType = mob.getType().name();
+            jfr.targetX = moveX;
+            jfr.targetY = moveY;
+            jfr.targetZ = moveZ;
+            jfr.speed = pathfinderSpeed;
+            jfr.pathFound = found;
+            jfr.commit();
+        }
+
+        pathMob = null;
+        Pathfinder.PathResult result = found ? pathfinder.getCurrentPath() : null;
+        Location end = (result != null) ? result.getFinalPoint() : null;
+        if (end != null) {
+            pathMob = mob;
+            pathX = moveX;
+            pathY = moveY;
+            pathZ = moveZ;
+            pathSpeed = pathfinderSpeed;
+            pathEndX = end.getBlockX();
+            pathEndY = end.getBlockY();
+            pathEndZ = end.getBlockZ();
+        }
+    }
+
+    private boolean isFollowingOwnPath(Pathfinder pathfinder) {
+        if (!pathfinder.hasPath()) return false;
+        Pathfinder.PathResult current = pathfinder.getCurrentPath();
+        Location end = (current != null) ? current.getFinalPoint() : null;
+        return end != null && end.getBlockX() == pathEndX && end.getBlockY() == pathEndY && end.getBlockZ() == pathEndZ;
+    }
+
+    @Override
+    public double x() {
+        return location.getX();
+    }
+
+    @Override
+    public double y() {
+        return location.getY();
+    }
+
+    @Override
+    public double z() {
+        return location.getZ();
+    }
+
+    @Override
+    public double velocityX() {
+        readVelocity();
+        return velocityX;
+    }
+
+    @Override
+    public double velocityY() {
+        readVelocity();
+        return velocityY;
+    }
+
+    @Override
+    public double velocityZ() {
+        readVelocity();
+        return velocityZ;
+    }
+
+    private void readVelocity() {
+        if (velocityRead) return;
+        Vector v = mob.getVelocity();
+        velocityX = v.getX();
+        velocityY = v.getY();
+        velocityZ = v.getZ();
+        velocityRead = true;
+    }
+
+    @Override
+    public boolean canFly() {
+        return canFly;
+    }
+
+    /** @return the AI state as of the pending intents */
+    @Override
+    public boolean hasAI() {
+        return ai;
+    }
+
+    @Override
+    public void setAI(boolean enabled) {
+        ai = enabled;
+        aiChanged = true;
+    }
+
+    @Override
+    public void moveTo(double x, double y, double z) {
+        moved = true;
+        moveX = x;
+        moveY = y;
+        moveZ = z;
+        path = PATH_MOVE;
+    }
+
+    @Override
+    public void stopPathfinding() {
+        path = PATH_STOP;
+    }
+
+    @Override
+    public void setVelocity(double x, double y, double z) {
+        velocityX = x;
+        velocityY = y;
+        velocityZ = z;
+        velocityRead = true;
+        velocityChanged = true;
+    }
+
+    @Override
+    public void resetFallDistance() {
+        resetFall = true;
+    }
+
+    @Override
+    public void targetVictim() {
+        target = TARGET_VICTIM;
+    }
+
+    @Override
+    public void clearTarget() {
+        target = TARGET_NONE;
+    }
+
+    // --- Current Destination ---
+
+    /** @return true while the mob follows a path requested through this body */
+    boolean hasDestination() {
+        return pathMob != null && pathMob == mob;
+    }
+
+    double destinationX() {
+        return pathX;
+    }
+
+    double destinationZ() {
+        return pathZ;
+    }
+
+    // --- Last Path Request ---
+
+    boolean moved() {
+        return moved;
+    }
+
+    double moveX() {
+        return moveX;
+    }
+
+    double moveY() {
+        return moveY;
+    }
+
+    double moveZ() {
+        return moveZ;
+    }
+}
@@ -0,0 +1,43 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.VictimView;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/** {@link VictimView} over the cursed {@link Player}; reused across ticks via {@link #bind}. */
+final class BukkitVictimView implements VictimView {
+
+    /** Position snapshot, copied into this scratch instance on every bind. */
+    private final Location location = new Location(null, 0, 0, 0);
+    private boolean reachable;
+
+    /**
+     * @param stalkerWorld world the stalker is currently in (the victim is only reachable there)
+     */
+    BukkitVictimView bind(Player victim, World stalkerWorld) {
+        victim.getLocation(location);
+        this.reachable = victim.isOnline() && stalkerWorld != null && stalkerWorld.equals(location.getWorld());
+        return this;
+    }
+
+    @Override
+    public double x() {
+        return location.getX();
+    }
+
+    @Override
+    public double y() {
+        return location.getY();
+    }
+
+    @Override
+    public double z() {
+        return location.getZ();
+    }
+
+    @Override
+    public boolean isReachable() {
+        return reachable;
+    }
+}
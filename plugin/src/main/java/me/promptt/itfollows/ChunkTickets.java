@@ -0,0 +1,136 @@
+package me.promptt.itfollows;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+
+/**
+ * ChunkTickets
+ *
+ * Holds plugin chunk tickets for the chunks the stalker is in and is about to walk through, so
+ * it keeps moving at the edge of (or beyond) the victim's view distance instead of freezing or
+ * being unloaded there.
+ *
+ * The set is kept minimal and bounded: the stalker's own chunk first, then the chunks along the
+ * straight line to its current path destination, up to {@code maxTickets}. Tickets that are no
+ * longer wanted are released on every update, and all of them when the session ends. Held chunks
+ * are a small fixed array, so updates do not allocate.
+ */
+final class ChunkTickets {
+
+    /** Spacing of the samples along the stalker -> waypoint line (less than a chunk, so none is skipped diagonally). */
+    private static final double SAMPLE_STEP = 8.0;
+
+    private final Plugin plugin;
+
+    private World world;
+    private long[] held = new long[0];
+    private int heldCount;
+
+    private long[] wanted = new long[0];
+    private int wantedCount;
+
+    private int maxTickets;
+
+    ChunkTickets(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Sets the per-session cap; 0 disables tickets (and releases any held ones). */
+    void setMaxTickets(int maxTickets) {
+        this.maxTickets = Math.max(0, maxTickets);
+        if (held.length < this.maxTickets) {
+            held = Arrays.copyOf(held, this.maxTickets);
+            wanted = new long[this.maxTickets];
+        }
+        if (heldCount > this.maxTickets) releaseAll();
+    }
+
+    int size() {
+        return heldCount;
+    }
+
+    /**
+     * Re-targets the ticket set to the stalker's chunk and the chunks towards its destination.
+     *
+     * @param hasDestination false if the stalker is not following a path
+     */
+    void update(World stalkerWorld, double x, double z, boolean hasDestination, double destX, double destZ) {
+        if (maxTickets == 0 || stalkerWorld == null) {
+            releaseAll();
+            return;
+        }
+        if (world != null && !world.equals(stalkerWorld)) releaseAll();
+        world = stalkerWorld;
+
+        wantedCount = 0;
+        want(chunk(x), chunk(z));
+        if (hasDestination) {
+            double dx = destX - x;
+            double dz = destZ - z;
+            double length = Math.sqrt(dx * dx + dz * dz);
+            int samples = (int) Math.ceil(length / SAMPLE_STEP);
+            for (int i = 1; i <= samples && wantedCount < maxTickets; i++) {
+                double t = Math.min(1.0, i * SAMPLE_STEP / length);
+                want(chunk(x + dx * t), chunk(z + dz * t));
+            }
+        }
+
+        // Release what is no longer wanted (swap-remove), then add what is new.
+        for (int i = heldCount - 1; i >= 0; i--) {
+            if (!contains(wanted, wantedCount, held[i])) {
+                world.removePluginChunkTicket(chunkX(held[i]), chunkZ(held[i]), plugin);
+                held[i] = held[--heldCount];
+            }
+        }
+        for (int i = 0; i < wantedCount; i++) {
+            long key = wanted[i];
+            if (!contains(held, heldCount, key)) {
+                world.addPluginChunkTicket(chunkX(key), chunkZ(key), plugin);
+                held[heldCount++] = key;
+            }
+        }
+    }
+
+    /** Releases every ticket this session holds (session end, stalker removed, plugin disabled). */
+    void releaseAll() {
+        if (world != null) {
+            for (int i = 0; i < heldCount; i++) {
+                world.removePluginChunkTicket(chunkX(held[i]), chunkZ(held[i]), plugin);
+            }
+        }
+        heldCount = 0;
+        world = null;
+    }
+
+    private void want(int cx, int cz) {
+        long key = key(cx, cz);
+        if (wantedCount < maxTickets && !contains(wanted, wantedCount, key)) {
+            wanted[wantedCount++] = key;
+        }
+    }
+
+    private static boolean contains(long[] keys, int count, long key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    private static int chunk(double blockCoord) {
+        return ((int) Math.floor(blockCoord)) >> 4;
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int chunkZ(long key) {
+        return (int) key;
+    }
+}
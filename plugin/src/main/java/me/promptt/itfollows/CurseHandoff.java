@@ -0,0 +1,82 @@
+package me.promptt.itfollows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * CurseHandoff
+ *
+ * The curse session state that travels with the cursed player when they switch backend servers,
+ * and the acknowledgement the adopting server sends back.
+ *
+ * Protocol (over a {@link HandoffTransport}):
+ *  - The old server sends {@link Kind#HANDOFF} when the holder quits, but keeps the curse and its
+ *    usual logout timer, because a quit can also be a real disconnect.
+ *  - The server the holder joins adopts the session and sends {@link Kind#ADOPTED}. A server
+ *    that already has a different holder declines, so a session never replaces another.
+ *  - On {@link Kind#ADOPTED} the old server drops the session. With no acknowledgement it
+ *    retargets after {@code logout_retarget_delay} as before.
+ *
+ * @param session            random id of this handoff, echoed by the acknowledgement
+ * @param origin             server id of the sender
+ * @param cooldownRemainingMs how long until the holder may pass the curse on
+ * @param stalkerDistance    stalker-to-holder distance at the quit, NaN if there was no stalker
+ * @param form               stalker entity type name, empty if there was none
+ * @param shadow             the stalker was a virtual shadow (see {@link ShadowPursuit})
+ */
+record CurseHandoff(Kind kind, long session, String origin, long sentAtMs, UUID holder, String holderName,
+                    long cooldownRemainingMs, double stalkerDistance, String form, boolean shadow) {
+
+    private static final int MAGIC = 0x49534848; // "ISHH"
+    private static final int VERSION = 1;
+
+    enum Kind {
+        HANDOFF,
+        ADOPTED
+    }
+
+    /** The acknowledgement for this handoff, sent by {@code adopter}. */
+    CurseHandoff adopted(String adopter, long nowMs) {
+        return new CurseHandoff(Kind.ADOPTED, session, adopter, nowMs, holder, holderName, 0L, Double.NaN, "", false);
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind.ordinal());
+            out.writeLong(session);
+            out.writeUTF(origin);
+            out.writeLong(sentAtMs);
+            out.writeLong(holder.getMostSignificantBits());
+            out.writeLong(holder.getLeastSignificantBits());
+            out.writeUTF(holderName);
+            out.writeLong(cooldownRemainingMs);
+            out.writeDouble(stalkerDistance);
+            out.writeUTF(form);
+            out.writeBoolean(shadow);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /** @return the decoded message, or null if it is not one of ours (or from an incompatible version) */
+    static CurseHandoff decode(byte[] message) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) return null;
+            int kind = in.readUnsignedByte();
+            if (kind >= Kind.values().length) return null;
+            return new CurseHandoff(Kind.values()[kind], in.readLong(), in.readUTF(), in.readLong(),
+                    new UUID(in.readLong(), in.readLong()), in.readUTF(),
+                    in.readLong(), in.readDouble(), in.readUTF(), in.readBoolean());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package me.promptt.itfollows;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * DirectoryHandoffTransport
+ *
+ * Stand-in for the proxy channel on local test networks: each message is a small file in a folder
+ * that all servers share, named {@code h-<millis>-<seq>-<server>.handoff}. Every server polls the
+ * folder off the main thread every other tick, hands each foreign file it has not seen yet to the
+ * main thread, and deletes files older than {@link #EXPIRE_MS} (whoever sees them first).
+ */
+final class DirectoryHandoffTransport implements HandoffTransport {
+
+    private static final String SUFFIX = ".handoff";
+    private static final long EXPIRE_MS = 60_000L;
+
+    private final Plugin plugin;
+    private final Path dir;
+    private final String serverId;
+    private final Consumer<byte[]> receiver;
+    private final BukkitTask poller;
+
+    // Guarded by poll()
+    private final Set<String> seen = new HashSet<>();
+
+    private int sequence;
+    private volatile boolean closed;
+
+    DirectoryHandoffTransport(Plugin plugin, Path dir, String serverId, Consumer<byte[]> receiver) {
+        this.plugin = plugin;
+        this.dir = dir;
+        this.serverId = serverId.replaceAll("[^A-Za-z0-9_]", "_");
+        this.receiver = receiver;
+        // Files that are already there were meant for a previous run.
+        try (Stream<Path> files = Files.exists(dir) ? Files.list(dir) : Stream.empty()) {
+            files.forEach(p -> seen.add(p.getFileName().toString()));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not list the handoff directory " + dir, e);
+        }
+        this.poller = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::poll, 2L, 2L);
+    }
+
+    @Override
+    public boolean send(byte[] message, Player leaving) {
+        if (closed) return false;
+        String name = "h-" + System.currentTimeMillis() + "-" + (sequence++) + "-" + serverId + SUFFIX;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Files.createDirectories(dir);
+                Path tmp = dir.resolve(name + ".tmp");
+                Files.write(tmp, message);
+                Files.move(tmp, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not write handoff " + name, e);
+            }
+        });
+        return true;
+    }
+
+    /** Synchronized: async timer runs can overlap when the folder is slow (network shares). */
+    private synchronized void poll() {
+        if (closed || !Files.isDirectory(dir)) return;
+        long now = System.currentTimeMillis();
+        Set<String> present = new HashSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith("h-") || !name.endsWith(SUFFIX)) continue;
+                present.add(name);
+
+                long sentAt = sentAt(name);
+                if (now - sentAt > EXPIRE_MS) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (name.endsWith("-" + serverId + SUFFIX) || !seen.add(name)) continue;
+
+                byte[] message = Files.readAllBytes(file);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (!closed) receiver.accept(message);
+                });
+            }
+            seen.retainAll(present);
+        } catch (IOException e) {
+            // Another server deleted or is still moving a file; the next poll sees a settled folder.
+        }
+    }
+
+    private static long sentAt(String name) {
+        int end = name.indexOf('-', 2);
+        try {
+            return Long.parseLong(name.substring(2, end));
+        } catch (RuntimeException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        poller.cancel();
+    }
+}
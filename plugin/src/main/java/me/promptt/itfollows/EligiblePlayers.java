@@ -0,0 +1,244 @@
+package me.promptt.itfollows;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * EligiblePlayers
+ *
+ * The set of players that may receive the curse (online, survival/adventure, not in an excluded
+ * world), kept up to date from join, quit, game-mode and world-change events instead of being
+ * rebuilt from the online list on every auto-curse attempt.
+ *
+ * Players sit in an array with a UUID -> slot index, so membership changes and uniform picks are
+ * O(1). The weighted and exclusion policies sample from the array with bounded rejection, so they
+ * stay O(1) in expectation; only "nearest" has to look at every candidate, and only when a pick
+ * actually happens.
+ */
+final class EligiblePlayers implements Listener {
+
+    /** How the next cursed player is chosen. */
+    enum Policy {
+        /** Every eligible player is equally likely. */
+        UNIFORM,
+        /** Players cursed recently are less likely, recovering linearly over a time window. */
+        LEAST_RECENT,
+        /** The eligible player closest to the stalker (uniform if there is no stalker). */
+        NEAREST,
+        /** Uniform, skipping the last few holders unless nobody else is eligible. */
+        EXCLUDE_RECENT
+    }
+
+    /** Rejection-sampling attempts before falling back to a deterministic choice. */
+    private static final int MAX_DRAWS = 16;
+
+    /** Lowest pick weight under {@link Policy#LEAST_RECENT}, so a just-cursed player is never impossible. */
+    private static final double MIN_WEIGHT = 0.05;
+
+    private final List<Player> players = new ArrayList<>();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+
+    /** When each player last received the curse (for {@link Policy#LEAST_RECENT}). */
+    private final Map<UUID, Long> lastCursedMs = new HashMap<>();
+
+    /** Most recent holders, newest first (for {@link Policy#EXCLUDE_RECENT}). */
+    private final ArrayDeque<UUID> recentHolders = new ArrayDeque<>();
+
+    private Policy policy = Policy.UNIFORM;
+    private long recoveryWindowMs = 30L * 60L * 1000L;
+    private int excludeRecent = 2;
+    private Set<String> excludedWorlds = Set.of();
+
+    /** Applies selection settings and rebuilds the set from the players currently online. */
+    void configure(Policy policy, long recoveryWindowMs, int excludeRecent, Set<String> excludedWorlds) {
+        this.policy = policy;
+        this.recoveryWindowMs = Math.max(1L, recoveryWindowMs);
+        this.excludeRecent = Math.max(0, excludeRecent);
+        this.excludedWorlds = new HashSet<>(excludedWorlds);
+        while (recentHolders.size() > this.excludeRecent) recentHolders.removeLast();
+
+        players.clear();
+        slots.clear();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            update(p, p.getGameMode(), p.getWorld());
+        }
+    }
+
+    /** Parses a policy name from the config: {@link Policy#UNIFORM} if unset, null if unknown. */
+    static Policy parsePolicy(String name) {
+        if (name == null) return Policy.UNIFORM;
+        try {
+            return Policy.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    int size() {
+        return players.size();
+    }
+
+    /** Remembers a new curse holder for the recency-based policies. */
+    void recordCursed(UUID playerId, long nowMs) {
+        lastCursedMs.put(playerId, nowMs);
+        recentHolders.remove(playerId);
+        recentHolders.addFirst(playerId);
+        while (recentHolders.size() > excludeRecent) recentHolders.removeLast();
+    }
+
+    /**
+     * Picks the next cursed player according to the configured policy.
+     *
+     * @param stalker current stalker position (only used by {@link Policy#NEAREST}; may be null)
+     * @return the chosen player, or null if nobody is eligible
+     */
+    Player pick(RandomGenerator random, Location stalker, long nowMs) {
+        int n = players.size();
+        if (n == 0) return null;
+        if (n == 1) return players.get(0);
+
+        return switch (policy) {
+            case UNIFORM -> players.get(random.nextInt(n));
+            case LEAST_RECENT -> pickLeastRecent(random, nowMs);
+            case NEAREST -> pickNearest(random, stalker);
+            case EXCLUDE_RECENT -> pickExcludingRecent(random);
+        };
+    }
+
+    private Player pickLeastRecent(RandomGenerator random, long nowMs) {
+        int n = players.size();
+        Player candidate = null;
+        for (int i = 0; i < MAX_DRAWS; i++) {
+            candidate = players.get(random.nextInt(n));
+            if (random.nextDouble() < weight(candidate.getUniqueId(), nowMs)) return candidate;
+        }
+        return candidate;
+    }
+
+    private double weight(UUID playerId, long nowMs) {
+        Long last = lastCursedMs.get(playerId);
+        if (last == null) return 1.0;
+        double recovered = (double) (nowMs - last) / recoveryWindowMs;
+        return Math.max(MIN_WEIGHT, Math.min(1.0, recovered));
+    }
+
+    private Player pickNearest(RandomGenerator random, Location stalker) {
+        World world = (stalker != null) ? stalker.getWorld() : null;
+        if (world == null) return players.get(random.nextInt(players.size()));
+
+        Player best = null;
+        double bestSq = Double.MAX_VALUE;
+        for (Player p : players) {
+            Location loc = p.getLocation();
+            if (!world.equals(loc.getWorld())) continue;
+            double d = loc.distanceSquared(stalker);
+            if (d < bestSq) {
+                bestSq = d;
+                best = p;
+            }
+        }
+        return (best != null) ? best : players.get(random.nextInt(players.size()));
+    }
+
+    private Player pickExcludingRecent(RandomGenerator random) {
+        int n = players.size();
+        if (recentHolders.isEmpty()) return players.get(random.nextInt(n));
+
+        for (int i = 0; i < MAX_DRAWS; i++) {
+            Player candidate = players.get(random.nextInt(n));
+            if (!recentHolders.contains(candidate.getUniqueId())) return candidate;
+        }
+        // Unlucky draws or almost everyone is a recent holder: take the first one that is not.
+        int start = random.nextInt(n);
+        for (int i = 0; i < n; i++) {
+            Player candidate = players.get((start + i) % n);
+            if (!recentHolders.contains(candidate.getUniqueId())) return candidate;
+        }
+        return players.get(start);
+    }
+
+    // --- Membership ---
+
+    private void update(Player player, GameMode mode, World world) {
+        boolean eligible = player.isOnline()
+                && mode != GameMode.CREATIVE && mode != GameMode.SPECTATOR
+                && (world == null || !excludedWorlds.contains(world.getName()));
+        if (eligible) {
+            add(player);
+        } else {
+            remove(player.getUniqueId());
+        }
+    }
+
+    private void add(Player player) {
+        Integer slot = slots.get(player.getUniqueId());
+        if (slot != null) {
+            players.set(slot, player);
+            return;
+        }
+        slots.put(player.getUniqueId(), players.size());
+        players.add(player);
+    }
+
+    /** Swap-remove: the last player takes the freed slot. */
+    private void remove(UUID playerId) {
+        Integer slot = slots.remove(playerId);
+        if (slot == null) return;
+        int last = players.size() - 1;
+        Player moved = players.remove(last);
+        if (slot != last) {
+            players.set(slot, moved);
+            slots.put(moved.getUniqueId(), slot);
+        }
+    }
+
+    // --- Events ---
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player p = event.getPlayer();
+        update(p, p.getGameMode(), p.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        Player p = event.getPlayer();
+        update(p, event.getNewGameMode(), p.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        Player p = event.getPlayer();
+        update(p, p.getGameMode(), p.getWorld());
+    }
+}
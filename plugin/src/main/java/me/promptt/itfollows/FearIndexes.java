@@ -0,0 +1,401 @@
+package me.promptt.itfollows;
+
+import com.destroystokyo.paper.event.block.BlockDestroyEvent;
+import me.promptt.itfollows.ai.FearIndex;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * FearIndexes
+ *
+ * One {@link FearIndex} per world, fed from the blocks around the places the AI looks at.
+ *
+ * A chunk section (16x16x16) is scanned once when a lookup first needs it, a few sections per tick,
+ * and from then on follows the block events that can add or remove a fear block (place, break,
+ * burn, fade, spread, ignite, liquid flow, explosions, blocks popping off their support). Those
+ * positions are re-read on the next tick, once the change has been applied. Sections still in use
+ * are rescanned every {@link #RESCAN_MS} to pick up what no event reports (e.g. commands, other
+ * plugins). Until every section a lookup depends on has been scanned, {@link #ready} returns null
+ * and the caller falls back to the block scan.
+ *
+ * A world whose index lists more than {@link #MAX_ENTRIES} candidates (thousands of torches packed
+ * together) stops indexing new sections and falls back to the block scan until chunk unloads bring
+ * it back under the limit.
+ */
+final class FearIndexes implements Listener {
+
+    /** Sections in use are rescanned this often. */
+    private static final long RESCAN_MS = 60_000L;
+
+    /** Candidate entries per world (about 8 bytes each) beyond which the index is not used or grown. */
+    private static final int MAX_ENTRIES = 2_000_000;
+
+    private static final class WorldIndex {
+        final World world;
+        final FearIndex index;
+        final ScanTimes scannedAt = new ScanTimes();
+        final Set<Long> queue = new LinkedHashSet<>();
+        /** Block positions to re-read on the next tick. */
+        final Set<Long> dirty = new LinkedHashSet<>();
+
+        WorldIndex(World world, FearIndex index) {
+            this.world = world;
+            this.index = index;
+        }
+    }
+
+    private final FearScanner radii;
+    private final StalkerMetrics metrics;
+    private final Map<UUID, WorldIndex> worlds = new HashMap<>();
+    /** The world of the last {@link #ready} call (lookups come in runs for the same world). */
+    private WorldIndex last;
+    /** Reused for section scans. */
+    private final Map<Long, FearType> found = new HashMap<>();
+
+    private boolean enabled;
+    private double perimeterBuffer;
+    private int sectionsPerTick = 2;
+
+    FearIndexes(FearScanner radii, StalkerMetrics metrics) {
+        this.radii = radii;
+        this.metrics = metrics;
+    }
+
+    /** Applies new settings; existing indexes are re-listed for changed radii or buffer. */
+    void configure(boolean enabled, double perimeterBuffer, int sectionsPerTick) {
+        this.enabled = enabled;
+        this.perimeterBuffer = perimeterBuffer;
+        this.sectionsPerTick = Math.max(1, sectionsPerTick);
+        if (!enabled) {
+            worlds.clear();
+            last = null;
+            return;
+        }
+        for (WorldIndex w : worlds.values()) w.index.rebuild(perimeterBuffer);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The world's index if every section that can matter to a lookup at the block has been scanned,
+     * else null. Missing and stale sections are queued for scanning either way.
+     *
+     * @param extraHorizontal widens the area (e.g. a whole flow field window around the point)
+     */
+    FearIndex ready(World world, int x, int y, int z, int extraHorizontal) {
+        if (!enabled || world == null) return null;
+        WorldIndex w = last;
+        if (w == null || w.world != world) {
+            w = worlds.computeIfAbsent(world.getUID(), id -> new WorldIndex(world, new FearIndex(radii, perimeterBuffer)));
+            last = w;
+        }
+        if (w.index.entries() > MAX_ENTRIES) return null;
+        int h = w.index.horizontalReach() + Math.max(0, extraHorizontal);
+        int v = w.index.verticalReach();
+        int minSection = world.getMinHeight() >> 4;
+        int maxSection = (world.getMaxHeight() - 1) >> 4;
+        long now = System.currentTimeMillis();
+        boolean covered = true;
+        for (int cx = (x - h) >> 4; cx <= (x + h) >> 4; cx++) {
+            for (int cz = (z - h) >> 4; cz <= (z + h) >> 4; cz++) {
+                for (int sy = Math.max(minSection, (y - v) >> 4); sy <= Math.min(maxSection, (y + v) >> 4); sy++) {
+                    long key = sectionKey(cx, sy, cz);
+                    long scanned = w.scannedAt.get(key);
+                    if (scanned < 0L) {
+                        covered = false;
+                        w.queue.add(key);
+                    } else if (now - scanned > RESCAN_MS) {
+                        w.queue.add(key);
+                    }
+                }
+            }
+        }
+        return covered ? w.index : null;
+    }
+
+    /** Total sources / candidate sections over all worlds, for the stats. */
+    int sources() {
+        int n = 0;
+        for (WorldIndex w : worlds.values()) n += w.index.sources();
+        return n;
+    }
+
+    int sections() {
+        int n = 0;
+        for (WorldIndex w : worlds.values()) n += w.index.sections();
+        return n;
+    }
+
+    long entries() {
+        long n = 0;
+        for (WorldIndex w : worlds.values()) n += w.index.entries();
+        return n;
+    }
+
+    // --- Tick ---
+
+    /** Re-reads changed blocks and scans up to the per-tick budget of queued sections. */
+    void tick() {
+        if (!enabled || worlds.isEmpty()) return;
+        int budget = sectionsPerTick;
+        for (WorldIndex w : worlds.values()) {
+            long cells = w.index.entriesUpdated();
+            flushDirty(w);
+            if (w.index.entries() > MAX_ENTRIES) w.queue.clear();
+            Iterator<Long> it = w.queue.iterator();
+            while (budget > 0 && it.hasNext()) {
+                long key = it.next();
+                it.remove();
+                if (scan(w, key)) budget--;
+            }
+            metrics.fearIndexEntriesUpdated.add(w.index.entriesUpdated() - cells);
+        }
+    }
+
+    private void flushDirty(WorldIndex w) {
+        if (w.dirty.isEmpty()) return;
+        for (long key : w.dirty) {
+            int x = FearIndex.blockX(key), y = FearIndex.blockY(key), z = FearIndex.blockZ(key);
+            if (!w.world.isChunkLoaded(x >> 4, z >> 4)) continue;
+            FearType type = BukkitBlockView.fearTypeOf(w.world.getType(x, y, z));
+            if (type != w.index.sourceAt(x, y, z)) {
+                w.index.setSource(x, y, z, type);
+                metrics.fearIndexBlockUpdates.increment();
+            }
+        }
+        w.dirty.clear();
+    }
+
+    /** Scans one section into the index; returns false if its chunk is not loaded (nothing done). */
+    private boolean scan(WorldIndex w, long key) {
+        int cx = sectionX(key), sy = sectionY(key), cz = sectionZ(key);
+        if (!w.world.isChunkLoaded(cx, cz)) return false;
+        World world = w.world;
+        int x0 = cx << 4, y0 = sy << 4, z0 = cz << 4;
+        for (int y = y0; y < y0 + 16; y++) {
+            for (int z = z0; z < z0 + 16; z++) {
+                for (int x = x0; x < x0 + 16; x++) {
+                    FearType type = BukkitBlockView.fearTypeOf(world.getType(x, y, z));
+                    if (type != null) found.put(FearIndex.blockKey(x, y, z), type);
+                }
+            }
+        }
+        w.index.replaceSection(cx, sy, cz, found);
+        w.scannedAt.put(key, System.currentTimeMillis());
+        metrics.fearIndexSectionsScanned.increment();
+        return true;
+    }
+
+    // --- Events ---
+
+    /** Queues the block for a re-read if its section is part of the index. */
+    private void changed(Block block) {
+        WorldIndex w = worlds.get(block.getWorld().getUID());
+        if (w == null) return;
+        int x = block.getX(), y = block.getY(), z = block.getZ();
+        if (w.scannedAt.get(sectionKey(x >> 4, y >> 4, z >> 4)) < 0L) return;
+        w.dirty.add(FearIndex.blockKey(x, y, z));
+    }
+
+    private void changed(List<Block> blocks) {
+        for (Block block : blocks) changed(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlace(BlockPlaceEvent event) {
+        changed(event.getBlockPlaced());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent event) {
+        changed(event.getBlock());
+    }
+
+    /** A torch or lantern popping off because its support is gone. */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDestroy(BlockDestroyEvent event) {
+        changed(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBurn(BlockBurnEvent event) {
+        changed(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFade(BlockFadeEvent event) {
+        changed(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSpread(BlockSpreadEvent event) {
+        changed(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onIgnite(BlockIgniteEvent event) {
+        changed(event.getBlock());
+    }
+
+    /** Water or lava washing a torch away. */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFlow(BlockFromToEvent event) {
+        changed(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        changed(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        changed(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        WorldIndex w = worlds.get(event.getWorld().getUID());
+        if (w == null) return;
+        int cx = event.getChunk().getX(), cz = event.getChunk().getZ();
+        w.index.clearChunk(cx, cz);
+        for (int sy = w.world.getMinHeight() >> 4; sy <= (w.world.getMaxHeight() - 1) >> 4; sy++) {
+            long key = sectionKey(cx, sy, cz);
+            w.scannedAt.remove(key);
+            w.queue.remove(key);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID());
+        last = null;
+    }
+
+    // --- Scan times ---
+
+    /**
+     * Section key -> time of its last scan, open-addressed with linear probing so {@link #ready} can
+     * check a few dozen sections per lookup without boxing.
+     */
+    private static final class ScanTimes {
+        private long[] keys = new long[64];
+        private long[] times = new long[64];
+        private boolean[] used = new boolean[64];
+        private int mask = 63;
+        private int size;
+
+        /** @return the time of the section's last scan, or -1 if it has not been scanned */
+        long get(long key) {
+            for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return times[slot];
+            }
+            return -1L;
+        }
+
+        void put(long key, long time) {
+            int slot = hash(key) & mask;
+            for (; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    times[slot] = time;
+                    return;
+                }
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+                slot = hash(key) & mask;
+                while (used[slot]) slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            times[slot] = time;
+            size++;
+        }
+
+        /** Linear-probing delete: shifts later entries of the probe chain back into the hole. */
+        void remove(long key) {
+            int slot = hash(key) & mask;
+            while (used[slot] && keys[slot] != key) slot = (slot + 1) & mask;
+            if (!used[slot]) return;
+            used[slot] = false;
+            size--;
+            int hole = slot;
+            for (int j = (slot + 1) & mask; used[j]; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean stays = (hole <= j) ? (home > hole && home <= j) : (home > hole || home <= j);
+                if (stays) continue;
+                keys[hole] = keys[j];
+                times[hole] = times[j];
+                used[hole] = true;
+                used[j] = false;
+                hole = j;
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys, oldTimes = times;
+            boolean[] oldUsed = used;
+            keys = new long[capacity];
+            times = new long[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (!oldUsed[i]) continue;
+                int slot = hash(oldKeys[i]) & mask;
+                while (used[slot]) slot = (slot + 1) & mask;
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                times[slot] = oldTimes[i];
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    // --- Keys ---
+
+    private static long sectionKey(int chunkX, int sectionY, int chunkZ) {
+        return ((long) (chunkX & 0xFFFFFF) << 40) | ((long) (chunkZ & 0xFFFFFF) << 16) | (sectionY & 0xFFFF);
+    }
+
+    private static int sectionX(long key) {
+        return (int) (key >> 40);
+    }
+
+    private static int sectionZ(long key) {
+        return (int) (key << 24 >> 40);
+    }
+
+    private static int sectionY(long key) {
+        return (short) key;
+    }
+}
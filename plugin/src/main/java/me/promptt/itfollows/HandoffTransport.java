@@ -0,0 +1,51 @@
+package me.promptt.itfollows;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.function.Consumer;
+
+/**
+ * HandoffTransport
+ *
+ * Carries {@link CurseHandoff} messages between backend servers. Implementations deliver received
+ * messages to their receiver on the main thread.
+ *
+ *  - {@link ProxyHandoffTransport}: the proxy's plugin messaging channel (BungeeCord / Velocity).
+ *  - {@link DirectoryHandoffTransport}: a folder shared by the servers (local test networks).
+ *  - {@link #loopback}: back to this server, to exercise the protocol with a quit and rejoin.
+ */
+interface HandoffTransport {
+
+    /**
+     * Sends a message to the other servers.
+     *
+     * @param leaving player who is disconnecting right now (not usable as a connection), may be null
+     * @return false if the message could not be sent
+     */
+    boolean send(byte[] message, Player leaving);
+
+    /** Stops receiving. */
+    void close();
+
+    /** Delivers every message back to this server on the next tick. */
+    static HandoffTransport loopback(Plugin plugin, Consumer<byte[]> receiver) {
+        return new HandoffTransport() {
+            private boolean closed;
+
+            @Override
+            public boolean send(byte[] message, Player leaving) {
+                if (closed) return false;
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (!closed) receiver.accept(message);
+                });
+                return true;
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+}
@@ -0,0 +1,501 @@
+package me.promptt.itfollows;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import me.promptt.itfollows.ai.BlockView;
+import me.promptt.itfollows.ai.FearIndex;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+import me.promptt.itfollows.ai.FlowField;
+import me.promptt.itfollows.ai.SpatialHash;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Flying;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Vex;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityCombustEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Horde
+ *
+ * Event mode where the cursed player is hunted by many stalkers at once, in addition to the main
+ * one. Members do not path-find: their goal selector is switched off ({@link Mob#setAware}) and
+ * every tick they are steered along one shared {@link FlowField} towards the victim, plus a
+ * separation push from their neighbours found through a {@link SpatialHash}. The field is the only
+ * navigation cost and scales with the area around the victim, not with the member count.
+ *
+ * Members are only visible to the cursed player, never saved with their chunk, and the whole horde
+ * is dropped when the curse moves to someone else.
+ */
+final class Horde implements Listener {
+
+    /** Ticks between flow field updates (the victim rarely changes blocks faster). */
+    private static final int FIELD_INTERVAL_TICKS = 5;
+
+    /** Cached columns re-sampled per field update, to pick up placed/broken blocks. */
+    private static final int REFRESH_BUDGET = 256;
+
+    private static final double ATTACK_RANGE_SQ = 1.5 * 1.5;
+    private static final int ATTACK_COOLDOWN_TICKS = 20;
+    private static final double JUMP_VELOCITY = 0.42;
+
+    /** Spawn attempts per spawn slot before waiting for the next one. */
+    private static final int SPAWN_ATTEMPTS = 4;
+
+    /** Members further than this many field radii from the victim are removed (and respawn closer). */
+    private static final double LEASH_RADII = 1.5;
+
+    /** Horde settings from the config ({@code size} 0 disables the mode). */
+    record Settings(int size, int fieldRadius, int spawnIntervalTicks, double spawnDistance,
+                    double separationRadius, double separationWeight, double blocksPerTick,
+                    double maxHealth, double damage, List<EntityType> forms) {
+    }
+
+    private static final class Member {
+        final Mob mob;
+        long nextAttackTick;
+
+        Member(Mob mob) {
+            this.mob = mob;
+        }
+    }
+
+    private final Plugin plugin;
+    private final NamespacedKey memberKey;
+    private final StalkerMetrics metrics;
+    private final TickProfiler profiler;
+    private final LoadedBlockView blocks = new LoadedBlockView();
+    /** The plugin's random source (seedable via random_seed, replaced on reload). */
+    private final Supplier<RandomGenerator> random;
+
+    private Settings settings = new Settings(0, 48, 10, 24.0, 1.2, 0.6, 0.26, 20.0, 4.0, List.of());
+    /** Created once the mode is enabled (a 48-block field is ~10k columns). */
+    private FlowField field;
+    private SpatialHash spatial = new SpatialHash(1.2);
+    private int[] nearby = new int[32];
+
+    private final List<Member> members = new ArrayList<>();
+    private final Map<UUID, Member> byId = new HashMap<>();
+
+    private UUID victimId;
+    private UUID fieldWorld;
+    private long ticks;
+    private long nextSpawnTick;
+    private boolean spawningPaused;
+
+    /** Known stuck spots the field detours around (null = off). */
+    private StuckHeatmaps traps;
+    private int trapMinCount;
+
+    /** Fear source indexes (null = the flow field stamps its own fear obstacles). */
+    private FearIndexes fearIndexes;
+    /** The victim's world field while it covers the whole window, else null (set per field update). */
+    private FearIndex fearIndex;
+    private final FearIndex.Sample fearSample = new FearIndex.Sample();
+
+    Horde(Plugin plugin, NamespacedKey memberKey, StalkerMetrics metrics, TickProfiler profiler, Supplier<RandomGenerator> random) {
+        this.plugin = plugin;
+        this.memberKey = memberKey;
+        this.metrics = metrics;
+        this.profiler = profiler;
+        this.random = random;
+    }
+
+    /** Applies new settings; the fear radii come from the stalker's scanner plus the perimeter buffer. */
+    void configure(Settings settings, FearScanner fearScanner, double perimeterBuffer) {
+        List<EntityType> walkers = new ArrayList<>();
+        for (EntityType type : settings.forms()) {
+            Class<? extends Entity> c = type.getEntityClass();
+            if (c == null || !Mob.class.isAssignableFrom(c)) continue;
+            if (Flying.class.isAssignableFrom(c) || Vex.class.isAssignableFrom(c)) continue;
+            walkers.add(type);
+        }
+        this.settings = new Settings(Math.max(0, settings.size()), Math.max(8, settings.fieldRadius()),
+                Math.max(1, settings.spawnIntervalTicks()), settings.spawnDistance(),
+                Math.max(0.1, settings.separationRadius()), Math.max(0.0, settings.separationWeight()),
+                settings.blocksPerTick(), settings.maxHealth(), settings.damage(), List.copyOf(walkers));
+
+        if (!isEnabled()) {
+            clear();
+            field = null;
+            return;
+        }
+        if (field == null || field.radius() != this.settings.fieldRadius()) {
+            field = new FlowField(this.settings.fieldRadius());
+            fieldWorld = null;
+        }
+        field.setFearRadii(fearScanner, perimeterBuffer);
+        spatial = new SpatialHash(this.settings.separationRadius());
+    }
+
+    /** Lets the flow field detour around spots where the stalker got stuck before (null = off). */
+    void setTraps(StuckHeatmaps traps, int minCount) {
+        this.traps = traps;
+        this.trapMinCount = minCount;
+    }
+
+    /** Lets the flow field read its fear obstacles from the shared fear source indexes (null = off). */
+    void setFearIndexes(FearIndexes fearIndexes) {
+        this.fearIndexes = fearIndexes;
+    }
+
+    /** Holds off new spawns (the server is under load); existing members keep hunting. */
+    void setSpawningPaused(boolean paused) {
+        this.spawningPaused = paused;
+    }
+
+    boolean isEnabled() {
+        return settings.size() > 0 && !settings.forms().isEmpty();
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    boolean isMember(Entity entity) {
+        return byId.containsKey(entity.getUniqueId());
+    }
+
+    /** The shared flow field, or null while the mode is off. */
+    FlowField field() {
+        return field;
+    }
+
+    // --- Tick ---
+
+    /**
+     * Runs every server tick.
+     *
+     * @param victim          the cursed player if the stalker should be hunting them right now, else null
+     * @param victimProtected the victim stands inside a fear radius (members hold at the perimeter and do not attack)
+     */
+    void tick(Player victim, boolean victimProtected) {
+        ticks++;
+        if (victim == null || !victim.isOnline() || !isEnabled()) {
+            clear();
+            return;
+        }
+        if (!victim.getUniqueId().equals(victimId)) {
+            clear();
+            victimId = victim.getUniqueId();
+        }
+
+        World world = victim.getWorld();
+        if (!world.getUID().equals(fieldWorld)) {
+            field.invalidate();
+            fieldWorld = world.getUID();
+        }
+        Location victimLoc = victim.getLocation();
+        double vx = victimLoc.getX();
+        double vz = victimLoc.getZ();
+
+        if (ticks % FIELD_INTERVAL_TICKS == 0 || !field.contains(victimLoc.getBlockX(), victimLoc.getBlockZ())) {
+            long phaseStart = profiler.start();
+            long sampled = field.columnsSampled();
+            field.setTraps((traps != null) ? traps.get(world) : null, trapMinCount);
+            fearIndex = (fearIndexes != null)
+                    ? fearIndexes.ready(world, victimLoc.getBlockX(), victimLoc.getBlockY(), victimLoc.getBlockZ(), settings.fieldRadius())
+                    : null;
+            field.setFearIndex(fearIndex);
+            if (field.update(blocks.bind(world), victimLoc.getBlockX(), victimLoc.getBlockY(), victimLoc.getBlockZ(), REFRESH_BUDGET)) {
+                metrics.flowFieldRebuilds.increment();
+            }
+            metrics.flowFieldColumnsSampled.add(field.columnsSampled() - sampled);
+            profiler.stop(TickProfiler.Phase.HORDE_FIELD, phaseStart);
+        }
+
+        prune(world, vx, vz);
+        if (!spawningPaused && members.size() < settings.size() && ticks >= nextSpawnTick) {
+            nextSpawnTick = ticks + settings.spawnIntervalTicks();
+            spawnOne(victim, world);
+        }
+        metrics.setHordeMembers(members.size());
+        if (members.isEmpty()) return;
+
+        long phaseStart = profiler.start();
+        steer(victim, victimProtected, vx, victimLoc.getY(), vz);
+        profiler.stop(TickProfiler.Phase.HORDE_STEERING, phaseStart);
+    }
+
+    /** Removes dead, unloaded, other-world or far away members. */
+    private void prune(World world, double vx, double vz) {
+        double leash = settings.fieldRadius() * LEASH_RADII;
+        for (int i = members.size() - 1; i >= 0; i--) {
+            Member m = members.get(i);
+            Mob mob = m.mob;
+            boolean keep = mob.isValid() && world.equals(mob.getWorld());
+            if (keep) {
+                Location loc = mob.getLocation();
+                double dx = loc.getX() - vx;
+                double dz = loc.getZ() - vz;
+                keep = dx * dx + dz * dz <= leash * leash;
+            }
+            if (!keep) {
+                removeAt(i);
+                mob.remove();
+            }
+        }
+    }
+
+    private void steer(Player victim, boolean victimProtected, double vx, double vy, double vz) {
+        int count = members.size();
+        spatial.clear(count);
+        for (Member m : members) {
+            Location loc = m.mob.getLocation();
+            spatial.insert(loc.getX(), loc.getZ());
+        }
+
+        double speed = settings.blocksPerTick();
+        double sepRadius = settings.separationRadius();
+        double sepWeight = settings.separationWeight();
+
+        for (int i = 0; i < count; i++) {
+            Member m = members.get(i);
+            Mob mob = m.mob;
+            double x = spatial.x(i);
+            double z = spatial.z(i);
+            int bx = Location.locToBlock(x);
+            int bz = Location.locToBlock(z);
+
+            // Follow the field; outside the window head straight for the victim.
+            double dirX = 0.0, dirZ = 0.0;
+            boolean climb = false;
+            if (field.contains(bx, bz)) {
+                int dir = field.flowAt(bx, bz);
+                if (dir != FlowField.NONE) {
+                    dirX = FlowField.dirX(dir);
+                    dirZ = FlowField.dirZ(dir);
+                    int here = field.floorAt(bx, bz);
+                    int there = field.floorAt(bx + (int) dirX, bz + (int) dirZ);
+                    climb = here != FlowField.NO_FLOOR && there != FlowField.NO_FLOOR && there > here;
+                } else if (field.costAt(bx, bz) == 0) {
+                    dirX = vx - x;
+                    dirZ = vz - z;
+                } else if (fearIndex != null && field.isObstacle(bx, bz)
+                        && fearIndex.sample(x, mob.getLocation().getY() + 0.5, z, fearSample)) {
+                    // Deep inside a fear zone no neighbour is free: walk straight out along the gradient.
+                    dirX = fearSample.gradX();
+                    dirZ = fearSample.gradZ();
+                }
+            } else {
+                dirX = vx - x;
+                dirZ = vz - z;
+            }
+            double len = Math.sqrt(dirX * dirX + dirZ * dirZ);
+            if (len > 1.0E-6) {
+                dirX = dirX / len * speed;
+                dirZ = dirZ / len * speed;
+            }
+
+            // Separation: push away from members closer than the separation radius.
+            double sepX = 0.0, sepZ = 0.0;
+            int found = spatial.query(x, z, sepRadius, nearby);
+            for (int k = 0; k < found; k++) {
+                int j = nearby[k];
+                if (j == i) continue;
+                double ox = x - spatial.x(j);
+                double oz = z - spatial.z(j);
+                double d = Math.sqrt(ox * ox + oz * oz);
+                if (d < 1.0E-4) {
+                    // Stacked exactly: split them deterministically by index.
+                    ox = (i < j) ? 1.0 : -1.0;
+                    oz = 0.0;
+                    d = 1.0;
+                }
+                double push = (sepRadius - Math.min(d, sepRadius)) / sepRadius;
+                sepX += ox / d * push;
+                sepZ += oz / d * push;
+            }
+            double moveX = dirX + sepX * sepWeight * speed;
+            double moveZ = dirZ + sepZ * sepWeight * speed;
+            double moveLen = Math.sqrt(moveX * moveX + moveZ * moveZ);
+            if (moveLen > speed) {
+                moveX = moveX / moveLen * speed;
+                moveZ = moveZ / moveLen * speed;
+            }
+
+            Vector velocity = mob.getVelocity();
+            double moveY = velocity.getY();
+            if (climb && mob.isOnGround()) moveY = JUMP_VELOCITY;
+            mob.setVelocity(velocity.setX(moveX).setY(moveY).setZ(moveZ));
+            if (moveLen > 1.0E-3) {
+                mob.setRotation((float) Math.toDegrees(Math.atan2(-moveX, moveZ)), 0.0f);
+            }
+
+            // Attack
+            if (!victimProtected && ticks >= m.nextAttackTick) {
+                double ax = vx - x;
+                double ay = vy - mob.getLocation().getY();
+                double az = vz - z;
+                if (ax * ax + ay * ay + az * az < ATTACK_RANGE_SQ && victim.getNoDamageTicks() == 0) {
+                    victim.damage(settings.damage(), mob);
+                    mob.swingMainHand();
+                    m.nextAttackTick = ticks + ATTACK_COOLDOWN_TICKS;
+                }
+            }
+        }
+    }
+
+    // --- Spawning ---
+
+    /** Spawns one member on a random reachable column at the spawn distance (if one is found). */
+    private void spawnOne(Player victim, World world) {
+        List<EntityType> forms = settings.forms();
+        Location victimLoc = victim.getLocation();
+        double distance = Math.min(settings.spawnDistance(), field.radius() - 2);
+        RandomGenerator random = this.random.get();
+
+        for (int attempt = 0; attempt < SPAWN_ATTEMPTS; attempt++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            int x = Location.locToBlock(victimLoc.getX() + Math.cos(angle) * distance);
+            int z = Location.locToBlock(victimLoc.getZ() + Math.sin(angle) * distance);
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) continue;
+            if (field.costAt(x, z) == FlowField.UNREACHABLE || field.isObstacle(x, z)) continue;
+
+            Location loc = new Location(world, x + 0.5, field.floorAt(x, z) + 1, z + 0.5);
+            Entity entity = world.spawnEntity(loc, forms.get(random.nextInt(forms.size())));
+            if (!(entity instanceof Mob mob)) {
+                entity.remove();
+                return;
+            }
+            setUp(mob, victim);
+            Member member = new Member(mob);
+            members.add(member);
+            byId.put(mob.getUniqueId(), member);
+            metrics.hordeSpawns.increment();
+            return;
+        }
+    }
+
+    private void setUp(Mob mob, Player victim) {
+        mob.getPersistentDataContainer().set(memberKey, PersistentDataType.BYTE, (byte) 1);
+        mob.setAware(false);
+        mob.setPersistent(false);
+        mob.setRemoveWhenFarAway(false);
+        mob.setSilent(true);
+        if (mob.getEquipment() != null) mob.getEquipment().clear();
+
+        AttributeInstance maxHealth = mob.getAttribute(Attribute.MAX_HEALTH);
+        if (maxHealth != null) maxHealth.setBaseValue(settings.maxHealth());
+        mob.setHealth(settings.maxHealth());
+        AttributeInstance knockback = mob.getAttribute(Attribute.KNOCKBACK_RESISTANCE);
+        if (knockback != null) knockback.setBaseValue(1.0);
+
+        // Like the main stalker, only the cursed player sees the horde.
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (!p.getUniqueId().equals(victim.getUniqueId())) p.hideEntity(plugin, mob);
+        }
+    }
+
+    /** Hides the horde from a player who is not the cursed one (e.g. on join). */
+    void hideFrom(Player player) {
+        for (Member m : members) player.hideEntity(plugin, m.mob);
+    }
+
+    /** Removes every member from the world. */
+    void clear() {
+        victimId = null;
+        metrics.setHordeMembers(0);
+        if (members.isEmpty()) return;
+        List<Member> removed = new ArrayList<>(members);
+        members.clear();
+        byId.clear();
+        for (Member m : removed) m.mob.remove();
+    }
+
+    private void removeAt(int index) {
+        Member m = members.get(index);
+        int last = members.size() - 1;
+        members.set(index, members.get(last));
+        members.remove(last);
+        byId.remove(m.mob.getUniqueId());
+    }
+
+    private void forget(Entity entity) {
+        Member m = byId.remove(entity.getUniqueId());
+        if (m != null) members.remove(m);
+    }
+
+    // --- Events ---
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        forget(event.getEntity());
+    }
+
+    @EventHandler
+    public void onEntityDeath(EntityDeathEvent event) {
+        if (!byId.containsKey(event.getEntity().getUniqueId())) return;
+        event.getDrops().clear();
+        event.setDroppedExp(0);
+        forget(event.getEntity());
+    }
+
+    @EventHandler
+    public void onSunBurn(EntityCombustEvent event) {
+        if (event.getEntity().getPersistentDataContainer().has(memberKey, PersistentDataType.BYTE)) {
+            event.setCancelled(true);
+        }
+    }
+
+    // --- Block Access ---
+
+    /**
+     * {@link BlockView} that treats unloaded chunks as empty (no floor) instead of loading them, so
+     * sampling the field never forces a chunk load. Those columns are picked up again by the
+     * periodic re-sampling once the chunk is loaded.
+     */
+    private static final class LoadedBlockView implements BlockView {
+        private World world;
+        private int chunkX = Integer.MIN_VALUE, chunkZ = Integer.MIN_VALUE;
+        private boolean loaded;
+
+        LoadedBlockView bind(World world) {
+            this.world = world;
+            chunkX = Integer.MIN_VALUE;
+            return this;
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            return isLoaded(x, z) && MaterialTraits.has(world.getType(x, y, z), MaterialTraits.SOLID);
+        }
+
+        @Override
+        public FearType fearAt(int x, int y, int z) {
+            return isLoaded(x, z) ? BukkitBlockView.fearTypeOf(world.getType(x, y, z)) : null;
+        }
+
+        private boolean isLoaded(int x, int z) {
+            int cx = x >> 4;
+            int cz = z >> 4;
+            if (cx != chunkX || cz != chunkZ) {
+                chunkX = cx;
+                chunkZ = cz;
+                loaded = world.isChunkLoaded(cx, cz);
+            }
+            return loaded;
+        }
+    }
+}
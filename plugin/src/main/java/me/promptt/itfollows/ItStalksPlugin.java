@@ -0,0 +1,2430 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.FearIndex;
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+import me.promptt.itfollows.ai.FlowField;
+import me.promptt.itfollows.ai.InterceptPredictor;
+import me.promptt.itfollows.ai.PursuitBrain;
+import me.promptt.itfollows.ai.StuckHeatmap;
+import me.promptt.itfollows.ai.StuckTracker;
+import me.promptt.itfollows.ai.VictimView;
+import me.promptt.itfollows.api.CurseSession;
+import me.promptt.itfollows.api.ItStalksApi;
+import me.promptt.itfollows.api.event.CurseTransferEvent;
+import me.promptt.itfollows.journal.CurseJournal;
+import me.promptt.itfollows.journal.JournalEvent;
+import me.promptt.itfollows.trace.TrajectoryFrame;
+import me.promptt.itfollows.trace.TrajectoryRecorder;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.block.Block;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.*;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityCombustEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
+
+/**
+ * ItStalksPlugin
+ *
+ * A Paper plugin implementing a "cursed" mechanic where a single stalker entity ("It")
+ * relentlessly pursues a cursed player.
+ *
+ * Key subsystems:
+ *  - Curse assignment & transfer
+ *  - Stalker spawn/respawn & persistence
+ *  - Target pursuit and combat
+ *  - Fear-source avoidance (fire / soul items / soul campfire)
+ *  - Anti-boat trapping
+ *  - Anti-stuck "Vex Mode" (temporary flying form)
+ *  - Optional proximity warnings
+ */
+public class ItStalksPlugin extends JavaPlugin implements Listener, CommandExecutor {
+
+    // --- Runtime State (Curse & Stalker Identity) ---
+
+    /** Current cursed player UUID (single target at any time). */
+    private UUID cursedPlayerUUID;
+
+    /** Victim of the fear hold announced to API listeners (null = none). */
+    private UUID fearHoldVictim;
+
+    /** Holds the active stalker entity and adopts/discards tagged stalkers as they load. */
+    private StalkerRegistry stalkers;
+
+    /** Per-phase timings for the AI loops (reported by /itstalks stats). */
+    private final TickProfiler profiler = new TickProfiler();
+
+    /** Operation counters (spawns, morphs, scans, ...) shared by /itstalks stats and the metrics endpoint. */
+    private final StalkerMetrics metrics = new StalkerMetrics();
+
+    /** Optional Prometheus endpoint (metrics.enabled). */
+    private final MetricsServer metricsServer = new MetricsServer(metrics, profiler);
+
+    /** Timestamp used to retarget if the cursed player logs out. */
+    private long cursedLogoutTime = -1;
+
+    /** Cooldown timestamp for "tag" transfer mechanic. */
+    private long lastTransferTime = 0;
+
+    // --- AI Core (Bukkit-free decision logic) ---
+
+    /** Block scanner configured with the enabled fear radii. */
+    private final FearScanner fearScanner = new FearScanner();
+
+    /** The brain's own copy of the fear radii; written by config reload only while no planner owns the brain. */
+    private final FearScanner brainRadii = new FearScanner();
+
+    /** Fear avoidance / pursuit decisions, including the fear-orbit state. */
+    private final PursuitBrain brain = new PursuitBrain(brainRadii);
+
+    /** Predicted meeting point with the running victim; the chase heads there instead of the victim. */
+    private final InterceptPredictor interception = new InterceptPredictor();
+
+    /** Anti-stuck "Vex Mode" state (stuck timer, Vex timer, protection-edge guard). */
+    private final StuckTracker stuckTracker = new StuckTracker();
+
+    /** Door/gate/trapdoor/ladder/scaffolding handlers, dispatched by {@link MaterialTraits}. */
+    private final BlockInteractions blockInteractions = BlockInteractions.withDefaults();
+
+    // Reusable adapters between Bukkit objects and the AI core
+    private final BukkitStalkerBody stalkerBody = new BukkitStalkerBody(metrics);
+    private final BukkitVictimView victimView = new BukkitVictimView();
+    private final BukkitBlockView blockView = new BukkitBlockView();
+
+    /** Ring-file recorder for the current curse session (null unless trajectory.enabled). */
+    private TrajectoryRecorder trajectory;
+    private UUID trajectoryVictim;
+    private final TrajectoryFrame trajectoryFrame = new TrajectoryFrame();
+
+    /** Plugin chunk tickets around the stalker and its path. */
+    private final ChunkTickets chunkTickets = new ChunkTickets(this);
+
+    /** Stalker behavior nodes, each re-run only when its inputs changed (see buildBehavior). */
+    private final BehaviorTree<StalkerTick> behavior = buildBehavior();
+    private final StalkerTick stalkerTick = new StalkerTick();
+
+    /** Bumped on join/quit/world change; marks the visibility node dirty. */
+    private int playersVersion;
+
+    /** Virtual stalker position while it is far from the victim (shadow pursuit mode). */
+    private final ShadowPursuit shadow = new ShadowPursuit();
+    private long lastShadowAdvanceMs;
+
+    /** Players that may receive the curse, maintained from player events. */
+    private final EligiblePlayers eligiblePlayers = new EligiblePlayers();
+
+    /** Distance-scaled potion effects on the cursed player; only resends an effect when needed. */
+    private final ProximityEffects proximityEffects = new ProximityEffects();
+
+    /** MSPT-driven degradation level (sampled once per second by the AI timer). */
+    private final TickGovernor governor = new TickGovernor();
+    private int aiTimerRuns;
+
+    /** Extra stalkers steered along a shared flow field (horde mode; created in onEnable). */
+    private Horde horde;
+
+    /** Incremental fear source indexes per world, replacing the block scans once warmed up (created in onEnable). */
+    private FearIndexes fearIndexes;
+
+    /** Players holding soul lights, blazes and burning mobs (created in onEnable). */
+    private MobileFearSources mobileFears;
+
+    /** The player the horde hunts this tick (set by the AI loop once the victim is valid, else null). */
+    private Player hordeVictim;
+
+    /** Random source for spawn angles, forms, horde spawns and auto-curse picks (seedable via random_seed). */
+    private RandomGenerator random = RandomGenerator.getDefault();
+
+    // --- Identity Key for Persistence ---
+
+    /** PDC key used to mark "our" stalker entities so they can be recovered/cleaned. */
+    private NamespacedKey stalkerKey;
+
+    // --- Configuration Cache ---
+
+    private int logoutRetargetDelay;
+    private int minTeleportDistance;
+    private int fatigueRange;
+    private int fatigueDuration;
+    private boolean canEnterWater;
+    private boolean autoCurseIfEmpty;
+    private int transferCooldownSeconds;
+
+    // Vex config
+    private boolean vexModeEnabled;
+    private int vexTriggerSeconds;
+    private int vexDurationSeconds;
+
+    // Stuck heatmap
+    /** Learned stuck spots per world (null = disabled). */
+    private StuckHeatmaps heatmaps;
+    private int stuckTrapThreshold;
+    private int trapLookaheadBlocks;
+    /** No look-ahead Vex before this time, so a walker that just landed past a trap gets clear of it first. */
+    private long trapLookaheadPausedUntilMs;
+
+    // Speed config
+    private double allowedFormsMovementSpeed;
+    private double allowedFormsPathfinderSpeed;
+    private double vexMovementSpeed;
+    private double vexFlyingSpeed;
+    private double vexPathfinderSpeed;
+
+    // Boat trap prevention
+    private double boatTrapRadius;
+
+    // Shadow pursuit
+    private boolean shadowEnabled;
+    private double shadowMaterializeRadius;
+    private double shadowDematerializeRadius;
+    private double shadowBlocksPerSecond;
+
+    // Trajectory recording
+    private boolean trajectoryEnabled;
+    private int trajectoryFramesPerSession;
+    private int trajectoryMaxFiles;
+
+    /** Worker that runs the movement decisions off the main thread (null = plan on the main thread). */
+    private AsyncPlanner planner;
+
+    /** Curse history on disk (null = journal disabled). */
+    private CurseJournal journal;
+
+    // Cross-server handoff
+    /** Link to the other backend servers (null = handoff disabled). */
+    private HandoffTransport handoff;
+    private String handoffTransportName = "none";
+    private String handoffServerId;
+    private long handoffExpireMs;
+    /** Handoffs that arrived before their holder joined, by holder. */
+    private final Map<UUID, CurseHandoff> pendingHandoffs = new HashMap<>();
+    /** Session of the handoff sent when the current holder quit (0 = none). */
+    private long outgoingHandoff;
+
+    // Metrics endpoint
+    private boolean metricsEnabled;
+    private String metricsBind;
+    private int metricsPort;
+
+    // Fear config
+    private boolean fearFireEnabled;
+    private double fearFireRadius;
+    private boolean fearSoulTorchEnabled;
+    private double fearSoulTorchRadius;
+    private boolean fearSoulLanternEnabled;
+    private double fearSoulLanternRadius;
+    private boolean fearSoulCampfireEnabled;
+    private double fearSoulCampfireRadius;
+
+    /** Extra buffer added to the base fear radius to create a stable "edge". */
+    private double fearAvoidPerimeterBuffer;
+
+    /** How far (in blocks) to step when pathing around a fear zone. */
+    private double fearAvoidStepDistance;
+
+    /**
+     * Legacy parameter (kept for backwards compatibility with config).
+     * Previously used for "inward" dot-product switching.
+     */
+    private double fearAvoidInwardDotThreshold;
+
+    // Stalker stats
+    private double stalkerMaxHealth;
+    private double stalkerDamage;
+
+    // Chat messages
+    private String msgCurseAssigned;
+    private String msgCurseCooldown;
+    private String msgCursePassedAttacker;
+    private String msgCursePassedVictim;
+    private String msgPlayerNotFound;
+    private String msgCurseStartedAdmin;
+    private String msgConfigReloaded;
+
+    // Proximity messages / tips
+    private boolean proximityMessagesEnabled;
+    private int proximityCheckIntervalTicks;
+    private int proximityDefaultCooldownSeconds;
+    private final List<ProximityTier> proximityTiers = new ArrayList<>();
+    private int proximityTickCounter = 0;
+    private final Map<UUID, Map<Integer, Long>> lastProximityMessageMs = new HashMap<>();
+
+    // Cached fear scan result (throttles block scanning for performance).
+    // Points at fearSourceSlot or is null; the slot is refilled in place on each scan.
+    private FearSource cachedFearSource;
+    private final FearSource fearSourceSlot = new FearSource();
+    private long lastFearScanMs = 0;
+
+    // Cached victim-protection scan (fear sources around the cursed player)
+    private FearSource cachedVictimProtectionSource;
+    private final FearSource victimProtectionSlot = new FearSource();
+    private long lastVictimProtectionScanMs = 0;
+
+    // Mobile fear hits that won over the cached block scans (refilled on every lookup)
+    private final FearSource mobileFearSlot = new FearSource();
+    private final FearSource mobileProtectionSlot = new FearSource();
+
+    /** True while the cursed player is inside a fear "safe zone". */
+    private volatile boolean victimProtectedByFear = false;
+
+    // Allowed entity forms for the stalker while walking
+    private final List<EntityType> allowedForms = new ArrayList<>();
+
+    // --- Internal Types ---
+
+    /** A scanned fear block together with the world it was found in (reused between scans). */
+    private static class FearSource {
+        World world;
+        final FearHit hit = new FearHit();
+    }
+
+    private static class ProximityTier {
+        final double radius;
+        final String message;
+        final int cooldownSeconds;
+
+        ProximityTier(double radius, String message, int cooldownSeconds) {
+            this.radius = radius;
+            this.message = message;
+            this.cooldownSeconds = cooldownSeconds;
+        }
+    }
+
+    // --- Plugin Lifecycle ---
+
+    @Override
+    public void onEnable() {
+        this.stalkerKey = new NamespacedKey(this, "is_stalker");
+        this.horde = new Horde(this, new NamespacedKey(this, "horde_member"), metrics, profiler, () -> random);
+        this.fearIndexes = new FearIndexes(fearScanner, metrics);
+        horde.setFearIndexes(fearIndexes);
+        this.mobileFears = new MobileFearSources(this, fearScanner, e -> (stalkers != null && stalkers.isStalker(e)) || horde.isMember(e));
+
+        saveDefaultConfig();
+        loadConfig();
+
+        this.stalkers = new StalkerRegistry(this, stalkerKey, this::shouldAdoptStalker, this::onStalkerAdopted);
+        getServer().getServicesManager().register(ItStalksApi.class, new PluginApi(this), this, ServicePriority.Normal);
+
+        getServer().getPluginManager().registerEvents(this, this);
+        getServer().getPluginManager().registerEvents(stalkers, this);
+        getServer().getPluginManager().registerEvents(eligiblePlayers, this);
+        getServer().getPluginManager().registerEvents(horde, this);
+        getServer().getPluginManager().registerEvents(mobileFears, this);
+        getServer().getPluginManager().registerEvents(fearIndexes, this);
+
+        // Register commands
+        Objects.requireNonNull(getCommand("startcurse")).setExecutor(this);
+        Objects.requireNonNull(getCommand("cursereload")).setExecutor(this);
+        Objects.requireNonNull(getCommand("itstalks")).setExecutor(this);
+
+        applyMetricsServer();
+
+        // Main AI tick (5 ticks = 0.25s, longer while degraded). Delay of 20 ticks gives the server time to fully start.
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                runAiTimer();
+            }
+        }.runTaskTimer(this, 20L, 5L);
+
+        // Fear index upkeep and horde steering run every tick (members are moved by velocity, not by the pathfinder).
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                fearIndexes.tick();
+                horde.tick(hordeVictim, victimProtectedByFear);
+            }
+        }.runTaskTimer(this, 20L, 1L);
+
+
+        getLogger().info("ItStalks has been enabled. Run.");
+    }
+
+    @Override
+    public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        // Curse state does not survive a restart, so do not leave the stalker behind in the world.
+        // Anything left over from a crash is discarded lazily by the registry as its chunk loads.
+        if (stalkers != null) stalkers.discardActive();
+        if (horde != null) horde.clear();
+        if (mobileFears != null) mobileFears.clear();
+        proximityEffects.clearAll();
+        chunkTickets.releaseAll();
+        if (planner != null) {
+            planner.shutdown();
+            planner = null;
+        }
+        closeTrajectory();
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (handoff != null) {
+            handoff.close();
+            handoff = null;
+        }
+        if (heatmaps != null) heatmaps.closeAll();
+        metricsServer.stop();
+    }
+
+    /** Starts, restarts or stops the metrics endpoint to match the cached config. */
+    private void applyMetricsServer() {
+        if (!metricsEnabled) {
+            metricsServer.stop();
+            return;
+        }
+        try {
+            metricsServer.start(metricsBind, metricsPort);
+            getLogger().info("Metrics endpoint listening on http://" + metricsBind + ":" + metricsPort + "/metrics");
+        } catch (IOException | IllegalArgumentException e) {
+            getLogger().warning("Could not start metrics endpoint on " + metricsBind + ":" + metricsPort + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adoption rule for tagged stalkers that load in while no stalker is active.
+     * Mirrors the old recovery scan: only a stalker near the online cursed player is reused.
+     */
+    private boolean shouldAdoptStalker(Entity entity) {
+        if (cursedPlayerUUID == null) return false;
+        Player victim = Bukkit.getPlayer(cursedPlayerUUID);
+        if (victim == null || !victim.isOnline()) return false;
+        return safeDistance(entity.getLocation(), victim.getLocation()) <= 100;
+    }
+
+    /** Resyncs mode/stuck state after the registry adopted a previously spawned stalker. */
+    private void onStalkerAdopted(Entity entity) {
+        Location loc = entity.getLocation();
+        stuckTracker.onSpawn(loc.getX(), loc.getY(), loc.getZ(), entity.getType() == EntityType.VEX);
+        resetOrbitState();
+    }
+
+    /** Loads all configuration values into local caches for fast access during tick loops. */
+    private void loadConfig() {
+        FileConfiguration config = getConfig();
+
+        logoutRetargetDelay = config.getInt("logout_retarget_delay", 300);
+        minTeleportDistance = config.getInt("min_teleport_distance", 50);
+        fatigueRange = config.getInt("fatigue_range", 10);
+        fatigueDuration = config.getInt("fatigue_duration", 100);
+        canEnterWater = config.getBoolean("can_enter_water", false);
+        autoCurseIfEmpty = config.getBoolean("auto_curse_if_empty", true);
+        transferCooldownSeconds = config.getInt("curse_transfer_cooldown", 3);
+
+        // Target selection (auto-curse and retargeting)
+        String policyName = config.getString("target_selection.policy", "uniform");
+        EligiblePlayers.Policy policy = EligiblePlayers.parsePolicy(policyName);
+        if (policy == null) {
+            getLogger().warning("Invalid target_selection.policy: " + policyName + " (using uniform)");
+            policy = EligiblePlayers.Policy.UNIFORM;
+        }
+        eligiblePlayers.configure(policy,
+                Math.max(1, config.getInt("target_selection.least_recent_window_seconds", 1800)) * 1000L,
+                config.getInt("target_selection.exclude_recent", 2),
+                new HashSet<>(config.getStringList("target_selection.excluded_worlds")));
+
+        vexModeEnabled = config.getBoolean("vex_mode_enabled", true);
+        vexTriggerSeconds = config.getInt("vex_trigger_seconds", 10);
+        vexDurationSeconds = config.getInt("vex_duration_seconds", 10);
+        stuckTracker.setTimings(vexTriggerSeconds, vexDurationSeconds);
+
+        // Stuck heatmap
+        boolean heatmapEnabled = config.getBoolean("stuck_heatmap.enabled", false);
+        if (heatmapEnabled && heatmaps == null) {
+            heatmaps = new StuckHeatmaps(getDataFolder().toPath().resolve("heatmap"), getLogger());
+        } else if (!heatmapEnabled && heatmaps != null) {
+            heatmaps.closeAll();
+            heatmaps = null;
+        }
+        if (heatmaps != null) {
+            heatmaps.setDecayInterval(Math.max(0L, config.getLong("stuck_heatmap.decay_days", 7L)) * 24L * 60L * 60L * 1000L);
+        }
+        stuckTrapThreshold = Math.max(1, Math.min(StuckHeatmap.MAX_COUNT, config.getInt("stuck_heatmap.trap_threshold", 2)));
+        trapLookaheadBlocks = Math.max(0, config.getInt("stuck_heatmap.lookahead_blocks", 6));
+        stuckTracker.setKnownTrapTriggerSeconds(config.getInt("stuck_heatmap.known_trap_trigger_seconds", 2));
+        horde.setTraps(heatmaps, stuckTrapThreshold);
+
+        // Speeds
+        allowedFormsMovementSpeed = config.getDouble("speeds.allowed_forms.movement", 0.12);
+        allowedFormsPathfinderSpeed = config.getDouble("speeds.allowed_forms.pathfinder", 1.0);
+        vexMovementSpeed = config.getDouble("speeds.vex_form.movement", 0.12);
+        vexFlyingSpeed = config.getDouble("speeds.vex_form.flying", 0.12);
+        vexPathfinderSpeed = config.getDouble("speeds.vex_form.pathfinder", 1.0);
+
+        // Interception
+        interception.configure(config.getBoolean("interception.enabled", false),
+                config.getDouble("interception.aggressiveness", 0.8),
+                config.getLong("interception.history_ms", 1000L),
+                config.getDouble("interception.max_lead_seconds", 3.0),
+                config.getDouble("interception.replan_distance", 2.5),
+                config.getDouble("interception.direct_range", 6.0));
+
+        // Boat trap prevention
+        boatTrapRadius = config.getDouble("boat_trap_prevention_radius", 3.5);
+
+        // Fears
+        fearFireEnabled = config.getBoolean("fears.fire.enabled", true);
+        fearFireRadius = config.getDouble("fears.fire.radius", 8.0);
+
+        fearSoulTorchEnabled = config.getBoolean("fears.soul_torch.enabled", true);
+        fearSoulTorchRadius = config.getDouble("fears.soul_torch.radius", 8.0);
+
+        fearSoulLanternEnabled = config.getBoolean("fears.soul_lantern.enabled", true);
+        fearSoulLanternRadius = config.getDouble("fears.soul_lantern.radius", 8.0);
+
+        // Soul Campfire (replaces beacon). Falls back to old beacon keys for backwards compatibility.
+        fearSoulCampfireEnabled = config.getBoolean("fears.soul_campfire.enabled", config.getBoolean("fears.beacon.enabled", true));
+        fearSoulCampfireRadius = config.getDouble("fears.soul_campfire.radius", config.getDouble("fears.beacon.radius", 32.0));
+
+        // Fear avoidance tuning
+        fearAvoidPerimeterBuffer = Math.max(0.0, config.getDouble("fears.avoidance.perimeter_buffer", 0.75));
+        fearAvoidStepDistance = Math.max(1.0, config.getDouble("fears.avoidance.step_distance", 6.0));
+        fearAvoidInwardDotThreshold = config.getDouble("fears.avoidance.inward_dot_threshold", 0.15);
+
+        fearScanner.setRadius(FearType.FIRE, fearFireEnabled ? fearFireRadius : 0.0);
+        fearScanner.setRadius(FearType.SOUL_TORCH, fearSoulTorchEnabled ? fearSoulTorchRadius : 0.0);
+        fearScanner.setRadius(FearType.SOUL_LANTERN, fearSoulLanternEnabled ? fearSoulLanternRadius : 0.0);
+        fearScanner.setRadius(FearType.SOUL_CAMPFIRE, fearSoulCampfireEnabled ? fearSoulCampfireRadius : 0.0);
+
+        // Fear source index (uses the radii and buffer above)
+        fearIndexes.configure(config.getBoolean("fears.source_index.enabled", true), fearAvoidPerimeterBuffer,
+                config.getInt("fears.source_index.sections_per_tick", 2));
+
+        // Mobile fear sources (use the radii above, so configured after them)
+        mobileFears.configure(new MobileFearSources.Settings(
+                config.getBoolean("fears.mobile.enabled", false),
+                config.getBoolean("fears.mobile.held_items", true),
+                config.getBoolean("fears.mobile.blazes", true),
+                config.getBoolean("fears.mobile.burning_entities", true)));
+
+        // Randomness (0 = unseeded)
+        long seed = config.getLong("random_seed", 0L);
+        random = (seed != 0L) ? new SplittableRandom(seed) : new SplittableRandom();
+
+        // Profiler
+        profiler.setEnabled(config.getBoolean("profiler.enabled", false));
+
+        // MSPT governor
+        governor.configure(config.getBoolean("governor.enabled", true),
+                config.getDouble("governor.reduced_mspt", 40.0),
+                config.getDouble("governor.minimal_mspt", 47.0),
+                config.getDouble("governor.recover_margin_mspt", 8.0),
+                config.getInt("governor.recover_seconds", 15));
+        horde.setSpawningPaused(governor.level() != TickGovernor.Level.NORMAL);
+        metrics.setDegradationLevel(governor.level().ordinal());
+
+        // Trajectory recording
+        trajectoryEnabled = config.getBoolean("trajectory.enabled", false);
+        trajectoryFramesPerSession = Math.max(1, config.getInt("trajectory.frames_per_session", 14400));
+        trajectoryMaxFiles = Math.max(1, config.getInt("trajectory.max_files", 20));
+        if (!trajectoryEnabled) closeTrajectory();
+
+        // Shadow pursuit
+        shadowEnabled = config.getBoolean("shadow_pursuit.enabled", false);
+        shadowMaterializeRadius = Math.max(8.0, config.getDouble("shadow_pursuit.materialize_radius", 48.0));
+        shadowDematerializeRadius = Math.max(shadowMaterializeRadius + 16.0, config.getDouble("shadow_pursuit.dematerialize_radius", 96.0));
+        shadowBlocksPerSecond = config.getDouble("shadow_pursuit.blocks_per_second", 0.0);
+        if (shadowBlocksPerSecond <= 0.0) {
+            // Roughly what the movement attribute works out to on flat ground (0.1 = player walking, ~4.3 blocks/s)
+            shadowBlocksPerSecond = allowedFormsMovementSpeed * allowedFormsPathfinderSpeed * 43.17;
+        }
+        shadow.setFallbackDistance(minTeleportDistance);
+        if (!shadowEnabled) shadow.clear();
+
+        // Chunk tickets
+        chunkTickets.setMaxTickets(config.getInt("chunk_tickets.max_per_session", 4));
+
+        // Off-thread planning
+        boolean asyncPlanning = config.getBoolean("planning.async", false);
+        if (asyncPlanning && planner == null) {
+            planner = new AsyncPlanner(brain, brainRadii, getLogger());
+        } else if (!asyncPlanning && planner != null) {
+            planner.shutdown();
+            planner = null;
+            brain.clearOrbitState();
+        }
+        // Fear radii and avoidance tuning (fears.*) go through the planner while its worker owns the brain.
+        if (planner != null) {
+            planner.setRadii(fearScanner);
+            planner.setAvoidance(fearAvoidPerimeterBuffer, fearAvoidStepDistance);
+        } else {
+            brainRadii.copyRadii(fearScanner);
+            brain.setAvoidance(fearAvoidPerimeterBuffer, fearAvoidStepDistance);
+        }
+
+        // Curse journal
+        boolean journalEnabled = config.getBoolean("journal.enabled", true);
+        if (journalEnabled && journal == null) {
+            journal = CurseJournal.open(getDataFolder().toPath().resolve("journal"), getLogger());
+        } else if (!journalEnabled && journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (journal != null) {
+            journal.setRolling(
+                    Math.max(4L, config.getLong("journal.segment_max_kb", 1024L)) * 1024L,
+                    Math.max(1L, config.getLong("journal.segment_max_hours", 24L)) * 60L * 60L * 1000L,
+                    config.getInt("journal.retain_segments", 90));
+        }
+
+        // Cross-server handoff
+        String configuredServerId = config.getString("handoff.server_id", "");
+        if (configuredServerId != null && !configuredServerId.isBlank()) {
+            handoffServerId = configuredServerId;
+        } else if (handoffServerId == null) {
+            handoffServerId = UUID.randomUUID().toString().substring(0, 8);
+        }
+        handoffExpireMs = Math.max(5, config.getInt("handoff.expire_seconds", 30)) * 1000L;
+        if (handoff != null) {
+            handoff.close();
+            handoff = null;
+        }
+        handoffTransportName = config.getString("handoff.transport", "none").toLowerCase(Locale.ROOT);
+        switch (handoffTransportName) {
+            case "none" -> { }
+            case "proxy" -> handoff = new ProxyHandoffTransport(this, this::receiveHandoff);
+            case "loopback" -> handoff = HandoffTransport.loopback(this, this::receiveHandoff);
+            case "directory" -> {
+                String directory = config.getString("handoff.directory", "");
+                if (directory == null || directory.isBlank()) {
+                    getLogger().warning("handoff.transport is directory but handoff.directory is not set (handoff disabled)");
+                } else {
+                    handoff = new DirectoryHandoffTransport(this, Path.of(directory), handoffServerId, this::receiveHandoff);
+                }
+            }
+            default -> getLogger().warning("Invalid handoff.transport: " + handoffTransportName + " (handoff disabled)");
+        }
+        if (handoff == null) handoffTransportName = "none";
+
+        // Metrics endpoint
+        metricsEnabled = config.getBoolean("metrics.enabled", false);
+        metricsBind = config.getString("metrics.bind", "127.0.0.1");
+        metricsPort = config.getInt("metrics.port", 9464);
+
+        // Stalker stats
+        stalkerMaxHealth = Math.max(1.0, config.getDouble("stalker.max_health", 100.0));
+        stalkerDamage = Math.max(0.0, config.getDouble("stalker.damage", 12.0));
+
+        // Messages
+        msgCurseAssigned = config.getString("messages.curse_assigned", "&4&lYou feel a cold chill... It is following you.");
+        msgCurseCooldown = config.getString("messages.curse_cooldown", "&cYou cannot pass the curse yet! Wait {seconds}s.");
+        msgCursePassedAttacker = config.getString("messages.curse_passed_attacker", "&aYou have passed the curse to {victim}!");
+        msgCursePassedVictim = config.getString("messages.curse_passed_victim", "&4&lTAG! You are now Cursed.");
+        msgPlayerNotFound = config.getString("messages.player_not_found", "&cPlayer not found.");
+        msgCurseStartedAdmin = config.getString("messages.curse_started_admin", "&cCurse started on {target}");
+        msgConfigReloaded = config.getString("messages.config_reloaded", "&aItStalks configuration reloaded!");
+
+        // Proximity messages
+        proximityMessagesEnabled = config.getBoolean("proximity_messages.enabled", true);
+        proximityCheckIntervalTicks = Math.max(5, config.getInt("proximity_messages.check_interval_ticks", 20));
+        proximityDefaultCooldownSeconds = Math.max(0, config.getInt("proximity_messages.default_cooldown_seconds", 180));
+
+        proximityTiers.clear();
+        List<Map<?, ?>> tiers = config.getMapList("proximity_messages.tiers");
+        for (Map<?, ?> m : tiers) {
+            if (m == null) continue;
+            double radius = toDouble(m.get("radius"), -1);
+            if (radius <= 0) continue;
+            Object msgObj = m.get("message");
+            if (msgObj == null) continue;
+
+            String message = String.valueOf(msgObj);
+            int cooldown = proximityDefaultCooldownSeconds;
+            if (m.containsKey("cooldown_seconds")) {
+                cooldown = (int) Math.round(toDouble(m.get("cooldown_seconds"), cooldown));
+            }
+
+            proximityTiers.add(new ProximityTier(radius, message, cooldown));
+        }
+        proximityTiers.sort(Comparator.comparingDouble(t -> t.radius));
+
+        lastProximityMessageMs.clear();
+        proximityTickCounter = 0;
+
+        // Proximity effects (mining fatigue is always the first rule)
+        List<ProximityEffects.Rule> effectRules = new ArrayList<>();
+        effectRules.add(new ProximityEffects.Rule(PotionEffectType.MINING_FATIGUE, fatigueRange, 1, 1, fatigueDuration));
+        for (Map<?, ?> m : config.getMapList("proximity_effects")) {
+            if (m == null) continue;
+            String name = String.valueOf(m.get("effect"));
+            PotionEffectType type = Registry.EFFECT.match(name);
+            if (type == null) {
+                getLogger().warning("Invalid potion effect in proximity_effects: " + name);
+                continue;
+            }
+            double range = toDouble(m.get("range"), -1);
+            if (range <= 0) continue;
+            int amplifier = (int) Math.round(toDouble(m.get("amplifier"), 0));
+            int maxAmplifier = (int) Math.round(toDouble(m.get("max_amplifier"), amplifier));
+            int duration = (int) Math.round(toDouble(m.get("duration"), 100));
+            effectRules.add(new ProximityEffects.Rule(type, range, amplifier, maxAmplifier, duration));
+        }
+        proximityEffects.setRules(effectRules);
+
+        // Allowed forms
+        allowedForms.clear();
+        for (String s : config.getStringList("allowed_forms")) {
+            try {
+                allowedForms.add(EntityType.valueOf(s.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                getLogger().warning("Invalid entity type in config: " + s);
+            }
+        }
+
+        // Horde mode (walking forms only)
+        horde.configure(new Horde.Settings(
+                config.getInt("horde.size", 0),
+                config.getInt("horde.field_radius", 48),
+                config.getInt("horde.spawn_interval_ticks", 10),
+                minTeleportDistance,
+                config.getDouble("horde.separation_radius", 1.2),
+                config.getDouble("horde.separation_weight", 0.6),
+                allowedFormsMovementSpeed * allowedFormsPathfinderSpeed * 43.17 / 20.0,
+                Math.max(1.0, config.getDouble("horde.max_health", 20.0)),
+                Math.max(0.0, config.getDouble("horde.damage", 4.0)),
+                allowedForms), fearScanner, fearAvoidPerimeterBuffer);
+
+        // Settings changed under every node: re-run them all on the next update.
+        behavior.invalidate();
+    }
+
+    // --- Formatting / Utility ---
+
+    private String colorize(String msg) {
+        if (msg == null) return "";
+        return ChatColor.translateAlternateColorCodes('&', msg);
+    }
+
+    private String formatMessage(String template, Map<String, String> placeholders) {
+        if (template == null) return "";
+        String out = template;
+        if (placeholders != null) {
+            for (Map.Entry<String, String> e : placeholders.entrySet()) {
+                out = out.replace("{" + e.getKey() + "}", e.getValue());
+            }
+        }
+        return colorize(out);
+    }
+
+    private static double toDouble(Object o, double def) {
+        if (o instanceof Number n) return n.doubleValue();
+        try {
+            return Double.parseDouble(String.valueOf(o));
+        } catch (Exception ignored) {
+            return def;
+        }
+    }
+
+    // --- Core Logic Loop ---
+
+    /**
+     * The 5-tick AI timer: samples the server's MSPT once per second for the governor, then runs
+     * {@link #tickLogic()} on every run, or only every 2nd/4th run while degraded.
+     */
+    private void runAiTimer() {
+        aiTimerRuns++;
+        if (aiTimerRuns % 4 == 0) sampleGovernor();
+        if (aiTimerRuns % governor.level().aiStride != 0) return;
+        tickLogic();
+        updateFearHold();
+    }
+
+    /** Tells API listeners when the victim's fear protection starts or ends (including with the session). */
+    private void updateFearHold() {
+        UUID held = victimProtectedByFear ? cursedPlayerUUID : null;
+        if (Objects.equals(held, fearHoldVictim)) return;
+        if (fearHoldVictim != null) ApiEvents.fearHoldStop(fearHoldVictim);
+        fearHoldVictim = held;
+        if (held != null) {
+            StalkerTick t = stalkerTick;
+            ApiEvents.fearHoldStart(t.victim, t.mob, t.world, t.victimProtection);
+        }
+    }
+
+    private void sampleGovernor() {
+        TickGovernor.Level previous = governor.sample(getServer().getAverageTickTime());
+        metrics.setMspt(governor.lastMspt());
+        if (previous == null) return;
+
+        TickGovernor.Level level = governor.level();
+        metrics.setDegradationLevel(level.ordinal());
+        metrics.degradationChanges.increment();
+        horde.setSpawningPaused(level != TickGovernor.Level.NORMAL);
+        behavior.invalidate();
+        getLogger().info(String.format(Locale.US, "Server at %.1f MSPT: stalker AI %s %s mode.",
+                governor.lastMspt(), level.ordinal() > previous.ordinal() ? "degraded to" : "recovered to",
+                level.name().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Primary tick loop (runs every 5 ticks).
+     *
+     * Responsibilities:
+     *  - Ensure we have a valid cursed player
+     *  - Ensure the stalker exists and is in the correct world
+     *  - Snapshot the stalker, victim and fear sources, then run the behavior nodes whose inputs
+     *    changed (fear avoidance / pursuit, doors and ladders, stuck check, combat effects)
+     */
+    private void tickLogic() {
+        // Reset per-tick protection flag. It will be re-enabled if the victim is in a safety radius.
+        victimProtectedByFear = false;
+        hordeVictim = null;
+        metrics.setActiveSessions(0);
+
+        // 1) Ensure a valid cursed player exists (or auto-pick)
+        if (cursedPlayerUUID == null) {
+            if (autoCurseIfEmpty) pickRandomTarget(JournalEvent.Type.AUTO_CURSE);
+            return;
+        }
+
+        Player victim = Bukkit.getPlayer(cursedPlayerUUID);
+
+        // 2) Handle victim disconnect & retargeting
+        if (victim == null || !victim.isOnline()) {
+            if (cursedLogoutTime == -1) cursedLogoutTime = System.currentTimeMillis();
+            if ((System.currentTimeMillis() - cursedLogoutTime) / 1000 > logoutRetargetDelay) {
+                pickRandomTarget(JournalEvent.Type.LOGOUT_RETARGET);
+            }
+            return;
+        } else {
+            cursedLogoutTime = -1;
+        }
+
+        // 3) Do not stalk creative/spectator
+        if (victim.getGameMode() == GameMode.SPECTATOR || victim.getGameMode() == GameMode.CREATIVE) {
+            removeItEntity();
+            return;
+        }
+        hordeVictim = victim;
+
+        // 4) Active stalker handle (previously spawned stalkers are adopted lazily by the registry)
+        Entity it = stalkers.getActive();
+
+        // 4b) Shadow pursuit: far away the stalker is only a virtual position
+        if (shadowEnabled && tickShadow(victim, it)) return;
+
+        // 5) Respawn logic: missing, wrong world, or very far away
+        if (it == null
+                || !isSameWorld(it.getLocation(), victim.getLocation())
+                || safeDistance(it.getLocation(), victim.getLocation()) > 120) {
+            if (stalkers.discardActive()) metrics.despawns.increment();
+            proximityEffects.clear(victim);
+            chunkTickets.releaseAll();
+            spawnIt(victim);
+            return;
+        }
+
+        // 6) Behavior loop (mob only)
+        if (!(it instanceof Mob mob)) return;
+        metrics.setActiveSessions(1);
+
+        StalkerTick t = stalkerTick;
+        t.mob = mob;
+        t.victim = victim;
+        t.world = mob.getWorld();
+        t.nowMs = System.currentTimeMillis();
+        t.distToVictim = safeDistance(mob.getLocation(), victim.getLocation());
+        stalkerBody.bind(mob, victim, canFly(mob), getCurrentPathfinderSpeed(mob));
+        victimView.bind(victim, t.world);
+        if (!victim.getUniqueId().equals(t.victimId)) interception.reset();
+        interception.observe(victimView, t.nowMs);
+
+        // --- Safety Radius (Feared Objects) ---
+        // If the cursed player is standing inside the safety radius of any fear source,
+        // the stalker should approach the perimeter of that fear radius and stop there.
+        // This prevents the "freezing wherever it is" behavior while still respecting the bubble.
+        long phaseStart = profiler.start();
+        mobileFears.refresh(t.nowMs, governor.level().fearScanIntervalMs);
+        t.victimProtection = fearHitIn(getVictimProtectionSource(victim.getWorld(),
+                Location.locToBlock(victimView.x()), Location.locToBlock(victimView.y()), Location.locToBlock(victimView.z())), t.world);
+        profiler.stop(TickProfiler.Phase.VICTIM_PROTECTION, phaseStart);
+        boolean victimIsProtected = t.victimProtection != null;
+        victimProtectedByFear = victimIsProtected;
+
+        // Leaving a protection bubble resets the one-shot "edge Vex" guard.
+        stuckTracker.onVictimProtection(victimIsProtected);
+
+        // Feared objects around the stalker only matter while the victim is not protected (scan is cached).
+        // Under the minimal governor level the stalker skips them and paths straight at the victim.
+        t.fearSource = null;
+        if (!victimIsProtected && !governor.level().straightLine) {
+            phaseStart = profiler.start();
+            t.fearSource = fearHitIn(getFearSource(t.world,
+                    Location.locToBlock(stalkerBody.x()), Location.locToBlock(stalkerBody.y()), Location.locToBlock(stalkerBody.z())), t.world);
+            profiler.stop(TickProfiler.Phase.FEAR_SCAN, phaseStart);
+        }
+
+        t.changed = changedInputs(t);
+        behavior.tick(t, t.changed, profiler.isEnabled());
+    }
+
+    /** Per-update state shared by the behavior nodes (one reused instance). */
+    private static final class StalkerTick {
+        Mob mob;
+        Player victim;
+        World world;
+        long nowMs;
+        double distToVictim;
+        FearHit victimProtection;
+        FearHit fearSource;
+        /** Result of the last decision: the victim is protected and the stalker holds at the perimeter. */
+        boolean holding;
+        /** Behavior inputs that changed this update. */
+        int changed;
+
+        // Previous-update state for the dirty flags
+        int entityId = -1;
+        UUID victimId;
+        int victimBlockX, victimBlockY, victimBlockZ;
+        int stalkerBlockX, stalkerBlockY, stalkerBlockZ;
+        final FearHit lastProtection = new FearHit();
+        final FearHit lastFear = new FearHit();
+        boolean hadProtection, hadFear;
+        int playersVersion = -1;
+        long lastSecondMs;
+    }
+
+    /** Compares this update's state with the previous one and returns the changed behavior inputs. */
+    private int changedInputs(StalkerTick t) {
+        int changed = 0;
+
+        if (t.mob.getEntityId() != t.entityId) {
+            t.entityId = t.mob.getEntityId();
+            changed |= BehaviorTree.FORM_CHANGED;
+        }
+        if (!t.victim.getUniqueId().equals(t.victimId)) {
+            t.victimId = t.victim.getUniqueId();
+            changed |= BehaviorTree.VICTIM_CHANGED;
+        }
+
+        int vx = Location.locToBlock(victimView.x()), vy = Location.locToBlock(victimView.y()), vz = Location.locToBlock(victimView.z());
+        if (vx != t.victimBlockX || vy != t.victimBlockY || vz != t.victimBlockZ) {
+            t.victimBlockX = vx;
+            t.victimBlockY = vy;
+            t.victimBlockZ = vz;
+            changed |= BehaviorTree.VICTIM_MOVED;
+        }
+        int sx = Location.locToBlock(stalkerBody.x()), sy = Location.locToBlock(stalkerBody.y()), sz = Location.locToBlock(stalkerBody.z());
+        if (sx != t.stalkerBlockX || sy != t.stalkerBlockY || sz != t.stalkerBlockZ) {
+            t.stalkerBlockX = sx;
+            t.stalkerBlockY = sy;
+            t.stalkerBlockZ = sz;
+            changed |= BehaviorTree.STALKER_MOVED;
+        }
+
+        boolean protectionChanged = !sameFearHit(t.victimProtection, t.hadProtection, t.lastProtection);
+        boolean fearChanged = !sameFearHit(t.fearSource, t.hadFear, t.lastFear);
+        if (protectionChanged || fearChanged) {
+            t.hadProtection = copyFearHit(t.victimProtection, t.lastProtection);
+            t.hadFear = copyFearHit(t.fearSource, t.lastFear);
+            changed |= BehaviorTree.FEAR_CHANGED;
+        }
+
+        if (playersVersion != t.playersVersion) {
+            t.playersVersion = playersVersion;
+            changed |= BehaviorTree.PLAYERS_CHANGED;
+        }
+        // Wall-clock based, so it stays once per second when the governor stretches the AI interval
+        // (with half a tick of slack for timer jitter).
+        if (t.nowMs - t.lastSecondMs >= 975L) {
+            t.lastSecondMs = t.nowMs;
+            changed |= BehaviorTree.SECOND_ELAPSED;
+        }
+        if (planner != null) changed |= BehaviorTree.PLAN_PENDING;
+        return changed;
+    }
+
+    private static boolean sameFearHit(FearHit hit, boolean had, FearHit last) {
+        if (hit == null) return !had;
+        return had && hit.type() == last.type()
+                && hit.blockX() == last.blockX() && hit.blockY() == last.blockY() && hit.blockZ() == last.blockZ();
+    }
+
+    private static boolean copyFearHit(FearHit hit, FearHit into) {
+        if (hit == null) return false;
+        into.set(hit.type(), hit.blockX(), hit.blockY(), hit.blockZ());
+        return true;
+    }
+
+    /**
+     * The stalker's behavior as a sequence of nodes, each re-evaluated only when one of its inputs
+     * changed (see {@link BehaviorTree}). Order matches the old procedural loop.
+     */
+    private BehaviorTree<StalkerTick> buildBehavior() {
+        return new BehaviorTree<StalkerTick>()
+                // Proximity chat messages (tips/alerts based on distance; throttled internally)
+                .node("proximity-msgs", BehaviorTree.ALWAYS, t -> {
+                    handleProximityMessages(t.victim, t.distToVictim);
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Visibility: only the cursed player can see the stalker. Hiding sticks per player,
+                // so it only needs redoing for a new entity, a new victim or a changed player list.
+                .node("visibility", BehaviorTree.FORM_CHANGED | BehaviorTree.VICTIM_CHANGED | BehaviorTree.PLAYERS_CHANGED, t -> {
+                    long phaseStart = profiler.start();
+                    updateVisibility(t.mob);
+                    profiler.stop(TickProfiler.Phase.VISIBILITY, phaseStart);
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Prevent boat trapping / clean nearby boats
+                .node("boat-sweep", BehaviorTree.ALWAYS, t -> {
+                    if (!governor.level().boatSweep) return BehaviorTree.Status.CONTINUE;
+                    long phaseStart = profiler.start();
+                    handleBoatTrapPrevention(t.mob);
+                    profiler.stop(TickProfiler.Phase.BOAT_SWEEP, phaseStart);
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Fear avoidance / perimeter hold / pursuit (PursuitBrain). Refreshed at least once a
+                // second so the orbit timers and a path lost to the mob's own goals are picked up.
+                .node("decision", BehaviorTree.VICTIM_MOVED | BehaviorTree.STALKER_MOVED | BehaviorTree.FEAR_CHANGED
+                        | BehaviorTree.FORM_CHANGED | BehaviorTree.VICTIM_CHANGED | BehaviorTree.SECOND_ELAPSED
+                        | BehaviorTree.PLAN_PENDING, t -> {
+                    VictimView aim = pursuitAim(t.mob);
+                    t.holding = (planner != null)
+                            ? planOffThread(t.mob, t.victim, aim, t.victimProtection, t.fearSource, t.nowMs)
+                            : planOnMainThread(t.mob, t.victim, aim, t.victimProtection, t.fearSource, t.nowMs);
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Keep the stalker's chunk and the way to its destination loaded, whatever the victim's view distance.
+                .node("chunk-tickets", BehaviorTree.STALKER_MOVED | BehaviorTree.VICTIM_MOVED | BehaviorTree.FORM_CHANGED
+                        | BehaviorTree.SECOND_ELAPSED, t -> {
+                    chunkTickets.update(t.world, stalkerBody.x(), stalkerBody.z(),
+                            stalkerBody.hasDestination(), stalkerBody.destinationX(), stalkerBody.destinationZ());
+                    metrics.setChunkTickets(chunkTickets.size());
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Stuck detection / Vex morphing (once per second; also while holding at a perimeter).
+                // A new form re-runs it only to drop the HALT of the morph that created it, since a
+                // skipped node repeats its last status.
+                .node("stuck-check", BehaviorTree.SECOND_ELAPSED | BehaviorTree.FORM_CHANGED, t -> {
+                    if (!vexModeEnabled || (t.changed & BehaviorTree.SECOND_ELAPSED) == 0) return BehaviorTree.Status.CONTINUE;
+                    long phaseStart = profiler.start();
+                    boolean morphed = updateStuckStatus(t.mob, t.victim);
+                    profiler.stop(TickProfiler.Phase.STUCK_CHECK, phaseStart);
+                    // The old entity is gone after a morph; the new one is picked up next update.
+                    return morphed ? BehaviorTree.Status.HALT : BehaviorTree.Status.CONTINUE;
+                })
+                // While the victim is protected the stalker only holds; nothing below applies.
+                .node("hold-gate", BehaviorTree.ALWAYS, t -> t.holding ? BehaviorTree.Status.HALT : BehaviorTree.Status.CONTINUE)
+                // Doors, gates, trapdoors, ladders and scaffolding (handlers dispatched by material traits)
+                .node("doors-ladders", BehaviorTree.STALKER_MOVED | BehaviorTree.FORM_CHANGED | BehaviorTree.SECOND_ELAPSED, t -> {
+                    if (!governor.level().doorsAndLadders) return BehaviorTree.Status.CONTINUE;
+                    long phaseStart = profiler.start();
+                    blockInteractions.tick(t.mob, t.victim);
+
+                    // NOTE:
+                    // The older "spider" wall-climbing logic is no longer necessary now that Vex mode exists
+                    // for resolving navigation edge cases. It also tended to interfere with fear-perimeter
+                    // holding and produced jittery movement.
+                    //
+                    // If you ever want this back, re-enable the call below.
+                    // if (!stuckTracker.isVexMode()) handleClimbing(t.mob);
+                    profiler.stop(TickProfiler.Phase.DOORS_LADDERS, phaseStart);
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                // Vex aggression (the vanilla charge goal clears the flag, so it is renewed every second)
+                .node("vex-charge", BehaviorTree.FORM_CHANGED | BehaviorTree.SECOND_ELAPSED, t -> {
+                    if (stuckTracker.isVexMode() && t.mob instanceof Vex vex) {
+                        vex.setCharging(true);
+                    }
+                    return BehaviorTree.Status.CONTINUE;
+                })
+                .node("combat", BehaviorTree.ALWAYS, t -> {
+                    long phaseStart = profiler.start();
+                    Mob mob = t.mob;
+                    Player victim = t.victim;
+
+                    // Water avoidance
+                    if (!canEnterWater && mob.isInWater()) {
+                        Vector away = mob.getLocation().toVector().subtract(victim.getLocation().toVector()).normalize().multiply(0.5).setY(0.5);
+                        stalkerBody.setVelocity(away.getX(), away.getY(), away.getZ());
+                        stalkerBody.flush();
+                    }
+
+                    // Attack
+                    if (t.distToVictim < 1.5) {
+                        if (victim.getNoDamageTicks() == 0) {
+                            victim.damage(stalkerDamage, mob);
+                            mob.swingMainHand();
+                        }
+                    }
+
+                    // Effects
+                    proximityEffects.update(victim, t.distToVictim);
+                    profiler.stop(TickProfiler.Phase.COMBAT, phaseStart);
+                    return BehaviorTree.Status.CONTINUE;
+                });
+    }
+
+    /** Hides the stalker from everyone but the cursed player. */
+    private void updateVisibility(Mob mob) {
+        JfrEvents.VisibilitySweep sweep = new JfrEvents.VisibilitySweep();
+        sweep.begin();
+        int swept = 0;
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (!p.getUniqueId().equals(cursedPlayerUUID)) {
+                p.hideEntity(this, mob);
+            } else {
+                p.showEntity(this, mob);
+            }
+            swept++;
+        }
+        if (sweep.shouldCommit()) {
+            sweep.players = swept;
+            sweep.commit();
+        }
+    }
+
+    // --- Movement Decisions ---
+
+    /**
+     * Re-evaluates the interception aim for this update.
+     *
+     * @return where the chase should head: the committed aim, or the victim itself when there is none
+     */
+    private VictimView pursuitAim(Mob mob) {
+        if (!interception.isEnabled()) return victimView;
+        if (interception.update(stalkerBody.x(), stalkerBody.z(), stalkerBlocksPerSecond(mob))) {
+            metrics.interceptAimUpdates.increment();
+        } else if (interception.hasAim()) {
+            metrics.interceptAimsKept.increment();
+        }
+        return interception.hasAim() ? interception : victimView;
+    }
+
+    /**
+     * Runs the brain on the main thread and applies its commands right away.
+     *
+     * @return true while the victim is protected (the stalker holds at the perimeter)
+     */
+    private boolean planOnMainThread(Mob mob, Player victim, VictimView aim, FearHit victimProtection, FearHit fearSource, long nowMs) {
+        TrajectoryFrame frame = beginTrajectoryFrame(mob, victim, victimProtection, nowMs, trajectoryFrame);
+
+        if (victimProtection != null) {
+            // Reset orbit state while we are in full fear-hold mode.
+            brain.clearOrbitState();
+            long phaseStart = profiler.start();
+            brain.holdAtFearPerimeter(stalkerBody, victimView, victimProtection);
+            stalkerBody.flush();
+            profiler.stop(TickProfiler.Phase.FEAR_HANDLING, phaseStart);
+            if (frame != null) recordTrajectoryFrame(frame, PursuitBrain.Outcome.HOLDING_PERIMETER);
+            return true;
+        } else {
+            // Ensure AI is re-enabled when the victim leaves the safety radius.
+            stalkerBody.setAI(true);
+        }
+
+        // Fear logic: certain blocks repel the stalker.
+        //  - If the cursed player is inside any safety radius, the stalker walks to the edge and holds there.
+        //  - Otherwise, feared objects behave as *spherical* no-entry zones:
+        //      * walkers step around the perimeter
+        //      * Vex (flying) forms test the route against the sphere in 3D
+        // The decisions themselves live in PursuitBrain (see PursuitBrain#update for the same order).
+        if (frame != null) frame.setFear(fearSource);
+
+        long phaseStart;
+        boolean fearOverrodeMovement = false;
+        if (fearSource != null) {
+            phaseStart = profiler.start();
+            fearOverrodeMovement = brain.handleFear(stalkerBody, victimView, fearSource, nowMs);
+            profiler.stop(TickProfiler.Phase.FEAR_HANDLING, phaseStart);
+        }
+
+        // Pursuit: only run normal chase logic if fear logic did not override movement this tick.
+        if (!fearOverrodeMovement) {
+            phaseStart = profiler.start();
+            brain.pursue(stalkerBody, aim);
+            profiler.stop(TickProfiler.Phase.PATHING, phaseStart);
+        }
+
+        // Apply the net movement/target/AI change of the fear and pursuit logic before the block
+        // handlers, which act on the mob's live velocity.
+        phaseStart = profiler.start();
+        stalkerBody.flush();
+        profiler.stop(TickProfiler.Phase.PATHING, phaseStart);
+
+        if (frame != null) {
+            recordTrajectoryFrame(frame, fearOverrodeMovement ? PursuitBrain.Outcome.AVOIDING_FEAR : PursuitBrain.Outcome.PURSUING);
+        }
+        return false;
+    }
+
+    /**
+     * Off-thread planning: applies the decision the worker finished since the previous update,
+     * then captures this update's inputs and hands them to the worker. If the worker is still
+     * busy the stalker simply keeps its last orders for another update.
+     *
+     * @return true while the victim is protected (the stalker holds at the perimeter)
+     */
+    private boolean planOffThread(Mob mob, Player victim, VictimView aim, FearHit victimProtection, FearHit fearSource, long nowMs) {
+        long phaseStart = profiler.start();
+        AsyncPlanner.Plan done = planner.poll();
+        if (done != null && done.entityId == mob.getEntityId()) {
+            done.body.replayOnto(stalkerBody);
+            stalkerBody.flush();
+            if (done.frame != null && trajectory != null) trajectory.record(done.frame);
+        }
+        profiler.stop(TickProfiler.Phase.PATHING, phaseStart);
+        if (planner.isBusy()) return victimProtection != null;
+
+        // Snapshot after applying the previous plan, so AI state and velocity are current.
+        AsyncPlanner.Plan plan = planner.nextPlan();
+        plan.body.capture(stalkerBody.x(), stalkerBody.y(), stalkerBody.z(),
+                stalkerBody.velocityX(), stalkerBody.velocityY(), stalkerBody.velocityZ(),
+                stalkerBody.canFly(), stalkerBody.hasAI());
+        plan.victim.capture(victimView);
+        plan.aim.capture(aim);
+        plan.setProtection(victimProtection);
+        plan.setFear(fearSource);
+        plan.nowMs = nowMs;
+        plan.entityId = mob.getEntityId();
+        plan.frame = beginTrajectoryFrame(mob, victim, victimProtection, nowMs, plan.frameSlot());
+        if (plan.frame != null) plan.frame.setFear(fearSource);
+        planner.submit(plan);
+        return victimProtection != null;
+    }
+
+    /**
+     * Clears the brain's orbit state when the stalker or its victim changes. With off-thread
+     * planning, also drops the plan still pending for the old stalker.
+     */
+    private void resetOrbitState() {
+        if (planner != null) {
+            planner.discard();
+        } else {
+            brain.clearOrbitState();
+        }
+    }
+
+    // --- Proximity Messages ---
+
+    private void handleProximityMessages(Player victim, double distToVictim) {
+        if (!proximityMessagesEnabled || proximityTiers.isEmpty() || victim == null) return;
+
+        // tickLogic runs every 5 ticks (times the governor's stride); use an interval counter to reduce spam
+        proximityTickCounter += 5 * governor.level().aiStride;
+        if (proximityTickCounter < proximityCheckIntervalTicks) return;
+        proximityTickCounter = 0;
+
+        // Choose the closest matching tier (smallest radius that the stalker is currently within)
+        ProximityTier chosen = null;
+        int chosenIndex = -1;
+        for (int i = 0; i < proximityTiers.size(); i++) {
+            ProximityTier tier = proximityTiers.get(i);
+            if (distToVictim <= tier.radius) {
+                chosen = tier;
+                chosenIndex = i;
+                break;
+            }
+        }
+        if (chosen == null) return;
+
+        long now = System.currentTimeMillis();
+        long cooldownMs = Math.max(0, chosen.cooldownSeconds) * 1000L;
+
+        Map<Integer, Long> perTier = lastProximityMessageMs.computeIfAbsent(victim.getUniqueId(), k -> new HashMap<>());
+        long lastSent = perTier.getOrDefault(chosenIndex, 0L);
+        if (cooldownMs > 0 && (now - lastSent) < cooldownMs) return;
+
+        String distStr = String.format(Locale.US, "%.1f", distToVictim);
+        String radiusStr = String.format(Locale.US, "%.1f", chosen.radius);
+
+        victim.sendMessage(formatMessage(chosen.message, Map.of("distance", distStr, "radius", radiusStr)));
+        perTier.put(chosenIndex, now);
+    }
+
+    // --- Anti-Stuck / Vex Mode ---
+
+    /**
+     * Runs once per second (the "stuck-check" behavior node).
+     *
+     * If the stalker stays effectively motionless for a period of time, it morphs into a Vex.
+     * This helps handle edge cases where pathfinding fails (stairs, holes, water edges).
+     *
+     * NOTE: With the updated fear behavior, the stalker may also intentionally hold still
+     * on a fear perimeter. In those situations, it can still become a Vex (as requested)
+     * and then fly/phase to the target.
+     *
+     * @return true if the stalker was morphed (the given mob is gone)
+     */
+    private boolean updateStuckStatus(Mob mob, Player victim) {
+        Location now = mob.getLocation();
+        Vector vel = mob.getVelocity();
+
+        // A spot where it got stuck before (and not just holding at a fear perimeter) gets the short trigger.
+        StuckHeatmap heatmap = (heatmaps != null) ? heatmaps.get(now.getWorld()) : null;
+        boolean knownTrap = heatmap != null && !victimProtectedByFear && !stuckTracker.isVexMode()
+                && heatmap.isTrap(now.getBlockX(), now.getBlockZ(), stuckTrapThreshold);
+
+        boolean walledAhead = !stuckTracker.isVexMode() && blockInteractions.isWalledAhead(mob);
+        StuckTracker.Action action = stuckTracker.tickSecond(now.getX(), now.getY(), now.getZ(),
+                vel.getX(), vel.getZ(), victimProtectedByFear, walledAhead, knownTrap);
+
+        if (action == StuckTracker.Action.MORPH_TO_VEX && heatmap != null && !victimProtectedByFear) {
+            heatmaps.record(now.getWorld(), now.getBlockX(), now.getBlockZ());
+            metrics.stuckSpotsRecorded.increment();
+            if (knownTrap && stuckTracker.getSecondsStuck() < vexTriggerSeconds) metrics.trapVexMorphs.increment();
+        } else if (action == StuckTracker.Action.NONE && heatmap != null && knownTrapAhead(heatmap, now, victim.getLocation())) {
+            action = StuckTracker.Action.MORPH_TO_VEX;
+            metrics.trapVexMorphs.increment();
+            trapLookaheadPausedUntilMs = System.currentTimeMillis() + (vexDurationSeconds + 10) * 1000L;
+        }
+        if (action == StuckTracker.Action.NONE) return false;
+
+        // Morphing back always snaps down to safe ground (see morphEntity), which prevents the
+        // "stuck hovering forever" edge case.
+        morphEntity(mob, victim, action == StuckTracker.Action.MORPH_TO_VEX ? EntityType.VEX : null);
+        return true;
+    }
+
+    /**
+     * Whether a known stuck spot lies on the straight way to the victim within the look-ahead, so a
+     * walker can take Vex form before walking into it. Only for walkers that are not holding at a
+     * fear perimeter, and paused for a while after each such morph.
+     */
+    private boolean knownTrapAhead(StuckHeatmap heatmap, Location from, Location victimLoc) {
+        if (trapLookaheadBlocks == 0 || stuckTracker.isVexMode() || victimProtectedByFear) return false;
+        if (System.currentTimeMillis() < trapLookaheadPausedUntilMs || !isSameWorld(from, victimLoc)) return false;
+
+        double dx = victimLoc.getX() - from.getX();
+        double dz = victimLoc.getZ() - from.getZ();
+        double distance = Math.sqrt(dx * dx + dz * dz);
+        // Only spots between the stalker and the victim (not the victim's own).
+        double reach = Math.min(trapLookaheadBlocks, distance - 2.0);
+        for (double d = 1.0; d <= reach; d += 1.0) {
+            int x = Location.locToBlock(from.getX() + dx / distance * d);
+            int z = Location.locToBlock(from.getZ() + dz / distance * d);
+            if (heatmap.isTrap(x, z, stuckTrapThreshold)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Simple ground check to prevent morphing out of Vex mode when the mob is too high.
+     *
+     * @param mob the current stalker mob
+     * @return true if there is solid ground within 4 blocks below
+     */
+    private boolean isSafeToLand(Mob mob) {
+        Location loc = mob.getLocation();
+        World world = loc.getWorld();
+        for (int i = 1; i <= 4; i++) {
+            if (MaterialTraits.has(world.getType(loc.getBlockX(), loc.getBlockY() - i, loc.getBlockZ()), MaterialTraits.SOLID)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Spawning / Morphing ---
+
+    private void spawnIt(Player target) {
+        spawnSpecificEntity(null, target, null, false);
+    }
+
+    /**
+     * Spawns the stalker either at a specific location (morph, materialized shadow) or at a random
+     * ring around the target.
+     */
+    private void spawnSpecificEntity(Location specificLoc, Player target, EntityType forcedType, boolean morph) {
+        JfrEvents.Spawn jfr = new JfrEvents.Spawn();
+        jfr.begin();
+        Location spawnLoc;
+        World world = target.getWorld();
+
+        if (specificLoc == null) {
+            // Spawn in a ring around the player at minTeleportDistance
+            spawnLoc = target.getLocation();
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double xOffset = Math.cos(angle) * minTeleportDistance;
+            double zOffset = Math.sin(angle) * minTeleportDistance;
+
+            spawnLoc.add(xOffset, 0, zOffset);
+
+            // Only spawn if the destination chunk is loaded
+            int chunkX = spawnLoc.getBlockX() >> 4;
+            int chunkZ = spawnLoc.getBlockZ() >> 4;
+            if (!world.isChunkLoaded(chunkX, chunkZ)) return;
+
+            int highestY = world.getHighestBlockYAt(spawnLoc);
+            spawnLoc.setY(highestY + 1);
+        } else {
+            spawnLoc = specificLoc;
+        }
+
+        // Choose entity type
+        EntityType type;
+        if (forcedType != null) {
+            type = forcedType;
+        } else if (!allowedForms.isEmpty()) {
+            type = allowedForms.get(random.nextInt(allowedForms.size()));
+        } else {
+            return;
+        }
+
+        Entity entity = spawnLoc.getWorld().spawnEntity(spawnLoc, type);
+
+        // Mark as stalker and hold it as the active handle
+        stalkers.register(entity);
+        if (!morph) metrics.spawns.increment();
+
+        if (jfr.shouldCommit()) {
+            jfr.entityType = type.name();
+            jfr.world = spawnLoc.getWorld().getName();
+            jfr.x = spawnLoc.getX();
+            jfr.y = spawnLoc.getY();
+            jfr.z = spawnLoc.getZ();
+            jfr.morph = morph;
+            jfr.target = target.getName();
+            jfr.commit();
+        }
+
+        // Reset mode/state
+        boolean vexForm = (type == EntityType.VEX);
+        stuckTracker.onSpawn(spawnLoc.getX(), spawnLoc.getY(), spawnLoc.getZ(), vexForm);
+        resetOrbitState();
+
+        // Configure stats
+        if (entity instanceof LivingEntity living) {
+            if (living.getAttribute(Attribute.MAX_HEALTH) != null) {
+                living.getAttribute(Attribute.MAX_HEALTH).setBaseValue(stalkerMaxHealth);
+            }
+            living.setHealth(stalkerMaxHealth);
+
+            if (living.getAttribute(Attribute.MOVEMENT_SPEED) != null) {
+                double moveSpeed = vexForm ? vexMovementSpeed : allowedFormsMovementSpeed;
+                living.getAttribute(Attribute.MOVEMENT_SPEED).setBaseValue(moveSpeed);
+            }
+            if (living.getAttribute(Attribute.FLYING_SPEED) != null) {
+                double flySpeed = vexForm ? vexFlyingSpeed : allowedFormsMovementSpeed;
+                living.getAttribute(Attribute.FLYING_SPEED).setBaseValue(flySpeed);
+            }
+
+            if (living.getAttribute(Attribute.KNOCKBACK_RESISTANCE) != null) {
+                living.getAttribute(Attribute.KNOCKBACK_RESISTANCE).setBaseValue(1.0);
+            }
+
+            if (living instanceof Mob mob) {
+                if (mob.getEquipment() != null) mob.getEquipment().clear();
+            }
+
+            living.setSilent(true);
+            living.setRemoveWhenFarAway(false);
+            living.setPersistent(true);
+        }
+
+        if (!morph) ApiEvents.stalkerSpawn(entity, target);
+    }
+
+    /**
+     * Morphs the current stalker into another type (e.g., walker -> Vex or Vex -> random walker).
+     */
+    private void morphEntity(Mob oldEntity, Player victim, EntityType newType) {
+        JfrEvents.Morph jfr = new JfrEvents.Morph();
+        jfr.begin();
+        EntityType oldType = oldEntity.getType();
+        Location loc = oldEntity.getLocation();
+
+        // When morphing OUT of Vex mode (back to a ground walker), snap the spawn point down
+        // onto safe ground so we do not create a walker in mid-air.
+        if (newType == null || newType != EntityType.VEX) {
+            loc = snapToSafeGround(loc, 32);
+        }
+        oldEntity.remove();
+        spawnSpecificEntity(loc, victim, newType, true);
+        metrics.countMorph();
+        if (loc.getWorld() != null) loc.getWorld().playEffect(loc, org.bukkit.Effect.MOBSPAWNER_FLAMES, 0);
+
+        Entity morphed = stalkers.getActive();
+        if (morphed != null) ApiEvents.stalkerMorph(oldType, morphed, victim);
+        if (jfr.shouldCommit()) {
+            jfr.fromType = oldType.name();
+            jfr.toType = (morphed != null) ? morphed.getType().name() : null;
+            jfr.x = loc.getX();
+            jfr.y = loc.getY();
+            jfr.z = loc.getZ();
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Attempts to move a location down onto a safe ground position (solid floor + 2 blocks of headroom).
+     *
+     * This is used primarily when reverting from Vex -> walker to prevent the stalker from being
+     * stranded hovering on a fear perimeter and never returning to a walking form.
+     */
+    private Location snapToSafeGround(Location desired, int maxDownBlocks) {
+        if (desired == null || desired.getWorld() == null) return desired;
+
+        World world = desired.getWorld();
+
+        int x = desired.getBlockX();
+        int z = desired.getBlockZ();
+        int startY = desired.getBlockY();
+
+        int minY = Math.max(world.getMinHeight(), startY - Math.max(1, maxDownBlocks));
+        for (int y = startY; y >= minY; y--) {
+            if (!MaterialTraits.has(world.getType(x, y, z), MaterialTraits.SOLID)) continue;
+
+            if (!MaterialTraits.has(world.getType(x, y + 1, z), MaterialTraits.SOLID)
+                    && !MaterialTraits.has(world.getType(x, y + 2, z), MaterialTraits.SOLID)) {
+                Location out = new Location(world, x + 0.5, y + 1, z + 0.5);
+                out.setYaw(desired.getYaw());
+                out.setPitch(desired.getPitch());
+                return out;
+            }
+        }
+
+        // Fallback: use highest terrain at this XZ.
+        int highest = world.getHighestBlockYAt(x, z);
+        Location out = new Location(world, x + 0.5, highest + 1, z + 0.5);
+        out.setYaw(desired.getYaw());
+        out.setPitch(desired.getPitch());
+        return out;
+    }
+
+    private void removeItEntity() {
+        if (stalkers.discardActive()) metrics.despawns.increment();
+        proximityEffects.clearAll();
+        chunkTickets.releaseAll();
+        metrics.setChunkTickets(0);
+        stuckTracker.reset();
+        resetOrbitState();
+    }
+
+    // --- Shadow Pursuit ---
+
+    /**
+     * Runs the shadow side of the chase.
+     *
+     *  - A live stalker that fell more than the dematerialization radius behind (or was left in
+     *    another world) is removed and continues as a shadow from where it stood.
+     *  - A shadow walks towards the victim and spawns the real stalker once it is within the
+     *    materialization radius.
+     *
+     * @return true if the stalker is virtual this update (skip the entity behavior loop)
+     */
+    private boolean tickShadow(Player victim, Entity it) {
+        long now = System.currentTimeMillis();
+        Location victimLoc = victim.getLocation();
+
+        if (it != null) {
+            Location loc = it.getLocation();
+            if (isSameWorld(loc, victimLoc) && safeDistance(loc, victimLoc) <= shadowDematerializeRadius) {
+                shadow.clear();
+                return false;
+            }
+            if (isSameWorld(loc, victimLoc)) {
+                shadow.place(loc.getWorld().getUID(), loc.getX(), loc.getY(), loc.getZ(),
+                        victimLoc.getX(), victimLoc.getY(), victimLoc.getZ());
+            } else {
+                // The victim went through a portal: its last position in the stalker's world is unknown,
+                // so the shadow starts where a regular respawn would have put the stalker.
+                placeShadowOnRing(victimLoc, minTeleportDistance);
+            }
+            lastShadowAdvanceMs = now;
+            removeItEntity();
+            return true;
+        }
+
+        if (!shadow.isActive()) {
+            // New chase: start where a regular spawn would have put the stalker.
+            placeShadowOnRing(victimLoc, minTeleportDistance);
+            lastShadowAdvanceMs = now;
+        }
+
+        // Cap the step so a long pause (lag spike, reload) does not teleport the shadow onto the victim.
+        double seconds = Math.min(5000L, Math.max(0L, now - lastShadowAdvanceMs)) / 1000.0;
+        lastShadowAdvanceMs = now;
+        double remaining = shadow.advance(victimLoc.getWorld().getUID(), victimLoc.getX(), victimLoc.getY(), victimLoc.getZ(),
+                shadowBlocksPerSecond * seconds);
+        if (remaining > shadowMaterializeRadius) return true;
+
+        World world = victimLoc.getWorld();
+        int bx = Location.locToBlock(shadow.x());
+        int bz = Location.locToBlock(shadow.z());
+        if (!world.isChunkLoaded(bx >> 4, bz >> 4)) return true; // keep walking until it is in loaded terrain
+
+        Location spawnLoc = new Location(world, shadow.x(), world.getHighestBlockYAt(bx, bz) + 1, shadow.z());
+        spawnSpecificEntity(spawnLoc, victim, null, false);
+        shadow.clear();
+        return true;
+    }
+
+    /** Places the shadow at a random point {@code distance} blocks from the victim, in the victim's world. */
+    private void placeShadowOnRing(Location victimLoc, double distance) {
+        double angle = random.nextDouble() * 2 * Math.PI;
+        shadow.place(victimLoc.getWorld().getUID(),
+                victimLoc.getX() + Math.cos(angle) * distance,
+                victimLoc.getY(),
+                victimLoc.getZ() + Math.sin(angle) * distance,
+                victimLoc.getX(), victimLoc.getY(), victimLoc.getZ());
+    }
+
+    // --- Curse Targeting ---
+
+    /**
+     * Hands the curse to an eligible player chosen by the configured policy (or clears it if there is none).
+     *
+     * @param reason how the pick is recorded in the journal (auto-curse or logout retarget)
+     */
+    private void pickRandomTarget(JournalEvent.Type reason) {
+        if (eligiblePlayers.isEmpty()) {
+            cursedPlayerUUID = null;
+            return;
+        }
+
+        Entity it = stalkers.getActive();
+        Player target = eligiblePlayers.pick(random, (it != null) ? it.getLocation() : null, System.currentTimeMillis());
+        if (target != null) {
+            UUID previous = cursedPlayerUUID;
+            CurseTransferEvent.Cause cause = (reason == JournalEvent.Type.AUTO_CURSE)
+                    ? CurseTransferEvent.Cause.AUTO : CurseTransferEvent.Cause.LOGOUT_RETARGET;
+            if (!ApiEvents.curseTransfer(previous, target, cause)) return;
+            setCursedPlayer(target);
+            recordCurseEvent(reason, previous, null, target.getUniqueId(), target.getName(), null);
+        } else {
+            cursedPlayerUUID = null;
+        }
+    }
+
+    private void setCursedPlayer(Player player) {
+        setCursedPlayer(player, true);
+    }
+
+    /** @param announce send the "curse assigned" message (not for a holder arriving from another server) */
+    private void setCursedPlayer(Player player, boolean announce) {
+        this.cursedPlayerUUID = player.getUniqueId();
+        outgoingHandoff = 0L;
+        shadow.clear();
+        eligiblePlayers.recordCursed(player.getUniqueId(), System.currentTimeMillis());
+        if (announce) player.sendMessage(formatMessage(msgCurseAssigned, null));
+        removeItEntity();
+        closeTrajectory();
+    }
+
+    /**
+     * Gives the curse to a player on request (/startcurse, API).
+     *
+     * @param by initiator recorded in the journal
+     * @return false if an API listener cancelled the transfer
+     */
+    private boolean startCurse(Player target, String by, CurseTransferEvent.Cause cause) {
+        UUID previous = cursedPlayerUUID;
+        if (!ApiEvents.curseTransfer(previous, target, cause)) return false;
+        setCursedPlayer(target);
+        recordCurseEvent(JournalEvent.Type.ADMIN_START, previous, null, target.getUniqueId(), target.getName(), by);
+        return true;
+    }
+
+    /**
+     * Queues a curse event for the journal (no-op while it is disabled). A null name is looked up
+     * from the server's player cache, which is how offline holders are named.
+     */
+    private void recordCurseEvent(JournalEvent.Type type, UUID from, String fromName, UUID to, String toName, String detail) {
+        if (journal == null) return;
+        if (from != null && fromName == null) fromName = Bukkit.getOfflinePlayer(from).getName();
+        if (to != null && toName == null) toName = Bukkit.getOfflinePlayer(to).getName();
+        journal.append(new JournalEvent(System.currentTimeMillis(), type, from, fromName, to, toName, detail));
+    }
+
+    // --- API (see PluginApi) ---
+
+    UUID cursedPlayerId() {
+        return cursedPlayerUUID;
+    }
+
+    boolean isActiveStalker(Entity entity) {
+        return stalkers.isActive(entity);
+    }
+
+    boolean forceTransfer(Player target, String by) {
+        return startCurse(target, by, CurseTransferEvent.Cause.API);
+    }
+
+    /** @return the current session, or null while nobody is cursed */
+    CurseSession sessionSnapshot() {
+        if (cursedPlayerUUID == null) return null;
+        Player holder = Bukkit.getPlayer(cursedPlayerUUID);
+        String name = (holder != null) ? holder.getName() : Bukkit.getOfflinePlayer(cursedPlayerUUID).getName();
+        long cooldownRemainingMs = Math.max(0L, transferCooldownSeconds * 1000L - (System.currentTimeMillis() - lastTransferTime));
+        return new CurseSession(cursedPlayerUUID, (name != null) ? name : cursedPlayerUUID.toString(),
+                holder != null && holder.isOnline(), stalkers.getActive(), shadowEnabled && shadow.isActive(),
+                fearHoldVictim != null, cooldownRemainingMs);
+    }
+
+    // --- Cross-Server Handoff ---
+
+    /** Sends the curse session to the other servers as the holder leaves (see {@link CurseHandoff}). */
+    private void sendHandoff(Player holder) {
+        if (handoff == null) return;
+        long now = System.currentTimeMillis();
+        Location loc = holder.getLocation();
+
+        double distance = Double.NaN;
+        String form = "";
+        boolean virtual = false;
+        Entity it = stalkers.getActive();
+        if (it != null && isSameWorld(it.getLocation(), loc)) {
+            distance = safeDistance(it.getLocation(), loc);
+            form = it.getType().name();
+        } else if (shadowEnabled && shadow.isActive()) {
+            distance = loc.getWorld().getUID().equals(shadow.worldId())
+                    ? shadow.distance(loc.getX(), loc.getY(), loc.getZ())
+                    : shadowDematerializeRadius;
+            virtual = true;
+        }
+
+        long cooldownRemainingMs = Math.max(0L, transferCooldownSeconds * 1000L - (now - lastTransferTime));
+        long session = random.nextLong() | 1L;
+        CurseHandoff message = new CurseHandoff(CurseHandoff.Kind.HANDOFF, session, handoffServerId, now,
+                holder.getUniqueId(), holder.getName(), cooldownRemainingMs, distance, form, virtual);
+        if (handoff.send(message.encode(), holder)) {
+            outgoingHandoff = session;
+            metrics.handoffsSent.increment();
+        } else {
+            getLogger().fine("Could not send the curse handoff for " + holder.getName() + " (no connection to the proxy)");
+        }
+    }
+
+    /** Handles a message from another server (main thread). */
+    private void receiveHandoff(byte[] bytes) {
+        CurseHandoff message = CurseHandoff.decode(bytes);
+        if (message == null) return;
+        long now = System.currentTimeMillis();
+
+        if (message.kind() == CurseHandoff.Kind.ADOPTED) {
+            // Our holder turned up on another server and took the session along (unless they are back here).
+            if (message.session() == outgoingHandoff && message.holder().equals(cursedPlayerUUID)
+                    && Bukkit.getPlayer(message.holder()) == null) {
+                getLogger().info(message.holderName() + " took the curse to server " + message.origin() + ".");
+                recordCurseEvent(JournalEvent.Type.HANDOFF, message.holder(), message.holderName(), null, null, message.origin());
+                cursedPlayerUUID = null;
+                cursedLogoutTime = -1;
+                outgoingHandoff = 0L;
+                shadow.clear();
+                removeItEntity();
+                closeTrajectory();
+            }
+            return;
+        }
+
+        // Proxies queue messages for empty servers, so this may be long stale.
+        if (now - message.sentAtMs() > handoffExpireMs) return;
+        pendingHandoffs.values().removeIf(h -> now - h.sentAtMs() > handoffExpireMs);
+
+        Player holder = Bukkit.getPlayer(message.holder());
+        if (holder != null && holder.isOnline()) {
+            adoptHandoff(message, holder);
+        } else {
+            pendingHandoffs.put(message.holder(), message);
+        }
+    }
+
+    /** Continues a curse session that the player brought over from another server. */
+    private void adoptHandoff(CurseHandoff message, Player holder) {
+        if (cursedPlayerUUID != null && !cursedPlayerUUID.equals(message.holder())) {
+            metrics.handoffsDeclined.increment();
+            getLogger().info("Declined the curse handoff of " + holder.getName() + " from server " + message.origin()
+                    + ": this server already has a cursed player.");
+            return;
+        }
+
+        if (!ApiEvents.curseTransfer(cursedPlayerUUID, holder, CurseTransferEvent.Cause.HANDOFF)) {
+            metrics.handoffsDeclined.increment();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        setCursedPlayer(holder, false);
+        cursedLogoutTime = -1;
+        lastTransferTime = now + message.cooldownRemainingMs() - transferCooldownSeconds * 1000L;
+        restoreHandoffStalker(message, holder);
+
+        metrics.handoffsAdopted.increment();
+        recordCurseEvent(JournalEvent.Type.HANDOFF, null, null, holder.getUniqueId(), holder.getName(), message.origin());
+        if (handoff != null) handoff.send(message.adopted(handoffServerId, now).encode(), null);
+    }
+
+    /**
+     * Puts the stalker back at the distance (and in the form) it had on the old server: as a shadow
+     * if it was one or is beyond the materialization radius, else as an entity on a ring around the
+     * holder. Without a stalker, or with the ring point unloaded, the regular spawn takes over.
+     */
+    private void restoreHandoffStalker(CurseHandoff message, Player victim) {
+        if (Double.isNaN(message.stalkerDistance())) return;
+
+        Location victimLoc = victim.getLocation();
+        World world = victimLoc.getWorld();
+        double distance = Math.max(2.0, message.stalkerDistance());
+
+        if (shadowEnabled && (message.shadow() || distance > shadowMaterializeRadius)) {
+            placeShadowOnRing(victimLoc, distance);
+            lastShadowAdvanceMs = System.currentTimeMillis();
+            return;
+        }
+        double angle = random.nextDouble() * 2 * Math.PI;
+
+        // Beyond this the tick loop would respawn it nearby anyway.
+        distance = Math.min(distance, 120.0);
+        double x = victimLoc.getX() + Math.cos(angle) * distance;
+        double z = victimLoc.getZ() + Math.sin(angle) * distance;
+        int bx = Location.locToBlock(x);
+        int bz = Location.locToBlock(z);
+        if (!world.isChunkLoaded(bx >> 4, bz >> 4)) return;
+
+        EntityType form = null;
+        try {
+            EntityType type = EntityType.valueOf(message.form());
+            if (type == EntityType.VEX || allowedForms.contains(type)) form = type;
+        } catch (IllegalArgumentException ignored) {
+            // Form unknown or not allowed on this server: pick one as usual.
+        }
+        spawnSpecificEntity(new Location(world, x, world.getHighestBlockYAt(bx, bz) + 1, z), victim, form, false);
+    }
+
+    // --- Trajectory Recording ---
+
+    /**
+     * Fills the given reusable frame with this update's inputs (before the brain runs), opening a
+     * new session file when the cursed player changed. Returns null when not recording.
+     */
+    private TrajectoryFrame beginTrajectoryFrame(Mob mob, Player victim, FearHit victimProtection, long nowMs, TrajectoryFrame frame) {
+        if (!trajectoryEnabled) return null;
+        if (!victim.getUniqueId().equals(trajectoryVictim)) openTrajectory(victim);
+        if (trajectory == null) return null;
+
+        frame.tick = Bukkit.getCurrentTick();
+        frame.timeMs = nowMs;
+        frame.stalkerX = stalkerBody.x();
+        frame.stalkerY = stalkerBody.y();
+        frame.stalkerZ = stalkerBody.z();
+        frame.stalkerVelX = (float) stalkerBody.velocityX();
+        frame.stalkerVelY = (float) stalkerBody.velocityY();
+        frame.stalkerVelZ = (float) stalkerBody.velocityZ();
+        frame.form = mob.getType().ordinal();
+        frame.canFly = stalkerBody.canFly();
+        frame.hasAI = mob.hasAI();
+        frame.vexMode = stuckTracker.isVexMode();
+        frame.victimX = victimView.x();
+        frame.victimY = victimView.y();
+        frame.victimZ = victimView.z();
+        frame.victimReachable = victimView.isReachable();
+        frame.setProtection(victimProtection);
+        frame.setFear(null);
+        return frame;
+    }
+
+    /** Completes the frame with the brain's decision and appends it to the ring file. */
+    private void recordTrajectoryFrame(TrajectoryFrame frame, PursuitBrain.Outcome outcome) {
+        frame.setDecision(outcome, brain);
+        frame.moved = stalkerBody.moved();
+        frame.moveX = stalkerBody.moveX();
+        frame.moveY = stalkerBody.moveY();
+        frame.moveZ = stalkerBody.moveZ();
+        trajectory.record(frame);
+    }
+
+    private void openTrajectory(Player victim) {
+        closeTrajectory();
+        trajectoryVictim = victim.getUniqueId();
+
+        Path dir = getDataFolder().toPath().resolve("trajectories");
+        String name = victim.getName() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + TrajectoryRecorder.EXTENSION;
+        try {
+            Files.createDirectories(dir);
+            TrajectoryRecorder.pruneOldest(dir, trajectoryMaxFiles - 1);
+            trajectory = TrajectoryRecorder.create(dir.resolve(name), trajectoryFramesPerSession, victim.getName(),
+                    fearScanner, fearAvoidPerimeterBuffer, fearAvoidStepDistance);
+        } catch (IOException | RuntimeException e) {
+            getLogger().warning("Could not start trajectory recording for " + victim.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void closeTrajectory() {
+        if (trajectory != null) {
+            try {
+                trajectory.close();
+            } catch (IOException e) {
+                getLogger().warning("Could not close trajectory file: " + e.getMessage());
+            }
+            trajectory = null;
+        }
+        trajectoryVictim = null;
+    }
+
+    // --- Climbing ---
+
+    /**
+     * A lightweight "climb" behavior for walker forms:
+     * If a solid obstacle is directly in front, apply a small upward + forward impulse.
+     */
+    private void handleClimbing(Mob mob) {
+        Location loc = mob.getLocation();
+
+        if (MaterialTraits.has(loc.getBlock().getType(), MaterialTraits.CLIMBABLE)) {
+            return;
+        }
+
+        Vector direction = loc.getDirection().setY(0).normalize();
+        Block frontFeet = loc.clone().add(direction.clone().multiply(0.6)).getBlock();
+        Block frontHead = loc.clone().add(0, 1, 0).add(direction.clone().multiply(0.6)).getBlock();
+
+        if (isObstacle(frontFeet) || isObstacle(frontHead)) {
+            Vector velocity = mob.getVelocity();
+            velocity.setY(0.2);
+            velocity.add(direction.multiply(0.1));
+            mob.setVelocity(velocity);
+            mob.setFallDistance(0);
+        }
+    }
+
+    private boolean isObstacle(Block b) {
+        return MaterialTraits.has(b.getType(), MaterialTraits.OBSTACLE);
+    }
+
+    // --- Cross-Dimension Safety / Distance ---
+
+    private boolean isSameWorld(Location a, Location b) {
+        if (a == null || b == null) return false;
+        if (a.getWorld() == null || b.getWorld() == null) return false;
+        return a.getWorld().equals(b.getWorld());
+    }
+
+    private double safeDistance(Location a, Location b) {
+        if (!isSameWorld(a, b)) return Double.MAX_VALUE;
+        return a.distance(b);
+    }
+
+    // --- Speed Helpers ---
+
+    private double getCurrentPathfinderSpeed(Mob mob) {
+        if (canFly(mob)) {
+            return vexPathfinderSpeed;
+        }
+        return allowedFormsPathfinderSpeed;
+    }
+
+    /** Rough speed of the current form in blocks per second (movement * pathfinder * 43.17, as for the shadow). */
+    private double stalkerBlocksPerSecond(Mob mob) {
+        double movement = canFly(mob) ? vexFlyingSpeed : allowedFormsMovementSpeed;
+        return movement * getCurrentPathfinderSpeed(mob) * 43.17;
+    }
+
+    private boolean canFly(Mob mob) {
+        return (mob instanceof Vex) || stuckTracker.isVexMode();
+    }
+
+    // --- Boat Trap Prevention ---
+
+    /**
+     * Prevents players from trapping the stalker in a boat.
+     *
+     * - If the stalker is inside a boat: eject and remove it.
+     * - If a boat is nearby: remove it if empty, and push the stalker away.
+     */
+    private void handleBoatTrapPrevention(Mob mob) {
+        if (boatTrapRadius <= 0) return;
+
+        if (mob.getVehicle() instanceof Boat boat) {
+            boat.eject();
+            boat.remove();
+        }
+
+        for (Entity e : mob.getNearbyEntities(boatTrapRadius, boatTrapRadius, boatTrapRadius)) {
+            if (e instanceof Boat boat) {
+                boolean hasPlayerPassenger = boat.getPassengers().stream().anyMatch(p -> p instanceof Player);
+                if (!hasPlayerPassenger) {
+                    boat.remove();
+                }
+
+                Vector away = mob.getLocation().toVector().subtract(boat.getLocation().toVector());
+                if (away.lengthSquared() < 0.0001) away = new Vector(1, 0, 0);
+                away.setY(0).normalize();
+                mob.setVelocity(away.multiply(0.35).setY(0.05));
+            }
+        }
+    }
+
+    @EventHandler
+    public void onStalkerEnterBoat(VehicleEnterEvent event) {
+        if (!(event.getVehicle() instanceof Boat)) return;
+        if (event.getEntered() == null) return;
+        if (stalkers.isStalker(event.getEntered())) {
+            event.setCancelled(true);
+        }
+    }
+
+    // --- Fear Logic ---
+
+    /**
+     * Returns the nearest fear source within any configured fear radius.
+     * Read from the fear source index when it covers the area; the block scan it falls back to
+     * is throttled because scanning blocks is expensive.
+     */
+    private FearSource getFearSource(World world, int x, int y, int z) {
+        long now = System.currentTimeMillis();
+        FearIndex index = fearIndexes.ready(world, x, y, z, 0);
+        if (index != null) {
+            metrics.fearIndexLookups.increment();
+            lastFearScanMs = now;
+            cachedFearSource = indexSource(index.nearest(x, y, z, fearAvoidPerimeterBuffer, fearSourceSlot.hit), world, fearSourceSlot);
+        } else if (now - lastFearScanMs < governor.level().fearScanIntervalMs) {
+            metrics.fearCacheHits.increment();
+        } else {
+            lastFearScanMs = now;
+            metrics.fearCacheMisses.increment();
+            long scanStart = System.nanoTime();
+            cachedFearSource = scanForFearSource(world, x, y, z);
+            metrics.recordFearScan(System.nanoTime() - scanStart);
+        }
+        return withMobileFear(cachedFearSource, world, x, y, z, fearAvoidPerimeterBuffer, governor.level().fearScanReach, mobileFearSlot);
+    }
+
+    /**
+     * Returns a fear source that is actively protecting the cursed player
+     * (i.e., the player is inside that fear source's BASE radius).
+     *
+     * This is separate from {@link #getFearSource} because we need
+     * "player safety bubble" behavior even when the stalker is far away.
+     */
+    private FearSource getVictimProtectionSource(World world, int x, int y, int z) {
+        long now = System.currentTimeMillis();
+        FearIndex index = fearIndexes.ready(world, x, y, z, 0);
+        if (index != null) {
+            metrics.fearIndexLookups.increment();
+            lastVictimProtectionScanMs = now;
+            cachedVictimProtectionSource = indexSource(index.nearest(x, y, z, 0.0, victimProtectionSlot.hit), world, victimProtectionSlot);
+        } else if (now - lastVictimProtectionScanMs < governor.level().fearScanIntervalMs) {
+            metrics.fearCacheHits.increment();
+        } else {
+            lastVictimProtectionScanMs = now;
+            metrics.fearCacheMisses.increment();
+            long scanStart = System.nanoTime();
+            cachedVictimProtectionSource = scanForProtectingFearSource(world, x, y, z);
+            metrics.recordFearScan(System.nanoTime() - scanStart);
+        }
+        return withMobileFear(cachedVictimProtectionSource, world, x, y, z, 0.0, Integer.MAX_VALUE, mobileProtectionSlot);
+    }
+
+    private static FearSource indexSource(FearHit hit, World world, FearSource into) {
+        if (hit == null) return null;
+        into.world = world;
+        return into;
+    }
+
+    /**
+     * Returns whichever is nearer to the block (x, y, z): the cached block source or the nearest
+     * mobile source. Mobile sources are looked up on every call (not cached with the scan) because
+     * they move; the lookup only visits the few hash cells around the point.
+     */
+    private FearSource withMobileFear(FearSource blocks, World world, int x, int y, int z, double extraRadius, int maxReach,
+                                      FearSource into) {
+        if (world == null || !mobileFears.isEnabled()) return blocks;
+        FearHit mobile = mobileFears.nearest(world, x, y, z, extraRadius, maxReach, into.hit);
+        if (mobile == null) return blocks;
+        FearHit block = fearHitIn(blocks, world);
+        if (block != null && distanceSquared(block, x, y, z) <= distanceSquared(mobile, x, y, z)) return blocks;
+        metrics.mobileFearHits.increment();
+        into.world = world;
+        return into;
+    }
+
+    private static long distanceSquared(FearHit hit, int x, int y, int z) {
+        long dx = hit.blockX() - x, dy = hit.blockY() - y, dz = hit.blockZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Full scan around the player for fear sources where the player is WITHIN the BASE radius.
+     *
+     * This directly supports the behavior:
+     *  - While the player is inside the safety radius, the stalker holds at the perimeter.
+     */
+    private FearSource scanForProtectingFearSource(World world, int x, int y, int z) {
+        return scanNearestFearSource(world, x, y, z, 0.0, Integer.MAX_VALUE, true, victimProtectionSlot);
+    }
+
+    /**
+     * Full scan of blocks within the maximum possible fear radius.
+     * Picks the closest fear source that is inside its own perimeter radius
+     * (expanded slightly so the stalker can settle at the perimeter).
+     */
+    private FearSource scanForFearSource(World world, int x, int y, int z) {
+        return scanNearestFearSource(world, x, y, z, fearAvoidPerimeterBuffer, governor.level().fearScanReach, false, fearSourceSlot);
+    }
+
+    /** Scans around the block (x, y, z) and fills {@code into}; returns it, or null if nothing is in range. */
+    private FearSource scanNearestFearSource(World world, int x, int y, int z, double extraRadius, int maxReach,
+                                             boolean victimProtection, FearSource into) {
+        if (world == null) return null;
+
+        JfrEvents.FearScan jfr = new JfrEvents.FearScan();
+        jfr.begin();
+        FearHit hit = fearScanner.scanNearest(blockView.bind(world), x, y, z, extraRadius, maxReach, into.hit);
+        if (jfr.shouldCommit()) {
+            int r = Math.min(fearScanner.scanRadius(extraRadius), maxReach);
+            long side = 2L * r + 1;
+            jfr.world = world.getName();
+            jfr.centerX = x;
+            jfr.centerY = y;
+            jfr.centerZ = z;
+            jfr.radius = r;
+            jfr.victimProtection = victimProtection;
+            jfr.blocksVisited = (r == 0) ? 0 : side * side * side;
+            jfr.found = hit != null;
+            jfr.fearType = (hit != null) ? hit.type().name() : null;
+            jfr.commit();
+        }
+        if (hit == null) return null;
+
+        into.world = world;
+        return into;
+    }
+
+    /** Returns the scanned hit if it belongs to the given world (cached scans can be stale after a world change). */
+    private static FearHit fearHitIn(FearSource source, World world) {
+        if (source == null || world == null || !world.equals(source.world)) return null;
+        return source.hit;
+    }
+
+    // --- Events (Curse Transfer / Safety) ---
+
+    @EventHandler
+    public void onHit(EntityDamageByEntityEvent event) {
+        if (!(event.getEntity() instanceof Player victim)) return;
+        if (!(event.getDamager() instanceof Player attacker)) return;
+
+        // Only the currently cursed player can transfer the curse
+        if (attacker.getUniqueId().equals(cursedPlayerUUID)) {
+            long cooldownMs = transferCooldownSeconds * 1000L;
+            if (System.currentTimeMillis() - lastTransferTime < cooldownMs) {
+                long timeLeft = (cooldownMs - (System.currentTimeMillis() - lastTransferTime)) / 1000;
+                attacker.sendMessage(formatMessage(msgCurseCooldown, Map.of("seconds", String.valueOf(timeLeft))));
+                return;
+            }
+
+            if (!ApiEvents.curseTransfer(attacker.getUniqueId(), victim, CurseTransferEvent.Cause.HIT)) return;
+
+            JfrEvents.CurseTransfer jfr = new JfrEvents.CurseTransfer();
+            jfr.begin();
+            setCursedPlayer(victim);
+            lastTransferTime = System.currentTimeMillis();
+            metrics.curseTransfers.increment();
+            recordCurseEvent(JournalEvent.Type.TRANSFER, attacker.getUniqueId(), attacker.getName(), victim.getUniqueId(), victim.getName(), null);
+            if (jfr.shouldCommit()) {
+                jfr.from = attacker.getName();
+                jfr.to = victim.getName();
+                jfr.commit();
+            }
+
+            attacker.sendMessage(formatMessage(msgCursePassedAttacker, Map.of("victim", victim.getName())));
+            victim.sendMessage(formatMessage(msgCursePassedVictim, null));
+        }
+    }
+
+    @EventHandler
+    public void onSunBurn(EntityCombustEvent event) {
+        if (stalkers.isActive(event.getEntity())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler
+    public void onEntityDeath(EntityDeathEvent event) {
+        if (stalkers.isActive(event.getEntity())) {
+            event.getDrops().clear();
+            event.setDroppedExp(0);
+            Player killer = event.getEntity().getKiller();
+            recordCurseEvent(JournalEvent.Type.STALKER_DEATH,
+                    (killer != null) ? killer.getUniqueId() : null, (killer != null) ? killer.getName() : null,
+                    cursedPlayerUUID, null, event.getEntity().getType().name().toLowerCase(Locale.ROOT));
+            stalkers.clear();
+            metrics.despawns.increment();
+        }
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        playersVersion++;
+        Entity it = stalkers.getActive();
+        if (!event.getPlayer().getUniqueId().equals(cursedPlayerUUID)) {
+            if (it != null) event.getPlayer().hideEntity(this, it);
+            horde.hideFrom(event.getPlayer());
+        }
+
+        CurseHandoff pending = pendingHandoffs.remove(event.getPlayer().getUniqueId());
+        if (pending != null) {
+            // Next tick, once the player is fully in the world.
+            Player player = event.getPlayer();
+            getServer().getScheduler().runTask(this, () -> {
+                if (player.isOnline() && System.currentTimeMillis() - pending.sentAtMs() <= handoffExpireMs) {
+                    adoptHandoff(pending, player);
+                }
+            });
+        }
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        playersVersion++;
+        if (event.getPlayer().getUniqueId().equals(cursedPlayerUUID)) {
+            cursedLogoutTime = System.currentTimeMillis();
+            sendHandoff(event.getPlayer());
+        }
+        proximityEffects.forget(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        playersVersion++;
+    }
+
+    // --- Commands ---
+
+    private void handleStatsCommand(CommandSender sender, String[] args) {
+        if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+            profiler.reset();
+            behavior.resetStats();
+            sender.sendMessage(ChatColor.GRAY + "ItStalks profiler statistics reset.");
+            return;
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "ItStalks tick profile (" + (profiler.isEnabled() ? "enabled" : "disabled, set profiler.enabled") + "):");
+        for (String line : profiler.report()) {
+            sender.sendMessage(ChatColor.GRAY + line);
+        }
+        sender.sendMessage(ChatColor.GOLD + "Behavior nodes:");
+        for (String line : behavior.report()) {
+            sender.sendMessage(ChatColor.GRAY + line);
+        }
+        sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                "spawns=%d, despawns=%d, morphs=%d (%d/min), transfers=%d, path requests=%d, skipped writes=%d",
+                metrics.spawns.sum(), metrics.despawns.sum(), metrics.morphs.sum(), metrics.morphsLastMinute(),
+                metrics.curseTransfers.sum(), metrics.pathRequests.sum(), metrics.entityWritesSkipped.sum()));
+        long scans = metrics.fearScans.sum();
+        sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                "fear scans=%d (avg %.1fus), cache hits=%d, misses=%d",
+                scans, scans == 0 ? 0.0 : metrics.fearScanNanos.sum() / 1000.0 / scans,
+                metrics.fearCacheHits.sum(), metrics.fearCacheMisses.sum()));
+        sender.sendMessage(ChatColor.GRAY + "chunk tickets=" + chunkTickets.size());
+        TickGovernor.Level level = governor.level();
+        sender.sendMessage((level == TickGovernor.Level.NORMAL ? ChatColor.GRAY : ChatColor.YELLOW) + String.format(Locale.US,
+                "governor: %s (server %.1f mspt, AI every %d ticks)",
+                level.name().toLowerCase(Locale.ROOT), governor.lastMspt(), 5 * level.aiStride));
+        if (handoff != null) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "handoff (%s, server %s): sent=%d, adopted=%d, declined=%d, waiting=%d",
+                    handoffTransportName, handoffServerId, metrics.handoffsSent.sum(), metrics.handoffsAdopted.sum(),
+                    metrics.handoffsDeclined.sum(), pendingHandoffs.size()));
+        }
+        if (heatmaps != null) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "stuck heatmap: %d chunks with known spots, recorded=%d, early/look-ahead vex=%d",
+                    heatmaps.chunks(), metrics.stuckSpotsRecorded.sum(), metrics.trapVexMorphs.sum()));
+        }
+        if (interception.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "interception: aim updates=%d, aims kept=%d",
+                    metrics.interceptAimUpdates.sum(), metrics.interceptAimsKept.sum()));
+        }
+        if (fearIndexes.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "fear index: %d sources, %d sections, %d entries, lookups=%d, sections scanned=%d, block updates=%d, entries updated=%d",
+                    fearIndexes.sources(), fearIndexes.sections(), fearIndexes.entries(), metrics.fearIndexLookups.sum(),
+                    metrics.fearIndexSectionsScanned.sum(), metrics.fearIndexBlockUpdates.sum(), metrics.fearIndexEntriesUpdated.sum()));
+        }
+        if (mobileFears.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "mobile fear sources: %d tracked, nearer than the block scan=%d",
+                    mobileFears.size(), metrics.mobileFearHits.sum()));
+        }
+        FlowField field = horde.field();
+        if (field != null) {
+            sender.sendMessage(ChatColor.GRAY + String.format(Locale.US,
+                    "horde members=%d, flow field rebuilds=%d (%d columns each), columns sampled=%d",
+                    horde.size(), field.rebuilds(), field.cells(), field.columnsSampled()));
+        }
+    }
+
+    private static final DateTimeFormatter HISTORY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * /itstalks history &lt;player&gt; [limit] - the player's last events, newest first.
+     * /itstalks history between &lt;from&gt; &lt;to&gt; [limit] - events in a time window, oldest first.
+     * The journal answers on its own thread; the reply is sent from the main thread.
+     */
+    private void handleHistoryCommand(CommandSender sender, String[] args) {
+        if (journal == null) {
+            sender.sendMessage(ChatColor.GRAY + "The curse journal is disabled (journal.enabled).");
+            return;
+        }
+
+        CompletableFuture<List<JournalEvent>> query;
+        String title;
+        if (args[1].equalsIgnoreCase("between")) {
+            if (args.length < 4) {
+                sender.sendMessage(ChatColor.RED + "Usage: /itstalks history between <from> <to> [limit]");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long from = parseHistoryTime(args[2], now);
+            long to = parseHistoryTime(args[3], now);
+            if (from == Long.MIN_VALUE || to == Long.MIN_VALUE) {
+                sender.sendMessage(ChatColor.RED + "Times are 'now', an age like 30m / 12h / 2d, or yyyy-MM-dd[THH:mm].");
+                return;
+            }
+            if (from > to) {
+                long swap = from;
+                from = to;
+                to = swap;
+            }
+            query = journal.between(from, to, parseHistoryLimit(args, 4));
+            title = "Curse history " + formatHistoryTime(from) + " - " + formatHistoryTime(to) + ":";
+        } else {
+            query = journal.lastForPlayer(args[1], parseHistoryLimit(args, 2));
+            title = "Curse history of " + args[1] + " (newest first):";
+        }
+
+        query.whenComplete((events, error) -> {
+            if (!isEnabled()) return;
+            getServer().getScheduler().runTask(this, () -> {
+                if (error != null) {
+                    sender.sendMessage(ChatColor.RED + "Could not read the curse journal, see the server log.");
+                    getLogger().warning("Curse journal query failed: " + error);
+                    return;
+                }
+                sender.sendMessage(ChatColor.GOLD + title);
+                if (events.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "No recorded events.");
+                    return;
+                }
+                for (JournalEvent event : events) {
+                    sender.sendMessage(ChatColor.GRAY + formatHistoryTime(event.timeMs()) + "  " + ChatColor.WHITE + describeCurseEvent(event));
+                }
+            });
+        });
+    }
+
+    private static int parseHistoryLimit(String[] args, int index) {
+        if (args.length <= index) return 10;
+        try {
+            return Math.max(1, Math.min(100, Integer.parseInt(args[index])));
+        } catch (NumberFormatException e) {
+            return 10;
+        }
+    }
+
+    /** @return epoch millis for "now", an age ("30m", "12h", "2d") or a local date/time, or Long.MIN_VALUE */
+    private static long parseHistoryTime(String text, long nowMs) {
+        if (text.equalsIgnoreCase("now")) return nowMs;
+        char unit = Character.toLowerCase(text.charAt(text.length() - 1));
+        long unitMs = switch (unit) {
+            case 'm' -> 60_000L;
+            case 'h' -> 3_600_000L;
+            case 'd' -> 86_400_000L;
+            default -> 0L;
+        };
+        try {
+            if (unitMs > 0L) return nowMs - Long.parseLong(text.substring(0, text.length() - 1)) * unitMs;
+            if (text.length() == 10) return LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static String formatHistoryTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).format(HISTORY_TIME);
+    }
+
+    private static String describeCurseEvent(JournalEvent event) {
+        String from = event.fromName().isEmpty() ? "?" : event.fromName();
+        String to = event.toName().isEmpty() ? "?" : event.toName();
+        return switch (event.type()) {
+            case TRANSFER -> from + " passed the curse to " + to;
+            case ADMIN_START -> to + " was cursed by " + event.detail() + (event.from() != null ? " (was " + from + ")" : "");
+            case AUTO_CURSE -> to + " was picked as the first victim";
+            case LOGOUT_RETARGET -> from + " stayed offline, the curse moved to " + to;
+            case STALKER_DEATH -> "the stalker (" + event.detail() + ") hunting " + to + " was killed"
+                    + (event.from() != null ? " by " + from : "");
+            case HANDOFF -> (event.to() != null)
+                    ? to + " brought the curse over from server " + event.detail()
+                    : from + " took the curse to server " + event.detail();
+        };
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        if (command.getName().equalsIgnoreCase("startcurse")) {
+            if (args.length != 1) return false;
+            Player target = Bukkit.getPlayer(args[0]);
+            if (target == null) {
+                sender.sendMessage(formatMessage(msgPlayerNotFound, null));
+                return true;
+            }
+            if (!startCurse(target, sender.getName(), CurseTransferEvent.Cause.COMMAND)) {
+                sender.sendMessage(ChatColor.RED + "Another plugin cancelled the curse transfer.");
+                return true;
+            }
+            sender.sendMessage(formatMessage(msgCurseStartedAdmin, Map.of("target", target.getName())));
+            return true;
+        } else if (command.getName().equalsIgnoreCase("cursereload")) {
+            reloadConfig();
+            loadConfig();
+            applyMetricsServer();
+            sender.sendMessage(formatMessage(msgConfigReloaded, null));
+            return true;
+        } else if (command.getName().equalsIgnoreCase("itstalks")) {
+            if (args.length >= 1 && args[0].equalsIgnoreCase("stats")) {
+                handleStatsCommand(sender, args);
+                return true;
+            }
+            if (args.length >= 2 && args[0].equalsIgnoreCase("history")) {
+                handleHistoryCommand(sender, args);
+                return true;
+            }
+            return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package me.promptt.itfollows;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JfrEvents
+ *
+ * Custom Java Flight Recorder events for stalker activity, so lag spikes in a recording can be
+ * lined up with scans, re-plans and morphs in JDK Mission Control.
+ *
+ * Call sites follow the usual pattern: create, {@code begin()}, do the work, then fill and
+ * {@code commit()} only if {@code shouldCommit()}. With no recording running, the event is
+ * disabled and the only cost is the (escape-analysed) allocation and a branch.
+ */
+final class JfrEvents {
+
+    private static final String CATEGORY = "ItStalks";
+
+    private JfrEvents() {
+    }
+
+    @Name("itstalks.FearScan")
+    @Label("Fear Scan")
+    @Description("Block scan for the nearest fear source")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class FearScan extends Event {
+        @Label("World") String world;
+        @Label("Center X") int centerX;
+        @Label("Center Y") int centerY;
+        @Label("Center Z") int centerZ;
+        @Label("Scan Radius") int radius;
+        @Label("Victim Protection") boolean victimProtection;
+        @Label("Blocks Visited") long blocksVisited;
+        @Label("Found") boolean found;
+        @Label("Fear Type") String fearType;
+    }
+
+    @Name("itstalks.PathRequest")
+    @Label("Path Request")
+    @Description("Pathfinder moveTo issued for the stalker")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PathRequest extends Event {
+        @Label("Entity Type") String entityType;
+        @Label("Target X") double targetX;
+        @Label("Target Y") double targetY;
+        @Label("Target Z") double targetZ;
+        @Label("Speed") double speed;
+        @Label("Path Found") boolean pathFound;
+    }
+
+    @Name("itstalks.Morph")
+    @Label("Stalker Morph")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Morph extends Event {
+        @Label("From") String fromType;
+        @Label("To") String toType;
+        @Label("X") double x;
+        @Label("Y") double y;
+        @Label("Z") double z;
+    }
+
+    @Name("itstalks.Spawn")
+    @Label("Stalker Spawn")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Spawn extends Event {
+        @Label("Entity Type") String entityType;
+        @Label("World") String world;
+        @Label("X") double x;
+        @Label("Y") double y;
+        @Label("Z") double z;
+        @Label("Morph") boolean morph;
+        @Label("Target") String target;
+    }
+
+    @Name("itstalks.CurseTransfer")
+    @Label("Curse Transfer")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class CurseTransfer extends Event {
+        @Label("From") String from;
+        @Label("To") String to;
+    }
+
+    @Name("itstalks.VisibilitySweep")
+    @Label("Visibility Sweep")
+    @Description("Hide/show pass of the stalker over all online players")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class VisibilitySweep extends Event {
+        @Label("Players") int players;
+    }
+}
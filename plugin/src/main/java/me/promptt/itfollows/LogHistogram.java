@@ -0,0 +1,95 @@
+package me.promptt.itfollows;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LogHistogram
+ *
+ * Fixed-memory, lock-free histogram with logarithmic buckets (4 sub-buckets per power of two,
+ * so every reported value is within 25% of the real one). Recording is a single atomic
+ * increment plus a max update, which keeps it cheap enough for per-tick instrumentation.
+ *
+ * Reads are not atomic with respect to concurrent writes; percentiles are best-effort snapshots.
+ */
+final class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        sum.addAndGet(value);
+
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) break;
+        }
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /** Exact total of all recorded values. */
+    long sum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns an upper-bound estimate of the given quantile (0..1), or 0 if nothing was recorded.
+     */
+    long percentile(double quantile) {
+        long total = count();
+        if (total == 0) return 0L;
+
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0L);
+        max.set(0L);
+        sum.set(0L);
+    }
+
+    // --- Bucket Math ---
+
+    static int bucketOf(long value) {
+        // Values below SUB_BUCKETS get an exact bucket each.
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        int exp = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        int shift = exp - SUB_BUCKET_BITS;
+        long lower = ((long) (SUB_BUCKETS + sub)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
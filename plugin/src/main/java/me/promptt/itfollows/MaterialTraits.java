@@ -0,0 +1,63 @@
+package me.promptt.itfollows;
+
+import org.bukkit.Material;
+import org.bukkit.Tag;
+
+/**
+ * MaterialTraits
+ *
+ * Per-{@link Material} trait bitset, built once from block tags so tick code can classify blocks
+ * with an array read instead of {@code getType().toString().contains(...)}.
+ */
+final class MaterialTraits {
+
+    static final int DOOR = 1;
+    static final int GATE = 1 << 1;
+    static final int TRAPDOOR = 1 << 2;
+    /** Ladders, vines and other climbables except scaffolding. */
+    static final int LADDER = 1 << 3;
+    static final int SCAFFOLDING = 1 << 4;
+    static final int CLIMBABLE = LADDER | SCAFFOLDING;
+    static final int SOLID = 1 << 5;
+    /** Solid and not something the stalker can open or climb through. */
+    static final int OBSTACLE = 1 << 6;
+
+    private static final int[] TRAITS = build();
+
+    private MaterialTraits() {
+    }
+
+    static int of(Material material) {
+        return TRAITS[material.ordinal()];
+    }
+
+    static boolean has(Material material, int traitMask) {
+        return (TRAITS[material.ordinal()] & traitMask) != 0;
+    }
+
+    @SuppressWarnings("deprecation") // isLegacy: legacy materials are not valid for tag lookups
+    private static int[] build() {
+        Material[] materials = Material.values();
+        int[] traits = new int[materials.length];
+
+        for (Material m : materials) {
+            if (m.isLegacy() || !m.isBlock()) continue;
+
+            int t = 0;
+            if (Tag.DOORS.isTagged(m)) t |= DOOR;
+            if (Tag.FENCE_GATES.isTagged(m)) t |= GATE;
+            if (Tag.TRAPDOORS.isTagged(m)) t |= TRAPDOOR;
+            if (m == Material.SCAFFOLDING) {
+                t |= SCAFFOLDING;
+            } else if (Tag.CLIMBABLE.isTagged(m)) {
+                t |= LADDER;
+            }
+            if (m.isSolid()) {
+                t |= SOLID;
+                if ((t & (DOOR | GATE | TRAPDOOR | CLIMBABLE)) == 0) t |= OBSTACLE;
+            }
+            traits[m.ordinal()] = t;
+        }
+        return traits;
+    }
+}
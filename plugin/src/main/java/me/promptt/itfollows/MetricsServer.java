@@ -0,0 +1,86 @@
+package me.promptt.itfollows;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MetricsServer
+ *
+ * Optional embedded HTTP endpoint serving {@link StalkerMetrics} in Prometheus text format
+ * on {@code /metrics}. Runs on its own daemon thread and only reads the lock-free counters,
+ * so scrapes never touch the server thread.
+ */
+final class MetricsServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StalkerMetrics metrics;
+    private final TickProfiler profiler;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private InetSocketAddress address;
+
+    MetricsServer(StalkerMetrics metrics, TickProfiler profiler) {
+        this.metrics = metrics;
+        this.profiler = profiler;
+    }
+
+    boolean isRunning() {
+        return server != null;
+    }
+
+    /** Starts the endpoint, or keeps the running one when it is already bound to the same address. */
+    void start(String bindAddress, int port) throws IOException {
+        InetSocketAddress target = new InetSocketAddress(bindAddress, port);
+        if (server != null && target.equals(address)) return;
+        stop();
+
+        HttpServer http = HttpServer.create(target, 0);
+        http.createContext("/metrics", exchange -> {
+            try (exchange) {
+                if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                StringBuilder body = new StringBuilder(4096);
+                metrics.writePrometheus(body, profiler);
+                byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(bytes);
+                }
+            }
+        });
+
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ItStalks-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        http.setExecutor(executor);
+        http.start();
+        server = http;
+        address = target;
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            address = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
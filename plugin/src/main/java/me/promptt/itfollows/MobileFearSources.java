@@ -0,0 +1,355 @@
+package me.promptt.itfollows;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearSourceHash;
+import me.promptt.itfollows.ai.FearType;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Blaze;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityCombustEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * MobileFearSources
+ *
+ * Fear sources that are not placed blocks: players holding a soul torch or soul lantern, blazes, and
+ * burning entities. They are tracked from events only (held item, inventory, spawn, combust, chunk
+ * entity load, removal) and kept in one {@link FearSourceHash} per world; player moves update the
+ * hash as they happen. Nothing here walks the world's entity list on a timer: {@link #refresh} only
+ * re-reads the few entities already tracked, for the changes no event reports (a mob moving, a fire
+ * going out).
+ *
+ * Held items and burning entities use the radius of the matching block type (soul torch, soul
+ * lantern, fire); blazes count as fire.
+ */
+final class MobileFearSources implements Listener {
+
+    /** Hash cells are 16 blocks wide (one chunk). */
+    private static final int CELL_BITS = 4;
+
+    /** What kinds of mobile sources are enabled. */
+    record Settings(boolean enabled, boolean heldItems, boolean blazes, boolean burningEntities) {
+    }
+
+    private static final class Tracked {
+        final Entity entity;
+        final UUID world;
+        final int handle;
+        FearType type;
+        int x, y, z;
+
+        Tracked(Entity entity, UUID world, int handle, FearType type) {
+            this.entity = entity;
+            this.world = world;
+            this.handle = handle;
+            this.type = type;
+        }
+    }
+
+    private final Plugin plugin;
+    private final FearScanner radii;
+    /** Entities that are never fear sources (the stalker and the horde). */
+    private final Predicate<Entity> ignored;
+
+    private final Map<UUID, FearSourceHash> hashes = new HashMap<>();
+    private final Map<UUID, Tracked> tracked = new HashMap<>();
+
+    /** Entities to re-check next tick (their inventory or fire state is only final after the event). */
+    private final Map<UUID, Entity> pending = new LinkedHashMap<>();
+    private boolean checkScheduled;
+
+    private Settings settings = new Settings(false, false, false, false);
+    /** Set when the settings change: the already-loaded sources are picked up on the next refresh. */
+    private boolean seedPending;
+    private long lastRefreshMs;
+
+    MobileFearSources(Plugin plugin, FearScanner radii, Predicate<Entity> ignored) {
+        this.plugin = plugin;
+        this.radii = radii;
+        this.ignored = ignored;
+    }
+
+    void configure(Settings settings) {
+        this.settings = settings;
+        clear();
+        seedPending = settings.enabled();
+    }
+
+    boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    int size() {
+        return tracked.size();
+    }
+
+    /**
+     * Nearest mobile source within its radius + {@code extraRadius} of the block, with the same cube
+     * and distance rules as the block scan.
+     *
+     * @return {@code into}, or null if nothing is in range
+     */
+    FearHit nearest(World world, int x, int y, int z, double extraRadius, int maxReach, FearHit into) {
+        FearSourceHash hash = hashes.get(world.getUID());
+        return (hash == null) ? null : hash.nearest(radii, x, y, z, extraRadius, maxReach, into);
+    }
+
+    /**
+     * Re-reads the tracked entities at most once per {@code intervalMs}: positions of mobs (players
+     * are moved by their move events), fires that went out and entities that became invalid.
+     */
+    void refresh(long nowMs, long intervalMs) {
+        if (!settings.enabled()) return;
+        if (seedPending) {
+            seedPending = false;
+            seed();
+        }
+        if (nowMs - lastRefreshMs < intervalMs || tracked.isEmpty()) return;
+        lastRefreshMs = nowMs;
+        for (Tracked t : new ArrayList<>(tracked.values())) update(t.entity);
+    }
+
+    void clear() {
+        tracked.clear();
+        hashes.clear();
+        pending.clear();
+    }
+
+    // --- Tracking ---
+
+    /** Picks up sources that already exist: online players and blazes in loaded chunks (once, on (re)configure). */
+    private void seed() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) update(player);
+        if (!settings.blazes()) return;
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Blaze blaze : world.getEntitiesByClass(Blaze.class)) update(blaze);
+        }
+    }
+
+    /** Adds, moves, retypes or drops the entity according to its current state. */
+    private void update(Entity entity) {
+        FearType type = entity.isValid() ? typeOf(entity) : null;
+        Tracked t = tracked.get(entity.getUniqueId());
+        if (type == null) {
+            if (t != null) forget(t);
+            return;
+        }
+        Location loc = entity.getLocation();
+        UUID world = entity.getWorld().getUID();
+        if (t != null && !t.world.equals(world)) {
+            forget(t);
+            t = null;
+        }
+        int x = loc.getBlockX(), y = loc.getBlockY(), z = loc.getBlockZ();
+        FearSourceHash hash = hashes.computeIfAbsent(world, id -> new FearSourceHash(CELL_BITS));
+        if (t == null) {
+            t = new Tracked(entity, world, hash.add(type, x, y, z), type);
+            tracked.put(entity.getUniqueId(), t);
+        } else {
+            if (t.type != type) hash.setType(t.handle, type);
+            t.type = type;
+            hash.move(t.handle, x, y, z);
+        }
+        t.x = x;
+        t.y = y;
+        t.z = z;
+    }
+
+    private void forget(Tracked t) {
+        tracked.remove(t.entity.getUniqueId());
+        FearSourceHash hash = hashes.get(t.world);
+        if (hash == null) return;
+        hash.remove(t.handle);
+        if (hash.size() == 0) hashes.remove(t.world);
+    }
+
+    /** The fear type the entity radiates right now, or null (the widest one if several apply). */
+    private FearType typeOf(Entity entity) {
+        if (ignored.test(entity)) return null;
+        if (entity instanceof Player player && player.getGameMode() == GameMode.SPECTATOR) return null;
+
+        FearType type = null;
+        if (settings.blazes() && entity instanceof Blaze) type = FearType.FIRE;
+        if (settings.burningEntities() && entity.getFireTicks() > 0) type = wider(type, FearType.FIRE);
+        if (settings.heldItems() && entity instanceof HumanEntity human) {
+            PlayerInventory inventory = human.getInventory();
+            type = wider(type, heldType(inventory.getItemInMainHand()));
+            type = wider(type, heldType(inventory.getItemInOffHand()));
+        }
+        return (type != null && radii.getRadius(type) > 0) ? type : null;
+    }
+
+    private static FearType heldType(ItemStack item) {
+        if (item == null) return null;
+        return switch (item.getType()) {
+            case SOUL_TORCH -> FearType.SOUL_TORCH;
+            case SOUL_LANTERN -> FearType.SOUL_LANTERN;
+            default -> null;
+        };
+    }
+
+    private FearType wider(FearType a, FearType b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return (radii.getRadius(b) > radii.getRadius(a)) ? b : a;
+    }
+
+    /** Re-checks the entity on the next tick, once the event's change has been applied. */
+    private void checkLater(Entity entity) {
+        if (!settings.enabled()) return;
+        pending.put(entity.getUniqueId(), entity);
+        if (checkScheduled) return;
+        checkScheduled = true;
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            checkScheduled = false;
+            List<Entity> entities = new ArrayList<>(pending.values());
+            pending.clear();
+            for (Entity e : entities) update(e);
+        });
+    }
+
+    // --- Events ---
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Tracked t = tracked.get(event.getPlayer().getUniqueId());
+        if (t == null) return;
+        Location to = event.getTo();
+        if (to.getBlockX() == t.x && to.getBlockY() == t.y && to.getBlockZ() == t.z) return;
+        if (!to.getWorld().getUID().equals(t.world)) {
+            checkLater(event.getPlayer());
+            return;
+        }
+        t.x = to.getBlockX();
+        t.y = to.getBlockY();
+        t.z = to.getBlockZ();
+        hashes.get(t.world).move(t.handle, t.x, t.y, t.z);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (tracked.containsKey(event.getPlayer().getUniqueId())) checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        checkLater(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        checkLater(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player) checkLater(event.getEntity());
+    }
+
+    /** Placing the last soul torch of a stack empties the hand. */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (tracked.containsKey(event.getPlayer().getUniqueId())) checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Tracked t = tracked.get(event.getPlayer().getUniqueId());
+        if (t != null) forget(t);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        checkLater(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        checkLater(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSpawn(EntitySpawnEvent event) {
+        if (event.getEntity() instanceof Blaze) checkLater(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        if (!settings.enabled() || !settings.blazes()) return;
+        for (Entity entity : event.getEntities()) {
+            if (entity instanceof Blaze) checkLater(entity);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCombust(EntityCombustEvent event) {
+        if (settings.burningEntities()) checkLater(event.getEntity());
+    }
+
+    /** Covers deaths, despawns and chunk unloads; a player changing worlds is re-added in the new one. */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        Entity entity = event.getEntity();
+        Tracked t = tracked.get(entity.getUniqueId());
+        if (t != null) forget(t);
+        if (entity instanceof Player) {
+            if (t != null) checkLater(entity);
+        } else {
+            pending.remove(entity.getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.api.CurseSession;
+import me.promptt.itfollows.api.ItStalksApi;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * PluginApi
+ *
+ * The {@link ItStalksApi} service: a thin view over the plugin's curse state.
+ */
+final class PluginApi implements ItStalksApi {
+
+    private final ItStalksPlugin plugin;
+
+    PluginApi(ItStalksPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public @NotNull Optional<CurseSession> getSession() {
+        return Optional.ofNullable(plugin.sessionSnapshot());
+    }
+
+    @Override
+    public boolean isCursed(@NotNull UUID player) {
+        return player.equals(plugin.cursedPlayerId());
+    }
+
+    @Override
+    public boolean isStalker(@NotNull Entity entity) {
+        return plugin.isActiveStalker(entity);
+    }
+
+    @Override
+    public boolean transferCurse(@NotNull Player target, @NotNull Plugin caller) {
+        return plugin.forceTransfer(target, caller.getName());
+    }
+}
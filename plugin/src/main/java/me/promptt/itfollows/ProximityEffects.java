@@ -0,0 +1,159 @@
+package me.promptt.itfollows;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ProximityEffects
+ *
+ * Applies distance-scaled potion effects (mining fatigue, and optionally darkness, slowness, ...)
+ * to the cursed player while the stalker is close, and remembers what it applied.
+ *
+ * An effect is only (re)sent when it is missing, about to expire or its level changed, so a
+ * stalker lingering in range costs one effect packet per duration instead of one per AI update.
+ * The {@link PotionEffect} for each rule/level is built once and reused.
+ */
+final class ProximityEffects {
+
+    /** Refresh this many ticks before our effect runs out (must exceed the longest AI interval, 20 ticks when degraded). */
+    private static final int REFRESH_MARGIN_TICKS = 30;
+
+    /**
+     * One effect: active within {@code range} blocks. The level rises linearly from
+     * {@code minAmplifier} at the edge of the range to {@code maxAmplifier} at distance 0.
+     */
+    static final class Rule {
+        final PotionEffectType type;
+        final double range;
+        final int minAmplifier;
+        final int maxAmplifier;
+        final int durationTicks;
+        private final PotionEffect[] effects;
+
+        Rule(PotionEffectType type, double range, int minAmplifier, int maxAmplifier, int durationTicks) {
+            this.type = type;
+            this.range = range;
+            this.minAmplifier = Math.max(0, minAmplifier);
+            this.maxAmplifier = Math.max(this.minAmplifier, maxAmplifier);
+            this.durationTicks = Math.max(REFRESH_MARGIN_TICKS * 2, durationTicks);
+
+            this.effects = new PotionEffect[this.maxAmplifier - this.minAmplifier + 1];
+            for (int i = 0; i < effects.length; i++) {
+                effects[i] = new PotionEffect(type, this.durationTicks, this.minAmplifier + i, false, false);
+            }
+        }
+
+        /** @return the amplifier for this distance, or -1 if out of range */
+        int amplifierAt(double distance) {
+            if (distance > range) return -1;
+            if (maxAmplifier == minAmplifier || range <= 0) return minAmplifier;
+            double closeness = 1.0 - Math.max(0.0, distance) / range;
+            return minAmplifier + (int) Math.round(closeness * (maxAmplifier - minAmplifier));
+        }
+
+        PotionEffect effect(int amplifier) {
+            return effects[amplifier - minAmplifier];
+        }
+    }
+
+    /** What we applied to one player, per rule index (-1 = nothing). */
+    private static final class Applied {
+        final int[] amplifier;
+        final int[] expiresAtTick;
+
+        Applied(int rules) {
+            amplifier = new int[rules];
+            expiresAtTick = new int[rules];
+            Arrays.fill(amplifier, -1);
+        }
+    }
+
+    private Rule[] rules = new Rule[0];
+    private final Map<UUID, Applied> applied = new HashMap<>();
+
+    /** Replaces the rule set; effects applied under the old rules are removed first. */
+    void setRules(List<Rule> newRules) {
+        clearAll();
+        rules = newRules.toArray(new Rule[0]);
+    }
+
+    /**
+     * Brings the player's effects in line with the stalker's distance.
+     *
+     * @param distance distance to the stalker, or {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    void update(Player player, double distance) {
+        if (rules.length == 0) return;
+
+        Applied state = applied.get(player.getUniqueId());
+        int now = Bukkit.getCurrentTick();
+
+        for (int i = 0; i < rules.length; i++) {
+            Rule rule = rules[i];
+            int want = rule.amplifierAt(distance);
+            int have = (state != null) ? state.amplifier[i] : -1;
+
+            if (want < 0) {
+                if (have >= 0) remove(player, rule, have, state, i);
+                continue;
+            }
+
+            boolean refresh = have != want
+                    || now >= state.expiresAtTick[i] - REFRESH_MARGIN_TICKS
+                    || !player.hasPotionEffect(rule.type); // milk, death, another plugin
+            if (!refresh) continue;
+
+            if (state == null) {
+                state = new Applied(rules.length);
+                applied.put(player.getUniqueId(), state);
+            }
+            // A lower level does not replace a higher one, so drop ours first when stepping down.
+            if (have > want) player.removePotionEffect(rule.type);
+            player.addPotionEffect(rule.effect(want));
+            state.amplifier[i] = want;
+            state.expiresAtTick[i] = now + rule.durationTicks;
+        }
+    }
+
+    /** Removes every effect we applied to this player (curse transfer, stalker gone). */
+    void clear(Player player) {
+        Applied state = applied.remove(player.getUniqueId());
+        if (state == null) return;
+        for (int i = 0; i < rules.length; i++) {
+            if (state.amplifier[i] >= 0) remove(player, rules[i], state.amplifier[i], null, i);
+        }
+    }
+
+    /** Forgets a player without touching them (e.g. they logged out; the effects run out on their own). */
+    void forget(UUID playerId) {
+        applied.remove(playerId);
+    }
+
+    void clearAll() {
+        for (UUID id : applied.keySet().toArray(new UUID[0])) {
+            Player player = Bukkit.getPlayer(id);
+            if (player != null) {
+                clear(player);
+            } else {
+                applied.remove(id);
+            }
+        }
+    }
+
+    /** Removes the effect only if it is still the one we applied (not a stronger one from elsewhere). */
+    private static void remove(Player player, Rule rule, int amplifier, Applied state, int index) {
+        PotionEffect current = player.getPotionEffect(rule.type);
+        if (current != null && current.getAmplifier() == amplifier && current.getDuration() <= rule.durationTicks) {
+            player.removePotionEffect(rule.type);
+        }
+        if (state != null) state.amplifier[index] = -1;
+    }
+}
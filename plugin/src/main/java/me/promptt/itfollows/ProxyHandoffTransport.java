@@ -0,0 +1,87 @@
+package me.promptt.itfollows;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * ProxyHandoffTransport
+ *
+ * Sends handoffs with the proxy's "Forward" sub-channel to every other backend (BungeeCord and
+ * Velocity both understand the legacy "BungeeCord" channel). BungeeCord queues forwarded messages
+ * for servers without players and flushes them when the next player connects, so the server the
+ * holder switches to gets the message right as they arrive. Velocity drops a forward to a server
+ * nobody is connected to: there the handoff only reaches servers that already have a player, and a
+ * holder moving to an empty server loses the curse to the old server's logout retarget.
+ *
+ * Plugin messages travel over a player connection. The holder's own connection is already closed
+ * when their quit is handled, so another player on the old server is needed; without one the
+ * handoff is not sent and the old server falls back to its logout retarget.
+ */
+final class ProxyHandoffTransport implements HandoffTransport, PluginMessageListener {
+
+    static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "ItStalks";
+
+    private final Plugin plugin;
+    private final Consumer<byte[]> receiver;
+
+    ProxyHandoffTransport(Plugin plugin, Consumer<byte[]> receiver) {
+        this.plugin = plugin;
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public boolean send(byte[] message, Player leaving) {
+        Player carrier = null;
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player != leaving) {
+                carrier = player;
+                break;
+            }
+        }
+        if (carrier == null) return false;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(message.length);
+            out.write(message);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        carrier.sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+        return true;
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte @NotNull [] message) {
+        if (!CHANNEL.equals(channel)) return;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) return;
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            receiver.accept(payload);
+        } catch (IOException ignored) {
+            // Some other plugin's (or the proxy's own) BungeeCord message.
+        }
+    }
+
+    @Override
+    public void close() {
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+    }
+}
@@ -0,0 +1,129 @@
+package me.promptt.itfollows;
+
+import java.util.UUID;
+
+/**
+ * ShadowPursuit
+ *
+ * The stalker as a purely virtual position while it is far from the victim. Nobody can see it
+ * out there anyway, so instead of a ticking, chunk-loading entity it is just a point that walks
+ * straight towards the victim at the stalker's walking speed. The plugin spawns the real entity
+ * once the point comes within the materialization radius, and turns an entity that fell too far
+ * behind back into a shadow.
+ *
+ * The shadow survives logouts (it simply waits) and world changes: when the victim turns up in
+ * another world, the shadow keeps its offset to the victim's last known position and carries it
+ * over, so portals buy distance but not safety. Without a known position (it never saw the victim
+ * in its world) it is carried over to {@link #setFallbackDistance} blocks from the victim instead.
+ */
+final class ShadowPursuit {
+
+    private boolean active;
+    private UUID worldId;
+    private double x, y, z;
+
+    /** Victim position at the previous advance, in the shadow's world. */
+    private boolean hasVictim;
+    private double lastVictimX, lastVictimY, lastVictimZ;
+
+    private double fallbackDistance = 50.0;
+
+    boolean isActive() {
+        return active;
+    }
+
+    /** @param blocks distance from the victim when carried over without a known offset */
+    void setFallbackDistance(double blocks) {
+        this.fallbackDistance = Math.max(1.0, blocks);
+    }
+
+    /** Places the shadow at (x, y, z) while the victim stands at (vx, vy, vz) in the same world. */
+    void place(UUID worldId, double x, double y, double z, double vx, double vy, double vz) {
+        this.active = true;
+        this.worldId = worldId;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.hasVictim = true;
+        this.lastVictimX = vx;
+        this.lastVictimY = vy;
+        this.lastVictimZ = vz;
+    }
+
+    void clear() {
+        active = false;
+        worldId = null;
+        hasVictim = false;
+    }
+
+    /**
+     * Walks the shadow up to {@code blocks} towards the victim, first carrying it over if the
+     * victim is in a different world.
+     *
+     * @return remaining distance to the victim after the step
+     */
+    double advance(UUID victimWorld, double vx, double vy, double vz, double blocks) {
+        if (!victimWorld.equals(worldId)) {
+            double ox, oy, oz;
+            if (hasVictim) {
+                ox = x - lastVictimX;
+                oy = y - lastVictimY;
+                oz = z - lastVictimZ;
+            } else {
+                // Keep the direction it had to the victim's new coordinates, at the fallback distance.
+                ox = x - vx;
+                oz = z - vz;
+                double len = Math.sqrt(ox * ox + oz * oz);
+                if (len < 1.0E-6) {
+                    ox = 1.0;
+                    oz = 0.0;
+                    len = 1.0;
+                }
+                ox = ox / len * fallbackDistance;
+                oz = oz / len * fallbackDistance;
+                oy = 0.0;
+            }
+            worldId = victimWorld;
+            x = vx + ox;
+            y = vy + oy;
+            z = vz + oz;
+        }
+        hasVictim = true;
+        lastVictimX = vx;
+        lastVictimY = vy;
+        lastVictimZ = vz;
+
+        double dx = vx - x;
+        double dz = vz - z;
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        if (horizontal > 1.0E-6 && blocks > 0.0) {
+            double step = Math.min(blocks, horizontal);
+            x += dx / horizontal * step;
+            z += dz / horizontal * step;
+            // Coarse height: drift towards the victim's level in proportion to the horizontal progress.
+            y += (vy - y) * (step / horizontal);
+        }
+        return distance(vx, vy, vz);
+    }
+
+    double distance(double vx, double vy, double vz) {
+        double dx = vx - x, dy = vy - y, dz = vz - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    UUID worldId() {
+        return worldId;
+    }
+
+    double x() {
+        return x;
+    }
+
+    double y() {
+        return y;
+    }
+
+    double z() {
+        return z;
+    }
+}
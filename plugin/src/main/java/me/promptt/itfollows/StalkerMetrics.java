@@ -0,0 +1,226 @@
+package me.promptt.itfollows;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StalkerMetrics
+ *
+ * Operation counters for the stalker, written from the main thread and read by the metrics
+ * endpoint / stats command. Counters are striped {@link LongAdder}s so increments never contend,
+ * even while the exporter thread is summing them.
+ */
+final class StalkerMetrics {
+
+    final LongAdder spawns = new LongAdder();
+    final LongAdder despawns = new LongAdder();
+    final LongAdder morphs = new LongAdder();
+    final LongAdder curseTransfers = new LongAdder();
+    final LongAdder pathRequests = new LongAdder();
+    /** Interception aims moved / kept because the new prediction stayed within the re-plan distance. */
+    final LongAdder interceptAimUpdates = new LongAdder();
+    final LongAdder interceptAimsKept = new LongAdder();
+    /** Buffered stalker commands dropped because they would not change the mob's state. */
+    final LongAdder entityWritesSkipped = new LongAdder();
+
+    final LongAdder fearScans = new LongAdder();
+    final LongAdder fearScanNanos = new LongAdder();
+    final LongAdder fearCacheHits = new LongAdder();
+    final LongAdder fearCacheMisses = new LongAdder();
+    /** Fear lookups answered by the fear source index instead of a block scan. */
+    final LongAdder fearIndexLookups = new LongAdder();
+    final LongAdder fearIndexSectionsScanned = new LongAdder();
+    /** Fear blocks added, removed or changed in the fear source index after a block event. */
+    final LongAdder fearIndexBlockUpdates = new LongAdder();
+    /** Index column entries written or removed by the incremental updates. */
+    final LongAdder fearIndexEntriesUpdated = new LongAdder();
+    /** Fear lookups answered by a mobile source (held soul light, blaze, burning mob) instead of a block. */
+    final LongAdder mobileFearHits = new LongAdder();
+
+    /** Governor level changes (either direction). */
+    final LongAdder degradationChanges = new LongAdder();
+
+    /** Stuck events written to the stuck heatmap. */
+    final LongAdder stuckSpotsRecorded = new LongAdder();
+    /** Vex morphs sped up or triggered by a known stuck spot. */
+    final LongAdder trapVexMorphs = new LongAdder();
+
+    final LongAdder handoffsSent = new LongAdder();
+    final LongAdder handoffsAdopted = new LongAdder();
+    /** Handoffs refused because this server already had a cursed player. */
+    final LongAdder handoffsDeclined = new LongAdder();
+
+    final LongAdder hordeSpawns = new LongAdder();
+    final LongAdder flowFieldRebuilds = new LongAdder();
+    final LongAdder flowFieldColumnsSampled = new LongAdder();
+
+    /** Morphs bucketed per second over the last minute (for morphs-per-minute). */
+    private final SlidingMinute morphWindow = new SlidingMinute();
+
+    /** Number of curse sessions with a live stalker (updated by the tick loop). */
+    private volatile int activeSessions;
+
+    /** Plugin chunk tickets currently held for the stalker. */
+    private volatile int chunkTickets;
+
+    /** Current {@link TickGovernor.Level} ordinal and the MSPT sample that chose it. */
+    private volatile int degradationLevel;
+    private volatile double mspt;
+
+    /** Horde members currently alive. */
+    private volatile int hordeMembers;
+
+    void countMorph() {
+        morphs.increment();
+        morphWindow.increment(System.currentTimeMillis() / 1000L);
+    }
+
+    void recordFearScan(long nanos) {
+        fearScans.increment();
+        fearScanNanos.add(nanos);
+    }
+
+    void setActiveSessions(int activeSessions) {
+        this.activeSessions = activeSessions;
+    }
+
+    void setChunkTickets(int chunkTickets) {
+        this.chunkTickets = chunkTickets;
+    }
+
+    void setDegradationLevel(int degradationLevel) {
+        this.degradationLevel = degradationLevel;
+    }
+
+    void setMspt(double mspt) {
+        this.mspt = mspt;
+    }
+
+    void setHordeMembers(int hordeMembers) {
+        this.hordeMembers = hordeMembers;
+    }
+
+    long morphsLastMinute() {
+        return morphWindow.sum(System.currentTimeMillis() / 1000L);
+    }
+
+    // --- Prometheus Text Format ---
+
+    /** Appends all metrics (including the profiler's phase timings) in Prometheus text format. */
+    void writePrometheus(StringBuilder out, TickProfiler profiler) {
+        gauge(out, "itstalks_active_sessions", "Curse sessions with a live stalker.", activeSessions);
+        gauge(out, "itstalks_chunk_tickets", "Plugin chunk tickets held around the stalker.", chunkTickets);
+        gauge(out, "itstalks_degradation_level", "Governor level: 0 normal, 1 reduced, 2 minimal.", degradationLevel);
+        out.append("# HELP itstalks_server_mspt Average server tick time seen by the governor.\n");
+        out.append("# TYPE itstalks_server_mspt gauge\n");
+        out.append("itstalks_server_mspt ").append(String.format(Locale.US, "%.3f", mspt)).append('\n');
+        counter(out, "itstalks_degradation_changes_total", "Governor level changes.", degradationChanges.sum());
+
+        counter(out, "itstalks_spawns_total", "Stalker spawns (morphs excluded).", spawns.sum());
+        counter(out, "itstalks_despawns_total", "Stalker removals (morphs excluded).", despawns.sum());
+        counter(out, "itstalks_morphs_total", "Stalker form changes.", morphs.sum());
+        gauge(out, "itstalks_morphs_per_minute", "Stalker form changes during the last 60 seconds.", morphsLastMinute());
+        counter(out, "itstalks_curse_transfers_total", "Curse transfers between players.", curseTransfers.sum());
+        counter(out, "itstalks_path_requests_total", "Pathfinder (re-)plans issued for the stalker.", pathRequests.sum());
+        counter(out, "itstalks_intercept_aim_updates_total", "Times the stalker's pursuit aim point moved.", interceptAimUpdates.sum());
+        counter(out, "itstalks_intercept_aims_kept_total", "Interception predictions close enough to keep the current aim.", interceptAimsKept.sum());
+        counter(out, "itstalks_entity_writes_skipped_total", "Stalker commands skipped because they would not change its state.", entityWritesSkipped.sum());
+
+        counter(out, "itstalks_fear_scans_total", "Fear block scans performed.", fearScans.sum());
+        counterSeconds(out, "itstalks_fear_scan_seconds_total", "Time spent in fear block scans.", fearScanNanos.sum());
+        counter(out, "itstalks_fear_scan_cache_hits_total", "Fear lookups answered from the scan cache.", fearCacheHits.sum());
+        counter(out, "itstalks_fear_scan_cache_misses_total", "Fear lookups that needed a new scan.", fearCacheMisses.sum());
+        counter(out, "itstalks_fear_index_lookups_total", "Fear lookups answered by the fear source index.", fearIndexLookups.sum());
+        counter(out, "itstalks_fear_index_sections_scanned_total", "Chunk sections scanned into the fear source index.", fearIndexSectionsScanned.sum());
+        counter(out, "itstalks_fear_index_block_updates_total", "Fear blocks changed in the fear source index by block events.", fearIndexBlockUpdates.sum());
+        counter(out, "itstalks_fear_index_entries_updated_total", "Fear source index column entries written or removed by incremental updates.", fearIndexEntriesUpdated.sum());
+        counter(out, "itstalks_mobile_fear_hits_total", "Fear lookups answered by a mobile fear source.", mobileFearHits.sum());
+
+        counter(out, "itstalks_stuck_spots_recorded_total", "Stuck events recorded in the stuck heatmap.", stuckSpotsRecorded.sum());
+        counter(out, "itstalks_trap_vex_morphs_total", "Vex morphs sped up or triggered by a known stuck spot.", trapVexMorphs.sum());
+
+        counter(out, "itstalks_handoffs_sent_total", "Curse sessions sent to other servers.", handoffsSent.sum());
+        counter(out, "itstalks_handoffs_adopted_total", "Curse sessions taken over from other servers.", handoffsAdopted.sum());
+        counter(out, "itstalks_handoffs_declined_total", "Curse sessions refused because this server had a cursed player.", handoffsDeclined.sum());
+
+        gauge(out, "itstalks_horde_members", "Horde stalkers alive.", hordeMembers);
+        counter(out, "itstalks_horde_spawns_total", "Horde stalkers spawned.", hordeSpawns.sum());
+        counter(out, "itstalks_flow_field_rebuilds_total", "Horde flow field integrations.", flowFieldRebuilds.sum());
+        counter(out, "itstalks_flow_field_columns_sampled_total", "Block columns sampled for the horde flow field.", flowFieldColumnsSampled.sum());
+
+        out.append("# HELP itstalks_tick_phase_seconds AI tick phase durations (requires profiler.enabled).\n");
+        out.append("# TYPE itstalks_tick_phase_seconds summary\n");
+        for (TickProfiler.Phase phase : TickProfiler.Phase.values()) {
+            LogHistogram h = profiler.histogram(phase);
+            quantile(out, phase, "0.5", h.percentile(0.50));
+            quantile(out, phase, "0.99", h.percentile(0.99));
+            out.append("itstalks_tick_phase_seconds_sum{phase=\"").append(phase.label).append("\"} ")
+                    .append(seconds(h.sum())).append('\n');
+            out.append("itstalks_tick_phase_seconds_count{phase=\"").append(phase.label).append("\"} ")
+                    .append(h.count()).append('\n');
+        }
+
+        out.append("# HELP itstalks_tick_phase_max_seconds Slowest observed AI tick phase.\n");
+        out.append("# TYPE itstalks_tick_phase_max_seconds gauge\n");
+        for (TickProfiler.Phase phase : TickProfiler.Phase.values()) {
+            out.append("itstalks_tick_phase_max_seconds{phase=\"").append(phase.label).append("\"} ")
+                    .append(seconds(profiler.histogram(phase).max())).append('\n');
+        }
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counterSeconds(StringBuilder out, String name, String help, long nanos) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(seconds(nanos)).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void quantile(StringBuilder out, TickProfiler.Phase phase, String q, long nanos) {
+        out.append("itstalks_tick_phase_seconds{phase=\"").append(phase.label)
+                .append("\",quantile=\"").append(q).append("\"} ")
+                .append(seconds(nanos)).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.US, "%.9f", nanos / 1e9);
+    }
+
+    // --- Internal Types ---
+
+    /** Lock-free per-second ring covering the last 60 seconds. */
+    private static final class SlidingMinute {
+        private static final int SLOTS = 60;
+
+        private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+        private final AtomicLongArray stamps = new AtomicLongArray(SLOTS);
+
+        void increment(long epochSecond) {
+            int slot = (int) (epochSecond % SLOTS);
+            long stamp = stamps.get(slot);
+            if (stamp != epochSecond && stamps.compareAndSet(slot, stamp, epochSecond)) {
+                counts.set(slot, 0L);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        long sum(long epochSecond) {
+            long total = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                if (epochSecond - stamps.get(i) < SLOTS) total += counts.get(i);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package me.promptt.itfollows;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * StalkerRegistry
+ *
+ * Tracks the single active stalker entity as a direct handle and lazily deals with
+ * tagged stalkers as the server loads them, instead of scanning every entity in every world.
+ *
+ * Tagged entities that show up through entity add/load events are either:
+ *  - adopted as the active stalker (no active stalker yet and the adoption filter accepts it), or
+ *  - discarded (a stale copy from an older session, a crash, or an unload/reload cycle).
+ */
+final class StalkerRegistry implements Listener {
+
+    private final JavaPlugin plugin;
+    private final NamespacedKey stalkerKey;
+
+    /** Decides whether a freshly loaded stalker may become the active one. */
+    private final Predicate<Entity> adoptionFilter;
+
+    /** Called after a loaded stalker has been adopted (used to resync form/stuck state). */
+    private final Consumer<Entity> onAdopt;
+
+    /** The active stalker handle (null when there is none). */
+    private Entity active;
+
+    StalkerRegistry(JavaPlugin plugin, NamespacedKey stalkerKey, Predicate<Entity> adoptionFilter, Consumer<Entity> onAdopt) {
+        this.plugin = plugin;
+        this.stalkerKey = stalkerKey;
+        this.adoptionFilter = adoptionFilter;
+        this.onAdopt = onAdopt;
+    }
+
+    // --- Handle Access ---
+
+    /**
+     * Returns the active stalker, or null if there is none.
+     *
+     * A handle that is no longer valid (removed, died, unloaded) is dropped here, so callers
+     * never see a stale entity.
+     */
+    Entity getActive() {
+        if (active != null && !active.isValid()) {
+            active = null;
+        }
+        return active;
+    }
+
+    boolean isActive(Entity entity) {
+        return entity != null && active != null && active.getUniqueId().equals(entity.getUniqueId());
+    }
+
+    boolean isStalker(Entity entity) {
+        return entity != null && entity.getPersistentDataContainer().has(stalkerKey, PersistentDataType.BYTE);
+    }
+
+    /** Tags a freshly spawned entity as a stalker and makes it the active one. */
+    void register(Entity entity) {
+        entity.getPersistentDataContainer().set(stalkerKey, PersistentDataType.BYTE, (byte) 1);
+        active = entity;
+    }
+
+    /** Removes the active stalker from the world (if any) and clears the handle. */
+    /** @return true if a stalker was actually removed */
+    boolean discardActive() {
+        if (active == null) return false;
+        active.remove();
+        active = null;
+        return true;
+    }
+
+    /** Forgets the active stalker without touching the entity (e.g. it already died). */
+    void clear() {
+        active = null;
+    }
+
+    // --- Lazy Adoption ---
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        consider(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            consider(entity);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        // An unloaded or removed stalker is gone for us; if its chunk loads again later the
+        // entity comes back as a new object and goes through adoption again.
+        if (isActive(event.getEntity())) {
+            active = null;
+        }
+    }
+
+    private void consider(Entity entity) {
+        if (!isStalker(entity) || isActive(entity)) return;
+
+        if (getActive() == null && adoptionFilter.test(entity)) {
+            active = entity;
+            onAdopt.accept(entity);
+            return;
+        }
+
+        // Removing entities while the server is still adding/loading them is unsafe; defer a tick.
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (entity.isValid() && !isActive(entity)) {
+                entity.remove();
+            }
+        });
+    }
+}
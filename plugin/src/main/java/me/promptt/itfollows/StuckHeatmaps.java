@@ -0,0 +1,95 @@
+package me.promptt.itfollows;
+
+import me.promptt.itfollows.ai.StuckHeatmap;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * StuckHeatmaps
+ *
+ * One {@link StuckHeatmap} per world, stored as {@code <world uuid>.heat} in the plugin's heatmap
+ * folder and opened when the world is first needed. A file that cannot be opened is replaced by an
+ * in-memory map for this run. Counts are halved once per decay interval (checked on access).
+ */
+final class StuckHeatmaps {
+
+    private final Path dir;
+    private final Logger logger;
+    private final Map<UUID, StuckHeatmap> maps = new HashMap<>();
+
+    private long decayIntervalMs;
+
+    StuckHeatmaps(Path dir, Logger logger) {
+        this.dir = dir;
+        this.logger = logger;
+    }
+
+    /** @param decayIntervalMs halve all counts this often (0 = never) */
+    void setDecayInterval(long decayIntervalMs) {
+        this.decayIntervalMs = Math.max(0L, decayIntervalMs);
+    }
+
+    StuckHeatmap get(World world) {
+        StuckHeatmap map = maps.get(world.getUID());
+        if (map == null) {
+            map = open(world);
+            maps.put(world.getUID(), map);
+        }
+        long now = System.currentTimeMillis();
+        if (decayIntervalMs > 0L && now - map.lastDecayMs() >= decayIntervalMs) {
+            // On a new (empty) map this only starts the clock.
+            try {
+                map.decay(now);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not decay the stuck heatmap of " + world.getName(), e);
+            }
+        }
+        return map;
+    }
+
+    /** Records a stuck event at the block column; returns the spot's count afterwards (0 if it failed). */
+    int record(World world, int blockX, int blockZ) {
+        try {
+            return get(world).record(blockX, blockZ);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not update the stuck heatmap of " + world.getName(), e);
+            return 0;
+        }
+    }
+
+    /** Chunks with recorded stuck spots, over all open worlds. */
+    int chunks() {
+        int chunks = 0;
+        for (StuckHeatmap map : maps.values()) chunks += map.chunks();
+        return chunks;
+    }
+
+    void closeAll() {
+        for (StuckHeatmap map : maps.values()) {
+            try {
+                map.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not close a stuck heatmap", e);
+            }
+        }
+        maps.clear();
+    }
+
+    private StuckHeatmap open(World world) {
+        try {
+            Files.createDirectories(dir);
+            return StuckHeatmap.open(dir.resolve(world.getUID() + StuckHeatmap.EXTENSION));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not open the stuck heatmap of " + world.getName() + " (kept in memory this run)", e);
+            return StuckHeatmap.inMemory();
+        }
+    }
+}
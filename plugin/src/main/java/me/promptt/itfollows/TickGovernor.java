@@ -0,0 +1,107 @@
+package me.promptt.itfollows;
+
+/**
+ * TickGovernor
+ *
+ * MSPT-aware degradation. Sampled once per second with the server's average tick time, it moves
+ * the stalker between {@link Level}s that trade behavior quality for main-thread time: rarer and
+ * smaller fear scans, a longer AI interval, no boat/door/ladder handling and finally straight-line
+ * pursuit without fear avoidance.
+ *
+ * Escalation is immediate (straight to the highest level whose threshold is reached). Recovery
+ * has hysteresis: one level at a time, and only after the MSPT stayed below that level's threshold
+ * minus a margin for a number of consecutive samples, so a server hovering around a threshold
+ * does not flip the stalker back and forth.
+ */
+final class TickGovernor {
+
+    enum Level {
+        NORMAL(1, 750L, Integer.MAX_VALUE, true, true, false),
+        REDUCED(2, 1500L, 6, false, true, false),
+        MINIMAL(4, 3000L, 4, false, false, true);
+
+        /** AI updates run every {@code aiStride} timer runs (5 ticks each). */
+        final int aiStride;
+        /** How long a fear scan result is reused. */
+        final long fearScanIntervalMs;
+        /** Cap on the stalker's fear scan half-extent (the victim-protection scan is never reduced). */
+        final int fearScanReach;
+        final boolean boatSweep;
+        final boolean doorsAndLadders;
+        /** Skip the stalker's fear scan and avoidance; it paths straight at the victim (protection still holds it). */
+        final boolean straightLine;
+
+        Level(int aiStride, long fearScanIntervalMs, int fearScanReach, boolean boatSweep, boolean doorsAndLadders, boolean straightLine) {
+            this.aiStride = aiStride;
+            this.fearScanIntervalMs = fearScanIntervalMs;
+            this.fearScanReach = fearScanReach;
+            this.boatSweep = boatSweep;
+            this.doorsAndLadders = doorsAndLadders;
+            this.straightLine = straightLine;
+        }
+    }
+
+    private static final Level[] LEVELS = Level.values();
+
+    private boolean enabled = true;
+    /** MSPT at or above which each level is entered (index = ordinal; NORMAL is unused). */
+    private final double[] enterMspt = {0.0, 40.0, 47.0};
+    private double recoverMargin = 8.0;
+    private int recoverSamples = 15;
+
+    private Level level = Level.NORMAL;
+    private int calmSamples;
+    private double lastMspt;
+
+    void configure(boolean enabled, double reducedMspt, double minimalMspt, double recoverMargin, int recoverSeconds) {
+        this.enabled = enabled;
+        this.enterMspt[Level.REDUCED.ordinal()] = reducedMspt;
+        this.enterMspt[Level.MINIMAL.ordinal()] = Math.max(reducedMspt, minimalMspt);
+        this.recoverMargin = Math.max(0.0, recoverMargin);
+        this.recoverSamples = Math.max(1, recoverSeconds);
+        if (!enabled) {
+            level = Level.NORMAL;
+            calmSamples = 0;
+        }
+    }
+
+    Level level() {
+        return level;
+    }
+
+    double lastMspt() {
+        return lastMspt;
+    }
+
+    /**
+     * Feeds one MSPT sample (call once per second).
+     *
+     * @return the previous level if this sample changed it, else null
+     */
+    Level sample(double mspt) {
+        lastMspt = mspt;
+        if (!enabled) return null;
+
+        Level target = Level.NORMAL;
+        for (int i = LEVELS.length - 1; i > 0; i--) {
+            if (mspt >= enterMspt[i]) {
+                target = LEVELS[i];
+                break;
+            }
+        }
+
+        Level previous = level;
+        if (target.ordinal() > level.ordinal()) {
+            level = target;
+            calmSamples = 0;
+        } else if (level != Level.NORMAL && mspt < enterMspt[level.ordinal()] - recoverMargin) {
+            if (++calmSamples >= recoverSamples) {
+                level = LEVELS[level.ordinal() - 1];
+                calmSamples = 0;
+            }
+        } else {
+            calmSamples = 0;
+        }
+        return (level != previous) ? previous : null;
+    }
+}
@@ -0,0 +1,104 @@
+package me.promptt.itfollows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * TickProfiler
+ *
+ * Lightweight per-phase timing for the AI loop ({@code tickLogic} and its behavior nodes).
+ *
+ * Usage from the tick loop:
+ * <pre>
+ *     long t = profiler.start();
+ *     ... phase work ...
+ *     profiler.stop(TickProfiler.Phase.FEAR_SCAN, t);
+ * </pre>
+ *
+ * When disabled, {@link #start()} returns 0 without reading the clock and {@link #stop} returns
+ * immediately, so the instrumentation costs a field read and a branch per phase.
+ */
+final class TickProfiler {
+
+    enum Phase {
+        VICTIM_PROTECTION("victim-protection"),
+        FEAR_SCAN("fear-scan"),
+        VISIBILITY("visibility"),
+        BOAT_SWEEP("boat-sweep"),
+        FEAR_HANDLING("fear-handling"),
+        PATHING("pathing"),
+        DOORS_LADDERS("doors-ladders"),
+        COMBAT("combat"),
+        STUCK_CHECK("stuck-check"),
+        HORDE_FIELD("horde-field"),
+        HORDE_STEERING("horde-steering");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private volatile boolean enabled;
+
+    private final LogHistogram[] histograms = new LogHistogram[PHASES.length];
+
+    TickProfiler() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LogHistogram();
+        }
+    }
+
+    // --- Recording ---
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** @return a start timestamp, or 0 when profiling is disabled */
+    long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    void stop(Phase phase, long startNanos) {
+        if (startNanos == 0L) return;
+        histograms[phase.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    LogHistogram histogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    void reset() {
+        for (LogHistogram h : histograms) h.reset();
+    }
+
+    // --- Reporting ---
+
+    /** Human-readable report lines (times in microseconds) for the stats command. */
+    List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Phase phase : PHASES) {
+            LogHistogram h = histograms[phase.ordinal()];
+            long n = h.count();
+            if (n == 0) {
+                lines.add(String.format(Locale.US, "%-18s no samples", phase.label));
+                continue;
+            }
+            lines.add(String.format(Locale.US, "%-18s n=%d p50=%.1fus p99=%.1fus max=%.1fus",
+                    phase.label, n,
+                    h.percentile(0.50) / 1000.0,
+                    h.percentile(0.99) / 1000.0,
+                    h.max() / 1000.0));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,12 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * Read-only view of the blocks around the stalker.
+ *
+ * The plugin implements this over a Bukkit world; the simulator over a voxel grid.
+ */
+public interface BlockView extends FearLookup {
+
+    /** @return true if the block at the given coordinates is solid (blocks walking) */
+    boolean isSolid(int x, int y, int z);
+}
@@ -0,0 +1,192 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * FearGeometry
+ *
+ * Bukkit-free geometry used by fear-zone navigation. All inputs are plain coordinates so the
+ * routines can be benchmarked and simulated without a server; callers are responsible for
+ * making sure every point belongs to the same world. Point results are written into a
+ * caller-supplied {@link Vec3}, so nothing here allocates.
+ */
+public final class FearGeometry {
+
+    private FearGeometry() {
+    }
+
+    /**
+     * Checks if the segment a -> b intersects the interior of the sphere (c, radius).
+     * Either endpoint being inside the sphere counts as intersecting.
+     */
+    public static boolean segmentIntersectsSphere(double startX, double startY, double startZ,
+                                                  double endX, double endY, double endZ,
+                                                  double centerX, double centerY, double centerZ,
+                                                  double radius) {
+        // Translate so the sphere is at the origin.
+        double ax = startX - centerX;
+        double ay = startY - centerY;
+        double az = startZ - centerZ;
+
+        double bx = endX - centerX;
+        double by = endY - centerY;
+        double bz = endZ - centerZ;
+
+        double dx = bx - ax;
+        double dy = by - ay;
+        double dz = bz - az;
+
+        double r2 = radius * radius;
+
+        // If either endpoint is inside the sphere, treat as intersecting.
+        double a2 = ax * ax + ay * ay + az * az;
+        double b2 = bx * bx + by * by + bz * bz;
+        if (a2 < r2) return true;
+        if (b2 < r2) return true;
+
+        double d2 = dx * dx + dy * dy + dz * dz;
+        if (d2 < 0.000001) {
+            // Segment length is ~zero; endpoints already checked.
+            return false;
+        }
+
+        // Solve |a + t d|^2 = r^2 for t in [0,1]
+        double bDot = 2.0 * (ax * dx + ay * dy + az * dz);
+        double c = a2 - r2;
+
+        double disc = bDot * bDot - 4.0 * d2 * c;
+        if (disc < 0.0) return false;
+
+        double sqrt = Math.sqrt(disc);
+        double t1 = (-bDot - sqrt) / (2.0 * d2);
+        double t2 = (-bDot + sqrt) / (2.0 * d2);
+
+        return (t1 >= 0.0 && t1 <= 1.0) || (t2 >= 0.0 && t2 <= 1.0);
+    }
+
+    /** 2D (XZ) segment-circle intersection, used for walker forms. */
+    public static boolean segmentIntersectsCircleXZ(double startX, double startZ,
+                                                    double endX, double endZ,
+                                                    double centerX, double centerZ,
+                                                    double radius) {
+        double ax = startX - centerX;
+        double az = startZ - centerZ;
+
+        double bx = endX - centerX;
+        double bz = endZ - centerZ;
+
+        double dx = bx - ax;
+        double dz = bz - az;
+
+        double r2 = radius * radius;
+
+        // Endpoint checks
+        double a2 = ax * ax + az * az;
+        double b2 = bx * bx + bz * bz;
+        if (a2 < r2) return true;
+        if (b2 < r2) return true;
+
+        double d2 = dx * dx + dz * dz;
+        if (d2 < 0.000001) return false;
+
+        // Solve |a + t d|^2 = r^2 for t in [0,1]
+        double bDot = 2.0 * (ax * dx + az * dz);
+        double c = a2 - r2;
+        double disc = bDot * bDot - 4.0 * d2 * c;
+        if (disc < 0.0) return false;
+
+        double sqrt = Math.sqrt(disc);
+        double t1 = (-bDot - sqrt) / (2.0 * d2);
+        double t2 = (-bDot + sqrt) / (2.0 * d2);
+        return (t1 >= 0.0 && t1 <= 1.0) || (t2 >= 0.0 && t2 <= 1.0);
+    }
+
+    /**
+     * Point on the surface of a spherical fear zone at the requested Y level, in the XZ direction
+     * of {@code toward}. Walkers keep path requests on a constant Y to avoid mid-air targets.
+     *
+     * @return {@code out}, set to the point
+     */
+    public static Vec3 perimeterPoint(double centerX, double centerY, double centerZ,
+                                      double towardX, double towardZ,
+                                      double sphereRadius, double y, Vec3 out) {
+        // Compute the sphere slice radius at this Y: r_slice = sqrt(R^2 - dy^2)
+        double dy = y - centerY;
+        double r2 = (sphereRadius * sphereRadius) - (dy * dy);
+        double sliceRadius = (r2 > 0) ? Math.sqrt(r2) : 0.0;
+
+        double dx = towardX - centerX;
+        double dz = towardZ - centerZ;
+        double len2 = dx * dx + dz * dz;
+        if (len2 < 0.0001) {
+            dx = 1.0;
+            dz = 0.0;
+            len2 = 1.0;
+        }
+        double scale = sliceRadius / Math.sqrt(len2);
+
+        return out.set(centerX + dx * scale, y, centerZ + dz * scale);
+    }
+
+    /**
+     * Next waypoint while moving along the fear perimeter towards the victim.
+     *
+     * This does not try to perfectly solve shortest-path around a circle; it is an intentional
+     * "committed" stepping approach that is stable and avoids constant jitter.
+     *
+     * @param orbitDir        +1 / -1 to force a direction, 0 to pick the shorter way round
+     * @param stepDistance    configured step length in blocks
+     * @param perimeterBuffer configured perimeter buffer (used to stay clear of the exact edge)
+     * @return {@code out}, set to the waypoint
+     */
+    public static Vec3 stepAlongPerimeterTowardsVictim(double centerX, double centerY, double centerZ,
+                                                       double mobX, double mobY, double mobZ,
+                                                       double victimX, double victimZ,
+                                                       double perimeterRadius, int orbitDir,
+                                                       double stepDistance, double perimeterBuffer, Vec3 out) {
+        // Walkers move around the sphere on the current Y slice.
+        double dy = mobY - centerY;
+        double sliceR2 = (perimeterRadius * perimeterRadius) - (dy * dy);
+        double sliceRadius = (sliceR2 > 0) ? Math.sqrt(sliceR2) : 0.0;
+
+        // If the slice is effectively a point (near the top/bottom), fall back to a minimal circle.
+        if (sliceRadius < 0.5) sliceRadius = Math.max(0.5, perimeterRadius * 0.35);
+
+        // Stay meaningfully OUTSIDE the exact perimeter to reduce edge-bounce jitter.
+        sliceRadius += Math.max(0.75, perimeterBuffer * 0.50);
+
+        double ax = mobX - centerX;
+        double az = mobZ - centerZ;
+        double bx = victimX - centerX;
+        double bz = victimZ - centerZ;
+
+        // Current polar angles
+        double thetaMob = Math.atan2(az, ax);
+        double thetaVictim = Math.atan2(bz, bx);
+
+        double delta = wrapRadians(thetaVictim - thetaMob);
+        double dir = (orbitDir != 0) ? orbitDir : ((delta >= 0) ? 1.0 : -1.0);
+
+        // Convert configured step distance (blocks) to an angular step.
+        // Clamp to avoid huge jumps on small radiuses and tiny jitter on large radiuses.
+        double stepAngle = stepDistance / Math.max(1.0, sliceRadius);
+        stepAngle = clamp(stepAngle, 0.05, 0.55);
+
+        double nextTheta = thetaMob + dir * stepAngle;
+
+        double wx = centerX + sliceRadius * Math.cos(nextTheta);
+        double wz = centerZ + sliceRadius * Math.sin(nextTheta);
+
+        // Keep the current Y to avoid weird vertical demands on the ground pathfinder.
+        return out.set(wx, mobY, wz);
+    }
+
+    /** Normalizes an angle to (-pi, pi]. */
+    public static double wrapRadians(double r) {
+        while (r <= -Math.PI) r += 2 * Math.PI;
+        while (r > Math.PI) r -= 2 * Math.PI;
+        return r;
+    }
+
+    public static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
@@ -0,0 +1,62 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * Result of a fear scan: the feared block closest to the scan center.
+ *
+ * Mutable so a scanner can fill a caller-owned instance instead of allocating per scan; anyone
+ * caching a hit across scans must keep their own instance.
+ */
+public final class FearHit {
+
+    private FearType type;
+    private int blockX, blockY, blockZ;
+
+    public FearHit() {
+    }
+
+    public FearHit(FearType type, int blockX, int blockY, int blockZ) {
+        set(type, blockX, blockY, blockZ);
+    }
+
+    public FearHit set(FearType type, int blockX, int blockY, int blockZ) {
+        this.type = type;
+        this.blockX = blockX;
+        this.blockY = blockY;
+        this.blockZ = blockZ;
+        return this;
+    }
+
+    public FearType type() {
+        return type;
+    }
+
+    public int blockX() {
+        return blockX;
+    }
+
+    public int blockY() {
+        return blockY;
+    }
+
+    public int blockZ() {
+        return blockZ;
+    }
+
+    /** Center of the block, which is what the avoidance logic treats as the sphere center. */
+    public double centerX() {
+        return blockX + 0.5;
+    }
+
+    public double centerY() {
+        return blockY + 0.5;
+    }
+
+    public double centerZ() {
+        return blockZ + 0.5;
+    }
+
+    @Override
+    public String toString() {
+        return "FearHit[" + type + " @ " + blockX + "," + blockY + "," + blockZ + "]";
+    }
+}
@@ -0,0 +1,552 @@
+package me.promptt.itfollows.ai;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FearIndex
+ *
+ * Index of the fear sources that can matter at each block column of one world, kept up to date as
+ * fear blocks appear and disappear, so a lookup reads a short candidate list instead of scanning a
+ * cube of blocks.
+ *
+ * Space is split into bands of 16 blocks (chunk sections). Within a band, every block column lists
+ * the band's sources whose perimeter ({@code radius + perimeter buffer}) comes within {@link #REACH}
+ * blocks of it horizontally. A lookup reads that column in every band a source can reach vertically
+ * and applies the full 3D test to each candidate, so no source that would count is ever missed:
+ * {@link #nearest} picks exactly what {@link FearScanner#scanNearest} would, and {@link #sample}
+ * returns the smallest clearance over all candidates.
+ *
+ * This is an index, not a distance field: a lookup no longer depends on the fear radius the way the
+ * block scan does, but it still tests every candidate of the column, so it grows with the number of
+ * sources around the point. Adding or removing a source touches the columns of its own disk only
+ * (about {@code pi * (radius + buffer + REACH)^2} of them). Columns in unloaded chunks keep their
+ * candidates; sources are only dropped through {@link #setSource}, {@link #replaceSection} and
+ * {@link #clearChunk}.
+ *
+ * Not thread-safe: one index belongs to the main thread.
+ */
+public final class FearIndex {
+
+    /** Columns further than this outside every perimeter list no candidates. */
+    public static final double REACH = 4.0;
+
+    public static final int NONE = -1;
+
+    /** Result of {@link #sample}: clearance to the nearest candidate's perimeter (negative inside) and the way out. */
+    public static final class Sample {
+        private double clearance;
+        private double gradX, gradY, gradZ;
+        private final FearHit source = new FearHit();
+
+        public double clearance() {
+            return clearance;
+        }
+
+        /** Unit vector away from the source (the direction in which the clearance grows fastest). */
+        public double gradX() {
+            return gradX;
+        }
+
+        public double gradY() {
+            return gradY;
+        }
+
+        public double gradZ() {
+            return gradZ;
+        }
+
+        /** The fear source this sample refers to (the candidate with the smallest clearance). */
+        public FearHit source() {
+            return source;
+        }
+    }
+
+    private final FearScanner radii;
+    private double perimeterBuffer;
+    /** Largest perimeter radius of an enabled type. */
+    private double maxPerimeter;
+
+    // --- Sources (indexed by handle) ---
+    private FearType[] types = new FearType[64];
+    private int[] xs = new int[64];
+    private int[] ys = new int[64];
+    private int[] zs = new int[64];
+    /** Whether the source is listed in the columns around it (false for disabled types). */
+    private boolean[] covered = new boolean[64];
+    /** Next free handle (free list only). */
+    private int[] nextFree = new int[64];
+    private int[] nextInChunk = new int[64];
+    private int[] prevInChunk = new int[64];
+    private int handles;
+    private int freeHead = NONE;
+    private int sources;
+
+    private final Map<Long, Integer> sourceAt = new HashMap<>();
+    private final Map<Long, Integer> chunkHead = new HashMap<>();
+
+    // --- Candidate lists: singly linked nodes, one list per column of a section ---
+    private int[] nodeSource = new int[1024];
+    private int[] nodeNext = new int[1024];
+    private int nodes;
+    private int freeNode = NONE;
+    private int liveNodes;
+
+    // --- Sections: 16x16 column heads of one band in one chunk ---
+    private long[] sectionKeys = new long[64];
+    private int[][] sectionHeads = new int[64][];
+    /** Non-empty columns per section; a section is dropped when it reaches 0. */
+    private int[] sectionFilled = new int[64];
+    private boolean[] sectionUsed = new boolean[64];
+    private int sectionMask = 63;
+    private int sectionCount;
+
+    private long entriesUpdated;
+
+    public FearIndex(FearScanner radii, double perimeterBuffer) {
+        this.radii = radii;
+        this.perimeterBuffer = Math.max(0.0, perimeterBuffer);
+        this.maxPerimeter = computeMaxPerimeter();
+    }
+
+    /** Picks up changed radii or perimeter buffer: re-lists every source. */
+    public void rebuild(double perimeterBuffer) {
+        this.perimeterBuffer = Math.max(0.0, perimeterBuffer);
+        this.maxPerimeter = computeMaxPerimeter();
+        Arrays.fill(sectionUsed, false);
+        Arrays.fill(sectionHeads, null);
+        sectionCount = 0;
+        nodes = 0;
+        freeNode = NONE;
+        liveNodes = 0;
+        for (int h = 0; h < handles; h++) {
+            covered[h] = false;
+            if (types[h] != null) cover(h);
+        }
+    }
+
+    public int sources() {
+        return sources;
+    }
+
+    public int sections() {
+        return sectionCount;
+    }
+
+    /** Candidate entries currently listed (the index's memory is about 8 bytes per entry). */
+    public int entries() {
+        return liveNodes;
+    }
+
+    /** Candidate entries written or removed, over the index's lifetime (the cost of the updates). */
+    public long entriesUpdated() {
+        return entriesUpdated;
+    }
+
+    /** Horizontal distance from a point within which a source can be listed in its column. */
+    public int horizontalReach() {
+        return (int) Math.ceil(maxPerimeter + REACH) + 1;
+    }
+
+    /** Vertical distance from a point within which a source can matter to a lookup there. */
+    public int verticalReach() {
+        return (int) Math.ceil(maxPerimeter + REACH);
+    }
+
+    // --- Queries ---
+
+    /**
+     * Clearance and direction out at a point, from the nearest perimeter within {@link #REACH}
+     * (one distance per candidate listed at the point's column).
+     *
+     * @return false if no perimeter is that close (out is left unchanged)
+     */
+    public boolean sample(double x, double y, double z, Sample out) {
+        int bx = floor(x), by = floor(y), bz = floor(z);
+        int v = verticalReach();
+        int best = NONE;
+        double bestClearance = Double.MAX_VALUE;
+        for (int band = (by - v) >> 4; band <= (by + v) >> 4; band++) {
+            for (int n = headAt(band, bx, bz); n != NONE; n = nodeNext[n]) {
+                int h = nodeSource[n];
+                double clearance = distance(h, x, y, z) - perimeter(h);
+                if (clearance < bestClearance) {
+                    bestClearance = clearance;
+                    best = h;
+                }
+            }
+        }
+        if (best == NONE || bestClearance > REACH) return false;
+
+        double ox = x - (xs[best] + 0.5), oy = y - (ys[best] + 0.5), oz = z - (zs[best] + 0.5);
+        double len = Math.sqrt(ox * ox + oy * oy + oz * oz);
+        if (len < 1.0E-6) {
+            ox = 1.0;
+            oy = 0.0;
+            oz = 0.0;
+            len = 1.0;
+        }
+        out.clearance = bestClearance;
+        out.gradX = ox / len;
+        out.gradY = oy / len;
+        out.gradZ = oz / len;
+        out.source.set(types[best], xs[best], ys[best], zs[best]);
+        return true;
+    }
+
+    /**
+     * The source nearest to the block (x, y, z) whose own radius + {@code extraRadius} contains it,
+     * with the distance and tie-breaking of {@link FearScanner#scanNearest} (so the two are
+     * interchangeable for {@code extraRadius <= perimeter buffer + REACH}).
+     *
+     * @return {@code into}, or null if the block is not inside any of them
+     */
+    public FearHit nearest(int x, int y, int z, double extraRadius, FearHit into) {
+        int v = verticalReach();
+        int best = NONE;
+        long bestDist2 = Long.MAX_VALUE;
+        for (int band = (y - v) >> 4; band <= (y + v) >> 4; band++) {
+            for (int n = headAt(band, x, z); n != NONE; n = nodeNext[n]) {
+                int h = nodeSource[n];
+                long dx = xs[h] - x, dy = ys[h] - y, dz = zs[h] - z;
+                long dist2 = dx * dx + dy * dy + dz * dz;
+                double limit = radii.getRadius(types[h]) + extraRadius;
+                if (dist2 > limit * limit || dist2 > bestDist2) continue;
+                // The scanner keeps the first of equally near blocks in (x, y, z) order.
+                if (dist2 == bestDist2 && !scansBefore(h, best)) continue;
+                bestDist2 = dist2;
+                best = h;
+            }
+        }
+        return (best == NONE) ? null : into.set(types[best], xs[best], ys[best], zs[best]);
+    }
+
+    private boolean scansBefore(int a, int b) {
+        if (xs[a] != xs[b]) return xs[a] < xs[b];
+        if (ys[a] != ys[b]) return ys[a] < ys[b];
+        return zs[a] < zs[b];
+    }
+
+    /** @return the fear type of the source at the block, or null */
+    public FearType sourceAt(int x, int y, int z) {
+        Integer h = sourceAt.get(blockKey(x, y, z));
+        return (h == null) ? null : types[h];
+    }
+
+    // --- Updates ---
+
+    /**
+     * Sets the fear type of the block (null removes it). Disabled types (radius 0) are stored too,
+     * so a later rebuild with other radii does not need a rescan.
+     */
+    public void setSource(int x, int y, int z, FearType type) {
+        Integer existing = sourceAt.get(blockKey(x, y, z));
+        if (existing == null) {
+            if (type != null) cover(add(type, x, y, z));
+            return;
+        }
+        int h = existing;
+        if (types[h] == type) return;
+        uncover(h);
+        if (type == null) {
+            free(h);
+        } else {
+            types[h] = type;
+            cover(h);
+        }
+    }
+
+    /**
+     * Makes the sources of one chunk section match a fresh scan of it.
+     *
+     * @param found fear blocks found in the section, by {@link #blockKey}; emptied by this call
+     */
+    public void replaceSection(int chunkX, int sectionY, int chunkZ, Map<Long, FearType> found) {
+        Integer head = chunkHead.get(chunkKey(chunkX, chunkZ));
+        int h = (head == null) ? NONE : head;
+        while (h != NONE) {
+            int next = nextInChunk[h];
+            if (ys[h] >> 4 == sectionY) {
+                FearType type = found.remove(blockKey(xs[h], ys[h], zs[h]));
+                if (type != types[h]) setSource(xs[h], ys[h], zs[h], type);
+            }
+            h = next;
+        }
+        for (Map.Entry<Long, FearType> e : found.entrySet()) {
+            long key = e.getKey();
+            setSource(blockX(key), blockY(key), blockZ(key), e.getValue());
+        }
+        found.clear();
+    }
+
+    /** Removes every source of the chunk (it was unloaded). */
+    public void clearChunk(int chunkX, int chunkZ) {
+        Integer head;
+        while ((head = chunkHead.get(chunkKey(chunkX, chunkZ))) != null) {
+            int h = head;
+            setSource(xs[h], ys[h], zs[h], null);
+        }
+    }
+
+    // --- Sources ---
+
+    private int add(FearType type, int x, int y, int z) {
+        int h;
+        if (freeHead != NONE) {
+            h = freeHead;
+            freeHead = nextFree[h];
+        } else {
+            if (handles == types.length) growSources(handles * 2);
+            h = handles++;
+        }
+        types[h] = type;
+        xs[h] = x;
+        ys[h] = y;
+        zs[h] = z;
+        covered[h] = false;
+        sourceAt.put(blockKey(x, y, z), h);
+
+        long chunk = chunkKey(x >> 4, z >> 4);
+        Integer chunkFirst = chunkHead.put(chunk, h);
+        prevInChunk[h] = NONE;
+        nextInChunk[h] = (chunkFirst == null) ? NONE : chunkFirst;
+        if (chunkFirst != null) prevInChunk[chunkFirst] = h;
+        sources++;
+        return h;
+    }
+
+    private void free(int h) {
+        int x = xs[h], y = ys[h], z = zs[h];
+        sourceAt.remove(blockKey(x, y, z));
+
+        long chunk = chunkKey(x >> 4, z >> 4);
+        int prev = prevInChunk[h], next = nextInChunk[h];
+        if (prev != NONE) {
+            nextInChunk[prev] = next;
+        } else if (next == NONE) {
+            chunkHead.remove(chunk);
+        } else {
+            chunkHead.put(chunk, next);
+        }
+        if (next != NONE) prevInChunk[next] = prev;
+
+        types[h] = null;
+        nextFree[h] = freeHead;
+        freeHead = h;
+        sources--;
+    }
+
+    private void growSources(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        covered = Arrays.copyOf(covered, capacity);
+        nextFree = Arrays.copyOf(nextFree, capacity);
+        nextInChunk = Arrays.copyOf(nextInChunk, capacity);
+        prevInChunk = Arrays.copyOf(prevInChunk, capacity);
+    }
+
+    // --- Coverage ---
+
+    /**
+     * Lists source h in every column of its band within {@link #REACH} of its perimeter. A column is
+     * listed by its block offset with one block of slack, which covers every point inside it.
+     */
+    private void cover(int h) {
+        double perimeter = perimeter(h);
+        if (perimeter <= 0.0) return; // type disabled
+        int band = ys[h] >> 4;
+        double r = perimeter + REACH + 1.0;
+        int ri = (int) Math.ceil(r);
+        for (int dx = -ri; dx <= ri; dx++) {
+            for (int dz = -ri; dz <= ri; dz++) {
+                if (dx * dx + dz * dz > r * r) continue;
+                link(band, xs[h] + dx, zs[h] + dz, h);
+            }
+        }
+        covered[h] = true;
+    }
+
+    /** Removes source h from every column {@link #cover} listed it in. */
+    private void uncover(int h) {
+        if (!covered[h]) return;
+        int band = ys[h] >> 4;
+        double r = perimeter(h) + REACH + 1.0;
+        int ri = (int) Math.ceil(r);
+        for (int dx = -ri; dx <= ri; dx++) {
+            for (int dz = -ri; dz <= ri; dz++) {
+                if (dx * dx + dz * dz > r * r) continue;
+                unlink(band, xs[h] + dx, zs[h] + dz, h);
+            }
+        }
+        covered[h] = false;
+    }
+
+    private void link(int band, int x, int z, int h) {
+        long key = sectionKey(x >> 4, band, z >> 4);
+        int slot = findSection(key);
+        if (slot < 0) slot = claimSection(key);
+        int n;
+        if (freeNode != NONE) {
+            n = freeNode;
+            freeNode = nodeNext[n];
+        } else {
+            if (nodes == nodeSource.length) {
+                nodeSource = Arrays.copyOf(nodeSource, nodes * 2);
+                nodeNext = Arrays.copyOf(nodeNext, nodes * 2);
+            }
+            n = nodes++;
+        }
+        int[] heads = sectionHeads[slot];
+        int i = (x & 15) | (z & 15) << 4;
+        if (heads[i] == NONE) sectionFilled[slot]++;
+        nodeSource[n] = h;
+        nodeNext[n] = heads[i];
+        heads[i] = n;
+        liveNodes++;
+        entriesUpdated++;
+    }
+
+    private void unlink(int band, int x, int z, int h) {
+        int slot = findSection(sectionKey(x >> 4, band, z >> 4));
+        if (slot < 0) return;
+        int[] heads = sectionHeads[slot];
+        int i = (x & 15) | (z & 15) << 4;
+        int prev = NONE;
+        for (int n = heads[i]; n != NONE; prev = n, n = nodeNext[n]) {
+            if (nodeSource[n] != h) continue;
+            if (prev == NONE) heads[i] = nodeNext[n];
+            else nodeNext[prev] = nodeNext[n];
+            nodeNext[n] = freeNode;
+            freeNode = n;
+            liveNodes--;
+            entriesUpdated++;
+            if (heads[i] == NONE && --sectionFilled[slot] == 0) removeSection(slot);
+            return;
+        }
+    }
+
+    private double perimeter(int h) {
+        double r = radii.getRadius(types[h]);
+        return (r <= 0) ? 0.0 : r + perimeterBuffer;
+    }
+
+    private double distance(int h, double x, double y, double z) {
+        double dx = x - (xs[h] + 0.5), dy = y - (ys[h] + 0.5), dz = z - (zs[h] + 0.5);
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private double computeMaxPerimeter() {
+        double r = radii.maxRadius();
+        return (r <= 0) ? 0.0 : r + perimeterBuffer;
+    }
+
+    // --- Sections ---
+
+    private int headAt(int band, int x, int z) {
+        int slot = findSection(sectionKey(x >> 4, band, z >> 4));
+        return (slot < 0) ? NONE : sectionHeads[slot][(x & 15) | (z & 15) << 4];
+    }
+
+    private int findSection(long key) {
+        for (int slot = hash(key) & sectionMask; sectionUsed[slot]; slot = (slot + 1) & sectionMask) {
+            if (sectionKeys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    private int claimSection(long key) {
+        if ((sectionCount + 1) * 2 > sectionKeys.length) resizeSections(sectionKeys.length * 2);
+        int slot = hash(key) & sectionMask;
+        while (sectionUsed[slot]) slot = (slot + 1) & sectionMask;
+        int[] heads = new int[256];
+        Arrays.fill(heads, NONE);
+        sectionUsed[slot] = true;
+        sectionKeys[slot] = key;
+        sectionHeads[slot] = heads;
+        sectionFilled[slot] = 0;
+        sectionCount++;
+        return slot;
+    }
+
+    /** Linear-probing delete: shifts later entries of the probe chain back into the hole. */
+    private void removeSection(int slot) {
+        sectionUsed[slot] = false;
+        sectionHeads[slot] = null;
+        sectionCount--;
+        int hole = slot;
+        for (int j = (slot + 1) & sectionMask; sectionUsed[j]; j = (j + 1) & sectionMask) {
+            int home = hash(sectionKeys[j]) & sectionMask;
+            // Move j into the hole unless its home lies cyclically in (hole, j].
+            boolean stays = (hole <= j) ? (home > hole && home <= j) : (home > hole || home <= j);
+            if (stays) continue;
+            sectionKeys[hole] = sectionKeys[j];
+            sectionHeads[hole] = sectionHeads[j];
+            sectionFilled[hole] = sectionFilled[j];
+            sectionUsed[hole] = true;
+            sectionUsed[j] = false;
+            sectionHeads[j] = null;
+            hole = j;
+        }
+    }
+
+    private void resizeSections(int capacity) {
+        long[] oldKeys = sectionKeys;
+        int[][] oldHeads = sectionHeads;
+        int[] oldFilled = sectionFilled;
+        boolean[] oldUsed = sectionUsed;
+        sectionKeys = new long[capacity];
+        sectionHeads = new int[capacity][];
+        sectionFilled = new int[capacity];
+        sectionUsed = new boolean[capacity];
+        sectionMask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldKeys[i]) & sectionMask;
+            while (sectionUsed[slot]) slot = (slot + 1) & sectionMask;
+            sectionUsed[slot] = true;
+            sectionKeys[slot] = oldKeys[i];
+            sectionHeads[slot] = oldHeads[i];
+            sectionFilled[slot] = oldFilled[i];
+        }
+    }
+
+    // --- Keys ---
+
+    /** Packs a block position (the key type of {@link #replaceSection}). */
+    public static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int blockX(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int blockY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    public static int blockZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    private static long sectionKey(int chunkX, int band, int chunkZ) {
+        return ((long) (chunkX & 0xFFFFFF) << 40) | ((long) (chunkZ & 0xFFFFFF) << 16) | (band & 0xFFFF);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int floor(double v) {
+        int i = (int) v;
+        return (v < i) ? i - 1 : i;
+    }
+}
@@ -0,0 +1,14 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * Block access used by {@link FearScanner}.
+ *
+ * Implemented over a live Bukkit world by the plugin, and over synthetic voxel volumes by
+ * the benchmarks, so the scanning loop can be measured without a server.
+ */
+@FunctionalInterface
+public interface FearLookup {
+
+    /** @return the fear type of the block at the given coordinates, or null if it is not feared */
+    FearType fearAt(int x, int y, int z);
+}
@@ -0,0 +1,93 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * FearScanner
+ *
+ * Brute-force cube scan for the nearest feared block. Shared by the stalker's fear scan
+ * (base radius + perimeter buffer) and the victim-protection scan (base radius only).
+ *
+ * Radii are indexed by {@link FearType#ordinal()}; a radius of 0 disables that type.
+ */
+public final class FearScanner {
+
+    private static final FearType[] TYPES = FearType.values();
+
+    private final double[] radii = new double[TYPES.length];
+
+    public void setRadius(FearType type, double radius) {
+        radii[type.ordinal()] = Math.max(0.0, radius);
+    }
+
+    public double getRadius(FearType type) {
+        return radii[type.ordinal()];
+    }
+
+    /** Takes over every radius of {@code other}. */
+    public void copyRadii(FearScanner other) {
+        System.arraycopy(other.radii, 0, radii, 0, radii.length);
+    }
+
+    /** @return the largest enabled radius, or 0 if every fear type is disabled */
+    public double maxRadius() {
+        double max = 0.0;
+        for (double r : radii) max = Math.max(max, r);
+        return max;
+    }
+
+    /** @return the half-extent of the scanned cube, or 0 if every fear type is disabled */
+    public int scanRadius(double extraRadius) {
+        double maxRadius = maxRadius();
+        return (maxRadius <= 0) ? 0 : (int) Math.ceil(maxRadius + extraRadius);
+    }
+
+    /**
+     * Scans the cube around (cx, cy, cz) and returns the nearest feared block that lies
+     * within its own radius + {@code extraRadius}.
+     *
+     * @param extraRadius added to every type's radius (the perimeter buffer, or 0 for the base radius)
+     * @param into        filled with the result when something is found
+     * @return {@code into}, or null if no feared block is in range
+     */
+    public FearHit scanNearest(FearLookup lookup, int cx, int cy, int cz, double extraRadius, FearHit into) {
+        return scanNearest(lookup, cx, cy, cz, extraRadius, Integer.MAX_VALUE, into);
+    }
+
+    /**
+     * Like {@link #scanNearest(FearLookup, int, int, int, double, FearHit)}, but never scans further
+     * than {@code maxReach} blocks from the center (a cheaper, short-sighted scan under load).
+     */
+    public FearHit scanNearest(FearLookup lookup, int cx, int cy, int cz, double extraRadius, int maxReach, FearHit into) {
+        int r = Math.min(scanRadius(extraRadius), Math.max(0, maxReach));
+        if (r == 0) return null;
+
+        FearType bestType = null;
+        int bestX = 0, bestY = 0, bestZ = 0;
+        double bestDist2 = Double.MAX_VALUE;
+
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dy = -r; dy <= r; dy++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    FearType type = lookup.fearAt(cx + dx, cy + dy, cz + dz);
+                    if (type == null) continue;
+
+                    double radius = radii[type.ordinal()];
+                    if (radius <= 0) continue;
+
+                    double dist2 = dx * dx + dy * dy + dz * dz;
+                    double limit = radius + extraRadius;
+                    if (dist2 > limit * limit) continue;
+
+                    if (dist2 < bestDist2) {
+                        bestDist2 = dist2;
+                        bestType = type;
+                        bestX = cx + dx;
+                        bestY = cy + dy;
+                        bestZ = cz + dz;
+                    }
+                }
+            }
+        }
+
+        return (bestType == null) ? null : into.set(bestType, bestX, bestY, bestZ);
+    }
+}
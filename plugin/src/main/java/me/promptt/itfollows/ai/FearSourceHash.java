@@ -0,0 +1,233 @@
+package me.promptt.itfollows.ai;
+
+import java.util.Arrays;
+
+/**
+ * FearSourceHash
+ *
+ * Fear sources that move (a player holding a soul torch, a blaze, a burning mob), kept in a uniform
+ * grid of block columns for one world. Unlike {@link SpatialHash} it is updated in place: a source
+ * gets a handle when it is added and is only re-bucketed when a move takes it into another cell, so
+ * the cost follows the movement events, not the number of sources per tick.
+ *
+ * Cells are an open-addressed table of cell keys pointing into per-cell doubly linked lists. A cell
+ * that runs empty keeps its slot (so probe chains stay intact) until the table is rebuilt without
+ * the empty cells. Freed handles are reused.
+ *
+ * Not thread-safe: one hash belongs to the main thread.
+ */
+public final class FearSourceHash {
+
+    private final int cellShift;
+
+    // Per source (indexed by handle)
+    private FearType[] types = new FearType[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int[] zs = new int[16];
+    private long[] cellKeys = new long[16];
+    private int[] next = new int[16];
+    private int[] prev = new int[16];
+    private int handles;
+    private int freeHead = -1;
+    private int size;
+
+    // Cells
+    private long[] keys = new long[32];
+    private int[] heads = new int[32];
+    private boolean[] used = new boolean[32];
+    private int mask = 31;
+    private int usedCells;
+
+    /** @param cellBits cells are {@code 1 << cellBits} blocks wide */
+    public FearSourceHash(int cellBits) {
+        this.cellShift = Math.max(1, Math.min(8, cellBits));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- Updates ---
+
+    /** Adds a source at the block position; returns its handle. */
+    public int add(FearType type, int x, int y, int z) {
+        int handle;
+        if (freeHead >= 0) {
+            handle = freeHead;
+            freeHead = next[handle];
+        } else {
+            if (handles == types.length) grow(handles * 2);
+            handle = handles++;
+        }
+        types[handle] = type;
+        xs[handle] = x;
+        ys[handle] = y;
+        zs[handle] = z;
+        link(handle, key(x >> cellShift, z >> cellShift));
+        size++;
+        return handle;
+    }
+
+    /** Moves a source; only a cell change touches the buckets. */
+    public void move(int handle, int x, int y, int z) {
+        xs[handle] = x;
+        ys[handle] = y;
+        zs[handle] = z;
+        long key = key(x >> cellShift, z >> cellShift);
+        if (key == cellKeys[handle]) return;
+        unlink(handle);
+        link(handle, key);
+    }
+
+    public void setType(int handle, FearType type) {
+        types[handle] = type;
+    }
+
+    public void remove(int handle) {
+        unlink(handle);
+        types[handle] = null;
+        next[handle] = freeHead;
+        freeHead = handle;
+        size--;
+    }
+
+    /** Removes every source. */
+    public void clear() {
+        Arrays.fill(types, null);
+        Arrays.fill(heads, -1);
+        Arrays.fill(used, false);
+        handles = 0;
+        freeHead = -1;
+        size = 0;
+        usedCells = 0;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Nearest source within its own radius + {@code extraRadius} of the block (cx, cy, cz), using the
+     * same cube and distance rules as {@link FearScanner#scanNearest} so both kinds of hits compare.
+     *
+     * @param radii per-type radii (a type with radius 0 is ignored)
+     * @param into  filled with the result when something is found
+     * @return {@code into}, or null if no source is in range
+     */
+    public FearHit nearest(FearScanner radii, int cx, int cy, int cz, double extraRadius, int maxReach, FearHit into) {
+        if (size == 0) return null;
+        int r = Math.min(radii.scanRadius(extraRadius), Math.max(0, maxReach));
+        if (r == 0) return null;
+
+        int best = -1;
+        double bestDist2 = Double.MAX_VALUE;
+        int minCellX = (cx - r) >> cellShift, maxCellX = (cx + r) >> cellShift;
+        int minCellZ = (cz - r) >> cellShift, maxCellZ = (cz + r) >> cellShift;
+        for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                int slot = find(key(cellX, cellZ));
+                if (slot < 0) continue;
+                for (int h = heads[slot]; h >= 0; h = next[h]) {
+                    int dx = xs[h] - cx, dy = ys[h] - cy, dz = zs[h] - cz;
+                    if (Math.abs(dx) > r || Math.abs(dy) > r || Math.abs(dz) > r) continue;
+
+                    double radius = radii.getRadius(types[h]);
+                    if (radius <= 0) continue;
+
+                    double dist2 = dx * dx + dy * dy + dz * dz;
+                    double limit = radius + extraRadius;
+                    if (dist2 > limit * limit || dist2 >= bestDist2) continue;
+                    bestDist2 = dist2;
+                    best = h;
+                }
+            }
+        }
+        return (best < 0) ? null : into.set(types[best], xs[best], ys[best], zs[best]);
+    }
+
+    // --- Buckets ---
+
+    private void link(int handle, long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            if ((usedCells + 1) * 2 > keys.length) rebuild(handle);
+            slot = claim(key);
+        }
+        cellKeys[handle] = key;
+        prev[handle] = -1;
+        next[handle] = heads[slot];
+        if (heads[slot] >= 0) prev[heads[slot]] = handle;
+        heads[slot] = handle;
+    }
+
+    private void unlink(int handle) {
+        int p = prev[handle];
+        int n = next[handle];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[find(cellKeys[handle])] = n;
+        }
+        if (n >= 0) prev[n] = p;
+    }
+
+    private int find(long key) {
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    private int claim(long key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) slot = (slot + 1) & mask;
+        used[slot] = true;
+        keys[slot] = key;
+        heads[slot] = -1;
+        usedCells++;
+        return slot;
+    }
+
+    /**
+     * Re-buckets every live source except {@code skip} (the one being linked) into a table sized for
+     * the occupied cells; empty cells are dropped.
+     */
+    private void rebuild(int skip) {
+        int table = 32;
+        while (table < Math.max(size, 1) * 4) table <<= 1;
+        keys = new long[table];
+        heads = new int[table];
+        used = new boolean[table];
+        mask = table - 1;
+        usedCells = 0;
+        Arrays.fill(heads, -1);
+        for (int h = 0; h < handles; h++) {
+            if (types[h] == null || h == skip) continue;
+            long key = cellKeys[h];
+            int slot = find(key);
+            if (slot < 0) slot = claim(key);
+            prev[h] = -1;
+            next[h] = heads[slot];
+            if (heads[slot] >= 0) prev[heads[slot]] = h;
+            heads[slot] = h;
+        }
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,9 @@
+package me.promptt.itfollows.ai;
+
+/** The kinds of blocks the stalker is afraid of. Each type has its own configurable radius. */
+public enum FearType {
+    FIRE,
+    SOUL_TORCH,
+    SOUL_LANTERN,
+    SOUL_CAMPFIRE
+}
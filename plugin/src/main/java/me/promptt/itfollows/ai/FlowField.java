@@ -0,0 +1,479 @@
+package me.promptt.itfollows.ai;
+
+import java.util.Arrays;
+
+/**
+ * FlowField
+ *
+ * Shared navigation for a horde of stalkers hunting one victim. Instead of a path search per
+ * stalker, one integration field (cost to reach the victim) is computed over a square window of
+ * block columns around the victim, and every stalker steps towards its column's cheapest
+ * neighbour. The cost scales with the window area, not with the number of stalkers.
+ *
+ * The window is 2.5D: each column stores the highest standable floor near the victim's level, and
+ * a step between columns is allowed if it climbs at most one block or drops at most
+ * {@link #MAX_DROP}. Columns are cached in a toroidal buffer keyed by world coordinates, so when
+ * the victim walks only the columns entering the window are sampled; the others are re-sampled a
+ * few at a time to pick up block changes, and the integration is only redone when the victim's
+ * column or some sampled column actually changed.
+ *
+ * Columns inside a fear radius (plus the perimeter buffer) are obstacles: expensive to path
+ * through and never stepped into, so the horde routes around fear zones and stops at the
+ * perimeter while the victim hides inside one. With a {@link FearIndex} ({@link #setFearIndex}) the
+ * obstacles are read from it, one lookup per column, instead of stamping a disc around every fear
+ * block in the window. Spots where the stalker got stuck before
+ * ({@link #setTraps}) cost extra, so the horde detours around them when there is another way.
+ */
+public final class FlowField {
+
+    /** No flow: the column is unreachable, an obstacle without a way out, or the victim's own column. */
+    public static final int NONE = -1;
+
+    /** Integration cost of columns the victim cannot be reached from. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /** Floor height of a column without a standable block in the sampled range. */
+    public static final int NO_FLOOR = Integer.MIN_VALUE;
+
+    /** Blocks above / below the reference height searched for a floor. */
+    private static final int SCAN_UP = 6;
+    private static final int SCAN_DOWN = 10;
+
+    /** The victim may drift this far vertically before columns are re-sampled around the new level. */
+    private static final int REF_TOLERANCE = 4;
+
+    /** Highest drop a stalker takes between neighbouring columns. */
+    public static final int MAX_DROP = 3;
+
+    private static final int STEP_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    /** Extra cost for stepping through a known stuck spot (about eight blocks of detour). */
+    private static final int TRAP_COST = 8 * STEP_COST;
+
+    /** Cost multiplier for stepping through a fear column (cheaper than a wall, so the perimeter still gets a gradient). */
+    private static final int FEAR_MULTIPLIER = 8;
+
+    // Neighbour directions: the four orthogonal ones first, then the diagonals.
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private static final FearType[] FEAR_TYPES = FearType.values();
+
+    private final int radius;
+    private final int size;
+    private final int cells;
+
+    // Column cache, indexed by world coordinates modulo the window size
+    private final long[] columnKey;
+    private final int[] columnRef;
+    private final int[] columnFloor;
+    /** FearType ordinal + 1 of a feared block at the column's floor level, 0 if none. */
+    private final byte[] columnFear;
+    private int refreshCursor;
+
+    // Integration, indexed by window position (x - originX) + (z - originZ) * size
+    private final int[] cost;
+    private final byte[] flow;
+    private final boolean[] obstacle;
+    /** Window columns the stuck heatmap marks as known traps (cost extra, still walkable). */
+    private final boolean[] trap;
+    private final int[] localFloor;
+
+    // Lazy-deletion binary heap of window indices, keyed by the cost at push time
+    private int[] heapCell;
+    private int[] heapCost;
+    private int heapSize;
+
+    private final double[] fearRadius = new double[FEAR_TYPES.length];
+
+    private StuckHeatmap traps;
+    private int trapMinCount;
+
+    private FearIndex fearIndex;
+    /** {@link FearIndex#entriesUpdated} at the last integration (the index changed since if it differs). */
+    private long fearIndexVersion = -1L;
+    private final FearIndex.Sample fearSample = new FearIndex.Sample();
+
+    private boolean centered;
+    private boolean dirty = true;
+    private int centerX, centerY, centerZ;
+    private int originX, originZ;
+
+    private long rebuilds;
+    private long columnsSampled;
+
+    public FlowField(int radius) {
+        this.radius = Math.max(1, radius);
+        this.size = 2 * this.radius + 1;
+        this.cells = size * size;
+
+        this.columnKey = new long[cells];
+        this.columnRef = new int[cells];
+        this.columnFloor = new int[cells];
+        this.columnFear = new byte[cells];
+        this.cost = new int[cells];
+        this.flow = new byte[cells];
+        this.obstacle = new boolean[cells];
+        this.trap = new boolean[cells];
+        this.localFloor = new int[cells];
+        this.heapCell = new int[cells];
+        this.heapCost = new int[cells];
+        invalidate();
+    }
+
+    public int radius() {
+        return radius;
+    }
+
+    /** Known stuck spots to detour around (null = none); picked up by the next integration. */
+    public void setTraps(StuckHeatmap traps, int minCount) {
+        this.traps = traps;
+        this.trapMinCount = minCount;
+    }
+
+    /**
+     * Reads fear obstacles from the field (null = stamp them from the sampled fear blocks). The field
+     * must use the same radii and perimeter buffer as {@link #setFearRadii}.
+     */
+    public void setFearIndex(FearIndex fearIndex) {
+        if (fearIndex == this.fearIndex) return;
+        this.fearIndex = fearIndex;
+        fearIndexVersion = -1L;
+        dirty = true;
+    }
+
+    /** Uses the scanner's per-type radii, widened by {@code extraRadius} (the perimeter buffer), for the fear obstacles. */
+    public void setFearRadii(FearScanner scanner, double extraRadius) {
+        for (FearType type : FEAR_TYPES) {
+            double r = scanner.getRadius(type);
+            fearRadius[type.ordinal()] = (r <= 0) ? 0.0 : r + extraRadius;
+        }
+        dirty = true;
+    }
+
+    /** Forgets every sampled column (the victim changed worlds or the field is reused for a new session). */
+    public void invalidate() {
+        Arrays.fill(columnKey, Long.MIN_VALUE);
+        Arrays.fill(cost, UNREACHABLE);
+        Arrays.fill(flow, (byte) NONE);
+        centered = false;
+        dirty = true;
+    }
+
+    /**
+     * Re-centres the window on the victim's block, samples the columns that entered it plus up to
+     * {@code refreshBudget} cached ones, and redoes the integration if anything changed.
+     *
+     * @return true if the integration field was rebuilt
+     */
+    public boolean update(BlockView blocks, int victimX, int victimY, int victimZ, int refreshBudget) {
+        boolean moved = !centered || victimX != centerX || victimY != centerY || victimZ != centerZ;
+        centered = true;
+        centerX = victimX;
+        centerY = victimY;
+        centerZ = victimZ;
+        originX = victimX - radius;
+        originZ = victimZ - radius;
+
+        boolean changed = false;
+        for (int j = 0; j < size; j++) {
+            int z = originZ + j;
+            for (int i = 0; i < size; i++) {
+                int x = originX + i;
+                int c = column(x, z);
+                if (columnKey[c] != key(x, z) || Math.abs(columnRef[c] - victimY) > REF_TOLERANCE) {
+                    changed |= sample(blocks, x, z, victimY, c);
+                }
+            }
+        }
+
+        // Round-robin re-sampling of cached columns, to notice placed/broken blocks and fear sources.
+        for (int n = 0; n < refreshBudget; n++) {
+            int c = refreshCursor;
+            refreshCursor = (refreshCursor + 1) % cells;
+            long k = columnKey[c];
+            if (k == Long.MIN_VALUE) continue;
+            changed |= sample(blocks, keyX(k), keyZ(k), columnRef[c], c);
+        }
+
+        if (fearIndex != null && fearIndex.entriesUpdated() != fearIndexVersion) {
+            fearIndexVersion = fearIndex.entriesUpdated();
+            dirty = true;
+        }
+
+        if (!moved && !changed && !dirty) return false;
+        dirty = false;
+        integrate();
+        rebuilds++;
+        return true;
+    }
+
+    // --- Queries (world coordinates) ---
+
+    public boolean contains(int x, int z) {
+        return centered && x >= originX && x < originX + size && z >= originZ && z < originZ + size;
+    }
+
+    /** @return the integration cost of the column, or {@link #UNREACHABLE} (also outside the window) */
+    public int costAt(int x, int z) {
+        return contains(x, z) ? cost[local(x, z)] : UNREACHABLE;
+    }
+
+    /** @return the standable floor height of the column, or {@link #NO_FLOOR} (also outside the window) */
+    public int floorAt(int x, int z) {
+        return contains(x, z) ? localFloor[local(x, z)] : NO_FLOOR;
+    }
+
+    public boolean isObstacle(int x, int z) {
+        return contains(x, z) && obstacle[local(x, z)];
+    }
+
+    /** @return the direction to step from the column ({@link #dirX}/{@link #dirZ}), or {@link #NONE} */
+    public int flowAt(int x, int z) {
+        return contains(x, z) ? flow[local(x, z)] : NONE;
+    }
+
+    public static int dirX(int direction) {
+        return DX[direction];
+    }
+
+    public static int dirZ(int direction) {
+        return DZ[direction];
+    }
+
+    public long rebuilds() {
+        return rebuilds;
+    }
+
+    public long columnsSampled() {
+        return columnsSampled;
+    }
+
+    /** Columns in the window (the per-rebuild integration cost). */
+    public int cells() {
+        return cells;
+    }
+
+    // --- Sampling ---
+
+    /** Samples one column around {@code refY}; returns true if its floor or fear changed. */
+    private boolean sample(BlockView blocks, int x, int z, int refY, int c) {
+        columnsSampled++;
+
+        int floor = NO_FLOOR;
+        int open = 0;
+        for (int y = refY + SCAN_UP + 2; y >= refY - SCAN_DOWN; y--) {
+            if (blocks.isSolid(x, y, z)) {
+                if (open >= 2 && y <= refY + SCAN_UP) {
+                    floor = y;
+                    break;
+                }
+                open = 0;
+            } else {
+                open++;
+            }
+        }
+
+        byte fear = 0;
+        if (floor != NO_FLOOR) {
+            for (int y = floor; y <= floor + 2 && fear == 0; y++) {
+                FearType type = blocks.fearAt(x, y, z);
+                if (type != null && fearRadius[type.ordinal()] > 0) fear = (byte) (type.ordinal() + 1);
+            }
+        }
+
+        long k = key(x, z);
+        boolean changed = columnKey[c] != k || columnFloor[c] != floor || columnFear[c] != fear;
+        columnKey[c] = k;
+        columnRef[c] = refY;
+        columnFloor[c] = floor;
+        columnFear[c] = fear;
+        return changed;
+    }
+
+    // --- Integration ---
+
+    private void integrate() {
+        Arrays.fill(cost, UNREACHABLE);
+        Arrays.fill(flow, (byte) NONE);
+        Arrays.fill(obstacle, false);
+        Arrays.fill(trap, false);
+
+        for (int j = 0; j < size; j++) {
+            for (int i = 0; i < size; i++) {
+                localFloor[i + j * size] = columnFloor[column(originX + i, originZ + j)];
+            }
+        }
+        if (fearIndex != null) {
+            // Inside a perimeter at standing height (the victim's level for columns without a floor).
+            for (int j = 0; j < size; j++) {
+                for (int i = 0; i < size; i++) {
+                    int floor = localFloor[i + j * size];
+                    double y = (floor == NO_FLOOR) ? centerY + 0.5 : floor + 1.5;
+                    obstacle[i + j * size] = fearIndex.sample(originX + i + 0.5, y, originZ + j + 0.5, fearSample)
+                            && fearSample.clearance() < 0.0;
+                }
+            }
+        } else {
+            for (int j = 0; j < size; j++) {
+                for (int i = 0; i < size; i++) {
+                    byte fear = columnFear[column(originX + i, originZ + j)];
+                    if (fear != 0) stampObstacle(i, j, fearRadius[fear - 1]);
+                }
+            }
+        }
+        if (traps != null && traps.chunks() > 0) {
+            for (int j = 0; j < size; j++) {
+                for (int i = 0; i < size; i++) {
+                    trap[i + j * size] = traps.isTrap(originX + i, originZ + j, trapMinCount);
+                }
+            }
+        }
+
+        // Dijkstra outwards from the victim; edges are checked in the direction a stalker walks (n -> c).
+        int seed = local(centerX, centerZ);
+        cost[seed] = 0;
+        heapSize = 0;
+        push(seed, 0);
+        while (heapSize > 0) {
+            int c = heapCell[0];
+            int cCost = heapCost[0];
+            pop();
+            if (cCost != cost[c]) continue;
+
+            int ci = c % size;
+            int cj = c / size;
+            for (int d = 0; d < DX.length; d++) {
+                int ni = ci - DX[d];
+                int nj = cj - DZ[d];
+                if (ni < 0 || nj < 0 || ni >= size || nj >= size) continue;
+                int n = ni + nj * size;
+                if (!canMove(ni, nj, d, seed)) continue;
+
+                int step = (d < 4) ? STEP_COST : DIAGONAL_COST;
+                if (obstacle[n] || obstacle[c]) step *= FEAR_MULTIPLIER;
+                if (trap[n]) step += TRAP_COST;
+                int nCost = cCost + step;
+                if (nCost < cost[n]) {
+                    cost[n] = nCost;
+                    push(n, nCost);
+                }
+            }
+        }
+
+        // Flow: the cheapest neighbour that is not an obstacle. Outside obstacles it must also be
+        // cheaper than the column itself, so stalkers stop at a fear perimeter instead of circling.
+        for (int n = 0; n < cells; n++) {
+            if (n == seed || cost[n] == UNREACHABLE) continue;
+            int ni = n % size;
+            int nj = n / size;
+            int best = NONE;
+            int bestCost = obstacle[n] ? UNREACHABLE : cost[n];
+            for (int d = 0; d < DX.length; d++) {
+                int ci = ni + DX[d];
+                int cj = nj + DZ[d];
+                if (ci < 0 || cj < 0 || ci >= size || cj >= size) continue;
+                int c = ci + cj * size;
+                if (obstacle[c] || cost[c] >= bestCost || !canMove(ni, nj, d, seed)) continue;
+                best = d;
+                bestCost = cost[c];
+            }
+            flow[n] = (byte) best;
+        }
+    }
+
+    /**
+     * Whether a stalker can walk from window column (i, j) one step in direction {@code d}. Diagonal
+     * steps also need both orthogonal neighbours to be walkable, so corners are not cut.
+     */
+    private boolean canMove(int i, int j, int d, int seed) {
+        if (!canStep(i + j * size, (i + DX[d]) + (j + DZ[d]) * size, seed)) return false;
+        if (d < 4) return true;
+        return canStep(i + j * size, (i + DX[d]) + j * size, seed)
+                && canStep(i + j * size, i + (j + DZ[d]) * size, seed);
+    }
+
+    private boolean canStep(int from, int to, int seed) {
+        int fromFloor = localFloor[from];
+        if (fromFloor == NO_FLOOR) return false;
+        // The victim may be mid-jump or on a block the scan does not see as floor; its column is always a goal.
+        if (to == seed) return true;
+        int toFloor = localFloor[to];
+        if (toFloor == NO_FLOOR) return false;
+        int rise = toFloor - fromFloor;
+        return rise <= 1 && -rise <= MAX_DROP;
+    }
+
+    private void stampObstacle(int fi, int fj, double r) {
+        if (r <= 0) return;
+        int reach = (int) Math.ceil(r);
+        double limit = r * r;
+        for (int dj = -reach; dj <= reach; dj++) {
+            int j = fj + dj;
+            if (j < 0 || j >= size) continue;
+            for (int di = -reach; di <= reach; di++) {
+                int i = fi + di;
+                if (i < 0 || i >= size) continue;
+                if (di * di + dj * dj <= limit) obstacle[i + j * size] = true;
+            }
+        }
+    }
+
+    // --- Heap ---
+
+    private void push(int cell, int key) {
+        if (heapSize == heapCell.length) {
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+            heapCost = Arrays.copyOf(heapCost, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapCost[parent] <= key) break;
+            heapCell[i] = heapCell[parent];
+            heapCost[i] = heapCost[parent];
+            i = parent;
+        }
+        heapCell[i] = cell;
+        heapCost[i] = key;
+    }
+
+    private void pop() {
+        int lastCell = heapCell[--heapSize];
+        int lastCost = heapCost[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapCost[child + 1] < heapCost[child]) child++;
+            if (heapCost[child] >= lastCost) break;
+            heapCell[i] = heapCell[child];
+            heapCost[i] = heapCost[child];
+            i = child;
+        }
+        heapCell[i] = lastCell;
+        heapCost[i] = lastCost;
+    }
+
+    // --- Indexing ---
+
+    private int local(int x, int z) {
+        return (x - originX) + (z - originZ) * size;
+    }
+
+    private int column(int x, int z) {
+        return Math.floorMod(x, size) + Math.floorMod(z, size) * size;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int keyZ(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,218 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * InterceptPredictor
+ *
+ * Turns the victim's recent positions into the point the stalker should head for. The victim's
+ * horizontal velocity is averaged over a short history; the aim is where a stalker moving at its
+ * own speed would meet a victim keeping that velocity, scaled by the aggressiveness (0 = chase the
+ * victim's current position, 1 = the full predicted meeting point).
+ *
+ * The aim is committed: a new prediction only replaces it once it drifts more than the re-plan
+ * distance away, so the path towards it is not recomputed while the victim keeps running the same
+ * way. Within the direct range the aim is simply the victim.
+ *
+ * Read as a {@link VictimView}, it reports the committed aim. Time is passed in explicitly; one
+ * predictor belongs to one thread.
+ */
+public final class InterceptPredictor implements VictimView {
+
+    private static final int CAPACITY = 32;
+    /** Faster than this between two samples is a teleport (or world change), not running. */
+    private static final double TELEPORT_BLOCKS_PER_SECOND = 40.0;
+
+    // --- Settings ---
+    private boolean enabled = false;
+    private double aggressiveness = 1.0;
+    private long historyMs = 1000L;
+    private double maxLeadSeconds = 3.0;
+    private double replanDistance = 2.0;
+    private double directRange = 4.0;
+
+    // --- History (ring buffer, oldest at tail) ---
+    private final double[] xs = new double[CAPACITY];
+    private final double[] ys = new double[CAPACITY];
+    private final double[] zs = new double[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private int head;
+    private int count;
+
+    // --- Committed aim ---
+    private boolean reachable;
+    private boolean hasAim;
+    private double aimX, aimY, aimZ;
+
+    /**
+     * @param aggressiveness fraction of the predicted lead to use (0..2)
+     * @param historyMs      window the victim's velocity is averaged over
+     * @param maxLeadSeconds the prediction looks at most this far ahead
+     * @param replanDistance a new prediction replaces the aim once this far (blocks) from it
+     * @param directRange    closer than this (blocks) the stalker heads straight for the victim
+     */
+    public void configure(boolean enabled, double aggressiveness, long historyMs, double maxLeadSeconds,
+                          double replanDistance, double directRange) {
+        this.enabled = enabled;
+        this.aggressiveness = Math.max(0.0, Math.min(2.0, aggressiveness));
+        this.historyMs = Math.max(100L, historyMs);
+        this.maxLeadSeconds = Math.max(0.0, maxLeadSeconds);
+        this.directRange = Math.max(0.0, directRange);
+        this.replanDistance = Math.max(0.0, replanDistance);
+        hasAim = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** @return true once an aim has been set (until the next reset) */
+    public boolean hasAim() {
+        return hasAim;
+    }
+
+    /** Forgets the history and the aim (new victim, respawn). */
+    public void reset() {
+        count = 0;
+        hasAim = false;
+    }
+
+    // --- History ---
+
+    /** Records the victim's position; call once per AI update, whether or not the stalker re-plans. */
+    public void observe(VictimView victim, long nowMs) {
+        reachable = victim.isReachable();
+        if (!reachable) {
+            reset();
+            return;
+        }
+        double x = victim.x(), y = victim.y(), z = victim.z();
+        if (count > 0) {
+            int newest = (head - 1) & (CAPACITY - 1);
+            long dt = nowMs - times[newest];
+            double dx = x - xs[newest], dz = z - zs[newest];
+            if (dt <= 0L) {
+                // Same instant: keep the latest position only.
+                xs[newest] = x;
+                ys[newest] = y;
+                zs[newest] = z;
+                return;
+            }
+            double maxStep = TELEPORT_BLOCKS_PER_SECOND * dt / 1000.0;
+            if (dx * dx + dz * dz > maxStep * maxStep || dt > historyMs) reset();
+        }
+        xs[head] = x;
+        ys[head] = y;
+        zs[head] = z;
+        times[head] = nowMs;
+        head = (head + 1) & (CAPACITY - 1);
+        if (count < CAPACITY) count++;
+        // Drop samples that fell out of the window, keeping at least two.
+        while (count > 2 && nowMs - times[(head - count) & (CAPACITY - 1)] > historyMs) count--;
+    }
+
+    /** Horizontal victim velocity averaged over the history (blocks per second, 0 without history). */
+    public double velocityX() {
+        return velocity(xs);
+    }
+
+    public double velocityZ() {
+        return velocity(zs);
+    }
+
+    private double velocity(double[] axis) {
+        if (count < 2) return 0.0;
+        int newest = (head - 1) & (CAPACITY - 1);
+        int oldest = (head - count) & (CAPACITY - 1);
+        long dt = times[newest] - times[oldest];
+        return (dt <= 0L) ? 0.0 : (axis[newest] - axis[oldest]) * 1000.0 / dt;
+    }
+
+    // --- Aim ---
+
+    /**
+     * Re-evaluates the aim for a stalker at (sx, sz). A kept aim is also given up once the stalker
+     * has come within the re-plan distance of it.
+     *
+     * @param speed the stalker's speed (blocks per second)
+     * @return true if the aim moved (the caller's path is out of date), false if it was kept
+     */
+    public boolean update(double sx, double sz, double speed) {
+        if (count == 0) {
+            hasAim = false;
+            return false;
+        }
+        int newest = (head - 1) & (CAPACITY - 1);
+        double vx = xs[newest], vy = ys[newest], vz = zs[newest];
+        double px = vx - sx, pz = vz - sz;
+
+        double targetX = vx, targetZ = vz;
+        boolean direct = !enabled || aggressiveness <= 0.0 || px * px + pz * pz <= directRange * directRange;
+        if (!direct) {
+            double velX = velocityX(), velZ = velocityZ();
+            double lead = interceptTime(px, pz, velX, velZ, speed) * aggressiveness;
+            targetX += velX * lead;
+            targetZ += velZ * lead;
+        }
+
+        if (hasAim && !direct) {
+            double r2 = replanDistance * replanDistance;
+            double dx = targetX - aimX, dz = targetZ - aimZ;
+            double ax = aimX - sx, az = aimZ - sz;
+            if (dx * dx + dz * dz <= r2 && ax * ax + az * az > r2) return false;
+        }
+        boolean moved = !hasAim || targetX != aimX || vy != aimY || targetZ != aimZ;
+        hasAim = true;
+        aimX = targetX;
+        aimY = vy;
+        aimZ = targetZ;
+        return moved;
+    }
+
+    /**
+     * Earliest time (seconds) at which a pursuer at the origin with the given speed can reach a
+     * target starting at (px, pz) with velocity (velX, velZ); {@link #maxLeadSeconds} if it cannot
+     * (or later than that).
+     */
+    private double interceptTime(double px, double pz, double velX, double velZ, double speed) {
+        double a = velX * velX + velZ * velZ - speed * speed;
+        double b = 2.0 * (px * velX + pz * velZ);
+        double c = px * px + pz * pz;
+        double t;
+        if (Math.abs(a) < 1.0E-9) {
+            t = (b < 0.0) ? -c / b : Double.MAX_VALUE;
+        } else {
+            double disc = b * b - 4.0 * a * c;
+            if (disc < 0.0) {
+                t = Double.MAX_VALUE;
+            } else {
+                double root = Math.sqrt(disc);
+                double t1 = (-b - root) / (2.0 * a);
+                double t2 = (-b + root) / (2.0 * a);
+                double lo = Math.min(t1, t2), hi = Math.max(t1, t2);
+                t = (lo > 0.0) ? lo : (hi > 0.0 ? hi : Double.MAX_VALUE);
+            }
+        }
+        return Math.min(t, maxLeadSeconds);
+    }
+
+    // --- VictimView (the committed aim) ---
+
+    @Override
+    public double x() {
+        return aimX;
+    }
+
+    @Override
+    public double y() {
+        return aimY;
+    }
+
+    @Override
+    public double z() {
+        return aimZ;
+    }
+
+    @Override
+    public boolean isReachable() {
+        return reachable;
+    }
+}
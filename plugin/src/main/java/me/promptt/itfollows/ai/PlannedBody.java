@@ -0,0 +1,190 @@
+package me.promptt.itfollows.ai;
+
+import java.util.Arrays;
+
+/**
+ * PlannedBody
+ *
+ * A {@link StalkerBody} over a captured state that records commands instead of executing them.
+ * Lets the decision core run away from the live entity (e.g. on a worker thread); the recorded
+ * commands are later applied to the real body, in order, with {@link #replayOnto}.
+ *
+ * Reads reflect earlier commands of the same plan (AI state, velocity), as they would on a live
+ * body. Reused between plans: {@link #capture} resets it without allocating.
+ */
+public final class PlannedBody implements StalkerBody {
+
+    private static final byte SET_AI = 0, MOVE = 1, STOP = 2, VELOCITY = 3, RESET_FALL = 4, TARGET = 5, CLEAR_TARGET = 6;
+
+    private double x, y, z;
+    private double velocityX, velocityY, velocityZ;
+    private boolean canFly;
+    private boolean ai;
+
+    private byte[] ops = new byte[16];
+    private double[] args = new double[48];
+    private int opCount;
+    private int argCount;
+
+    // Last path request of this plan (read by the trajectory recorder)
+    private boolean moved;
+    private double moveX, moveY, moveZ;
+
+    /** Starts a new plan from the given state, dropping any recorded commands. */
+    public PlannedBody capture(double x, double y, double z, double velocityX, double velocityY, double velocityZ,
+                               boolean canFly, boolean hasAI) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.velocityZ = velocityZ;
+        this.canFly = canFly;
+        this.ai = hasAI;
+        this.opCount = 0;
+        this.argCount = 0;
+        this.moved = false;
+        return this;
+    }
+
+    /** Issues the recorded commands, in order, on the given body. */
+    public void replayOnto(StalkerBody target) {
+        int a = 0;
+        for (int i = 0; i < opCount; i++) {
+            switch (ops[i]) {
+                case SET_AI -> target.setAI(args[a++] != 0.0);
+                case MOVE -> target.moveTo(args[a++], args[a++], args[a++]);
+                case STOP -> target.stopPathfinding();
+                case VELOCITY -> target.setVelocity(args[a++], args[a++], args[a++]);
+                case RESET_FALL -> target.resetFallDistance();
+                case TARGET -> target.targetVictim();
+                case CLEAR_TARGET -> target.clearTarget();
+                default -> throw new IllegalStateException("Unknown op " + ops[i]);
+            }
+        }
+    }
+
+    public int commandCount() {
+        return opCount;
+    }
+
+    private void op(byte op) {
+        if (opCount == ops.length) ops = Arrays.copyOf(ops, opCount * 2);
+        ops[opCount++] = op;
+    }
+
+    private void arg(double value) {
+        if (argCount == args.length) args = Arrays.copyOf(args, argCount * 2);
+        args[argCount++] = value;
+    }
+
+    // --- StalkerBody ---
+
+    @Override
+    public double x() {
+        return x;
+    }
+
+    @Override
+    public double y() {
+        return y;
+    }
+
+    @Override
+    public double z() {
+        return z;
+    }
+
+    @Override
+    public double velocityX() {
+        return velocityX;
+    }
+
+    @Override
+    public double velocityY() {
+        return velocityY;
+    }
+
+    @Override
+    public double velocityZ() {
+        return velocityZ;
+    }
+
+    @Override
+    public boolean canFly() {
+        return canFly;
+    }
+
+    @Override
+    public boolean hasAI() {
+        return ai;
+    }
+
+    @Override
+    public void setAI(boolean enabled) {
+        ai = enabled;
+        op(SET_AI);
+        arg(enabled ? 1.0 : 0.0);
+    }
+
+    @Override
+    public void moveTo(double x, double y, double z) {
+        moved = true;
+        moveX = x;
+        moveY = y;
+        moveZ = z;
+        op(MOVE);
+        arg(x);
+        arg(y);
+        arg(z);
+    }
+
+    @Override
+    public void stopPathfinding() {
+        op(STOP);
+    }
+
+    @Override
+    public void setVelocity(double x, double y, double z) {
+        velocityX = x;
+        velocityY = y;
+        velocityZ = z;
+        op(VELOCITY);
+        arg(x);
+        arg(y);
+        arg(z);
+    }
+
+    @Override
+    public void resetFallDistance() {
+        op(RESET_FALL);
+    }
+
+    @Override
+    public void targetVictim() {
+        op(TARGET);
+    }
+
+    @Override
+    public void clearTarget() {
+        op(CLEAR_TARGET);
+    }
+
+    // --- Last Path Request ---
+
+    public boolean moved() {
+        return moved;
+    }
+
+    public double moveX() {
+        return moveX;
+    }
+
+    public double moveY() {
+        return moveY;
+    }
+
+    public double moveZ() {
+        return moveZ;
+    }
+}
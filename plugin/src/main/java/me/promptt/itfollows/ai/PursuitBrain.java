@@ -0,0 +1,330 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * PursuitBrain
+ *
+ * Bukkit-free decision core for pursuit and fear-zone navigation. Given the stalker, the victim
+ * and the nearest fear sources (already scanned), it decides where the stalker moves this update.
+ *
+ * The orbit state (direction lock and committed waypoint) lives here so that the same logic runs
+ * unchanged on a live server and in the headless simulator. Time is passed in explicitly.
+ */
+public final class PursuitBrain {
+
+    /** What the brain did during {@link #update}. */
+    public enum Outcome {
+        /** Victim is protected: walk to the edge of the bubble and hold. */
+        HOLDING_PERIMETER,
+        /** Fear zone is in the way (or we are inside it): steer around / out of it. */
+        AVOIDING_FEAR,
+        /** Normal chase. */
+        PURSUING
+    }
+
+    private final FearScanner radii;
+
+    /** Extra buffer added to the base fear radius to create a stable "edge". */
+    private double perimeterBuffer = 0.75;
+
+    /** How far (in blocks) to step when pathing around a fear zone. */
+    private double stepDistance = 6.0;
+
+    // --- Orbit state (prevents direction flip-jitter) ---
+    private boolean orbitActive;
+    private double orbitCenterX, orbitCenterY, orbitCenterZ;
+    private int orbitDir;
+    private boolean hasWaypoint;
+    private double waypointX, waypointY, waypointZ;
+    private long waypointSetMs;
+    private long orbitLockMs;
+
+    /** Scratch output for the geometry kernel (valid only within one call). */
+    private final Vec3 scratch = new Vec3();
+
+    /**
+     * @param radii base fear radii per type, read on whichever thread runs the brain
+     */
+    public PursuitBrain(FearScanner radii) {
+        this.radii = radii;
+    }
+
+    public void setAvoidance(double perimeterBuffer, double stepDistance) {
+        this.perimeterBuffer = Math.max(0.0, perimeterBuffer);
+        this.stepDistance = Math.max(1.0, stepDistance);
+    }
+
+    // --- Composite Update ---
+
+    /**
+     * One full movement decision, in the same order as the plugin's tick loop:
+     * victim protection, then fear avoidance, then pursuit.
+     *
+     * @param victimProtection fear source the victim is standing inside (null if none)
+     * @param fearSource       nearest fear source around the stalker (null if none)
+     */
+    public Outcome update(StalkerBody body, VictimView victim, FearHit victimProtection, FearHit fearSource, long nowMs) {
+        return update(body, victim, victim, victimProtection, fearSource, nowMs);
+    }
+
+    /**
+     * Same as {@link #update(StalkerBody, VictimView, FearHit, FearHit, long)}, but the chase heads
+     * for {@code aim} (e.g. a predicted interception point). Fear avoidance and perimeter holds still
+     * work from the victim's actual position.
+     */
+    public Outcome update(StalkerBody body, VictimView victim, VictimView aim, FearHit victimProtection, FearHit fearSource,
+                          long nowMs) {
+        if (victimProtection != null) {
+            clearOrbitState();
+            holdAtFearPerimeter(body, victim, victimProtection);
+            return Outcome.HOLDING_PERIMETER;
+        }
+
+        // Ensure AI is re-enabled when the victim leaves the safety radius.
+        if (!body.hasAI()) {
+            body.setAI(true);
+        }
+
+        if (fearSource != null && handleFear(body, victim, fearSource, nowMs)) {
+            return Outcome.AVOIDING_FEAR;
+        }
+
+        pursue(body, aim);
+        return Outcome.PURSUING;
+    }
+
+    /** Normal chase: path straight to the victim (or the given aim point) and target the victim. */
+    public void pursue(StalkerBody body, VictimView victim) {
+        body.moveTo(victim.x(), victim.y(), victim.z());
+        body.targetVictim();
+    }
+
+    // --- Fear Avoidance ---
+
+    /**
+     * Fear avoidance update.
+     *
+     *  - Fear zones are treated as spherical volumes.
+     *  - If the victim is inside a fear zone, the stalker holds at the perimeter.
+     *  - If the victim is outside, the stalker avoids entering the sphere and navigates around it.
+     *    Flying forms test the route against the sphere in 3D.
+     *
+     * @return true if fear logic set the movement for this update (skip normal chase)
+     */
+    public boolean handleFear(StalkerBody body, VictimView victim, FearHit source, long nowMs) {
+        if (source == null || body == null) return false;
+
+        double baseRadius = radii.getRadius(source.type());
+        if (baseRadius <= 0.0) return false;
+
+        // "Perimeter" radius adds a buffer to reduce oscillation.
+        double perimeterRadius = baseRadius + perimeterBuffer;
+
+        double sx = source.centerX();
+        double sy = source.centerY();
+        double sz = source.centerZ();
+
+        double mx = body.x();
+        double my = body.y();
+        double mz = body.z();
+
+        final boolean canFly = body.canFly();
+
+        // 0) If the stalker is DEEP inside the perimeter sphere, push it outward immediately.
+        //    If it is only barely inside (common at the exact edge due to path rounding),
+        //    do NOT override movement here — letting the perimeter-walk/orbit logic run
+        //    prevents the classic edge-jitter behavior.
+        double mobDist = distance(mx, my, mz, sx, sy, sz);
+        double innerRadius = Math.max(0.0, perimeterRadius - 0.55);
+        if (mobDist < innerRadius) {
+            // Even for Vex forms, keep fear-edge waypoints on the current Y-slice.
+            Vec3 edge = FearGeometry.perimeterPoint(sx, sy, sz, mx, mz, perimeterRadius, my, scratch);
+            body.clearTarget();
+            body.moveTo(edge.x(), edge.y(), edge.z());
+
+            // A small outward nudge prevents getting "stuck" inside the zone.
+            pushOutward(body, mx, my, mz, sx, sy, sz, canFly, 0.14);
+
+            // Reset orbit state — we are not orbiting, we are ejecting.
+            clearOrbitState();
+            return true;
+        }
+
+        // If we do not have a valid victim context, just hold the perimeter.
+        if (victim == null || !victim.isReachable()) {
+            Vec3 hold = FearGeometry.perimeterPoint(sx, sy, sz, mx, mz, perimeterRadius, my, scratch);
+            body.clearTarget();
+            body.moveTo(hold.x(), hold.y(), hold.z());
+            return true;
+        }
+
+        double vx = victim.x();
+        double vy = victim.y();
+        double vz = victim.z();
+
+        // 1) If the victim is inside the BASE fear radius, hold at the perimeter.
+        //    (This should already be handled by the protection check, but keep it here for robustness.)
+        if (distance(vx, vy, vz, sx, sy, sz) < baseRadius) {
+            holdAtFearPerimeter(body, victim, source);
+            return true;
+        }
+
+        // 2) Victim is NOT protected by the fear radius.
+        //    If the fear zone blocks the direct route, path around the perimeter.
+        //    Otherwise, allow the normal chase logic to execute.
+        boolean blocked = canFly
+                ? FearGeometry.segmentIntersectsSphere(mx, my, mz, vx, vy, vz, sx, sy, sz, perimeterRadius)
+                : FearGeometry.segmentIntersectsCircleXZ(mx, mz, vx, vz, sx, sz, perimeterRadius);
+        if (blocked) {
+            // Lock orbit state to avoid CW/CCW flip-flopping every update (which produces jitter).
+            if (!orbitActive || distance(orbitCenterX, orbitCenterY, orbitCenterZ, sx, sy, sz) > 1.2) {
+                clearOrbitState();
+                orbitActive = true;
+                orbitCenterX = sx;
+                orbitCenterY = sy;
+                orbitCenterZ = sz;
+            }
+
+            // Choose an orbit direction once, then keep it for a few seconds.
+            double thetaMob = Math.atan2(mz - sz, mx - sx);
+            double thetaVictim = Math.atan2(vz - sz, vx - sx);
+            double delta = FearGeometry.wrapRadians(thetaVictim - thetaMob);
+            int desiredDir = (delta >= 0) ? 1 : -1;
+
+            if (orbitDir == 0 || (nowMs - orbitLockMs) > 3000L) {
+                orbitDir = desiredDir;
+                orbitLockMs = nowMs;
+            }
+
+            // Commit to the same waypoint until we reach it (or a short timeout elapses).
+            if (!hasWaypoint
+                    || distance(mx, my, mz, waypointX, waypointY, waypointZ) < 1.25
+                    || (nowMs - waypointSetMs) > 2000L) {
+                Vec3 wp = FearGeometry.stepAlongPerimeterTowardsVictim(sx, sy, sz, mx, my, mz, vx, vz,
+                        perimeterRadius, orbitDir, stepDistance, perimeterBuffer, scratch);
+                hasWaypoint = true;
+                waypointX = wp.x();
+                waypointY = wp.y();
+                waypointZ = wp.z();
+                waypointSetMs = nowMs;
+            }
+
+            body.clearTarget();
+            body.moveTo(waypointX, waypointY, waypointZ);
+            return true;
+        }
+
+        // No longer orbiting / avoiding — clear orbit state.
+        clearOrbitState();
+        return false;
+    }
+
+    /**
+     * When the victim is inside a fear radius, the stalker approaches the perimeter (edge) of that
+     * safety bubble and holds there.
+     *
+     * The hold point is on the radial line source -> stalker, which yields a stable edge point and
+     * lets the stalker stand still once it reaches it (instead of orbiting as the victim moves).
+     * Flying forms keep the hold point near the victim's Y-level so they do not hover above the bubble.
+     */
+    public void holdAtFearPerimeter(StalkerBody body, VictimView victim, FearHit source) {
+        if (body == null || victim == null || source == null) return;
+
+        double baseRadius = radii.getRadius(source.type());
+        if (baseRadius <= 0.0) return;
+
+        double perimeterRadius = baseRadius + perimeterBuffer;
+
+        double sx = source.centerX();
+        double sy = source.centerY();
+        double sz = source.centerZ();
+
+        double mx = body.x();
+        double my = body.y();
+        double mz = body.z();
+
+        final boolean canFly = body.canFly();
+
+        Vec3 edge = FearGeometry.perimeterPoint(sx, sy, sz, mx, mz, perimeterRadius, canFly ? victim.y() : my, scratch);
+
+        // If we ended up inside the zone (terrain/pathfinder weirdness), push outward.
+        if (distance(mx, my, mz, sx, sy, sz) < perimeterRadius) {
+            pushOutward(body, mx, my, mz, sx, sy, sz, canFly, 0.18);
+        }
+
+        body.clearTarget();
+
+        // If we are basically already at the perimeter point, hard-freeze the mob.
+        // This prevents micro-jitter from repeated path requests.
+        double holdThreshold = canFly ? 1.05 : 0.85;
+        if (distance(mx, my, mz, edge.x(), edge.y(), edge.z()) <= holdThreshold) {
+            body.stopPathfinding();
+            body.setVelocity(0.0, Math.min(0.02, body.velocityY()), 0.0);
+            body.resetFallDistance();
+            body.setAI(false);
+        } else {
+            if (!body.hasAI()) {
+                body.setAI(true);
+            }
+            body.moveTo(edge.x(), edge.y(), edge.z());
+        }
+    }
+
+    public void clearOrbitState() {
+        orbitActive = false;
+        orbitDir = 0;
+        hasWaypoint = false;
+        waypointSetMs = 0L;
+        orbitLockMs = 0L;
+    }
+
+    // --- Introspection (simulator / diagnostics) ---
+
+    public boolean isOrbiting() {
+        return orbitActive;
+    }
+
+    public int getOrbitDir() {
+        return orbitDir;
+    }
+
+    public boolean hasWaypoint() {
+        return hasWaypoint;
+    }
+
+    public double getWaypointX() {
+        return waypointX;
+    }
+
+    public double getWaypointY() {
+        return waypointY;
+    }
+
+    public double getWaypointZ() {
+        return waypointZ;
+    }
+
+    // --- Helpers ---
+
+    /** Outward nudge away from the source center (horizontal only for walkers). */
+    private static void pushOutward(StalkerBody body, double mx, double my, double mz,
+                                    double sx, double sy, double sz, boolean canFly, double speed) {
+        double ox = mx - sx;
+        double oy = canFly ? (my - sy) : 0.0;
+        double oz = mz - sz;
+        double len2 = ox * ox + oy * oy + oz * oz;
+        if (len2 < 0.0001) {
+            ox = 1.0;
+            oz = 0.0;
+            len2 = 1.0;
+        }
+        double scale = speed / Math.sqrt(len2);
+        body.setVelocity(ox * scale, 0.04, oz * scale);
+    }
+
+    static double distance(double ax, double ay, double az, double bx, double by, double bz) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        double dz = az - bz;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
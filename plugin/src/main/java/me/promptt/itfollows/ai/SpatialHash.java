@@ -0,0 +1,159 @@
+package me.promptt.itfollows.ai;
+
+import java.util.Arrays;
+
+/**
+ * SpatialHash
+ *
+ * Uniform grid over the XZ plane for neighbour queries between horde members. It is rebuilt from
+ * scratch every update: inserting is O(1), and a query within one cell size only looks at the 3x3
+ * cells around the point, so separation costs O(members) instead of O(members²). The buckets are an
+ * open-addressed table of cell keys pointing into per-cell linked lists; nothing is allocated once
+ * the arrays have grown to the horde size.
+ */
+public final class SpatialHash {
+
+    private final double cellSize;
+
+    private long[] keys = new long[16];
+    private int[] heads = new int[16];
+    private int mask = 15;
+
+    private int[] next = new int[8];
+    private double[] xs = new double[8];
+    private double[] zs = new double[8];
+    private int count;
+
+    /** @param cellSize bucket width; queries are exact for radii up to this size */
+    public SpatialHash(double cellSize) {
+        this.cellSize = Math.max(0.1, cellSize);
+        Arrays.fill(heads, -1);
+    }
+
+    public double cellSize() {
+        return cellSize;
+    }
+
+    /** Empties the hash and makes room for {@code expected} items. */
+    public void clear(int expected) {
+        if (next.length < expected) {
+            int capacity = Integer.highestOneBit(Math.max(1, expected - 1)) << 1;
+            next = new int[capacity];
+            xs = new double[capacity];
+            zs = new double[capacity];
+        }
+        // At most half full, so probing always ends at an empty slot.
+        int table = Integer.highestOneBit(Math.max(8, next.length * 2 - 1)) << 1;
+        if (keys.length < table) {
+            keys = new long[table];
+            heads = new int[table];
+            mask = table - 1;
+        }
+        Arrays.fill(heads, -1);
+        count = 0;
+    }
+
+    /** Adds a point; items are numbered in insertion order, starting at 0. */
+    public int insert(double x, double z) {
+        if (count == next.length) {
+            next = Arrays.copyOf(next, count * 2);
+            xs = Arrays.copyOf(xs, count * 2);
+            zs = Arrays.copyOf(zs, count * 2);
+            if (keys.length < next.length * 2) rehash(next.length * 2);
+        }
+        int item = count++;
+        xs[item] = x;
+        zs[item] = z;
+
+        long key = key(cell(x), cell(z));
+        int slot = slot(key);
+        next[item] = heads[slot];
+        heads[slot] = item;
+        keys[slot] = key;
+        return item;
+    }
+
+    /**
+     * Collects the items within {@code radius} (at most one cell size) of the point.
+     *
+     * @return the number of indices written to {@code out} (truncated to its length)
+     */
+    public int query(double x, double z, double radius, int[] out) {
+        double limit = radius * radius;
+        int cx = cell(x);
+        int cz = cell(z);
+        int found = 0;
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                long key = key(cx + dx, cz + dz);
+                int slot = find(key);
+                if (slot < 0) continue;
+                for (int item = heads[slot]; item >= 0; item = next[item]) {
+                    double ox = xs[item] - x;
+                    double oz = zs[item] - z;
+                    if (ox * ox + oz * oz > limit) continue;
+                    if (found == out.length) return found;
+                    out[found++] = item;
+                }
+            }
+        }
+        return found;
+    }
+
+    public double x(int item) {
+        return xs[item];
+    }
+
+    public double z(int item) {
+        return zs[item];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // --- Table ---
+
+    /** Slot of the key, claiming an empty one if it is new. */
+    private int slot(long key) {
+        int slot = hash(key) & mask;
+        while (heads[slot] >= 0 && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private int find(long key) {
+        int slot = hash(key) & mask;
+        while (heads[slot] >= 0) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int table) {
+        keys = new long[table];
+        heads = new int[table];
+        mask = table - 1;
+        Arrays.fill(heads, -1);
+        for (int item = 0; item < count; item++) {
+            long key = key(cell(xs[item]), cell(zs[item]));
+            int slot = slot(key);
+            next[item] = heads[slot];
+            heads[slot] = item;
+            keys[slot] = key;
+        }
+    }
+
+    private int cell(double coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,44 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * The stalker entity as seen by the decision core.
+ *
+ * Positions and velocities are plain coordinates in the stalker's world. Movement requests use
+ * the pathfinder speed of the current form; the implementation picks it.
+ */
+public interface StalkerBody {
+
+    double x();
+
+    double y();
+
+    double z();
+
+    double velocityX();
+
+    double velocityY();
+
+    double velocityZ();
+
+    /** @return true for flying forms (Vex), which may route in 3D and phase through blocks */
+    boolean canFly();
+
+    boolean hasAI();
+
+    void setAI(boolean enabled);
+
+    /** Requests a path to the given point at the current form's speed. */
+    void moveTo(double x, double y, double z);
+
+    void stopPathfinding();
+
+    void setVelocity(double x, double y, double z);
+
+    void resetFallDistance();
+
+    /** Makes the cursed player the stalker's combat target. */
+    void targetVictim();
+
+    /** Drops any combat target (used while the fear logic steers). */
+    void clearTarget();
+}
@@ -0,0 +1,275 @@
+package me.promptt.itfollows.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * StuckHeatmap
+ *
+ * Where the stalker got stuck before, so it can skip the wait (or route around) next time.
+ *
+ * Each chunk is a grid of 8x8 cells of 2x2 block columns, and each cell holds a saturating 4-bit
+ * stuck count: 64 nibbles packed into four longs, 32 bytes per chunk. Chunks live in an
+ * open-addressed table (linear probing) stored directly in a memory-mapped file, so recording an
+ * event is a few absolute puts and persisting it is left to the OS. {@link #decay} halves all
+ * counts (one shift and mask per word), which lets spots that were fixed fade out.
+ *
+ * File layout: a {@link #HEADER_BYTES} header, then {@code capacity} entries of {@link #ENTRY_BYTES}
+ * ({@code long key, long[4] nibbles}). Keys are stored XOR {@link #KEY_FLIP} so an all-zero entry is
+ * empty. A file that fails validation (other version, torn resize) is started over.
+ *
+ * Not thread-safe: one heatmap belongs to one thread (the main thread in the plugin).
+ */
+public final class StuckHeatmap implements AutoCloseable {
+
+    public static final String EXTENSION = ".heat";
+
+    /** Counts saturate at this value. */
+    public static final int MAX_COUNT = 15;
+
+    // --- File Layout ---
+    static final int MAGIC = 0x4953484D; // "ISHM"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int ENTRY_BYTES = 40;
+
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_CAPACITY = 8;
+    static final int H_SIZE = 12;
+    static final int H_LAST_DECAY_MS = 16;
+
+    private static final int MIN_CAPACITY = 256;
+    private static final long KEY_FLIP = Long.MIN_VALUE;
+    private static final long HALVE_MASK = 0x7777_7777_7777_7777L;
+
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    private StuckHeatmap(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Opens (or creates) a heatmap file. */
+    public static StuckHeatmap open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            StuckHeatmap map = new StuckHeatmap(channel);
+            long fileSize = channel.size();
+            if (fileSize >= HEADER_BYTES) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                int capacity = header.getInt(H_CAPACITY);
+                if (header.getInt(H_MAGIC) == MAGIC && header.getInt(H_VERSION) == VERSION
+                        && capacity >= MIN_CAPACITY && Integer.bitCount(capacity) == 1
+                        && fileSize == HEADER_BYTES + (long) capacity * ENTRY_BYTES) {
+                    map.capacity = capacity;
+                    map.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                    map.size = map.buffer.getInt(H_SIZE);
+                    return map;
+                }
+            }
+            channel.truncate(0);
+            map.resize(MIN_CAPACITY, 0L);
+            return map;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** A heatmap that is not backed by a file (kept until the server stops). */
+    public static StuckHeatmap inMemory() {
+        StuckHeatmap map = new StuckHeatmap(null);
+        try {
+            map.resize(MIN_CAPACITY, 0L);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // no file involved
+        }
+        return map;
+    }
+
+    // --- Queries ---
+
+    /** @return the stuck count of the 2x2 cell containing the block column */
+    public int countAt(int blockX, int blockZ) {
+        int entry = find(chunkKey(blockX >> 4, blockZ >> 4));
+        if (entry < 0) return 0;
+        int cell = cell(blockX, blockZ);
+        long word = buffer.getLong(wordOffset(entry, cell));
+        return (int) (word >>> shift(cell)) & 0xF;
+    }
+
+    /** @return true if the cell containing the block column has at least {@code minCount} events */
+    public boolean isTrap(int blockX, int blockZ, int minCount) {
+        return countAt(blockX, blockZ) >= minCount;
+    }
+
+    /** Chunks with at least one recorded event. */
+    public int chunks() {
+        return size;
+    }
+
+    public long lastDecayMs() {
+        return buffer.getLong(H_LAST_DECAY_MS);
+    }
+
+    // --- Updates ---
+
+    /**
+     * Records one stuck event at the block column.
+     *
+     * @return the cell's count afterwards
+     */
+    public int record(int blockX, int blockZ) throws IOException {
+        long key = chunkKey(blockX >> 4, blockZ >> 4);
+        int entry = find(key);
+        if (entry < 0) {
+            if ((size + 1) * 2 > capacity) resize(capacity * 2, lastDecayMs());
+            entry = insert(key);
+            size++;
+            buffer.putInt(H_SIZE, size);
+        }
+        int cell = cell(blockX, blockZ);
+        int offset = wordOffset(entry, cell);
+        long word = buffer.getLong(offset);
+        int count = (int) (word >>> shift(cell)) & 0xF;
+        if (count < MAX_COUNT) {
+            count++;
+            buffer.putLong(offset, word + (1L << shift(cell)));
+        }
+        return count;
+    }
+
+    /** Halves every count and drops chunks that reach zero. */
+    public void decay(long nowMs) throws IOException {
+        boolean emptied = false;
+        for (int e = 0; e < capacity; e++) {
+            int base = HEADER_BYTES + e * ENTRY_BYTES;
+            if (buffer.getLong(base) == 0L) continue;
+            long any = 0L;
+            for (int w = 0; w < 4; w++) {
+                int offset = base + 8 + w * 8;
+                long word = (buffer.getLong(offset) >>> 1) & HALVE_MASK;
+                buffer.putLong(offset, word);
+                any |= word;
+            }
+            if (any == 0L) emptied = true;
+        }
+        if (emptied) {
+            resize(capacity, nowMs); // rebuild without the empty chunks
+        } else {
+            buffer.putLong(H_LAST_DECAY_MS, nowMs);
+        }
+    }
+
+    /** Flushes the mapping and closes the file. */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        try {
+            if (buffer instanceof MappedByteBuffer mapped) mapped.force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // --- Table ---
+
+    private int find(long key) {
+        long stored = key ^ KEY_FLIP;
+        int mask = capacity - 1;
+        for (int e = hash(key) & mask; ; e = (e + 1) & mask) {
+            long k = buffer.getLong(HEADER_BYTES + e * ENTRY_BYTES);
+            if (k == stored) return e;
+            if (k == 0L) return -1;
+        }
+    }
+
+    /** Claims an empty entry for a key that is not in the table (there is always room: load <= 1/2). */
+    private int insert(long key) {
+        int mask = capacity - 1;
+        int e = hash(key) & mask;
+        while (buffer.getLong(HEADER_BYTES + e * ENTRY_BYTES) != 0L) e = (e + 1) & mask;
+        buffer.putLong(HEADER_BYTES + e * ENTRY_BYTES, key ^ KEY_FLIP);
+        return e;
+    }
+
+    /**
+     * Rebuilds the table with {@code newCapacity} entries, keeping every chunk with a non-zero
+     * count. The header is written last, so a crash in between invalidates the file (it is
+     * started over on the next open).
+     */
+    private void resize(int newCapacity, long lastDecayMs) throws IOException {
+        // Copy the live entries out first: the new mapping overwrites the old table in place.
+        int live = 0;
+        long[] entries = new long[(buffer == null) ? 0 : size * 5];
+        for (int e = 0; buffer != null && e < capacity; e++) {
+            int base = HEADER_BYTES + e * ENTRY_BYTES;
+            long stored = buffer.getLong(base);
+            if (stored == 0L) continue;
+            long w0 = buffer.getLong(base + 8), w1 = buffer.getLong(base + 16), w2 = buffer.getLong(base + 24), w3 = buffer.getLong(base + 32);
+            if ((w0 | w1 | w2 | w3) == 0L) continue;
+            if (live * 5 + 5 > entries.length) entries = Arrays.copyOf(entries, Math.max(10, entries.length * 2));
+            entries[live * 5] = stored ^ KEY_FLIP;
+            entries[live * 5 + 1] = w0;
+            entries[live * 5 + 2] = w1;
+            entries[live * 5 + 3] = w2;
+            entries[live * 5 + 4] = w3;
+            live++;
+        }
+        while (live * 2 > newCapacity) newCapacity *= 2;
+
+        long bytes = HEADER_BYTES + (long) newCapacity * ENTRY_BYTES;
+        if (bytes > Integer.MAX_VALUE) throw new IOException("Stuck heatmap too large");
+        if (channel != null) {
+            if (buffer != null) buffer.putInt(H_MAGIC, 0); // invalid until the rebuild completes
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } else {
+            buffer = ByteBuffer.allocate((int) bytes);
+        }
+        for (int offset = HEADER_BYTES; offset < bytes; offset += 8) buffer.putLong(offset, 0L);
+
+        capacity = newCapacity;
+        for (int i = 0; i < live; i++) {
+            int e = insert(entries[i * 5]);
+            int base = HEADER_BYTES + e * ENTRY_BYTES;
+            for (int w = 0; w < 4; w++) buffer.putLong(base + 8 + w * 8, entries[i * 5 + 1 + w]);
+        }
+        size = live;
+
+        buffer.putInt(H_VERSION, VERSION);
+        buffer.putInt(H_CAPACITY, capacity);
+        buffer.putInt(H_SIZE, size);
+        buffer.putLong(H_LAST_DECAY_MS, lastDecayMs);
+        buffer.putInt(H_MAGIC, MAGIC);
+    }
+
+    private static int wordOffset(int entry, int cell) {
+        return HEADER_BYTES + entry * ENTRY_BYTES + 8 + (cell >>> 4) * 8;
+    }
+
+    private static int shift(int cell) {
+        return (cell & 15) * 4;
+    }
+
+    /** Cell index 0..63 of a block column within its chunk (2x2 columns per cell). */
+    private static int cell(int blockX, int blockZ) {
+        return ((blockZ & 15) >> 1) * 8 + ((blockX & 15) >> 1);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
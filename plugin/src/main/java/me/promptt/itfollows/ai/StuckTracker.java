@@ -0,0 +1,162 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * StuckTracker
+ *
+ * Anti-stuck "Vex Mode" state machine. Fed once per second with the stalker's position and
+ * velocity, it decides when a walker should morph into a Vex and when a Vex should morph back.
+ */
+public final class StuckTracker {
+
+    public enum Action {
+        NONE,
+        MORPH_TO_VEX,
+        MORPH_TO_WALKER
+    }
+
+    private int vexTriggerSeconds = 10;
+    private int vexDurationSeconds = 10;
+    /** Stuck time that triggers the Vex on a spot where the stalker got stuck before. */
+    private int knownTrapTriggerSeconds = 2;
+
+    /** True while the stalker is currently a Vex. */
+    private boolean vexMode;
+
+    /** Seconds counted while the stalker is considered stuck (or intentionally stationary). */
+    private int secondsStuck;
+
+    /** Seconds counted while in Vex Mode (temporary flying form). */
+    private int secondsInVexMode;
+
+    /** Anchor position used to detect being stuck despite jittery micro-movement. */
+    private boolean hasAnchor;
+    private double anchorX, anchorY, anchorZ;
+
+    /**
+     * Tracks whether we've already allowed a "protection edge" Vex morph during the current
+     * victim-protected window.
+     *
+     * This prevents rapid cycling: walker holds edge -> morphs to Vex -> morphs back ->
+     * immediately morphs again while the player remains inside the same safety bubble.
+     */
+    private boolean vexTriggeredDuringVictimProtection;
+
+    public void setTimings(int vexTriggerSeconds, int vexDurationSeconds) {
+        this.vexTriggerSeconds = vexTriggerSeconds;
+        this.vexDurationSeconds = vexDurationSeconds;
+    }
+
+    public void setKnownTrapTriggerSeconds(int seconds) {
+        this.knownTrapTriggerSeconds = Math.max(1, seconds);
+    }
+
+    public boolean isVexMode() {
+        return vexMode;
+    }
+
+    public int getSecondsStuck() {
+        return secondsStuck;
+    }
+
+    /** Resets state for a freshly spawned (or adopted) stalker. */
+    public void onSpawn(double x, double y, double z, boolean vex) {
+        vexMode = vex;
+        secondsStuck = 0;
+        if (vex) secondsInVexMode = 0;
+        hasAnchor = true;
+        anchorX = x;
+        anchorY = y;
+        anchorZ = z;
+    }
+
+    /** Resets state when the stalker is removed. */
+    public void reset() {
+        vexMode = false;
+        secondsStuck = 0;
+    }
+
+    /** Leaving a protection bubble resets the one-shot "edge Vex" guard. */
+    public void onVictimProtection(boolean victimProtected) {
+        if (!victimProtected) {
+            vexTriggeredDuringVictimProtection = false;
+        }
+    }
+
+    /**
+     * Runs once per second.
+     *
+     * If the stalker stays effectively motionless for a period of time, it should morph into a Vex.
+     * Once the Vex timer expires it always morphs back to a walking form.
+     *
+     * @param victimProtected true while the victim is inside a fear safety radius
+     * @param blockedAhead    true if a wall (not a door, gate or climbable) fills the blocks in front of a walker
+     */
+    public Action tickSecond(double x, double y, double z, double velocityX, double velocityZ,
+                             boolean victimProtected, boolean blockedAhead) {
+        return tickSecond(x, y, z, velocityX, velocityZ, victimProtected, blockedAhead, false);
+    }
+
+    /**
+     * @param knownTrap true if the stalker stands on a spot where it got stuck before (see
+     *                  {@link StuckHeatmap}); it then morphs after the shorter known-trap time
+     */
+    public Action tickSecond(double x, double y, double z, double velocityX, double velocityZ,
+                             boolean victimProtected, boolean blockedAhead, boolean knownTrap) {
+        // --- Vex Timer (Turn back to walker) ---
+        if (vexMode) {
+            secondsInVexMode++;
+            return (secondsInVexMode >= vexDurationSeconds) ? Action.MORPH_TO_WALKER : Action.NONE;
+        }
+
+        // --- Walker stuck logic (Turn into Vex) ---
+        // Anchor-based stuck detection:
+        // If the mob is jittering in-place (corners, fear perimeter steering, etc.) the
+        // per-second delta can be large enough to prevent stuck-time from accumulating.
+        // Instead, treat it as stuck if it remains within a small area while also having
+        // low horizontal velocity.
+        if (!hasAnchor) {
+            setAnchor(x, y, z);
+        }
+
+        double ax = x - anchorX;
+        double az = z - anchorZ;
+        double anchorHoriz = Math.sqrt(ax * ax + az * az);
+        double anchorY = Math.abs(y - this.anchorY);
+
+        double velHoriz = Math.sqrt(velocityX * velocityX + velocityZ * velocityZ);
+
+        boolean lowSpeed = velHoriz < 0.13;
+        boolean nearAnchor = anchorHoriz < 0.85 && anchorY < 1.35;
+
+        // Pushing into a wall can keep the measured velocity above the threshold; when the way
+        // ahead is physically blocked, staying near the anchor is enough.
+        if (nearAnchor && (lowSpeed || blockedAhead)) {
+            secondsStuck++;
+        } else {
+            secondsStuck = 0;
+            setAnchor(x, y, z);
+        }
+
+        int trigger = knownTrap ? Math.min(vexTriggerSeconds, knownTrapTriggerSeconds) : vexTriggerSeconds;
+        if (secondsStuck < trigger) return Action.NONE;
+
+        // While the victim remains protected, only allow ONE Vex morph to avoid
+        // constant morph cycling while holding the perimeter.
+        if (victimProtected && vexTriggeredDuringVictimProtection) {
+            secondsStuck = 0;
+            return Action.NONE;
+        }
+
+        if (victimProtected) {
+            vexTriggeredDuringVictimProtection = true;
+        }
+        return Action.MORPH_TO_VEX;
+    }
+
+    private void setAnchor(double x, double y, double z) {
+        hasAnchor = true;
+        anchorX = x;
+        anchorY = y;
+        anchorZ = z;
+    }
+}
@@ -0,0 +1,29 @@
+package me.promptt.itfollows.ai;
+
+/**
+ * Mutable 3D point used as an out-parameter by the geometry kernel. Callers keep one instance
+ * as scratch state and pass it in, so the per-update navigation math does not allocate.
+ */
+public final class Vec3 {
+
+    private double x, y, z;
+
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public double x() {
+        return x;
+    }
+
+    public double y() {
+        return y;
+    }
+
+    public double z() {
+        return z;
+    }
+}
@@ -0,0 +1,40 @@
+package me.promptt.itfollows.ai;
+
+/** A {@link VictimView} frozen at capture time, safe to hand to another thread. */
+public final class VictimSnapshot implements VictimView {
+
+    private double x, y, z;
+    private boolean reachable;
+
+    public VictimSnapshot capture(double x, double y, double z, boolean reachable) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.reachable = reachable;
+        return this;
+    }
+
+    public VictimSnapshot capture(VictimView view) {
+        return capture(view.x(), view.y(), view.z(), view.isReachable());
+    }
+
+    @Override
+    public double x() {
+        return x;
+    }
+
+    @Override
+    public double y() {
+        return y;
+    }
+
+    @Override
+    public double z() {
+        return z;
+    }
+
+    @Override
+    public boolean isReachable() {
+        return reachable;
+    }
+}
@@ -0,0 +1,14 @@
+package me.promptt.itfollows.ai;
+
+/** The cursed player as seen by the decision core. */
+public interface VictimView {
+
+    double x();
+
+    double y();
+
+    double z();
+
+    /** @return true if the victim is online and in the same world as the stalker */
+    boolean isReachable();
+}
@@ -0,0 +1,21 @@
+package me.promptt.itfollows.api;
+
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Snapshot of the curse session at the time of the query.
+ *
+ * @param holderOnline                false while the holder is logged out (the curse waits, then moves on)
+ * @param stalker                     the stalker entity, null while it is not spawned
+ * @param shadow                      the stalker is far away and only tracked as a virtual position
+ * @param fearHold                    the holder is inside a fear radius and the stalker waits at its edge
+ * @param transferCooldownRemainingMs how long until the holder can pass the curse on by hitting someone
+ */
+public record CurseSession(@NotNull UUID holderId, @NotNull String holderName, boolean holderOnline,
+                           @Nullable Entity stalker, boolean shadow, boolean fearHold,
+                           long transferCooldownRemainingMs) {
+}
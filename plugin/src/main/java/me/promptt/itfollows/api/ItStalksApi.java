@@ -0,0 +1,46 @@
+package me.promptt.itfollows.api;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * ItStalksApi
+ *
+ * Entry point for other plugins. Registered with Bukkit's services manager while ItStalks is
+ * enabled; get it with {@link #get()} (add {@code softdepend: [ItStalks]} to your plugin.yml).
+ *
+ * All methods must be called from the main thread. To react to what the stalker does, listen to
+ * the events in {@link me.promptt.itfollows.api.event}.
+ */
+public interface ItStalksApi {
+
+    /** @return the API, or null if ItStalks is not enabled */
+    static @Nullable ItStalksApi get() {
+        return Bukkit.getServicesManager().load(ItStalksApi.class);
+    }
+
+    /** @return the current curse session, empty while nobody is cursed */
+    @NotNull Optional<CurseSession> getSession();
+
+    /** @return true if the player currently holds the curse */
+    boolean isCursed(@NotNull UUID player);
+
+    /** @return true if the entity is the active stalker */
+    boolean isStalker(@NotNull Entity entity);
+
+    /**
+     * Gives the curse to a player, like {@code /startcurse}. Fires a
+     * {@link me.promptt.itfollows.api.event.CurseTransferEvent} with cause {@code API} first.
+     *
+     * @param caller recorded as the initiator in the curse journal
+     * @return false if a listener cancelled the transfer
+     */
+    boolean transferCurse(@NotNull Player target, @NotNull Plugin caller);
+}
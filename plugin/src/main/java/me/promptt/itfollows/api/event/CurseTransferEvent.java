@@ -0,0 +1,83 @@
+package me.promptt.itfollows.api.event;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Fired before the curse moves to another player. Cancelling keeps the current holder (or, for an
+ * automatic pick, leaves the curse unassigned until the next attempt).
+ */
+public final class CurseTransferEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public enum Cause {
+        /** The holder hit another player. */
+        HIT,
+        /** An admin ran /startcurse. */
+        COMMAND,
+        /** Another plugin called {@link me.promptt.itfollows.api.ItStalksApi#transferCurse}. */
+        API,
+        /** Nobody was cursed and a player was picked automatically. */
+        AUTO,
+        /** The holder stayed offline too long. */
+        LOGOUT_RETARGET,
+        /** The holder arrived from another server with the curse. */
+        HANDOFF
+    }
+
+    private final UUID previousHolderId;
+    private final Player newHolder;
+    private final Cause cause;
+    private boolean cancelled;
+
+    public CurseTransferEvent(@Nullable UUID previousHolderId, @NotNull Player newHolder, @NotNull Cause cause) {
+        this.previousHolderId = previousHolderId;
+        this.newHolder = newHolder;
+        this.cause = cause;
+    }
+
+    /** @return the holder before the transfer, null if nobody was cursed */
+    public @Nullable UUID getPreviousHolderId() {
+        return previousHolderId;
+    }
+
+    /** @return the previous holder if they are online on this server */
+    public @Nullable Player getPreviousHolder() {
+        return (previousHolderId != null) ? Bukkit.getPlayer(previousHolderId) : null;
+    }
+
+    public @NotNull Player getNewHolder() {
+        return newHolder;
+    }
+
+    public @NotNull Cause getCause() {
+        return cause;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,60 @@
+package me.promptt.itfollows.api.event;
+
+import me.promptt.itfollows.ai.FearType;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fired when the cursed player enters the radius of a feared block: from now on the stalker waits
+ * at the edge of that radius instead of attacking. Ends with {@link FearHoldStopEvent}.
+ */
+public final class FearHoldStartEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player victim;
+    private final Entity stalker;
+    private final Block fearBlock;
+    private final FearType fearType;
+
+    public FearHoldStartEvent(@NotNull Player victim, @Nullable Entity stalker, @NotNull Block fearBlock, @NotNull FearType fearType) {
+        this.victim = victim;
+        this.stalker = stalker;
+        this.fearBlock = fearBlock;
+        this.fearType = fearType;
+    }
+
+    public @NotNull Player getVictim() {
+        return victim;
+    }
+
+    public @Nullable Entity getStalker() {
+        return stalker;
+    }
+
+    /**
+     * @return the feared block protecting the victim; for a mobile source (a player holding a soul
+     *         light, a blaze, a burning mob) the block it stood in when the hold started
+     */
+    public @NotNull Block getFearBlock() {
+        return fearBlock;
+    }
+
+    public @NotNull FearType getFearType() {
+        return fearType;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
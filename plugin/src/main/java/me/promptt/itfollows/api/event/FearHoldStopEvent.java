@@ -0,0 +1,43 @@
+package me.promptt.itfollows.api.event;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Fired when a fear hold ends: the victim left the radius, the feared block is gone, or the
+ * session moved on (logout, curse transfer, creative mode).
+ */
+public final class FearHoldStopEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID victimId;
+
+    public FearHoldStopEvent(@NotNull UUID victimId) {
+        this.victimId = victimId;
+    }
+
+    public @NotNull UUID getVictimId() {
+        return victimId;
+    }
+
+    /** @return the victim if they are still online */
+    public @Nullable Player getVictim() {
+        return Bukkit.getPlayer(victimId);
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,46 @@
+package me.promptt.itfollows.api.event;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/** Fired after the stalker changed form; the old entity is already removed. */
+public final class StalkerMorphEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final EntityType fromType;
+    private final Entity stalker;
+    private final Player target;
+
+    public StalkerMorphEvent(@NotNull EntityType fromType, @NotNull Entity stalker, @NotNull Player target) {
+        this.fromType = fromType;
+        this.stalker = stalker;
+        this.target = target;
+    }
+
+    public @NotNull EntityType getFromType() {
+        return fromType;
+    }
+
+    /** @return the new stalker entity */
+    public @NotNull Entity getStalker() {
+        return stalker;
+    }
+
+    public @NotNull Player getTarget() {
+        return target;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,38 @@
+package me.promptt.itfollows.api.event;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/** Fired after the stalker entity was spawned for its target (morphs fire {@link StalkerMorphEvent} instead). */
+public final class StalkerSpawnEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Entity stalker;
+    private final Player target;
+
+    public StalkerSpawnEvent(@NotNull Entity stalker, @NotNull Player target) {
+        this.stalker = stalker;
+        this.target = target;
+    }
+
+    public @NotNull Entity getStalker() {
+        return stalker;
+    }
+
+    public @NotNull Player getTarget() {
+        return target;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,324 @@
+package me.promptt.itfollows.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * CurseJournal
+ *
+ * Append-only binary log of curse events (transfers, admin starts, auto-curses, logout retargets,
+ * stalker deaths), for answering "who had it last night".
+ *
+ * All file work happens on one background thread: the main thread only enqueues events
+ * ({@link #append}), and queries are queued on the same thread so they always see every event
+ * enqueued before them. The log is split into segments ({@link JournalSegment}) that are rolled by
+ * size and age and indexed per player and by time, so a history query reads only the records it
+ * returns plus at most one sparse-index stride per overlapping segment.
+ *
+ * The thread and the existing segments are only touched once the first event or query comes in,
+ * so an idle journal costs nothing. Old segments beyond the retention count are deleted when the
+ * journal is loaded and whenever a segment is rolled.
+ */
+public final class CurseJournal {
+
+    private final Path dir;
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    // Journal thread only
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private JournalSegment active;
+    private long activeOpenedMs;
+    private DataOutputStream out;
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private final Map<String, UUID> playersByName = new HashMap<>();
+    private long lastEventMs = Long.MIN_VALUE;
+    private boolean loaded;
+
+    private volatile long maxSegmentBytes = 1024L * 1024L;
+    private volatile long maxSegmentAgeMs = 24L * 60L * 60L * 1000L;
+    private volatile int retainSegments = 90;
+
+    private CurseJournal(Path dir, Logger logger) {
+        this.dir = dir;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ItStalks-Journal");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens (or creates) the journal in {@code dir}. Existing segments are indexed in the background
+     * when the first event or query arrives.
+     */
+    public static CurseJournal open(Path dir, Logger logger) {
+        return new CurseJournal(dir, logger);
+    }
+
+    /**
+     * @param maxSegmentBytes roll the active segment once it reaches this size
+     * @param maxSegmentAgeMs roll the active segment once it is this old
+     * @param retainSegments  keep at most this many sealed segments (0 = keep all)
+     */
+    public void setRolling(long maxSegmentBytes, long maxSegmentAgeMs, int retainSegments) {
+        this.maxSegmentBytes = Math.max(4096L, maxSegmentBytes);
+        this.maxSegmentAgeMs = Math.max(60_000L, maxSegmentAgeMs);
+        this.retainSegments = Math.max(0, retainSegments);
+    }
+
+    /** Queues an event for writing. Never blocks; events after {@link #close} are dropped. */
+    public void append(JournalEvent event) {
+        submit(() -> write(event));
+    }
+
+    /** The player's most recent events (as sender or receiver), newest first. */
+    public CompletableFuture<List<JournalEvent>> lastForPlayer(String playerName, int limit) {
+        return query(() -> readLastForPlayer(playerName, limit));
+    }
+
+    /** Events with {@code fromMs <= time <= toMs}, oldest first, at most {@code limit}. */
+    public CompletableFuture<List<JournalEvent>> between(long fromMs, long toMs, int limit) {
+        return query(() -> readBetween(fromMs, toMs, limit));
+    }
+
+    /** Writes out what is queued, seals the active segment and stops the journal thread. */
+    public void close() {
+        try {
+            // Not through submit: a journal that was never loaded has nothing to seal.
+            executor.execute(this::sealActive);
+        } catch (RejectedExecutionException ignored) {
+            // Already closed.
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Curse journal did not finish writing in time; the last segment is re-indexed on next start.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                ensureLoaded();
+                task.run();
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Closed: the plugin is shutting down.
+        }
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        List<JournalEvent> run() throws IOException;
+    }
+
+    private CompletableFuture<List<JournalEvent>> query(Query query) {
+        CompletableFuture<List<JournalEvent>> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                ensureLoaded();
+                try {
+                    result.complete(query.run());
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // --- Writing (journal thread) ---
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        load();
+        pruneOldSegments();
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(dir);
+            List<Long> ids = new ArrayList<>();
+            try (Stream<Path> files = Files.list(dir)) {
+                files.map(p -> p.getFileName().toString())
+                        .filter(n -> n.startsWith("segment-") && n.endsWith(JournalSegment.LOG_EXTENSION))
+                        .forEach(n -> {
+                            try {
+                                ids.add(Long.parseLong(n.substring("segment-".length(), n.length() - JournalSegment.LOG_EXTENSION.length())));
+                            } catch (NumberFormatException ignored) {
+                                // Not one of ours
+                            }
+                        });
+            }
+            Collections.sort(ids);
+            for (long id : ids) {
+                try {
+                    JournalSegment segment = JournalSegment.load(id, dir);
+                    segments.add(segment);
+                    rememberNames(segment);
+                    if (segment.count > 0) lastEventMs = Math.max(lastEventMs, segment.lastMs);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Skipping unreadable curse journal segment " + id, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not open the curse journal in " + dir, e);
+        }
+    }
+
+    private void write(JournalEvent event) {
+        // Keep records in time order even if the wall clock steps back (the time index relies on it).
+        if (event.timeMs() < lastEventMs) event = event.withTime(lastEventMs);
+        lastEventMs = event.timeMs();
+
+        try {
+            if (active == null || active.size >= maxSegmentBytes || event.timeMs() - activeOpenedMs >= maxSegmentAgeMs) {
+                roll(event.timeMs());
+            }
+            scratch.reset();
+            event.writeTo(scratchOut);
+
+            long offset = active.size;
+            out.writeInt(scratch.size());
+            scratch.writeTo(out);
+            out.flush();
+            active.add(event, offset, Integer.BYTES + scratch.size());
+
+            if (event.from() != null && !event.fromName().isEmpty()) playersByName.put(event.fromName().toLowerCase(Locale.ROOT), event.from());
+            if (event.to() != null && !event.toName().isEmpty()) playersByName.put(event.toName().toLowerCase(Locale.ROOT), event.to());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write to the curse journal", e);
+        }
+    }
+
+    private void roll(long nowMs) throws IOException {
+        sealActive();
+        Files.createDirectories(dir);
+
+        long id = segments.isEmpty() ? 1L : segments.get(segments.size() - 1).id + 1L;
+        JournalSegment segment = new JournalSegment(id, dir);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment.log,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+        out.writeInt(JournalSegment.LOG_MAGIC);
+        out.writeInt(JournalSegment.VERSION);
+        out.flush();
+
+        segments.add(segment);
+        active = segment;
+        activeOpenedMs = nowMs;
+        pruneOldSegments();
+    }
+
+    /** Closes the active segment's log and writes its index. */
+    private void sealActive() {
+        if (active == null) return;
+        try {
+            out.close();
+            active.writeIndex();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not seal curse journal segment " + active.id, e);
+        }
+        out = null;
+        active = null;
+    }
+
+    private void pruneOldSegments() {
+        int retain = retainSegments;
+        if (retain == 0) return;
+        // The active segment (the newest one while writing) is not counted.
+        while (segments.size() - 1 > retain) {
+            JournalSegment oldest = segments.remove(0);
+            try {
+                Files.deleteIfExists(oldest.log);
+                Files.deleteIfExists(oldest.index);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not delete old curse journal segment " + oldest.id, e);
+            }
+        }
+    }
+
+    private void rememberNames(JournalSegment segment) {
+        for (Map.Entry<UUID, JournalSegment.Offsets> e : segment.players.entrySet()) {
+            String name = e.getValue().name;
+            if (name != null) playersByName.put(name.toLowerCase(Locale.ROOT), e.getKey());
+        }
+    }
+
+    // --- Queries (journal thread) ---
+
+    private List<JournalEvent> readLastForPlayer(String playerName, int limit) throws IOException {
+        List<JournalEvent> events = new ArrayList<>();
+        UUID player = playersByName.get(playerName.toLowerCase(Locale.ROOT));
+        if (player == null) return events;
+
+        for (int s = segments.size() - 1; s >= 0 && events.size() < limit; s--) {
+            JournalSegment segment = segments.get(s);
+            JournalSegment.Offsets offsets = segment.players.get(player);
+            if (offsets == null) continue;
+            try (RandomAccessFile file = new RandomAccessFile(segment.log.toFile(), "r")) {
+                for (int i = offsets.count - 1; i >= 0 && events.size() < limit; i--) {
+                    events.add(JournalSegment.read(file, offsets.values[i]));
+                }
+            }
+        }
+        return events;
+    }
+
+    private List<JournalEvent> readBetween(long fromMs, long toMs, int limit) throws IOException {
+        List<JournalEvent> events = new ArrayList<>();
+        for (JournalSegment segment : segments) {
+            if (events.size() >= limit) break;
+            if (!segment.overlaps(fromMs, toMs)) continue;
+
+            long offset = segment.seek(fromMs);
+            try (DataInputStream in = segment.openAt(offset)) {
+                while (offset < segment.size && events.size() < limit) {
+                    int length = in.readInt();
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    offset += Integer.BYTES + length;
+
+                    JournalEvent event = JournalEvent.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+                    if (event.timeMs() > toMs) break;
+                    if (event.timeMs() >= fromMs) events.add(event);
+                }
+            } catch (EOFException e) {
+                // Index says more than the file holds (a crash mid-write); stop at what is there.
+            }
+        }
+        return events;
+    }
+}
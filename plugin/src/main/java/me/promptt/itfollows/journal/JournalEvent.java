@@ -0,0 +1,94 @@
+package me.promptt.itfollows.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * One entry of the curse journal: who lost and who got the curse, and why.
+ *
+ * @param from     previous holder or the player responsible (the attacker, the stalker's killer), may be null
+ * @param to       the player who holds the curse afterwards (or was being hunted), may be null
+ * @param detail   free-form context (admin name, stalker type), never null
+ */
+public record JournalEvent(long timeMs, Type type, UUID from, String fromName, UUID to, String toName, String detail) {
+
+    public enum Type {
+        /** The cursed player hit someone and passed the curse on. */
+        TRANSFER(1),
+        /** An admin started the curse with /startcurse. */
+        ADMIN_START(2),
+        /** Nobody was cursed and a player was picked automatically. */
+        AUTO_CURSE(3),
+        /** The cursed player stayed offline too long and the curse moved on. */
+        LOGOUT_RETARGET(4),
+        /** The stalker was killed. */
+        STALKER_DEATH(5),
+        /** The cursed player switched servers and took the curse along (detail = the other server). */
+        HANDOFF(6);
+
+        /** Stable on-disk code (never reuse or renumber). */
+        final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type ofCode(int code) throws IOException {
+            for (Type type : values()) {
+                if (type.code == code) return type;
+            }
+            throw new IOException("Unknown journal event type " + code);
+        }
+    }
+
+    public JournalEvent {
+        fromName = (fromName != null) ? fromName : "";
+        toName = (toName != null) ? toName : "";
+        detail = (detail != null) ? detail : "";
+    }
+
+    /** @return true if the player is either side of the event */
+    public boolean involves(UUID player) {
+        return player.equals(from) || player.equals(to);
+    }
+
+    JournalEvent withTime(long timeMs) {
+        return new JournalEvent(timeMs, type, from, fromName, to, toName, detail);
+    }
+
+    // --- Binary Form ---
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(timeMs);
+        out.writeByte(type.code);
+        writeUuid(out, from);
+        out.writeUTF(fromName);
+        writeUuid(out, to);
+        out.writeUTF(toName);
+        out.writeUTF(detail);
+    }
+
+    static JournalEvent readFrom(DataInput in) throws IOException {
+        long timeMs = in.readLong();
+        Type type = Type.ofCode(in.readUnsignedByte());
+        UUID from = readUuid(in);
+        String fromName = in.readUTF();
+        UUID to = readUuid(in);
+        String toName = in.readUTF();
+        String detail = in.readUTF();
+        return new JournalEvent(timeMs, type, from, fromName, to, toName, detail);
+    }
+
+    private static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id != null ? id.getMostSignificantBits() : 0L);
+        out.writeLong(id != null ? id.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        long msb = in.readLong();
+        long lsb = in.readLong();
+        return (msb == 0L && lsb == 0L) ? null : new UUID(msb, lsb);
+    }
+}
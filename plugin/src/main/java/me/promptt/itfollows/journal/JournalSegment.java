@@ -0,0 +1,268 @@
+package me.promptt.itfollows.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JournalSegment
+ *
+ * One log file of the curse journal plus its in-memory index:
+ *  - the time range it covers, so time queries skip whole segments,
+ *  - a sparse time index (every {@link #SPARSE_EVERY}th record), so a time query seeks close to
+ *    its start instead of reading the segment from the beginning,
+ *  - per-player record offsets, so "last N events of X" reads exactly N records.
+ *
+ * Log layout: {@link #LOG_MAGIC}, {@link #VERSION}, then records as {@code int length + payload}
+ * ({@link JournalEvent#writeTo}). The index is written next to the log when the segment is sealed
+ * and rebuilt from the log if it is missing or stale (e.g. after a crash).
+ */
+final class JournalSegment {
+
+    static final int LOG_MAGIC = 0x4953434A; // "ISCJ"
+    static final int INDEX_MAGIC = 0x49534358; // "ISCX"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    static final String LOG_EXTENSION = ".log";
+    static final String INDEX_EXTENSION = ".idx";
+
+    /** One sparse time index entry per this many records. */
+    static final int SPARSE_EVERY = 64;
+
+    /** Records larger than this are treated as corruption when scanning. */
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    /** Record offsets of one player, in append order. */
+    static final class Offsets {
+        String name;
+        long[] values = new long[4];
+        int count;
+
+        void add(long offset) {
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count++] = offset;
+        }
+    }
+
+    final long id;
+    final Path log;
+    final Path index;
+
+    long size = HEADER_BYTES;
+    long firstMs = Long.MAX_VALUE;
+    long lastMs = Long.MIN_VALUE;
+    int count;
+
+    private long[] sparseMs = new long[8];
+    private long[] sparseOffset = new long[8];
+    private int sparseCount;
+
+    final Map<UUID, Offsets> players = new HashMap<>();
+
+    JournalSegment(long id, Path dir) {
+        this.id = id;
+        String base = String.format("segment-%016d", id);
+        this.log = dir.resolve(base + LOG_EXTENSION);
+        this.index = dir.resolve(base + INDEX_EXTENSION);
+    }
+
+    /** Indexes a record that was just appended at {@code offset}. */
+    void add(JournalEvent event, long offset, int bytes) {
+        if (count % SPARSE_EVERY == 0) {
+            if (sparseCount == sparseMs.length) {
+                sparseMs = Arrays.copyOf(sparseMs, sparseCount * 2);
+                sparseOffset = Arrays.copyOf(sparseOffset, sparseCount * 2);
+            }
+            sparseMs[sparseCount] = event.timeMs();
+            sparseOffset[sparseCount] = offset;
+            sparseCount++;
+        }
+        count++;
+        firstMs = Math.min(firstMs, event.timeMs());
+        lastMs = Math.max(lastMs, event.timeMs());
+        size = offset + bytes;
+
+        if (event.from() != null) player(event.from(), event.fromName()).add(offset);
+        if (event.to() != null && !event.to().equals(event.from())) player(event.to(), event.toName()).add(offset);
+    }
+
+    private Offsets player(UUID id, String name) {
+        Offsets offsets = players.computeIfAbsent(id, k -> new Offsets());
+        if (!name.isEmpty()) offsets.name = name;
+        return offsets;
+    }
+
+    boolean overlaps(long fromMs, long toMs) {
+        return count > 0 && firstMs <= toMs && lastMs >= fromMs;
+    }
+
+    /** @return the offset of the last sparse entry at or before {@code fromMs} (records are in time order) */
+    long seek(long fromMs) {
+        int lo = 0, hi = sparseCount - 1, found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sparseMs[mid] <= fromMs) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return (sparseCount == 0) ? HEADER_BYTES : sparseOffset[found];
+    }
+
+    // --- Reading ---
+
+    /** Reads one record at a known offset. */
+    static JournalEvent read(RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        int length = file.readInt();
+        if (length <= 0 || length > MAX_RECORD_BYTES) throw new IOException("Corrupt journal record at " + offset);
+        byte[] payload = new byte[length];
+        file.readFully(payload);
+        return JournalEvent.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    /** Opens a sequential reader positioned at {@code offset} (the caller closes it). */
+    DataInputStream openAt(long offset) throws IOException {
+        FileChannel channel = FileChannel.open(log, StandardOpenOption.READ);
+        channel.position(offset);
+        InputStream in = Channels.newInputStream(channel);
+        return new DataInputStream(new BufferedInputStream(in));
+    }
+
+    // --- Index File ---
+
+    void writeIndex() throws IOException {
+        Path tmp = index.resolveSibling(index.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(size);
+            out.writeLong(firstMs);
+            out.writeLong(lastMs);
+            out.writeInt(count);
+
+            out.writeInt(sparseCount);
+            for (int i = 0; i < sparseCount; i++) {
+                out.writeLong(sparseMs[i]);
+                out.writeLong(sparseOffset[i]);
+            }
+
+            out.writeInt(players.size());
+            for (Map.Entry<UUID, Offsets> e : players.entrySet()) {
+                Offsets offsets = e.getValue();
+                out.writeLong(e.getKey().getMostSignificantBits());
+                out.writeLong(e.getKey().getLeastSignificantBits());
+                out.writeUTF(offsets.name != null ? offsets.name : "");
+                out.writeInt(offsets.count);
+                for (int i = 0; i < offsets.count; i++) out.writeLong(offsets.values[i]);
+            }
+        }
+        Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads a sealed segment: from its index if that matches the log, otherwise by scanning the log
+     * (truncating a torn last record) and writing a fresh index.
+     */
+    static JournalSegment load(long id, Path dir) throws IOException {
+        JournalSegment segment = new JournalSegment(id, dir);
+        long logSize = Files.size(segment.log);
+        if (Files.exists(segment.index) && segment.readIndex(logSize)) return segment;
+
+        segment.rebuild(logSize);
+        segment.writeIndex();
+        return segment;
+    }
+
+    private boolean readIndex(long logSize) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != VERSION) return false;
+            size = in.readLong();
+            if (size != logSize) return false;
+            firstMs = in.readLong();
+            lastMs = in.readLong();
+            count = in.readInt();
+
+            sparseCount = in.readInt();
+            sparseMs = new long[Math.max(1, sparseCount)];
+            sparseOffset = new long[Math.max(1, sparseCount)];
+            for (int i = 0; i < sparseCount; i++) {
+                sparseMs[i] = in.readLong();
+                sparseOffset[i] = in.readLong();
+            }
+
+            int playerCount = in.readInt();
+            for (int p = 0; p < playerCount; p++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                Offsets offsets = new Offsets();
+                String name = in.readUTF();
+                offsets.name = name.isEmpty() ? null : name;
+                offsets.count = in.readInt();
+                offsets.values = new long[Math.max(1, offsets.count)];
+                for (int i = 0; i < offsets.count; i++) offsets.values[i] = in.readLong();
+                players.put(id, offsets);
+            }
+            return true;
+        } catch (IOException e) {
+            // Unreadable index: fall back to a rebuild from the log.
+            players.clear();
+            sparseCount = 0;
+            count = 0;
+            firstMs = Long.MAX_VALUE;
+            lastMs = Long.MIN_VALUE;
+            return false;
+        }
+    }
+
+    private void rebuild(long logSize) throws IOException {
+        long good = HEADER_BYTES;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+            if (in.readInt() != LOG_MAGIC || in.readInt() != VERSION) throw new IOException("Not a curse journal segment: " + log);
+            long offset = HEADER_BYTES;
+            while (offset < logSize) {
+                int length;
+                JournalEvent event;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES || offset + Integer.BYTES + length > logSize) break;
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    event = JournalEvent.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+                } catch (EOFException e) {
+                    break;
+                } catch (IOException e) {
+                    // Garbage after the last good record (torn write): keep everything before it.
+                    break;
+                }
+                add(event, offset, Integer.BYTES + length);
+                offset += Integer.BYTES + length;
+                good = offset;
+            }
+        }
+        if (good < logSize) {
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                channel.truncate(good);
+            }
+        }
+        size = good;
+    }
+}
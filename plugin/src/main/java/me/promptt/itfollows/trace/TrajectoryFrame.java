@@ -0,0 +1,204 @@
+package me.promptt.itfollows.trace;
+
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearType;
+import me.promptt.itfollows.ai.PursuitBrain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TrajectoryFrame
+ *
+ * One AI update of a curse session: the decision inputs (stalker/victim state, fear hits) and
+ * what the brain decided (outcome, orbit state, issued move target).
+ *
+ * Mutable and meant to be reused: the recorder fills one instance per update and encodes it into
+ * a fixed {@link #BYTES}-wide slot with absolute buffer puts, so recording does not allocate.
+ */
+public final class TrajectoryFrame {
+
+    /** Encoded size of one frame. */
+    public static final int BYTES = 160;
+
+    private static final FearType[] FEAR_TYPES = FearType.values();
+    private static final PursuitBrain.Outcome[] OUTCOMES = PursuitBrain.Outcome.values();
+
+    // Flag bits
+    private static final int CAN_FLY = 1;
+    private static final int HAS_AI = 1 << 1;
+    private static final int VICTIM_REACHABLE = 1 << 2;
+    private static final int VEX_MODE = 1 << 3;
+    private static final int ORBITING = 1 << 4;
+    private static final int HAS_WAYPOINT = 1 << 5;
+    private static final int MOVED = 1 << 6;
+
+    // --- Inputs ---
+
+    /** Server tick of the update. */
+    public long tick;
+    /** Clock value passed to the brain. */
+    public long timeMs;
+
+    public double stalkerX, stalkerY, stalkerZ;
+    public float stalkerVelX, stalkerVelY, stalkerVelZ;
+    /** Caller-defined form id (the plugin stores the entity type ordinal). */
+    public int form;
+    public boolean canFly;
+    public boolean hasAI;
+    public boolean vexMode;
+
+    public double victimX, victimY, victimZ;
+    public boolean victimReachable;
+
+    /** Fear source protecting the victim; {@code null} type means none. */
+    public FearType protectionType;
+    public int protectionX, protectionY, protectionZ;
+
+    /** Nearest fear source around the stalker; {@code null} type means none. */
+    public FearType fearType;
+    public int fearX, fearY, fearZ;
+
+    // --- Decision ---
+
+    public PursuitBrain.Outcome outcome;
+    public boolean orbiting;
+    public int orbitDir;
+    public boolean hasWaypoint;
+    public double waypointX, waypointY, waypointZ;
+
+    /** True if the update issued a path request; the target is in {@code moveX/Y/Z}. */
+    public boolean moved;
+    public double moveX, moveY, moveZ;
+
+    // --- Convenience ---
+
+    public void setProtection(FearHit hit) {
+        protectionType = (hit != null) ? hit.type() : null;
+        if (hit != null) {
+            protectionX = hit.blockX();
+            protectionY = hit.blockY();
+            protectionZ = hit.blockZ();
+        }
+    }
+
+    public void setFear(FearHit hit) {
+        fearType = (hit != null) ? hit.type() : null;
+        if (hit != null) {
+            fearX = hit.blockX();
+            fearY = hit.blockY();
+            fearZ = hit.blockZ();
+        }
+    }
+
+    /** @return the protection source as a hit (allocates; meant for offline replay) */
+    public FearHit protection() {
+        return (protectionType == null) ? null : new FearHit(protectionType, protectionX, protectionY, protectionZ);
+    }
+
+    /** @return the stalker's fear source as a hit (allocates; meant for offline replay) */
+    public FearHit fear() {
+        return (fearType == null) ? null : new FearHit(fearType, fearX, fearY, fearZ);
+    }
+
+    /** Copies the brain's orbit state after an update. */
+    public void setDecision(PursuitBrain.Outcome outcome, PursuitBrain brain) {
+        this.outcome = outcome;
+        this.orbiting = brain.isOrbiting();
+        this.orbitDir = brain.getOrbitDir();
+        this.hasWaypoint = brain.hasWaypoint();
+        this.waypointX = brain.getWaypointX();
+        this.waypointY = brain.getWaypointY();
+        this.waypointZ = brain.getWaypointZ();
+    }
+
+    // --- Encoding ---
+
+    void writeTo(ByteBuffer buf, int at) {
+        buf.putLong(at, tick);
+        buf.putLong(at + 8, timeMs);
+        buf.putDouble(at + 16, stalkerX);
+        buf.putDouble(at + 24, stalkerY);
+        buf.putDouble(at + 32, stalkerZ);
+        buf.putFloat(at + 40, stalkerVelX);
+        buf.putFloat(at + 44, stalkerVelY);
+        buf.putFloat(at + 48, stalkerVelZ);
+        buf.putInt(at + 52, form);
+        buf.putDouble(at + 56, victimX);
+        buf.putDouble(at + 64, victimY);
+        buf.putDouble(at + 72, victimZ);
+
+        int flags = 0;
+        if (canFly) flags |= CAN_FLY;
+        if (hasAI) flags |= HAS_AI;
+        if (victimReachable) flags |= VICTIM_REACHABLE;
+        if (vexMode) flags |= VEX_MODE;
+        if (orbiting) flags |= ORBITING;
+        if (hasWaypoint) flags |= HAS_WAYPOINT;
+        if (moved) flags |= MOVED;
+        buf.put(at + 80, (byte) flags);
+        buf.put(at + 81, (byte) (outcome == null ? -1 : outcome.ordinal()));
+        buf.put(at + 82, (byte) orbitDir);
+        buf.put(at + 83, (byte) (protectionType == null ? -1 : protectionType.ordinal()));
+        buf.put(at + 84, (byte) (fearType == null ? -1 : fearType.ordinal()));
+
+        buf.putInt(at + 88, protectionX);
+        buf.putInt(at + 92, protectionY);
+        buf.putInt(at + 96, protectionZ);
+        buf.putInt(at + 100, fearX);
+        buf.putInt(at + 104, fearY);
+        buf.putInt(at + 108, fearZ);
+        buf.putDouble(at + 112, waypointX);
+        buf.putDouble(at + 120, waypointY);
+        buf.putDouble(at + 128, waypointZ);
+        buf.putDouble(at + 136, moveX);
+        buf.putDouble(at + 144, moveY);
+        buf.putDouble(at + 152, moveZ);
+    }
+
+    void readFrom(ByteBuffer buf, int at) {
+        tick = buf.getLong(at);
+        timeMs = buf.getLong(at + 8);
+        stalkerX = buf.getDouble(at + 16);
+        stalkerY = buf.getDouble(at + 24);
+        stalkerZ = buf.getDouble(at + 32);
+        stalkerVelX = buf.getFloat(at + 40);
+        stalkerVelY = buf.getFloat(at + 44);
+        stalkerVelZ = buf.getFloat(at + 48);
+        form = buf.getInt(at + 52);
+        victimX = buf.getDouble(at + 56);
+        victimY = buf.getDouble(at + 64);
+        victimZ = buf.getDouble(at + 72);
+
+        int flags = buf.get(at + 80);
+        canFly = (flags & CAN_FLY) != 0;
+        hasAI = (flags & HAS_AI) != 0;
+        victimReachable = (flags & VICTIM_REACHABLE) != 0;
+        vexMode = (flags & VEX_MODE) != 0;
+        orbiting = (flags & ORBITING) != 0;
+        hasWaypoint = (flags & HAS_WAYPOINT) != 0;
+        moved = (flags & MOVED) != 0;
+
+        int o = buf.get(at + 81);
+        outcome = (o >= 0 && o < OUTCOMES.length) ? OUTCOMES[o] : null;
+        orbitDir = buf.get(at + 82);
+        protectionType = fearTypeOf(buf.get(at + 83));
+        fearType = fearTypeOf(buf.get(at + 84));
+
+        protectionX = buf.getInt(at + 88);
+        protectionY = buf.getInt(at + 92);
+        protectionZ = buf.getInt(at + 96);
+        fearX = buf.getInt(at + 100);
+        fearY = buf.getInt(at + 104);
+        fearZ = buf.getInt(at + 108);
+        waypointX = buf.getDouble(at + 112);
+        waypointY = buf.getDouble(at + 120);
+        waypointZ = buf.getDouble(at + 128);
+        moveX = buf.getDouble(at + 136);
+        moveY = buf.getDouble(at + 144);
+        moveZ = buf.getDouble(at + 152);
+    }
+
+    private static FearType fearTypeOf(int ordinal) {
+        return (ordinal >= 0 && ordinal < FEAR_TYPES.length) ? FEAR_TYPES[ordinal] : null;
+    }
+}
@@ -0,0 +1,100 @@
+package me.promptt.itfollows.trace;
+
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static me.promptt.itfollows.trace.TrajectoryRecorder.*;
+
+/**
+ * TrajectoryReader
+ *
+ * Read-only view of a ring file written by {@link TrajectoryRecorder}. Frames are addressed in
+ * chronological order: index 0 is the oldest frame still in the ring.
+ */
+public final class TrajectoryReader {
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long framesWritten;
+
+    private TrajectoryReader(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(H_CAPACITY);
+        this.framesWritten = buffer.getLong(H_FRAMES_WRITTEN);
+    }
+
+    public static TrajectoryReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) throw new IOException("Not a trajectory file: " + file);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(H_MAGIC) != MAGIC) throw new IOException("Not a trajectory file: " + file);
+            if (buffer.getInt(H_VERSION) != VERSION) {
+                throw new IOException("Unsupported trajectory version " + buffer.getInt(H_VERSION) + ": " + file);
+            }
+            if (buffer.getInt(H_FRAME_BYTES) != TrajectoryFrame.BYTES) {
+                throw new IOException("Unexpected frame size " + buffer.getInt(H_FRAME_BYTES) + ": " + file);
+            }
+
+            long expected = HEADER_BYTES + (long) buffer.getInt(H_CAPACITY) * TrajectoryFrame.BYTES;
+            if (channel.size() < expected) throw new IOException("Truncated trajectory file: " + file);
+            return new TrajectoryReader(buffer);
+        }
+    }
+
+    /** Number of frames available (at most the ring capacity). */
+    public int frameCount() {
+        return (int) Math.min(framesWritten, capacity);
+    }
+
+    /** Total frames ever written, including overwritten ones. */
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    public long startedMs() {
+        return buffer.getLong(H_STARTED_MS);
+    }
+
+    public String label() {
+        byte[] bytes = new byte[Math.min(buffer.getInt(H_LABEL_LENGTH), MAX_LABEL_BYTES)];
+        buffer.get(H_LABEL, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public double perimeterBuffer() {
+        return buffer.getDouble(H_PERIMETER_BUFFER);
+    }
+
+    public double stepDistance() {
+        return buffer.getDouble(H_STEP_DISTANCE);
+    }
+
+    /** @return a scanner carrying the fear radii that were in effect while recording */
+    public FearScanner scanner() {
+        FearScanner scanner = new FearScanner();
+        FearType[] types = FearType.values();
+        int count = Math.min(buffer.getInt(H_FEAR_TYPES), Math.min(types.length, MAX_FEAR_TYPES));
+        for (int i = 0; i < count; i++) {
+            scanner.setRadius(types[i], buffer.getDouble(H_RADII + i * 8));
+        }
+        return scanner;
+    }
+
+    /** Decodes the {@code index}-th oldest frame into {@code out}. */
+    public void read(int index, TrajectoryFrame out) {
+        if (index < 0 || index >= frameCount()) {
+            throw new IndexOutOfBoundsException("frame " + index + " of " + frameCount());
+        }
+        long oldest = framesWritten - frameCount();
+        int slot = (int) ((oldest + index) % capacity);
+        out.readFrom(buffer, HEADER_BYTES + slot * TrajectoryFrame.BYTES);
+    }
+}
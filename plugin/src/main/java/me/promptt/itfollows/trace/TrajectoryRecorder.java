@@ -0,0 +1,162 @@
+package me.promptt.itfollows.trace;
+
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * TrajectoryRecorder
+ *
+ * Writes {@link TrajectoryFrame}s into a memory-mapped ring file. The file size is fixed when it
+ * is created ({@link #HEADER_BYTES} + capacity * {@link TrajectoryFrame#BYTES}); once full, the
+ * oldest frames are overwritten. {@link #record} only performs absolute puts into the mapping,
+ * so it neither allocates nor blocks on I/O.
+ *
+ * Not thread-safe: one recorder belongs to one writer thread.
+ */
+public final class TrajectoryRecorder implements AutoCloseable {
+
+    public static final String EXTENSION = ".trj";
+
+    // --- File Header ---
+    static final int MAGIC = 0x4954524A; // "ITRJ"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 256;
+
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_FRAME_BYTES = 8;
+    static final int H_CAPACITY = 12;
+    static final int H_FRAMES_WRITTEN = 16;
+    static final int H_STARTED_MS = 24;
+    static final int H_PERIMETER_BUFFER = 32;
+    static final int H_STEP_DISTANCE = 40;
+    static final int H_FEAR_TYPES = 48;
+    static final int H_RADII = 56;          // up to MAX_FEAR_TYPES doubles
+    static final int MAX_FEAR_TYPES = 8;
+    static final int H_LABEL_LENGTH = 124;
+    static final int H_LABEL = 128;         // UTF-8, up to MAX_LABEL_BYTES
+    static final int MAX_LABEL_BYTES = HEADER_BYTES - H_LABEL;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long framesWritten;
+
+    private TrajectoryRecorder(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates (or truncates) a ring file and writes its header.
+     *
+     * @param capacity       number of frames kept; older frames are overwritten
+     * @param label          free-form session label (e.g. the victim's name), truncated to fit
+     * @param radii          fear radii in effect, stored so a replay can rebuild the brain
+     */
+    public static TrajectoryRecorder create(Path file, int capacity, String label, FearScanner radii,
+                                            double perimeterBuffer, double stepDistance) throws IOException {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+
+        long size = HEADER_BYTES + (long) capacity * TrajectoryFrame.BYTES;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("capacity too large: " + capacity);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_VERSION, VERSION);
+            buffer.putInt(H_FRAME_BYTES, TrajectoryFrame.BYTES);
+            buffer.putInt(H_CAPACITY, capacity);
+            buffer.putLong(H_FRAMES_WRITTEN, 0L);
+            buffer.putLong(H_STARTED_MS, System.currentTimeMillis());
+            buffer.putDouble(H_PERIMETER_BUFFER, perimeterBuffer);
+            buffer.putDouble(H_STEP_DISTANCE, stepDistance);
+
+            FearType[] types = FearType.values();
+            int count = Math.min(types.length, MAX_FEAR_TYPES);
+            buffer.putInt(H_FEAR_TYPES, count);
+            for (int i = 0; i < count; i++) {
+                buffer.putDouble(H_RADII + i * 8, radii.getRadius(types[i]));
+            }
+
+            byte[] labelBytes = (label == null ? "" : label).getBytes(StandardCharsets.UTF_8);
+            int labelLength = Math.min(labelBytes.length, MAX_LABEL_BYTES);
+            buffer.putInt(H_LABEL_LENGTH, labelLength);
+            buffer.put(H_LABEL, labelBytes, 0, labelLength);
+
+            return new TrajectoryRecorder(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Appends a frame, overwriting the oldest one once the ring is full. */
+    public void record(TrajectoryFrame frame) {
+        int slot = (int) (framesWritten % capacity);
+        frame.writeTo(buffer, HEADER_BYTES + slot * TrajectoryFrame.BYTES);
+        framesWritten++;
+        buffer.putLong(H_FRAMES_WRITTEN, framesWritten);
+    }
+
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Flushes the mapping and closes the file. */
+    @Override
+    public void close() throws IOException {
+        try {
+            buffer.force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Deletes the oldest trajectory files in {@code dir} so that at most {@code keep} remain.
+     * Used before creating a new session file to bound disk use.
+     */
+    public static void pruneOldest(Path dir, int keep) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(dir)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).forEach(files::add);
+        }
+        if (files.size() <= keep) return;
+
+        files.sort(Comparator.comparingLong(TrajectoryRecorder::lastModified));
+        for (int i = 0; i < files.size() - Math.max(0, keep); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.FearIndex;
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearLookup;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Differential check of {@link FearIndex} against {@link FearScanner}.
+ *
+ * Random source sets (clustered, mixed types and heights) are loaded into an index and into a plain
+ * block map, then edited with random placements, removals and type changes. After every round,
+ * random points are queried both ways: {@link FearIndex#nearest} must return exactly the block the
+ * scanner finds (for the stalker-side and victim-side extra radius), and {@link FearIndex#sample}
+ * must report the smallest clearance over all sources. Radii change between rounds through
+ * {@link FearIndex#rebuild}.
+ *
+ * <pre>
+ *     java -cp simulator/target/simulator.jar me.promptt.itfollows.sim.FearIndexCheck [--seed 1] [--rounds 200] [--queries 500]
+ * </pre>
+ *
+ * Exits with status 1 on the first mismatches (up to --max-diffs are printed).
+ */
+public final class FearIndexCheck {
+
+    private static final double PERIMETER_BUFFER = 0.75;
+    private static final FearType[] TYPES = FearType.values();
+
+    private FearIndexCheck() {
+    }
+
+    /** The scanner's view of the same sources. */
+    private static final class BlockMap implements FearLookup {
+        final Map<Long, FearType> blocks = new HashMap<>();
+
+        @Override
+        public FearType fearAt(int x, int y, int z) {
+            return blocks.get(FearIndex.blockKey(x, y, z));
+        }
+
+        void set(int x, int y, int z, FearType type) {
+            if (type == null) blocks.remove(FearIndex.blockKey(x, y, z));
+            else blocks.put(FearIndex.blockKey(x, y, z), type);
+        }
+    }
+
+    public static void main(String[] args) {
+        long seed = 1L;
+        int rounds = 200;
+        int queries = 500;
+        int maxDiffs = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+                case "--queries" -> queries = Integer.parseInt(args[++i]);
+                case "--max-diffs" -> maxDiffs = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Result result = run(seed, rounds, queries, maxDiffs);
+        System.out.printf(Locale.US, "seed=%d sources=%d sections=%d nearest checks=%d sample checks=%d diffs=%d%n",
+                seed, result.sources, result.sections, result.nearestChecks, result.sampleChecks, result.diffs);
+        if (result.diffs > 0) System.exit(1);
+    }
+
+    /** Counters of one {@link #run}. */
+    static final class Result {
+        int sources, sections;
+        long nearestChecks, sampleChecks, diffs;
+    }
+
+    /**
+     * The known case first, then {@code rounds} rounds of random edits with {@code queries} queries
+     * each. The first {@code maxDiffs} mismatches are printed; the run stops once that many are found.
+     */
+    static Result run(long seed, int rounds, int queries, int maxDiffs) {
+        SplittableRandom random = new SplittableRandom(seed);
+        FearScanner scanner = new FearScanner();
+        FearIndex index = new FearIndex(scanner, PERIMETER_BUFFER);
+        BlockMap map = new BlockMap();
+        List<long[]> placed = new ArrayList<>();
+        FearHit indexHit = new FearHit();
+        FearHit scanHit = new FearHit();
+        FearIndex.Sample sample = new FearIndex.Sample();
+
+        long nearestChecks = 0, sampleChecks = 0, diffs = 0;
+
+        // The case that a single owner per column loses: the torch at (5,65,0) is within 8 blocks of
+        // (0,64,0), but (1,74,0) is nearer in the XZ plane.
+        for (FearType type : TYPES) scanner.setRadius(type, 8.0);
+        index.rebuild(PERIMETER_BUFFER);
+        setSource(index, map, placed, 1, 74, 0, FearType.SOUL_TORCH);
+        setSource(index, map, placed, 5, 65, 0, FearType.SOUL_TORCH);
+        diffs += compareNearest(index, scanner, map, 0, 64, 0, 0.0, indexHit, scanHit, maxDiffs - diffs);
+        nearestChecks++;
+
+        for (int round = 0; round < rounds; round++) {
+            if (round % 20 == 0) {
+                // New radii (some types disabled), picked up by a rebuild.
+                for (FearType type : TYPES) {
+                    scanner.setRadius(type, random.nextInt(5) == 0 ? 0.0 : 2.0 + random.nextInt(15));
+                }
+                index.rebuild(PERIMETER_BUFFER);
+            }
+
+            int edits = 1 + random.nextInt(30);
+            for (int e = 0; e < edits; e++) {
+                if (!placed.isEmpty() && random.nextInt(3) == 0) {
+                    long[] p = placed.get(random.nextInt(placed.size()));
+                    FearType type = random.nextInt(3) == 0 ? TYPES[random.nextInt(TYPES.length)] : null;
+                    setSource(index, map, placed, (int) p[0], (int) p[1], (int) p[2], type);
+                } else {
+                    // Clustered around a few centers, spread over several bands.
+                    int cx = (random.nextInt(3) - 1) * 20, cz = (random.nextInt(3) - 1) * 20;
+                    setSource(index, map, placed, cx + random.nextInt(-12, 13), 40 + random.nextInt(60),
+                            cz + random.nextInt(-12, 13), TYPES[random.nextInt(TYPES.length)]);
+                }
+            }
+
+            for (int q = 0; q < queries; q++) {
+                int x = random.nextInt(-40, 41), y = 30 + random.nextInt(80), z = random.nextInt(-40, 41);
+                double extra = random.nextBoolean() ? PERIMETER_BUFFER : 0.0;
+                diffs += compareNearest(index, scanner, map, x, y, z, extra, indexHit, scanHit, maxDiffs - diffs);
+                nearestChecks++;
+
+                double px = x + random.nextDouble(), py = y + random.nextDouble(), pz = z + random.nextDouble();
+                diffs += compareSample(index, scanner, map, px, py, pz, sample, maxDiffs - diffs);
+                sampleChecks++;
+            }
+            if (diffs >= maxDiffs) break;
+        }
+
+        Result result = new Result();
+        result.sources = index.sources();
+        result.sections = index.sections();
+        result.nearestChecks = nearestChecks;
+        result.sampleChecks = sampleChecks;
+        result.diffs = diffs;
+        return result;
+    }
+
+    private static void setSource(FearIndex index, BlockMap map, List<long[]> placed, int x, int y, int z, FearType type) {
+        index.setSource(x, y, z, type);
+        boolean had = map.fearAt(x, y, z) != null;
+        map.set(x, y, z, type);
+        if (!had && type != null) placed.add(new long[]{x, y, z});
+        if (type == null) placed.removeIf(p -> p[0] == x && p[1] == y && p[2] == z);
+    }
+
+    private static int compareNearest(FearIndex index, FearScanner scanner, BlockMap map, int x, int y, int z, double extra,
+                                      FearHit indexHit, FearHit scanHit, long report) {
+        FearHit a = index.nearest(x, y, z, extra, indexHit);
+        FearHit b = scanner.scanNearest(map, x, y, z, extra, scanHit);
+        boolean same = (a == null) ? b == null
+                : b != null && a.type() == b.type() && a.blockX() == b.blockX() && a.blockY() == b.blockY() && a.blockZ() == b.blockZ();
+        if (same) return 0;
+        if (report > 0) {
+            System.out.printf(Locale.US, "nearest(%d,%d,%d, extra=%.2f): index=%s scanner=%s%n", x, y, z, extra, a, b);
+        }
+        return 1;
+    }
+
+    /** Brute force over every source: the clearance must match when it is within reach. */
+    private static int compareSample(FearIndex index, FearScanner scanner, BlockMap map, double x, double y, double z,
+                                     FearIndex.Sample sample, long report) {
+        double best = Double.MAX_VALUE;
+        for (long key : map.blocks.keySet()) {
+            double radius = scanner.getRadius(map.blocks.get(key));
+            if (radius <= 0) continue;
+            double dx = x - (FearIndex.blockX(key) + 0.5), dy = y - (FearIndex.blockY(key) + 0.5), dz = z - (FearIndex.blockZ(key) + 0.5);
+            best = Math.min(best, Math.sqrt(dx * dx + dy * dy + dz * dz) - (radius + PERIMETER_BUFFER));
+        }
+        boolean expected = best <= FearIndex.REACH;
+        boolean found = index.sample(x, y, z, sample);
+        if (found == expected && (!found || Math.abs(sample.clearance() - best) < 1e-9)) return 0;
+        if (report > 0) {
+            System.out.printf(Locale.US, "sample(%.2f,%.2f,%.2f): index=%s brute force=%.4f%n",
+                    x, y, z, found ? String.format(Locale.US, "%.4f", sample.clearance()) : "none", best);
+        }
+        return 1;
+    }
+}
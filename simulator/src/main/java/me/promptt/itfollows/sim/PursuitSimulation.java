@@ -0,0 +1,127 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.PursuitBrain;
+import me.promptt.itfollows.trace.TrajectoryRecorder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Headless pursuit simulator.
+ *
+ * Runs many independent curse sessions in a generated voxel world through the same decision core
+ * the plugin uses, then prints behavior counters, throughput and a digest. With a fixed seed the
+ * output is deterministic, so two builds can be compared by diffing it.
+ *
+ * <pre>
+ *     java -jar simulator/target/simulator.jar [--sessions 100] [--ticks 72000] [--seed 1] [--size 256] [--trace session0.trj]
+ * </pre>
+ *
+ * {@code --trace} records the first session in the plugin's trajectory format (see {@link TrajectoryReplay}).
+ */
+public final class PursuitSimulation {
+
+    private PursuitSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int sessions = 100;
+        int ticks = 20 * 60 * 60;
+        long seed = 1L;
+        int size = 256;
+        Path trace = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(args[i + 1]);
+                case "--ticks" -> ticks = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--size" -> size = Integer.parseInt(args[i + 1]);
+                case "--trace" -> trace = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        SimConfig config = new SimConfig();
+        SimSession[] all = createSessions(sessions, seed, size, config);
+
+        TrajectoryRecorder recorder = null;
+        if (trace != null && sessions > 0) {
+            recorder = TrajectoryRecorder.create(trace, ticks / 5 + 1, "simulator session 0",
+                    config.scanner(), config.perimeterBuffer, config.stepDistance);
+            all[0].setRecorder(recorder);
+        }
+
+        long start = System.nanoTime();
+        run(all, ticks);
+        long elapsed = System.nanoTime() - start;
+        if (recorder != null) recorder.close();
+
+        report(all, ticks, elapsed);
+    }
+
+    /** Generates the world from the seed and one session per following seed draw. */
+    static SimSession[] createSessions(int sessions, long seed, int size, SimConfig config) {
+        SplittableRandom random = new SplittableRandom(seed);
+        VoxelWorld world = VoxelWorld.generate(size, random.nextLong(), size * size / 200, size * size / 2000);
+        SimSession[] all = new SimSession[sessions];
+        for (int i = 0; i < sessions; i++) {
+            all[i] = new SimSession(world, config, random.nextLong());
+        }
+        return all;
+    }
+
+    static void run(SimSession[] sessions, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            for (SimSession session : sessions) {
+                session.tick();
+            }
+        }
+    }
+
+    /** Combined digest of all sessions, in order (the value printed as {@code digest=}). */
+    static long digest(SimSession[] sessions) {
+        long digest = 17L;
+        for (SimSession s : sessions) {
+            digest = 31 * digest + s.digest();
+        }
+        return digest;
+    }
+
+    private static void report(SimSession[] sessions, int ticks, long elapsedNanos) {
+        long hits = 0, toVex = 0, toWalker = 0, respawns = 0, scans = 0, paths = 0;
+        long[] outcomes = new long[PursuitBrain.Outcome.values().length];
+        double closest = 0.0;
+
+        for (SimSession s : sessions) {
+            hits += s.hits();
+            toVex += s.morphsToVex();
+            toWalker += s.morphsToWalker();
+            respawns += s.respawns();
+            scans += s.fearScans();
+            paths += s.pathRequests();
+            closest += s.closestDistance();
+            for (PursuitBrain.Outcome o : PursuitBrain.Outcome.values()) {
+                outcomes[o.ordinal()] += s.outcomeCount(o);
+            }
+        }
+        long digest = digest(sessions);
+
+        double seconds = elapsedNanos / 1e9;
+        long sessionTicks = (long) ticks * sessions.length;
+
+        System.out.printf(Locale.US, "sessions=%d ticks=%d (%.1f simulated minutes each)%n",
+                sessions.length, ticks, ticks / 20.0 / 60.0);
+        System.out.printf(Locale.US, "hits=%d morphs: to-vex=%d to-walker=%d respawns=%d%n", hits, toVex, toWalker, respawns);
+        for (PursuitBrain.Outcome o : PursuitBrain.Outcome.values()) {
+            System.out.printf(Locale.US, "  %-18s %d%n", o.name().toLowerCase(Locale.ROOT), outcomes[o.ordinal()]);
+        }
+        System.out.printf(Locale.US, "fear scans=%d path requests=%d mean closest distance=%.2f%n",
+                scans, paths, closest / sessions.length);
+        System.out.printf(Locale.US, "elapsed=%.3fs session-ticks/s=%.0f us/session-tick=%.3f%n",
+                seconds, sessionTicks / seconds, elapsedNanos / 1000.0 / sessionTicks);
+        System.out.printf(Locale.US, "digest=%016x%n", digest);
+    }
+}
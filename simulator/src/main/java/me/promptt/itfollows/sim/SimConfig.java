@@ -0,0 +1,38 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.FearType;
+
+/** Simulation parameters. Defaults match the plugin's default config.yml where one exists. */
+public final class SimConfig {
+
+    // Fear radii
+    public double fireRadius = 8.0;
+    public double soulTorchRadius = 16.0;
+    public double soulLanternRadius = 16.0;
+    public double soulCampfireRadius = 32.0;
+
+    // Avoidance tuning
+    public double perimeterBuffer = 0.75;
+    public double stepDistance = 6.0;
+
+    // Vex mode
+    public int vexTriggerSeconds = 10;
+    public int vexDurationSeconds = 10;
+
+    /** Ring distance for (re)spawns; the plugin uses min_teleport_distance. */
+    public double spawnDistance = 50.0;
+
+    /** Movement speeds in blocks per tick. */
+    public double stalkerSpeed = 0.15;
+    public double victimSpeed = 0.2;
+
+    FearScanner scanner() {
+        FearScanner scanner = new FearScanner();
+        scanner.setRadius(FearType.FIRE, fireRadius);
+        scanner.setRadius(FearType.SOUL_TORCH, soulTorchRadius);
+        scanner.setRadius(FearType.SOUL_LANTERN, soulLanternRadius);
+        scanner.setRadius(FearType.SOUL_CAMPFIRE, soulCampfireRadius);
+        return scanner;
+    }
+}
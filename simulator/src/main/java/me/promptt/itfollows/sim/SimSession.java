@@ -0,0 +1,261 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.FearHit;
+import me.promptt.itfollows.ai.FearScanner;
+import me.promptt.itfollows.ai.PursuitBrain;
+import me.promptt.itfollows.ai.StuckTracker;
+import me.promptt.itfollows.trace.TrajectoryFrame;
+import me.promptt.itfollows.trace.TrajectoryRecorder;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * One curse session (a victim and its stalker) driven with the same cadence as the plugin:
+ * AI update every 5 ticks, stuck check every 20 ticks, fear scans cached for 750 ms.
+ */
+public final class SimSession {
+
+    /** Plugin loop intervals (game ticks). */
+    private static final int AI_INTERVAL = 5;
+    private static final int STUCK_INTERVAL = 20;
+    private static final long SCAN_CACHE_MS = 750L;
+    private static final long MS_PER_TICK = 50L;
+
+    /** Respawn threshold and melee range used by the plugin. */
+    private static final double RESPAWN_DISTANCE = 120.0;
+    private static final double ATTACK_RANGE = 1.5;
+    private static final int ATTACK_COOLDOWN_TICKS = 20;
+
+    private final VoxelWorld world;
+    private final FearScanner scanner;
+    private final double perimeterBuffer;
+    private final double spawnDistance;
+    private final RandomGenerator random;
+
+    private final PursuitBrain brain;
+    private final StuckTracker stuckTracker = new StuckTracker();
+    private final SimVictim victim;
+    private final SimStalker stalker;
+
+    private long tick;
+
+    // Cached scan results point at the slots (or are null); scans refill the slots in place.
+    private FearHit cachedFear;
+    private final FearHit fearSlot = new FearHit();
+    private long lastFearScanMs = Long.MIN_VALUE / 2;
+    private FearHit cachedProtection;
+    private final FearHit protectionSlot = new FearHit();
+    private long lastProtectionScanMs = Long.MIN_VALUE / 2;
+    private boolean victimProtected;
+    private int attackCooldown;
+
+    /** Optional trajectory recording (same frame layout as the plugin). */
+    private TrajectoryRecorder recorder;
+    private final TrajectoryFrame frame = new TrajectoryFrame();
+
+    // --- Report counters ---
+    private long hits;
+    private long morphsToVex;
+    private long morphsToWalker;
+    private long respawns;
+    private long fearScans;
+    private final long[] outcomes = new long[PursuitBrain.Outcome.values().length];
+    private double closestDistance = Double.MAX_VALUE;
+
+    public SimSession(VoxelWorld world, SimConfig config, long seed) {
+        this.world = world;
+        this.scanner = config.scanner();
+        this.perimeterBuffer = config.perimeterBuffer;
+        this.spawnDistance = config.spawnDistance;
+        this.random = new SplittableRandom(seed);
+
+        this.brain = new PursuitBrain(scanner);
+        this.brain.setAvoidance(config.perimeterBuffer, config.stepDistance);
+        this.stuckTracker.setTimings(config.vexTriggerSeconds, config.vexDurationSeconds);
+
+        double vx = world.sizeX() * (0.25 + 0.5 * random.nextDouble());
+        double vz = world.sizeZ() * (0.25 + 0.5 * random.nextDouble());
+        this.victim = new SimVictim(world, random.nextLong(), config.victimSpeed, vx, vz);
+        this.stalker = new SimStalker(world, config.stalkerSpeed, vx, world.groundY() + 1, vz);
+        spawnNearVictim();
+    }
+
+    /** Records every AI update of this session into {@code recorder} (null to stop). */
+    public void setRecorder(TrajectoryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /** Advances one game tick. */
+    public void tick() {
+        tick++;
+        victim.tick();
+        stalker.tick();
+        if (attackCooldown > 0) attackCooldown--;
+
+        if (tick % AI_INTERVAL == 0) aiUpdate();
+        if (tick % STUCK_INTERVAL == 0) stuckCheck();
+    }
+
+    private void aiUpdate() {
+        long nowMs = tick * MS_PER_TICK;
+
+        double dist = distanceToVictim();
+        closestDistance = Math.min(closestDistance, dist);
+        if (dist > RESPAWN_DISTANCE) {
+            spawnNearVictim();
+            return;
+        }
+
+        if (nowMs - lastProtectionScanMs >= SCAN_CACHE_MS) {
+            lastProtectionScanMs = nowMs;
+            fearScans++;
+            cachedProtection = scanner.scanNearest(world, floor(victim.x()), floor(victim.y()), floor(victim.z()), 0.0, protectionSlot);
+        }
+        victimProtected = cachedProtection != null;
+        stuckTracker.onVictimProtection(victimProtected);
+
+        FearHit fear = null;
+        if (!victimProtected) {
+            if (nowMs - lastFearScanMs >= SCAN_CACHE_MS) {
+                lastFearScanMs = nowMs;
+                fearScans++;
+                cachedFear = scanner.scanNearest(world, floor(stalker.x()), floor(stalker.y()), floor(stalker.z()), perimeterBuffer, fearSlot);
+            }
+            fear = cachedFear;
+        }
+
+        if (recorder != null) captureInputs(nowMs, fear);
+        long pathRequestsBefore = stalker.pathRequests();
+
+        PursuitBrain.Outcome outcome = brain.update(stalker, victim, cachedProtection, fear, nowMs);
+        outcomes[outcome.ordinal()]++;
+
+        if (recorder != null) {
+            frame.setDecision(outcome, brain);
+            frame.moved = stalker.pathRequests() > pathRequestsBefore;
+            frame.moveX = stalker.destinationX();
+            frame.moveY = stalker.destinationY();
+            frame.moveZ = stalker.destinationZ();
+            recorder.record(frame);
+        }
+
+        if (outcome == PursuitBrain.Outcome.PURSUING && dist < ATTACK_RANGE && attackCooldown == 0) {
+            hits++;
+            attackCooldown = ATTACK_COOLDOWN_TICKS;
+        }
+    }
+
+    private void captureInputs(long nowMs, FearHit fear) {
+        frame.tick = tick;
+        frame.timeMs = nowMs;
+        frame.stalkerX = stalker.x();
+        frame.stalkerY = stalker.y();
+        frame.stalkerZ = stalker.z();
+        frame.stalkerVelX = (float) stalker.velocityX();
+        frame.stalkerVelY = (float) stalker.velocityY();
+        frame.stalkerVelZ = (float) stalker.velocityZ();
+        frame.form = stalker.canFly() ? 1 : 0;
+        frame.canFly = stalker.canFly();
+        frame.hasAI = stalker.hasAI();
+        frame.vexMode = stuckTracker.isVexMode();
+        frame.victimX = victim.x();
+        frame.victimY = victim.y();
+        frame.victimZ = victim.z();
+        frame.victimReachable = victim.isReachable();
+        frame.setProtection(cachedProtection);
+        frame.setFear(fear);
+    }
+
+    private void stuckCheck() {
+        // Simulated walkers stop dead against walls, so the low-speed check alone sees them.
+        StuckTracker.Action action = stuckTracker.tickSecond(stalker.x(), stalker.y(), stalker.z(),
+                stalker.velocityX(), stalker.velocityZ(), victimProtected, false);
+
+        if (action == StuckTracker.Action.MORPH_TO_VEX) {
+            morphsToVex++;
+            stalker.respawn(stalker.x(), stalker.y(), stalker.z(), true);
+            stuckTracker.onSpawn(stalker.x(), stalker.y(), stalker.z(), true);
+            brain.clearOrbitState();
+        } else if (action == StuckTracker.Action.MORPH_TO_WALKER) {
+            morphsToWalker++;
+            double groundY = world.snapToGround(stalker.x(), stalker.y(), stalker.z());
+            stalker.respawn(Math.floor(stalker.x()) + 0.5, groundY, Math.floor(stalker.z()) + 0.5, false);
+            stuckTracker.onSpawn(stalker.x(), stalker.y(), stalker.z(), false);
+            brain.clearOrbitState();
+        }
+    }
+
+    /** Mirrors the plugin's ring spawn at min_teleport_distance around the victim. */
+    private void spawnNearVictim() {
+        respawns++;
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double x = victim.x() + Math.cos(angle) * spawnDistance;
+        double z = victim.z() + Math.sin(angle) * spawnDistance;
+        double y = world.snapToGround(x, world.groundY() + 16, z);
+        stalker.respawn(x, y, z, false);
+        stuckTracker.onSpawn(x, y, z, false);
+        brain.clearOrbitState();
+    }
+
+    private double distanceToVictim() {
+        double dx = stalker.x() - victim.x();
+        double dy = stalker.y() - victim.y();
+        double dz = stalker.z() - victim.z();
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static int floor(double v) {
+        return (int) Math.floor(v);
+    }
+
+    // --- Report ---
+
+    public long hits() {
+        return hits;
+    }
+
+    public long morphsToVex() {
+        return morphsToVex;
+    }
+
+    public long morphsToWalker() {
+        return morphsToWalker;
+    }
+
+    public long respawns() {
+        return respawns;
+    }
+
+    public long fearScans() {
+        return fearScans;
+    }
+
+    public long outcomeCount(PursuitBrain.Outcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+
+    public long pathRequests() {
+        return stalker.pathRequests();
+    }
+
+    public double closestDistance() {
+        return closestDistance;
+    }
+
+    /** Order-sensitive fingerprint of the session state, for comparing runs across code changes. */
+    public long digest() {
+        long h = 1125899906842597L;
+        h = 31 * h + Double.doubleToLongBits(stalker.x());
+        h = 31 * h + Double.doubleToLongBits(stalker.y());
+        h = 31 * h + Double.doubleToLongBits(stalker.z());
+        h = 31 * h + Double.doubleToLongBits(victim.x());
+        h = 31 * h + Double.doubleToLongBits(victim.z());
+        h = 31 * h + hits;
+        h = 31 * h + morphsToVex;
+        h = 31 * h + morphsToWalker;
+        h = 31 * h + respawns;
+        for (long o : outcomes) h = 31 * h + o;
+        return h;
+    }
+}
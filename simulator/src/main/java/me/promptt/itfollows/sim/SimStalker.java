@@ -0,0 +1,231 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.StalkerBody;
+
+/**
+ * Simulated stalker with a deliberately simple movement model.
+ *
+ * Walkers move straight toward their destination, step up single blocks, are blocked by
+ * taller obstacles and fall under gravity. Flying forms move in 3D and phase through blocks.
+ * Impulses from {@link #setVelocity} are applied on top of that and decay each tick.
+ */
+public final class SimStalker implements StalkerBody {
+
+    private final VoxelWorld world;
+
+    /** Walking / flying speed in blocks per tick. */
+    private final double speed;
+
+    private double x, y, z;
+    private double vx, vy, vz;
+
+    /** Actual displacement during the last tick (what the stuck detector sees as velocity). */
+    private double lastDx, lastDy, lastDz;
+
+    private boolean flying;
+    private boolean ai = true;
+    private boolean targeting;
+
+    private boolean hasDestination;
+    private double destX, destY, destZ;
+
+    // Counters for reports
+    private long pathRequests;
+    private long redundantPathRequests;
+
+    public SimStalker(VoxelWorld world, double speed, double x, double y, double z) {
+        this.world = world;
+        this.speed = speed;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /** Teleports and switches form (used for spawns and morphs). */
+    public void respawn(double x, double y, double z, boolean flying) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.vx = this.vy = this.vz = 0.0;
+        this.flying = flying;
+        this.ai = true;
+        this.hasDestination = false;
+        this.targeting = false;
+    }
+
+    /** Advances one game tick. */
+    public void tick() {
+        double startX = x, startY = y, startZ = z;
+
+        if (ai && hasDestination) {
+            double dx = destX - x;
+            double dy = flying ? (destY - y) : 0.0;
+            double dz = destZ - z;
+            double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (dist < 0.3) {
+                hasDestination = false;
+            } else {
+                double step = Math.min(speed, dist) / dist;
+                moveBy(dx * step, dy * step, dz * step);
+            }
+        }
+
+        if (vx != 0.0 || vy != 0.0 || vz != 0.0) {
+            moveBy(vx, flying ? vy : 0.0, vz);
+            vx *= 0.5;
+            vy *= 0.5;
+            vz *= 0.5;
+            if (Math.abs(vx) < 0.001) vx = 0.0;
+            if (Math.abs(vy) < 0.001) vy = 0.0;
+            if (Math.abs(vz) < 0.001) vz = 0.0;
+        }
+
+        if (!flying) {
+            // Gravity: fall until the feet rest on a solid block.
+            int bx = (int) Math.floor(x);
+            int bz = (int) Math.floor(z);
+            if (!world.isSolid(bx, (int) Math.floor(y) - 1, bz)) {
+                y = Math.max(world.snapToGround(x, y, z), y - 0.5);
+            }
+        }
+
+        lastDx = x - startX;
+        lastDy = y - startY;
+        lastDz = z - startZ;
+    }
+
+    private void moveBy(double dx, double dy, double dz) {
+        if (flying) {
+            x += dx;
+            y += dy;
+            z += dz;
+            return;
+        }
+
+        double nx = x + dx;
+        double nz = z + dz;
+        int bx = (int) Math.floor(nx);
+        int by = (int) Math.floor(y);
+        int bz = (int) Math.floor(nz);
+
+        if (!world.isSolid(bx, by, bz) && !world.isSolid(bx, by + 1, bz)) {
+            x = nx;
+            z = nz;
+        } else if (!world.isSolid(bx, by + 1, bz) && !world.isSolid(bx, by + 2, bz)) {
+            // Step up a single block.
+            x = nx;
+            z = nz;
+            y = by + 1;
+        }
+        // Otherwise blocked: stay put (this is what makes walkers get stuck).
+    }
+
+    // --- StalkerBody ---
+
+    @Override
+    public double x() {
+        return x;
+    }
+
+    @Override
+    public double y() {
+        return y;
+    }
+
+    @Override
+    public double z() {
+        return z;
+    }
+
+    @Override
+    public double velocityX() {
+        return lastDx;
+    }
+
+    @Override
+    public double velocityY() {
+        return lastDy;
+    }
+
+    @Override
+    public double velocityZ() {
+        return lastDz;
+    }
+
+    @Override
+    public boolean canFly() {
+        return flying;
+    }
+
+    @Override
+    public boolean hasAI() {
+        return ai;
+    }
+
+    @Override
+    public void setAI(boolean enabled) {
+        ai = enabled;
+    }
+
+    @Override
+    public void moveTo(double x, double y, double z) {
+        pathRequests++;
+        if (hasDestination && destX == x && destY == y && destZ == z) redundantPathRequests++;
+        hasDestination = true;
+        destX = x;
+        destY = y;
+        destZ = z;
+    }
+
+    @Override
+    public void stopPathfinding() {
+        hasDestination = false;
+    }
+
+    @Override
+    public void setVelocity(double x, double y, double z) {
+        vx = x;
+        vy = y;
+        vz = z;
+    }
+
+    @Override
+    public void resetFallDistance() {
+        // No fall damage in the simulator.
+    }
+
+    @Override
+    public void targetVictim() {
+        targeting = true;
+    }
+
+    @Override
+    public void clearTarget() {
+        targeting = false;
+    }
+
+    public boolean isTargeting() {
+        return targeting;
+    }
+
+    /** Last path target (valid once any path request was issued). */
+    public double destinationX() {
+        return destX;
+    }
+
+    public double destinationY() {
+        return destY;
+    }
+
+    public double destinationZ() {
+        return destZ;
+    }
+
+    public long pathRequests() {
+        return pathRequests;
+    }
+
+    public long redundantPathRequests() {
+        return redundantPathRequests;
+    }
+}
@@ -0,0 +1,78 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.VictimView;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated cursed player: walks between random waypoints on the ground at a fixed speed,
+ * occasionally pausing. Driven entirely by a seeded random source.
+ */
+public final class SimVictim implements VictimView {
+
+    private final VoxelWorld world;
+    private final RandomGenerator random;
+    private final double speed;
+
+    private double x, y, z;
+    private double targetX, targetZ;
+    private int pauseTicks;
+
+    public SimVictim(VoxelWorld world, long seed, double speed, double x, double z) {
+        this.world = world;
+        this.random = new SplittableRandom(seed);
+        this.speed = speed;
+        this.x = x;
+        this.z = z;
+        this.y = world.snapToGround(x, world.groundY() + 8, z);
+        pickTarget();
+    }
+
+    public void tick() {
+        if (pauseTicks > 0) {
+            pauseTicks--;
+            return;
+        }
+
+        double dx = targetX - x;
+        double dz = targetZ - z;
+        double dist = Math.sqrt(dx * dx + dz * dz);
+        if (dist < 0.5) {
+            pickTarget();
+            if (random.nextInt(4) == 0) pauseTicks = 20 + random.nextInt(200);
+            return;
+        }
+
+        double step = Math.min(speed, dist) / dist;
+        x += dx * step;
+        z += dz * step;
+        // Players climb over the simple obstacles we generate.
+        y = world.snapToGround(x, world.groundY() + 8, z);
+    }
+
+    private void pickTarget() {
+        targetX = 1 + random.nextDouble() * (world.sizeX() - 2);
+        targetZ = 1 + random.nextDouble() * (world.sizeZ() - 2);
+    }
+
+    @Override
+    public double x() {
+        return x;
+    }
+
+    @Override
+    public double y() {
+        return y;
+    }
+
+    @Override
+    public double z() {
+        return z;
+    }
+
+    @Override
+    public boolean isReachable() {
+        return true;
+    }
+}
@@ -0,0 +1,247 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.PursuitBrain;
+import me.promptt.itfollows.ai.StalkerBody;
+import me.promptt.itfollows.ai.VictimView;
+import me.promptt.itfollows.trace.TrajectoryFrame;
+import me.promptt.itfollows.trace.TrajectoryReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Offline replay of a recorded trajectory ({@code plugins/ItStalks/trajectories/*.trj}).
+ *
+ * Every frame's inputs are fed through a fresh {@link PursuitBrain} configured with the recorded
+ * fear radii and avoidance tuning; the recomputed outcome and path target are compared with what
+ * was recorded. Orbit state is reset wherever the plugin would have reset it (gaps between AI
+ * updates, form changes), so divergences point at real behavior differences.
+ *
+ * <pre>
+ *     java -cp simulator/target/simulator.jar me.promptt.itfollows.sim.TrajectoryReplay &lt;file.trj&gt; [--dump] [--max-diffs 20]
+ * </pre>
+ */
+public final class TrajectoryReplay {
+
+    /** The plugin's AI loop interval; a larger tick gap means updates were skipped (respawn, logout). */
+    private static final long AI_INTERVAL_TICKS = 5L;
+    private static final double EPSILON = 1e-6;
+
+    private TrajectoryReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TrajectoryReplay <file.trj> [--dump] [--max-diffs N]");
+            System.exit(2);
+        }
+
+        Path file = Path.of(args[0]);
+        boolean dump = false;
+        int maxDiffs = 20;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dump" -> dump = true;
+                case "--max-diffs" -> maxDiffs = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        TrajectoryReader reader = TrajectoryReader.open(file);
+        System.out.printf(Locale.US, "%s: label=%s started=%s frames=%d (written=%d)%n",
+                file.getFileName(), reader.label(), Instant.ofEpochMilli(reader.startedMs()),
+                reader.frameCount(), reader.framesWritten());
+
+        PursuitBrain brain = new PursuitBrain(reader.scanner());
+        brain.setAvoidance(reader.perimeterBuffer(), reader.stepDistance());
+
+        TrajectoryFrame frame = new TrajectoryFrame();
+        ReplayBody body = new ReplayBody();
+        ReplayVictim victim = new ReplayVictim();
+
+        long[] recordedOutcomes = new long[PursuitBrain.Outcome.values().length];
+        long outcomeDiffs = 0, targetDiffs = 0, resets = 0;
+        long prevTick = Long.MIN_VALUE;
+        int prevForm = Integer.MIN_VALUE;
+        int printed = 0;
+
+        if (dump) {
+            System.out.println("tick,stalker_x,stalker_y,stalker_z,victim_x,victim_y,victim_z,form,fear,protection,outcome,orbit_dir,waypoint_x,waypoint_z");
+        }
+
+        for (int i = 0; i < reader.frameCount(); i++) {
+            reader.read(i, frame);
+
+            if (frame.tick - prevTick > AI_INTERVAL_TICKS || frame.form != prevForm) {
+                brain.clearOrbitState();
+                resets++;
+            }
+            prevTick = frame.tick;
+            prevForm = frame.form;
+
+            body.load(frame);
+            victim.load(frame);
+            PursuitBrain.Outcome outcome = brain.update(body, victim, frame.protection(), frame.fear(), frame.timeMs);
+
+            if (frame.outcome != null) recordedOutcomes[frame.outcome.ordinal()]++;
+            boolean outcomeDiff = outcome != frame.outcome;
+            boolean targetDiff = body.moved != frame.moved
+                    || (frame.moved && (Math.abs(body.moveX - frame.moveX) > EPSILON
+                    || Math.abs(body.moveY - frame.moveY) > EPSILON
+                    || Math.abs(body.moveZ - frame.moveZ) > EPSILON));
+            if (outcomeDiff) outcomeDiffs++;
+            if (targetDiff) targetDiffs++;
+
+            if ((outcomeDiff || targetDiff) && printed < maxDiffs) {
+                printed++;
+                System.out.printf(Locale.US, "  tick %d: recorded %s -> (%.2f, %.2f, %.2f), replayed %s -> (%.2f, %.2f, %.2f)%n",
+                        frame.tick, frame.outcome, frame.moveX, frame.moveY, frame.moveZ,
+                        outcome, body.moveX, body.moveY, body.moveZ);
+            }
+
+            if (dump) {
+                System.out.printf(Locale.US, "%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%s,%s,%s,%d,%.3f,%.3f%n",
+                        frame.tick, frame.stalkerX, frame.stalkerY, frame.stalkerZ,
+                        frame.victimX, frame.victimY, frame.victimZ, frame.form,
+                        frame.fearType, frame.protectionType, frame.outcome, frame.orbitDir,
+                        frame.waypointX, frame.waypointZ);
+            }
+        }
+
+        for (PursuitBrain.Outcome o : PursuitBrain.Outcome.values()) {
+            System.out.printf(Locale.US, "  %-18s %d%n", o.name().toLowerCase(Locale.ROOT), recordedOutcomes[o.ordinal()]);
+        }
+        System.out.printf(Locale.US, "replayed=%d orbit-resets=%d outcome-diffs=%d target-diffs=%d%n",
+                reader.frameCount(), resets, outcomeDiffs, targetDiffs);
+    }
+
+    // --- Replay Adapters ---
+
+    /** Stalker state from a frame; captures the path request the brain issues. */
+    private static final class ReplayBody implements StalkerBody {
+        private double x, y, z, velX, velY, velZ;
+        private boolean canFly, ai;
+
+        boolean moved;
+        double moveX, moveY, moveZ;
+
+        void load(TrajectoryFrame f) {
+            x = f.stalkerX;
+            y = f.stalkerY;
+            z = f.stalkerZ;
+            velX = f.stalkerVelX;
+            velY = f.stalkerVelY;
+            velZ = f.stalkerVelZ;
+            canFly = f.canFly;
+            ai = f.hasAI;
+            moved = false;
+        }
+
+        @Override
+        public double x() {
+            return x;
+        }
+
+        @Override
+        public double y() {
+            return y;
+        }
+
+        @Override
+        public double z() {
+            return z;
+        }
+
+        @Override
+        public double velocityX() {
+            return velX;
+        }
+
+        @Override
+        public double velocityY() {
+            return velY;
+        }
+
+        @Override
+        public double velocityZ() {
+            return velZ;
+        }
+
+        @Override
+        public boolean canFly() {
+            return canFly;
+        }
+
+        @Override
+        public boolean hasAI() {
+            return ai;
+        }
+
+        @Override
+        public void setAI(boolean enabled) {
+            ai = enabled;
+        }
+
+        @Override
+        public void moveTo(double x, double y, double z) {
+            moved = true;
+            moveX = x;
+            moveY = y;
+            moveZ = z;
+        }
+
+        @Override
+        public void stopPathfinding() {
+        }
+
+        @Override
+        public void setVelocity(double x, double y, double z) {
+        }
+
+        @Override
+        public void resetFallDistance() {
+        }
+
+        @Override
+        public void targetVictim() {
+        }
+
+        @Override
+        public void clearTarget() {
+        }
+    }
+
+    private static final class ReplayVictim implements VictimView {
+        private double x, y, z;
+        private boolean reachable;
+
+        void load(TrajectoryFrame f) {
+            x = f.victimX;
+            y = f.victimY;
+            z = f.victimZ;
+            reachable = f.victimReachable;
+        }
+
+        @Override
+        public double x() {
+            return x;
+        }
+
+        @Override
+        public double y() {
+            return y;
+        }
+
+        @Override
+        public double z() {
+            return z;
+        }
+
+        @Override
+        public boolean isReachable() {
+            return reachable;
+        }
+    }
+}
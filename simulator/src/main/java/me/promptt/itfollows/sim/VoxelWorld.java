@@ -0,0 +1,133 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.BlockView;
+import me.promptt.itfollows.ai.FearType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Dense voxel world for the simulator: air, solid blocks and fear blocks.
+ *
+ * Coordinates outside the grid read as air above ground level and solid below it, so entities
+ * can wander off the edge without falling forever.
+ */
+public final class VoxelWorld implements BlockView {
+
+    private static final byte AIR = 0;
+    private static final byte SOLID = 1;
+    /** Fear blocks are stored as FEAR_BASE + FearType ordinal. */
+    private static final byte FEAR_BASE = 2;
+
+    private static final FearType[] FEAR_TYPES = FearType.values();
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int groundY;
+    private final byte[] cells;
+
+    public VoxelWorld(int sizeX, int sizeY, int sizeZ, int groundY) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.groundY = groundY;
+        this.cells = new byte[sizeX * sizeY * sizeZ];
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int y = 0; y <= groundY; y++) {
+                    cells[index(x, y, z)] = SOLID;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a flat world with random walls/pillars and a handful of fear blocks.
+     *
+     * @param obstacles number of wall segments to place
+     * @param fears     number of fear blocks to place
+     */
+    public static VoxelWorld generate(int size, long seed, int obstacles, int fears) {
+        VoxelWorld world = new VoxelWorld(size, 48, size, 8);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < obstacles; i++) {
+            int x = random.nextInt(size);
+            int z = random.nextInt(size);
+            int length = 2 + random.nextInt(10);
+            int height = 1 + random.nextInt(4);
+            boolean alongX = random.nextBoolean();
+            for (int l = 0; l < length; l++) {
+                for (int h = 1; h <= height; h++) {
+                    world.setSolid(alongX ? x + l : x, world.groundY + h, alongX ? z : z + l);
+                }
+            }
+        }
+
+        for (int i = 0; i < fears; i++) {
+            int x = random.nextInt(size);
+            int z = random.nextInt(size);
+            world.setFear(x, world.groundY + 1, z, FEAR_TYPES[random.nextInt(FEAR_TYPES.length)]);
+        }
+        return world;
+    }
+
+    public int sizeX() {
+        return sizeX;
+    }
+
+    public int sizeZ() {
+        return sizeZ;
+    }
+
+    /** Y of the top solid layer of the flat ground. */
+    public int groundY() {
+        return groundY;
+    }
+
+    public void setSolid(int x, int y, int z) {
+        if (inBounds(x, y, z)) cells[index(x, y, z)] = SOLID;
+    }
+
+    public void setAir(int x, int y, int z) {
+        if (inBounds(x, y, z)) cells[index(x, y, z)] = AIR;
+    }
+
+    public void setFear(int x, int y, int z, FearType type) {
+        if (inBounds(x, y, z)) cells[index(x, y, z)] = (byte) (FEAR_BASE + type.ordinal());
+    }
+
+    @Override
+    public FearType fearAt(int x, int y, int z) {
+        if (!inBounds(x, y, z)) return null;
+        int cell = cells[index(x, y, z)];
+        return (cell >= FEAR_BASE) ? FEAR_TYPES[cell - FEAR_BASE] : null;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        if (!inBounds(x, y, z)) return y <= groundY;
+        return cells[index(x, y, z)] == SOLID;
+    }
+
+    /** Lowest Y at or below {@code y} where an entity can stand (solid floor, two blocks of headroom). */
+    public double snapToGround(double x, double y, double z) {
+        int bx = (int) Math.floor(x);
+        int bz = (int) Math.floor(z);
+        for (int by = (int) Math.floor(y); by > 0; by--) {
+            if (isSolid(bx, by - 1, bz) && !isSolid(bx, by, bz) && !isSolid(bx, by + 1, bz)) {
+                return by;
+            }
+        }
+        return groundY + 1;
+    }
+
+    private boolean inBounds(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * sizeY + y) * sizeZ + z;
+    }
+}
@@ -0,0 +1,33 @@
+package me.promptt.itfollows.sim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link FearIndexCheck}: the fear source index must answer exactly like the block scanner.
+ * Fewer rounds than the command-line default, to keep {@code mvn test} quick.
+ */
+class FearIndexCheckTest {
+
+    /** A source within 3D range that is not the nearest one in the XZ plane (lost by one owner per column). */
+    @Test
+    void findsSourceHiddenBehindAnXzNearerOne() {
+        FearIndexCheck.Result result = FearIndexCheck.run(1L, 0, 0, 5);
+
+        assertEquals(1, result.nearestChecks);
+        assertEquals(0, result.diffs);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L})
+    void matchesScannerUnderRandomEdits(long seed) {
+        FearIndexCheck.Result result = FearIndexCheck.run(seed, 30, 150, 5);
+
+        assertTrue(result.nearestChecks > 4500, "run stopped early");
+        assertEquals(0, result.diffs, "differences from the block scanner (printed above)");
+    }
+}
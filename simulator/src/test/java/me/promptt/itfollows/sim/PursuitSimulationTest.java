@@ -0,0 +1,91 @@
+package me.promptt.itfollows.sim;
+
+import me.promptt.itfollows.ai.PursuitBrain;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the behavior of the decision core on a fixed-seed scenario: 6 sessions of 5 simulated
+ * minutes each, seed 6 (one with catches, fear orbits and Vex cycles in it).
+ *
+ * A change to pursuit, fear avoidance or Vex cycling shows up here. If the change is intended,
+ * take the new values from
+ * {@code java -jar simulator/target/simulator.jar --sessions 6 --ticks 6000 --seed 6}
+ * and say why they moved in the commit.
+ */
+class PursuitSimulationTest {
+
+    private static final int SESSIONS = 6;
+    private static final int TICKS = 6000;
+    private static final long SEED = 6L;
+    private static final int SIZE = 256;
+
+    private static final long DIGEST = 0x76fb02bfc81db4ffL;
+
+    /** The scenario, run once for the tests that only read it. */
+    private static SimSession[] sessions;
+
+    @BeforeAll
+    static void runOnce() {
+        sessions = runScenario();
+    }
+
+    @Test
+    void fixedSeedScenarioMatchesTheCommittedOutcome() {
+        assertEquals(14, sum(sessions, Counter.HITS), "hits");
+        assertEquals(35, sum(sessions, Counter.MORPHS_TO_VEX), "morphs to vex");
+        assertEquals(35, sum(sessions, Counter.MORPHS_TO_WALKER), "morphs to walker");
+        assertEquals(8, sum(sessions, Counter.RESPAWNS), "respawns");
+        assertEquals(3465, outcomes(sessions, PursuitBrain.Outcome.HOLDING_PERIMETER), "holding perimeter");
+        assertEquals(914, outcomes(sessions, PursuitBrain.Outcome.AVOIDING_FEAR), "avoiding fear");
+        assertEquals(2819, outcomes(sessions, PursuitBrain.Outcome.PURSUING), "pursuing");
+        long digest = PursuitSimulation.digest(sessions);
+        assertEquals(DIGEST, digest, () -> String.format("digest=%016x", digest));
+    }
+
+    @Test
+    void sameSeedGivesTheSameRun() {
+        assertEquals(PursuitSimulation.digest(sessions), PursuitSimulation.digest(runScenario()));
+    }
+
+    @Test
+    void scenarioExercisesEveryBehavior() {
+        assertTrue(sum(sessions, Counter.HITS) > 0, "no catches");
+        assertTrue(sum(sessions, Counter.MORPHS_TO_VEX) > 0, "no Vex cycles");
+        for (PursuitBrain.Outcome outcome : PursuitBrain.Outcome.values()) {
+            assertTrue(outcomes(sessions, outcome) > 0, "never " + outcome);
+        }
+    }
+
+    // --- Helpers ---
+
+    private enum Counter { HITS, MORPHS_TO_VEX, MORPHS_TO_WALKER, RESPAWNS }
+
+    private static SimSession[] runScenario() {
+        SimSession[] sessions = PursuitSimulation.createSessions(SESSIONS, SEED, SIZE, new SimConfig());
+        PursuitSimulation.run(sessions, TICKS);
+        return sessions;
+    }
+
+    private static long sum(SimSession[] sessions, Counter counter) {
+        long n = 0;
+        for (SimSession s : sessions) {
+            n += switch (counter) {
+                case HITS -> s.hits();
+                case MORPHS_TO_VEX -> s.morphsToVex();
+                case MORPHS_TO_WALKER -> s.morphsToWalker();
+                case RESPAWNS -> s.respawns();
+            };
+        }
+        return n;
+    }
+
+    private static long outcomes(SimSession[] sessions, PursuitBrain.Outcome outcome) {
+        long n = 0;
+        for (SimSession s : sessions) n += s.outcomeCount(outcome);
+        return n;
+    }
+}